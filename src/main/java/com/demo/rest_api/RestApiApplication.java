@@ -3,7 +3,7 @@
  * File: RestApiApplication.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 25 August 2025
+ * Last Modified Date: 18 October 2026
  *
  * Description:
  * This is the main entry point for the Spring Boot application.
@@ -15,8 +15,10 @@ package com.demo.rest_api;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RestApiApplication
 {
 	public static void main( String[] args )
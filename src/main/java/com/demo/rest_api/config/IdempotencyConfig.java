@@ -0,0 +1,35 @@
+/*
+ * ****************************************************************************
+ * File: IdempotencyConfig.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class registers the IdempotencyFilter after the Spring Security filter
+ * chain (so that the caller is known) for both regular and async dispatches
+ * (so that deferred responses are stored too).
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.config;
+
+import com.demo.rest_api.security.IdempotencyFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig
+{
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration( IdempotencyFilter idempotencyFilter )
+    {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>( idempotencyFilter );
+        registration.setDispatcherTypes( DispatcherType.REQUEST, DispatcherType.ASYNC );
+        registration.setOrder( SecurityProperties.DEFAULT_FILTER_ORDER + 1 );
+        return registration;
+    }
+}
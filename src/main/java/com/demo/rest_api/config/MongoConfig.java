@@ -0,0 +1,165 @@
+/*
+ * ****************************************************************************
+ * File: MongoConfig.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class registers the custom MongoDB conversions. Game sessions are
+ * written to the "game_session" collection as compact documents, while the
+ * GameSession class keeps its plain fields:
+ *
+ *   { _id, f: <flags>, g: <guess numbers>, a: <arrangement rank> }
+ *
+ * See GameStateCodec for the encodings. Fields that hold no state are left
+ * out. Game state that does not fit the compact form is written with the long
+ * field names instead, which are also read from documents written by earlier
+ * versions.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.config;
+
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.utils.Constants;
+import com.demo.rest_api.utils.GameStateCodec;
+import jakarta.annotation.Nonnull;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class MongoConfig
+{
+    @Bean
+    public MongoCustomConversions mongoCustomConversions()
+    {
+        return new MongoCustomConversions( List.of( new GameSessionWritingConverter(), new GameSessionReadingConverter() ) );
+    }
+
+    @WritingConverter
+    public static class GameSessionWritingConverter implements Converter<GameSession,Document>
+    {
+        @Override
+        public Document convert( @Nonnull GameSession session )
+        {
+            Document document = new Document();
+            String userId = session.getUserId();
+
+            // Stored as an ObjectId where possible, as the default mapping of a String ID does, so that queries by ID
+            // match.
+            document.put( "_id", ObjectId.isValid( userId ) ? new ObjectId( userId ) : userId );
+
+            int flags = 0;
+
+            if (session.getHasGuessNumberStarted())
+            {
+                flags |= GameStateCodec.FLAG_GUESS_NUMBER_STARTED;
+            }
+
+            if (session.getHasArrangeNumbersStarted())
+            {
+                flags |= GameStateCodec.FLAG_ARRANGE_NUMBERS_STARTED;
+            }
+
+            document.put( Constants.DATABASE_GAME_SESSION_FLAGS_KEY, flags );
+
+            int basic = session.getGuessNumberBasic();
+            int secret = session.getGuessNumberSecret();
+            int trap = session.getGuessNumberTrap();
+
+            if (!GameStateCodec.canPackGuessNumbers( basic, secret, trap ))
+            {
+                document.put( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY, basic );
+                document.put( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY, secret );
+                document.put( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY, trap );
+            }
+            else if (( basic | secret | trap ) != 0)
+            {
+                document.put( Constants.DATABASE_GAME_SESSION_GUESS_NUMBERS_KEY, GameStateCodec.packGuessNumbers( basic, secret, trap ) );
+            }
+
+            int[] arrangedNumbers = session.getArrangedNumbers();
+
+            if (GameStateCodec.isArrangement( arrangedNumbers ))
+            {
+                document.put( Constants.DATABASE_GAME_SESSION_ARRANGEMENT_KEY, GameStateCodec.rankArrangement( arrangedNumbers ) );
+            }
+            else if (arrangedNumbers != null)
+            {
+                List<Integer> numbers = new ArrayList<>( arrangedNumbers.length );
+
+                for (int number : arrangedNumbers)
+                {
+                    numbers.add( number );
+                }
+
+                document.put( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY, numbers );
+            }
+
+            return document;
+        }
+    }
+
+    @ReadingConverter
+    public static class GameSessionReadingConverter implements Converter<Document,GameSession>
+    {
+        @Override
+        public GameSession convert( @Nonnull Document document )
+        {
+            Object id = document.get( "_id" );
+            GameSession session = new GameSession( ( id instanceof ObjectId objectId ) ? objectId.toHexString() : String.valueOf( id ) );
+
+            Integer flags = document.getInteger( Constants.DATABASE_GAME_SESSION_FLAGS_KEY );
+
+            if (flags != null)
+            {
+                session.setHasGuessNumberStarted( ( flags & GameStateCodec.FLAG_GUESS_NUMBER_STARTED ) != 0 );
+                session.setHasArrangeNumbersStarted( ( flags & GameStateCodec.FLAG_ARRANGE_NUMBERS_STARTED ) != 0 );
+            }
+            else
+            {
+                session.setHasGuessNumberStarted( document.getBoolean( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY, false ) );
+                session.setHasArrangeNumbersStarted( document.getBoolean( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY, false ) );
+            }
+
+            Integer packed = document.getInteger( Constants.DATABASE_GAME_SESSION_GUESS_NUMBERS_KEY );
+
+            if (packed != null)
+            {
+                session.setGuessNumberBasic( GameStateCodec.unpackGuessNumberBasic( packed ) );
+                session.setGuessNumberSecret( GameStateCodec.unpackGuessNumberSecret( packed ) );
+                session.setGuessNumberTrap( GameStateCodec.unpackGuessNumberTrap( packed ) );
+            }
+            else
+            {
+                session.setGuessNumberBasic( document.getInteger( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY, 0 ) );
+                session.setGuessNumberSecret( document.getInteger( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY, 0 ) );
+                session.setGuessNumberTrap( document.getInteger( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY, 0 ) );
+            }
+
+            Integer rank = document.getInteger( Constants.DATABASE_GAME_SESSION_ARRANGEMENT_KEY );
+            List<Integer> numbers = document.getList( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY, Integer.class );
+
+            if (rank != null)
+            {
+                session.setArrangedNumbers( GameStateCodec.unrankArrangement( rank ) );
+            }
+            else if (numbers != null)
+            {
+                session.setArrangedNumbers( numbers.stream().mapToInt( Integer::intValue ).toArray() );
+            }
+
+            return session;
+        }
+    }
+}
@@ -3,26 +3,35 @@
  * File: SecurityConfig.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 24 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class configures application security with Spring Security by disabling
  * CSRF, enabling CORS with configurable allowed origins, and enforcing
- * stateless JWT-based authentication. Configurable public URLs are open to
- * everyone, while other requests require JWT authentication when login is
+ * stateless token-based authentication. Configurable public URLs are open to
+ * everyone, while other requests require token authentication when login is
  * needed. The JwtFilter is added to validate tokens before requests are
- * processed.
+ * processed. The session mode decides whether tokens are JWTs or opaque
+ * session tokens backed by an in-memory session table.
  * ****************************************************************************
  */
 
 package com.demo.rest_api.config;
 
+import com.demo.rest_api.security.JwtAuthenticator;
 import com.demo.rest_api.security.JwtFilter;
+import com.demo.rest_api.security.OpaqueSessionAuthenticator;
+import com.demo.rest_api.security.OpaqueSessionModeCondition;
+import com.demo.rest_api.security.SessionAuthenticator;
+import com.demo.rest_api.utils.Constants;
 import com.demo.rest_api.utils.StringHelper;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -56,6 +65,10 @@ public class SecurityConfig
             .authorizeHttpRequests(
                 auth -> auth.requestMatchers( StringHelper.splitStringToArray( publicUrls, "|" ) )
                 .permitAll()
+                // The result of a deferred request (e.g. a live match) is written in a second dispatch, after the
+                // request itself has already been authenticated and authorized.
+                .dispatcherTypeMatchers( DispatcherType.ASYNC )
+                .permitAll()
                 .anyRequest()
                 .authenticated()
             )
@@ -67,6 +80,32 @@ public class SecurityConfig
         return http.build();
     }
 
+    // Static, so that it can be created before this configuration class (which depends on the JwtFilter, which in
+    // turn depends on the selected SessionAuthenticator). The opaque implementation only exists in opaque session mode
+    // (see OpaqueSessionAuthenticator).
+    @Bean
+    @Primary
+    public static SessionAuthenticator sessionAuthenticator(
+        @Value( "${SESSION_MODE:" + Constants.SESSION_MODE_JWT + "}" ) String sessionMode,
+        ObjectProvider<JwtAuthenticator> jwtAuthenticator,
+        ObjectProvider<OpaqueSessionAuthenticator> opaqueSessionAuthenticator
+    )
+    {
+        if (OpaqueSessionModeCondition.isOpaqueSessionMode( sessionMode ))
+        {
+            return opaqueSessionAuthenticator.getObject();
+        }
+
+        if (!Constants.SESSION_MODE_JWT.equalsIgnoreCase( sessionMode.trim() ))
+        {
+            throw new IllegalArgumentException(
+                "Unknown SESSION_MODE '" + sessionMode + "'. Use '" + Constants.SESSION_MODE_JWT + "' or '" + Constants.SESSION_MODE_OPAQUE + "'."
+            );
+        }
+
+        return jwtAuthenticator.getObject();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource()
     {
@@ -3,7 +3,7 @@
  * File: AuthApiBaseController.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class implements the core logic for authentication-related API
@@ -15,10 +15,11 @@
 
 package com.demo.rest_api.controller;
 
+import com.demo.rest_api.dto.CannedErrorResponse;
 import com.demo.rest_api.dto.UserResponse;
 import com.demo.rest_api.model.User;
 import com.demo.rest_api.dto.ServerApiResponse;
-import com.demo.rest_api.security.JwtAuthenticator;
+import com.demo.rest_api.security.SessionAuthenticator;
 import com.demo.rest_api.service.UserService;
 import com.demo.rest_api.utils.Constants;
 import com.demo.rest_api.utils.StringHelper;
@@ -43,7 +44,7 @@ import java.util.Optional;
 public class AuthApiBaseController
 {
     @Autowired
-    private JwtAuthenticator jwtAuthenticator;
+    private SessionAuthenticator sessionAuthenticator;
 
     @Autowired
     private UserService userService;
@@ -161,24 +162,18 @@ public class AuthApiBaseController
 
         if (userOpt.isEmpty())
         {
-            return ServerApiResponse.generateResponseEntity(
-                    HttpStatus.NOT_FOUND,
-                    "Username not found. Please check and try again."
-                    );
+            return CannedErrorResponse.LOGIN_USERNAME_NOT_FOUND.getResponseEntity();
         }
 
         User user = userOpt.get();
 
         if (!userService.validatePassword( password, user.getPassword() ))
         {
-            return ServerApiResponse.generateResponseEntity(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid credentials. Please check and try again."
-                    );
+            return CannedErrorResponse.LOGIN_INVALID_CREDENTIALS.getResponseEntity();
         }
 
-        // Generate a JWT token using the user's username as the subject.
-        String token = jwtAuthenticator.generateToken( user.getUsername() );
+        // Generate a session token using the user's immutable ID as the subject.
+        String token = sessionAuthenticator.generateToken( user );
 
         Map<String,Object> data = new LinkedHashMap<>();
         data.put( "token", token );
@@ -197,7 +192,7 @@ public class AuthApiBaseController
     @Operation(
         operationId = "1_3",
         summary = "Log out of your current user account.",
-        description = "Log out from the user account that you are currently logged in to."
+        description = "Log out from the user account that you are currently logged in to. The current session token is revoked and can no longer be used to access protected API endpoints."
     )
     @ApiResponses( value =
         {
@@ -212,12 +207,15 @@ public class AuthApiBaseController
     {
         String authHeader = request.getHeader( Constants.AUTH_HEADER );
 
-        if (authHeader == null)
+        if (authHeader == null || !authHeader.startsWith( Constants.TOKEN_PREFIX ))
         {
-            return ServerApiResponse.generateResponseEntity(
-                    HttpStatus.UNAUTHORIZED,
-                    "You are not logged in."
-                    );
+            return CannedErrorResponse.LOGOUT_NOT_LOGGED_IN.getResponseEntity();
+        }
+
+        // Revoke the session token, so that it cannot be used again.
+        if (!sessionAuthenticator.revokeToken( authHeader.substring( Constants.TOKEN_PREFIX.length() ) ))
+        {
+            return CannedErrorResponse.LOGOUT_NOT_LOGGED_IN.getResponseEntity();
         }
 
         return ServerApiResponse.generateResponseEntity(
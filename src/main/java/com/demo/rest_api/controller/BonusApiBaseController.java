@@ -0,0 +1,184 @@
+/*
+ * ****************************************************************************
+ * File: BonusApiBaseController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the core logic for claiming bonus points, which can
+ * be claimed once every few hours. The cooldown is checked by the database as
+ * part of the claim (see UserService). It provides reusable methods that
+ * extending classes can expose as REST API endpoints. It integrates with
+ * Swagger UI using annotations to automatically generate API documentation.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.dto.CannedErrorResponse;
+import com.demo.rest_api.dto.LeaderboardUserResponse;
+import com.demo.rest_api.dto.ServerApiResponse;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.security.SessionPrincipal;
+import com.demo.rest_api.security.TrustedSession;
+import com.demo.rest_api.service.AuthenticationService;
+import com.demo.rest_api.service.GameEventLog;
+import com.demo.rest_api.service.LeaderboardService;
+import com.demo.rest_api.service.UserService;
+import com.demo.rest_api.utils.NumberHelper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+public class BonusApiBaseController
+{
+    private static final int BONUS_POINTS_COOLDOWN_HOURS = 3;
+    private static final Duration BONUS_POINTS_COOLDOWN = Duration.ofHours( BONUS_POINTS_COOLDOWN_HOURS );
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GameEventLog gameEventLog;
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_6",
+        summary = "Claim bonus points once every 3 hours.",
+        description = """
+        You can claim +1 bonus point every 3 hours. There is a 50% chance to receive +2 points instead!
+        
+        Once claimed, the bonus point(s) will be added to your current score.
+        
+        After claiming, you must wait for 3 hours before you are eligible to claim the next bonus points.
+        """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "425",
+            description = "Too Early — Bonus points already claimed",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    @TrustedSession // The claim is a single conditional update by user ID, so the user does not need to be loaded first.
+    public @interface ClaimBonusPointOperation {}
+
+    protected ResponseEntity<?> processClaimingBonusPoints()
+    {
+        ResponseEntity<?> authenticatedPrincipalOrError = authenticationService.getAuthenticatedPrincipalOrError();
+
+        if (!( authenticatedPrincipalOrError.getBody() instanceof SessionPrincipal principal ) || !ObjectId.isValid( principal.userId() ))
+        {
+            return authenticatedPrincipalOrError;
+        }
+
+        ObjectId userId = new ObjectId( principal.userId() );
+        Instant timeNow = Instant.now();
+        int bonusPoints = ( NumberHelper.isHit( 0.5 ) ) ? 2 : 1;
+
+        // The cooldown is checked by the database as part of the update, so concurrent claims cannot both succeed.
+        Optional<User> updatedUser = userService.claimBonusPoints( userId, bonusPoints, timeNow, BONUS_POINTS_COOLDOWN );
+
+        if (updatedUser.isEmpty())
+        {
+            Optional<Instant> lastClaimTime = userService.findLastBonusClaimTime( userId );
+
+            if (lastClaimTime.isEmpty())
+            {
+                return CannedErrorResponse.SESSION_USER_NOT_FOUND.getResponseEntity();
+            }
+
+            return ServerApiResponse.generateResponseEntity(
+                    HttpStatus.TOO_EARLY,
+                    "Bonus points already claimed. Please try again after " + formatTimeLeft( lastClaimTime.get(), timeNow ) + " to claim your next bonus points."
+                    );
+        }
+
+        User user = updatedUser.get();
+        gameEventLog.record( GameEvent.bonusClaim( userId, bonusPoints ) );
+
+        String result = ( bonusPoints == 2 )
+                        ? "Bonus points claimed! You received +2 points!"
+                        : "Bonus point claimed! You received +1 point.";
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                result + " Your current score is " + user.getScore() + ". Please come back after " + BONUS_POINTS_COOLDOWN_HOURS + " hours to claim your next bonus points.",
+                new LeaderboardUserResponse( leaderboardService.getUserRank( user ), user )
+                );
+    }
+
+    // Only used when a claim is rejected.
+    private static String formatTimeLeft( Instant lastClaimTime, Instant timeNow )
+    {
+        Duration remaining = BONUS_POINTS_COOLDOWN.minus( Duration.between( lastClaimTime, timeNow ) );
+
+        if (remaining.isNegative())
+        {
+            remaining = Duration.ZERO;
+        }
+
+        long hours = remaining.toHours();
+        long minutes = remaining.toMinutesPart();
+        long seconds = remaining.toSecondsPart();
+
+        if (hours > 0)
+        {
+            return String.format(
+                "%d hour%s, %d minute%s, and %d second%s",
+                hours, hours == 1 ? "" : "s",
+                minutes, minutes == 1 ? "" : "s",
+                seconds, seconds == 1 ? "" : "s"
+            );
+        }
+
+        if (minutes > 0)
+        {
+            return String.format(
+                "%d minute%s and %d second%s",
+                minutes, minutes == 1 ? "" : "s",
+                seconds, seconds == 1 ? "" : "s"
+            );
+        }
+
+        return String.format(
+            "%d second%s",
+            seconds, seconds == 1 ? "" : "s"
+        );
+    }
+}
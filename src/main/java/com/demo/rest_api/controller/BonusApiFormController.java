@@ -0,0 +1,40 @@
+/*
+ * ****************************************************************************
+ * File: BonusApiFormController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class provides REST API endpoints that use query and form parameters in
+ * API requests for claiming bonus points. It extends the
+ * BonusApiBaseController class to reuse core logic for API operations. The
+ * endpoints are listed with the other game APIs in Swagger UI.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping( "/api/game" + Constants.API_PATH_SUFFIX_FOR_FORM_URLENCODED )
+@Tag( name = Constants.GAME_API_FORM)
+@Validated
+public class BonusApiFormController extends BonusApiBaseController
+{
+    @PostMapping(
+        value = "/claimBonusPoints",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ClaimBonusPointOperation
+    public ResponseEntity<?> claimBonusPoints()
+    {
+        return super.processClaimingBonusPoints();
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * ****************************************************************************
+ * File: CompetitionApiBaseController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the core logic for the competition API operations:
+ * registering for and viewing the weekly Rock Paper Scissors tournament, and
+ * viewing the last season. The tournaments are played and the seasons rolled
+ * over by their services; this class validates the requests and describes
+ * the results. It provides reusable methods that extending classes can expose
+ * as REST API endpoints. It integrates with Swagger UI using annotations to
+ * automatically generate API documentation.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.dto.ServerApiResponse;
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.enums.SeasonStatus;
+import com.demo.rest_api.enums.TournamentStatus;
+import com.demo.rest_api.model.Season;
+import com.demo.rest_api.model.SeasonArchiveEntry;
+import com.demo.rest_api.model.Tournament;
+import com.demo.rest_api.model.TournamentEntry;
+import com.demo.rest_api.model.TournamentMatch;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.service.AuthenticationService;
+import com.demo.rest_api.service.SeasonService;
+import com.demo.rest_api.service.TournamentService;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class CompetitionApiBaseController
+{
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private SeasonService seasonService;
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_11",
+        summary = "Register for the weekly Rock Paper Scissors tournament.",
+        description = """
+            Registers you for the tournament that is open. When registration closes, all players are seeded by their position on the leaderboard and play a single-elimination bracket on the server. No points are staked.
+            
+            Each match is the first to 2 won games (draws are replayed, up to 9 games). Optionally, enter up to 100 choices in the `choices` field; they are played in order, and repeated, in each of your matches. If you leave it empty, a random choice is played in each game.
+            
+            Use the tournament endpoint to see how far you got.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Already registered",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface RegisterForTournamentOperation {}
+
+    protected ResponseEntity<?> processRegisteringForTournament( List<RockPaperScissors> choices )
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        List<RockPaperScissors> strategy = ( choices != null ) ? choices : List.of();
+
+        if (strategy.size() > Constants.MAX_MOVES_PER_BATCH || strategy.contains( null ))
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                "Please enter up to " + Constants.MAX_MOVES_PER_BATCH + " choices (Rock, Paper or Scissors) in the 'choices' field, or leave it empty."
+            );
+        }
+
+        TournamentService.Registration registration = tournamentService.register( user, strategy );
+
+        if (registration.status() == TournamentService.RegistrationStatus.AlreadyRegistered)
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.CONFLICT,
+                "You have already registered for this tournament."
+            );
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "tournamentId", registration.tournament().getId().toHexString() );
+        data.put( "choices", strategy );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                "You have registered for the tournament. You will be seeded by your position on the leaderboard when registration closes.",
+                data
+                );
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_12",
+        summary = "Get the weekly Rock Paper Scissors tournament.",
+        description = """
+            Shows the tournament that is open for registration, and the most recent tournament that has started, with the winner once it has finished and how far you got.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface GetTournamentOperation {}
+
+    protected ResponseEntity<?> processGettingTournament()
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        Tournament openTournament = tournamentService.getOpenTournament();
+
+        Map<String, Object> open = new LinkedHashMap<>();
+        open.put( "id", openTournament.getId().toHexString() );
+        open.put( "entrants", tournamentService.countEntries( openTournament.getId() ) );
+        open.put( "isRegistered", tournamentService.findEntry( openTournament.getId(), user.getId() ).isPresent() );
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "openTournament", open );
+        data.put( "latestTournament", tournamentService.findLatestStartedTournament().map( tournament -> describeTournament( tournament, user ) ).orElse( null ) );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                Constants.DEFAULT_SUCCESS_MESSAGE,
+                data
+                );
+    }
+
+    // Describes a tournament that has started, including how far the user got.
+    private Map<String, Object> describeTournament( Tournament tournament, User user )
+    {
+        Optional<TournamentEntry> entry = tournamentService.findEntry( tournament.getId(), user.getId() );
+        String yourResult;
+
+        if (entry.isEmpty())
+        {
+            yourResult = "You did not register for this tournament.";
+        }
+        else if (entry.get().getSeed() == null)
+        {
+            yourResult = ( tournament.getStatus() == TournamentStatus.Finished || tournament.getCompletedRounds() > 0 )
+                    ? "You registered too late to be seeded."
+                    : "The bracket is being drawn.";
+        }
+        else
+        {
+            Optional<TournamentMatch> lastMatch = tournamentService.findLastMatch( tournament.getId(), user.getId() );
+
+            if (lastMatch.isEmpty())
+            {
+                yourResult = "You are waiting for round 1.";
+            }
+            else if (!user.getId().equals( lastMatch.get().getWinnerId() ))
+            {
+                yourResult = "You were knocked out in round " + lastMatch.get().getRound() + ".";
+            }
+            else if (user.getId().equals( tournament.getWinnerId() ))
+            {
+                yourResult = "Congratulations! You won the tournament.";
+            }
+            else
+            {
+                yourResult = "You have won round " + lastMatch.get().getRound() + ".";
+            }
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put( "id", tournament.getId().toHexString() );
+        description.put( "status", tournament.getStatus() );
+        description.put( "startTime", tournament.getStartTime() );
+        description.put( "finishTime", tournament.getFinishTime() );
+        description.put( "entrants", tournament.getEntrantCount() );
+        description.put( "rounds", tournament.getRoundCount() );
+        description.put( "completedRounds", tournament.getCompletedRounds() );
+        description.put( "winner", tournament.getWinnerUsername() );
+        description.put( "yourSeed", entry.map( TournamentEntry::getSeed ).orElse( null ) );
+        description.put( "yourResult", yourResult );
+
+        return description;
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_13",
+        summary = "Get the last season.",
+        description = """
+            Shows the season that has ended most recently. When a season ends, the leaderboard is archived and every player's score, attempts and rounds are reset for the new season.
+
+            While the season is being rolled over, shows how many players have been processed so far. Once it has been archived, shows your final rank, score, attempts and rounds.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface GetSeasonOperation {}
+
+    protected ResponseEntity<?> processGettingSeason()
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        Optional<Season> latestSeason = seasonService.findLatestSeason();
+
+        if (latestSeason.isEmpty())
+        {
+            return ServerApiResponse.generateResponseEntity(
+                    HttpStatus.OK,
+                    "The first season has not ended yet."
+                    );
+        }
+
+        Season season = latestSeason.get();
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "season", season.getNumber() );
+        data.put( "status", season.getStatus() );
+        data.put( "startTime", season.getStartTime() );
+        data.put( "endTime", season.getRolloverTime() );
+        data.put( "archivedTime", season.getFinishTime() );
+
+        if (season.getStatus() == SeasonStatus.RollingOver)
+        {
+            data.put( "processedPlayers", season.getProcessedUserCount() );
+            data.put( "totalPlayers", Math.max( season.getTotalUserCount(), season.getProcessedUserCount() ) );
+        }
+        else
+        {
+            Optional<SeasonArchiveEntry> entry = seasonService.findArchiveEntry( season.getId(), user.getId() );
+
+            data.put( "players", season.getArchivedUserCount() );
+            data.put( "yourRank", entry.map( SeasonArchiveEntry::getRank ).orElse( null ) );
+            data.put( "yourScore", entry.map( SeasonArchiveEntry::getScore ).orElse( null ) );
+            data.put( "yourAttempts", entry.map( SeasonArchiveEntry::getAttempts ).orElse( null ) );
+            data.put( "yourRounds", entry.map( SeasonArchiveEntry::getRounds ).orElse( null ) );
+        }
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                Constants.DEFAULT_SUCCESS_MESSAGE,
+                data
+                );
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * ****************************************************************************
+ * File: CompetitionApiFormController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class provides REST API endpoints that use query and form parameters in
+ * API requests for the competition API operations (the tournament and the
+ * season). It extends the CompetitionApiBaseController class to reuse core
+ * logic for API operations. The endpoints are listed with the other game APIs
+ * in Swagger UI.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping( "/api/game" + Constants.API_PATH_SUFFIX_FOR_FORM_URLENCODED )
+@Tag( name = Constants.GAME_API_FORM)
+@Validated
+public class CompetitionApiFormController extends CompetitionApiBaseController
+{
+    @PostMapping(
+        value = "/tournament/register",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @RegisterForTournamentOperation
+    public ResponseEntity<?> registerForTournament(
+        @Parameter(
+            description = "Your choices for each match, played in order and repeated (leave empty for random choices)"
+        )
+        @RequestParam( required = false )
+        @Size( max = Constants.MAX_MOVES_PER_BATCH, message = "You can provide up to 100 choices" )
+        List<RockPaperScissors> choices
+    )
+    {
+        return super.processRegisteringForTournament( choices );
+    }
+
+    @GetMapping(
+        value = "/tournament",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @GetTournamentOperation
+    public ResponseEntity<?> getTournament()
+    {
+        return super.processGettingTournament();
+    }
+
+    @GetMapping(
+        value = "/season",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @GetSeasonOperation
+    public ResponseEntity<?> getSeason()
+    {
+        return super.processGettingSeason();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * ****************************************************************************
+ * File: CompetitionApiJsonController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class provides REST API endpoints that use query and JSON parameters in
+ * API requests for the competition API operations (the tournament and the
+ * season). It extends the CompetitionApiBaseController class to reuse core
+ * logic for API operations. The endpoints are listed with the other game APIs
+ * in Swagger UI.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.dto.RegisterForTournamentRequest;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping( "/api/game" )
+@Tag( name = Constants.GAME_API_JSON)
+@Validated
+public class CompetitionApiJsonController extends CompetitionApiBaseController
+{
+    @PostMapping(
+        value = "/tournament/register",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @RegisterForTournamentOperation
+    public ResponseEntity<?> registerForTournament( @RequestBody RegisterForTournamentRequest request )
+    {
+        return super.processRegisteringForTournament( request.getChoices() );
+    }
+
+    @GetMapping(
+        value = "/tournament",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @GetTournamentOperation
+    public ResponseEntity<?> getTournament()
+    {
+        return super.processGettingTournament();
+    }
+
+    @GetMapping(
+        value = "/season",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @GetSeasonOperation
+    public ResponseEntity<?> getSeason()
+    {
+        return super.processGettingSeason();
+    }
+}
@@ -3,7 +3,7 @@
  * File: GameApiFormController.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class provides REST API endpoints that use query and form parameters in
@@ -16,7 +16,6 @@
 
 package com.demo.rest_api.controller;
 
-import com.demo.rest_api.enums.RockPaperScissors;
 import com.demo.rest_api.utils.Constants;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -51,62 +50,39 @@ public class GameApiFormController extends GameApiBaseController
     }
 
     @PostMapping(
-        value = "/arrangeNumbers",
+        value = "/guessNumber/batch",
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    @ArrangeNumbersOperation
-    public ResponseEntity<?> arrangeNumbers(
+    @GuessNumberBatchOperation
+    public ResponseEntity<?> guessNumbers(
         @Parameter(
-            description = "Guess the sequence of the 5 numbers defined by the game for the current round",
+            description = "Guess up to 100 numbers, each from 1 to 100, played one after another",
             required = true
         )
-        @RequestParam( defaultValue = "1,2,3,4,5" )
-        @Size( min = 5, max = 5, message = "You must provide exactly 5 numbers" )
-        List<Integer> yourArrangedNumbers
+        @RequestParam( defaultValue = "50,25,75" )
+        @Size( min = 1, max = Constants.MAX_MOVES_PER_BATCH, message = "You must provide from 1 to 100 guesses" )
+        List<Integer> yourGuessedNumbers
     )
     {
-        return super.processArrangingNumbers( yourArrangedNumbers );
+        return super.processGuessingNumbers( yourGuessedNumbers );
     }
 
     @PostMapping(
-        value = "/rockPaperScissors/challenge",
-        produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    @PlayRockPaperScissorsOperation
-    public ResponseEntity<?> playRockPaperScissors(
-        @Parameter(
-            description = "The username of the opponent that you choose to challenge"
-        )
-        @RequestParam( required = false ) String opponentUsername,
-        @Parameter(
-            description = "Select your choice",
-            required = true
-        )
-        @RequestParam( defaultValue = "Rock" ) RockPaperScissors yourChoice,
-        @Parameter(
-            description = "The number of points that you want to stake",
-            required = true
-        )
-        @RequestParam( defaultValue = "1" ) int pointsToStake
-    )
-    {
-        return super.processPlayingRockPaperScissors( opponentUsername, yourChoice, pointsToStake );
-    }
-
-    @PostMapping(
-        value = "/rockPaperScissors/practise",
+        value = "/arrangeNumbers",
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    @PractiseRockPaperScissorsOperation
-    public ResponseEntity<?> practiseRockPaperScissors(
+    @ArrangeNumbersOperation
+    public ResponseEntity<?> arrangeNumbers(
         @Parameter(
-            description = "Select your choice",
+            description = "Guess the sequence of the 5 numbers defined by the game for the current round",
             required = true
         )
-        @RequestParam( defaultValue = "Rock" ) RockPaperScissors yourChoice
+        @RequestParam( defaultValue = "1,2,3,4,5" )
+        @Size( min = 5, max = 5, message = "You must provide exactly 5 numbers" )
+        List<Integer> yourArrangedNumbers
     )
     {
-        return super.processPractisingRockPaperScissors( yourChoice );
+        return super.processArrangingNumbers( yourArrangedNumbers );
     }
 
     @GetMapping(
@@ -121,14 +97,4 @@ public class GameApiFormController extends GameApiBaseController
     {
         return super.processGettingLeaderboard( page, limit );
     }
-
-    @PostMapping(
-        value = "/claimBonusPoints",
-        produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    @ClaimBonusPointOperation
-    public ResponseEntity<?> claimBonusPoints()
-    {
-        return super.processClaimingBonusPoints();
-    }
 }
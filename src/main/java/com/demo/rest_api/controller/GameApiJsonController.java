@@ -3,7 +3,7 @@
  * File: GameApiJsonController.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class provides REST API endpoints that use query and JSON parameters in
@@ -17,9 +17,8 @@
 package com.demo.rest_api.controller;
 
 import com.demo.rest_api.dto.ArrangeNumbersRequest;
+import com.demo.rest_api.dto.GuessNumberBatchRequest;
 import com.demo.rest_api.dto.GuessNumberRequest;
-import com.demo.rest_api.dto.PlayRockPaperScissorsRequest;
-import com.demo.rest_api.dto.PractiseRockPaperScissorsRequest;
 import com.demo.rest_api.utils.Constants;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.MediaType;
@@ -45,36 +44,25 @@ public class GameApiJsonController extends GameApiBaseController
     }
 
     @PostMapping(
-        value = "/arrangeNumbers",
-        consumes = MediaType.APPLICATION_JSON_VALUE,
-        produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    @ArrangeNumbersOperation
-    public ResponseEntity<?> arrangeNumbers( @RequestBody ArrangeNumbersRequest request )
-    {
-        return super.processArrangingNumbers( request.getYourArrangedNumbers() );
-    }
-
-    @PostMapping(
-        value = "/rockPaperScissors/challenge",
+        value = "/guessNumber/batch",
         consumes = MediaType.APPLICATION_JSON_VALUE,
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    @PlayRockPaperScissorsOperation
-    public ResponseEntity<?> playRockPaperScissors( @RequestBody PlayRockPaperScissorsRequest request )
+    @GuessNumberBatchOperation
+    public ResponseEntity<?> guessNumbers( @RequestBody GuessNumberBatchRequest request )
     {
-        return super.processPlayingRockPaperScissors( request.getOpponentUsername(), request.getYourChoice(), request.getPointsToStake() );
+        return super.processGuessingNumbers( request.getYourGuessedNumbers() );
     }
 
     @PostMapping(
-        value = "/rockPaperScissors/practise",
+        value = "/arrangeNumbers",
         consumes = MediaType.APPLICATION_JSON_VALUE,
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    @PractiseRockPaperScissorsOperation
-    public ResponseEntity<?> practiseRockPaperScissors( @RequestBody PractiseRockPaperScissorsRequest request )
+    @ArrangeNumbersOperation
+    public ResponseEntity<?> arrangeNumbers( @RequestBody ArrangeNumbersRequest request )
     {
-        return super.processPractisingRockPaperScissors( request.getYourChoice() );
+        return super.processArrangingNumbers( request.getYourArrangedNumbers() );
     }
 
     @GetMapping(
@@ -89,14 +77,4 @@ public class GameApiJsonController extends GameApiBaseController
     {
         return super.processGettingLeaderboard( page, limit );
     }
-
-    @PostMapping(
-        value = "/claimBonusPoints",
-        produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    @ClaimBonusPointOperation
-    public ResponseEntity<?> claimBonusPoints()
-    {
-        return super.processClaimingBonusPoints();
-    }
 }
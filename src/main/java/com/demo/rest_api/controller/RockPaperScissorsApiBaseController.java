@@ -0,0 +1,691 @@
+/*
+ * ****************************************************************************
+ * File: RockPaperScissorsApiBaseController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the core logic for the Rock Paper Scissors API
+ * operations: challenges and matches against another user, the live queue and
+ * practice throws. The rounds are played and the staked points transferred by
+ * the GameMoveService; this class validates the requests and describes the
+ * results. It provides reusable methods that extending classes can expose as
+ * REST API endpoints. It integrates with Swagger UI using annotations to
+ * automatically generate API documentation.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.dto.*;
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.game.RockPaperScissorsEngine;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.security.SessionPrincipal;
+import com.demo.rest_api.security.TrustedSession;
+import com.demo.rest_api.service.AuthenticationService;
+import com.demo.rest_api.service.GameMoveService;
+import com.demo.rest_api.service.LeaderboardService;
+import com.demo.rest_api.service.PointTransferService;
+import com.demo.rest_api.service.RockPaperScissorsQueueService;
+import com.demo.rest_api.service.UserService;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.*;
+
+public class RockPaperScissorsApiBaseController
+{
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RockPaperScissorsQueueService rockPaperScissorsQueueService;
+
+    @Autowired
+    private GameMoveService gameMoveService;
+
+    @Autowired
+    private RockPaperScissorsEngine rockPaperScissorsEngine;
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_5",
+        summary = "Play the Rock Paper Scissors game with another user. Use this endpoint to start a new round or continue the current round to play the game.",
+        description = """
+            **Important:** You must have at least 1 point to play this game. If you do not have enough points, you can play other games to earn points or claim bonus points if you have not claimed them yet.
+            
+            1. The `opponentUsername` field is **optional**. You may choose a specific opponent by entering the opponent's username in the `opponentUsername` field or let the system find a random opponent with enough points (see **step 4**) by leaving the `opponentUsername` field empty.
+            
+            2. Select your choice — Rock, Paper or Scissors — from the drop-down list in the `yourChoice` field.
+            > Rock beats Scissors.
+            > Scissors beats Paper.
+            > Paper beats Rock.
+            
+            3. Enter how many points that you want to stake in the `pointsToStake` field. If you win, you will receive the staked points from the opponent. If you lose, you will transfer the staked points to the opponent.
+            
+            4. If you leave the `opponentUsername` field empty, the system will automatically select a random opponent whose score is greater than or equal to the number of points that you entered in the `pointsToStake` field.
+            
+            5. Press the **Execute** button and see the result of the game.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface PlayRockPaperScissorsOperation {}
+
+    public ResponseEntity<?> processPlayingRockPaperScissors( String opponentUsername, RockPaperScissors yourChoice, int pointsToStake )
+    {
+        return authenticationService.runAsUserMutation( () -> applyPlayingRockPaperScissors( opponentUsername, yourChoice, pointsToStake ) );
+    }
+
+    private ResponseEntity<?> applyPlayingRockPaperScissors( String opponentUsername, RockPaperScissors yourChoice, int pointsToStake )
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        ResponseEntity<?> opponentUserOrError = findOpponentUserOrError( user, opponentUsername, pointsToStake );
+
+        if (!( opponentUserOrError.getBody() instanceof User opponentUser ))
+        {
+            return opponentUserOrError;
+        }
+
+        GameMoveService.ContestResult challenge = gameMoveService.playContest( rockPaperScissorsEngine, user, opponentUser, List.of( yourChoice ), null, pointsToStake );
+
+        if (challenge.status() != PointTransferService.Status.Completed)
+        {
+            return describeChallengeError( challenge );
+        }
+
+        user = challenge.user();
+        opponentUser = challenge.opponentUser();
+
+        RockPaperScissorsEngine.Match match = (RockPaperScissorsEngine.Match) challenge.outcome();
+        RockPaperScissors opponentChoice = match.opponentChoices().get( 0 );
+        int outcome = match.getOutcome();
+
+        MessageCode code = ( outcome == 0 )
+                           ? MessageCode.RockPaperScissorsDraw
+                           : ( ( outcome > 0 ) ? MessageCode.RockPaperScissorsWon : MessageCode.RockPaperScissorsLost );
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "user", new LeaderboardUserResponse( leaderboardService.getUserRank( user ), user ) );
+        data.put( "opponent", new LeaderboardUserResponse( leaderboardService.getUserRank( opponentUser ), opponentUser ) );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                describeRockPaperScissorsRound( code, user.getRockPaperScissorsCurrentRound(), yourChoice, opponentUser.getUsername(), opponentChoice, outcome, pointsToStake )
+                    .with( "score", user.getScore() ),
+                data
+                );
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_8",
+        summary = "Play a best-of-N Rock Paper Scissors match against another user in one request.",
+        description = """
+            Enter your choices for up to 100 rounds in the `yourChoices` field. The rounds are played one after another against the same opponent, with the same rules as the single-round endpoint, until one player has won more than half of the rounds. Draws count as played rounds.
+            
+            The winner of the match receives the staked points from the loser once. If neither player wins more rounds than the other, both players keep their points. Your score is saved and your rank is calculated once, at the end of the match.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface PlayRockPaperScissorsBatchOperation {}
+
+    protected ResponseEntity<?> processPlayingRockPaperScissorsMatch( String opponentUsername, List<RockPaperScissors> yourChoices, int pointsToStake )
+    {
+        return authenticationService.runAsUserMutation( () -> applyPlayingRockPaperScissorsMatch( opponentUsername, yourChoices, pointsToStake ) );
+    }
+
+    private ResponseEntity<?> applyPlayingRockPaperScissorsMatch( String opponentUsername, List<RockPaperScissors> yourChoices, int pointsToStake )
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        if (yourChoices == null || yourChoices.isEmpty() || yourChoices.size() > Constants.MAX_MOVES_PER_BATCH || yourChoices.contains( null ))
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                "Please enter from 1 to " + Constants.MAX_MOVES_PER_BATCH + " choices (Rock, Paper or Scissors) in the 'yourChoices' field."
+            );
+        }
+
+        ResponseEntity<?> opponentUserOrError = findOpponentUserOrError( user, opponentUsername, pointsToStake );
+
+        if (!( opponentUserOrError.getBody() instanceof User opponentUser ))
+        {
+            return opponentUserOrError;
+        }
+
+        // All the rounds are played in memory; the outcome of the match is written once, at the end.
+        GameMoveService.ContestResult challenge = gameMoveService.playContest( rockPaperScissorsEngine, user, opponentUser, yourChoices, null, pointsToStake );
+
+        if (challenge.status() != PointTransferService.Status.Completed)
+        {
+            return describeChallengeError( challenge );
+        }
+
+        user = challenge.user();
+        opponentUser = challenge.opponentUser();
+        opponentUsername = opponentUser.getUsername();
+
+        RockPaperScissorsEngine.Match match = (RockPaperScissorsEngine.Match) challenge.outcome();
+        int outcome = match.getOutcome();
+
+        // Number the rounds now that the final round counter is known. The points are only transferred for the match.
+        int firstRound = user.getRockPaperScissorsCurrentRound() - match.getRoundCount() + 1;
+        List<GameMessage> rounds = new ArrayList<>( match.getRoundCount() );
+
+        for (int i = 0; i < match.getRoundCount(); i++)
+        {
+            RockPaperScissors yourChoice = match.yourChoices().get( i );
+            RockPaperScissors opponentChoice = match.opponentChoices().get( i );
+            int roundOutcome = RockPaperScissorsEngine.judge( yourChoice, opponentChoice );
+
+            MessageCode roundCode = ( roundOutcome == 0 )
+                                    ? MessageCode.RockPaperScissorsMatchRoundDraw
+                                    : ( ( roundOutcome > 0 ) ? MessageCode.RockPaperScissorsMatchRoundWon : MessageCode.RockPaperScissorsMatchRoundLost );
+
+            rounds.add( describeRockPaperScissorsRound( roundCode, firstRound + i, yourChoice, opponentUsername, opponentChoice, roundOutcome, 0 ) );
+        }
+
+        MessageCode code = ( outcome == 0 )
+                           ? MessageCode.RockPaperScissorsMatchDraw
+                           : ( ( outcome > 0 ) ? MessageCode.RockPaperScissorsMatchWon : MessageCode.RockPaperScissorsMatchLost );
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "rounds", rounds );
+        data.put( "user", new LeaderboardUserResponse( leaderboardService.getUserRank( user ), user ) );
+        data.put( "opponent", new LeaderboardUserResponse( leaderboardService.getUserRank( opponentUser ), opponentUser ) );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                GameMessage.of( code )
+                    .with( "outcome", RockPaperScissorsEngine.describeResult( outcome ) )
+                    .with( "pointsDelta", outcome * pointsToStake )
+                    .with( "bestOf", yourChoices.size() )
+                    .with( "wins", match.wins() )
+                    .with( "losses", match.losses() )
+                    .with( "roundCount", rounds.size() )
+                    .with( "opponent", opponentUsername )
+                    .with( "stake", pointsToStake )
+                    .with( "score", user.getScore() ),
+                data
+                );
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_9",
+        summary = "Join the queue to play a live Rock Paper Scissors round against another player.",
+        description = """
+            **Important:** You must have at least 1 point to play this game.
+            
+            1. Select your choice — Rock, Paper or Scissors — from the drop-down list in the `yourChoice` field.
+            
+            2. Enter how many points that you want to stake in the `pointsToStake` field. You are paired with the next player who joins the queue with a stake in the same range as yours (1, 2–3, 4–7, 8–15, and so on). The round is played for the smaller of the two stakes.
+            
+            3. Press the **Execute** button. The response is returned as soon as you have been paired and the round has been played against the other player's choice, or when no other player has joined in time. You can leave the queue while you are waiting with the `DELETE` endpoint.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "No opponent joined in time",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Already waiting in the queue",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface JoinRockPaperScissorsQueueOperation {}
+
+    protected DeferredResult<ResponseEntity<?>> processJoiningRockPaperScissorsQueue( RockPaperScissors yourChoice, int pointsToStake )
+    {
+        DeferredResult<ResponseEntity<?>> result = rockPaperScissorsQueueService.newResult();
+
+        // Only the joining is done under the caller's lock. A waiting caller's request is answered by the request of
+        // the player who pairs with it.
+        ResponseEntity<?> response = authenticationService.runAsUserMutation( () -> applyJoiningRockPaperScissorsQueue( yourChoice, pointsToStake, result ) );
+
+        if (response != null)
+        {
+            result.setResult( response );
+        }
+
+        return result;
+    }
+
+    // Returns the response to the caller, or null if the caller is now waiting in the queue.
+    private ResponseEntity<?> applyJoiningRockPaperScissorsQueue( RockPaperScissors yourChoice, int pointsToStake, DeferredResult<ResponseEntity<?>> result )
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        if (yourChoice == null)
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                "Please select your choice (Rock, Paper or Scissors) in the 'yourChoice' field."
+            );
+        }
+
+        if (pointsToStake < 1)
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                "The value of the 'pointsToStake' field must be at least 1."
+            );
+        }
+
+        if (pointsToStake > user.getScore())
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "You cannot stake more points than you currently have (Max: " + user.getScore() + ")."
+            );
+        }
+
+        RockPaperScissorsQueueService.Player player = new RockPaperScissorsQueueService.Player( user.getId(), user.getUsername(), yourChoice, pointsToStake, result );
+        RockPaperScissorsQueueService.JoinResult joinResult = rockPaperScissorsQueueService.join( player );
+
+        if (joinResult.status() == RockPaperScissorsQueueService.JoinStatus.AlreadyWaiting)
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.CONFLICT,
+                "You are already waiting in the queue. Please wait for your current round, or leave the queue first."
+            );
+        }
+
+        if (joinResult.status() == RockPaperScissorsQueueService.JoinStatus.Waiting)
+        {
+            return null;
+        }
+
+        RockPaperScissorsQueueService.Player opponent = joinResult.opponent();
+
+        try
+        {
+            return playLiveRound( user, player, opponent );
+        }
+        catch ( RuntimeException e )
+        {
+            opponent.getResult().setErrorResult( e );
+            throw e;
+        }
+    }
+
+    // Plays a round between the caller and the player that the caller has been paired with, and answers the request of
+    // that player. Returns the response to the caller.
+    private ResponseEntity<?> playLiveRound( User user, RockPaperScissorsQueueService.Player player, RockPaperScissorsQueueService.Player opponent )
+    {
+        Optional<User> optionalOpponentUser = userService.findById( opponent.getUserId().toHexString() );
+
+        if (optionalOpponentUser.isEmpty())
+        {
+            opponent.getResult().setResult( ServerApiResponse.generateResponseEntity(
+                HttpStatus.NOT_FOUND,
+                "Your user was not found. No points were transferred."
+            ) );
+
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.NOT_FOUND,
+                "Your opponent's user was not found. No points were transferred. Please join the queue again."
+            );
+        }
+
+        int pointsToStake = Math.min( player.getPointsToStake(), opponent.getPointsToStake() );
+        RockPaperScissors yourChoice = player.getChoice();
+        RockPaperScissors opponentChoice = opponent.getChoice();
+
+        GameMoveService.ContestResult challenge = gameMoveService.playContest(
+            rockPaperScissorsEngine, user, optionalOpponentUser.get(), List.of( yourChoice ), List.of( opponentChoice ), pointsToStake
+        );
+
+        if (challenge.status() != PointTransferService.Status.Completed)
+        {
+            ResponseEntity<?> error = describeChallengeError( challenge );
+
+            opponent.getResult().setResult( ServerApiResponse.generateResponseEntity(
+                HttpStatus.valueOf( error.getStatusCode().value() ),
+                "Your round against '" + player.getUsername() + "' could not be settled, because one of you no longer has enough points or was not found. No points were transferred. Please join the queue again."
+            ) );
+
+            return error;
+        }
+
+        int outcome = challenge.outcome().getOutcome();
+        opponent.getResult().setResult( describeLiveRound( challenge.opponentUser(), opponentChoice, challenge.user(), yourChoice, -outcome, pointsToStake ) );
+
+        return describeLiveRound( challenge.user(), yourChoice, challenge.opponentUser(), opponentChoice, outcome, pointsToStake );
+    }
+
+    // Builds the response of a live round from the point of view of one of the two players.
+    private ResponseEntity<?> describeLiveRound( User user, RockPaperScissors yourChoice, User opponentUser, RockPaperScissors opponentChoice, int outcome, int pointsToStake )
+    {
+        MessageCode code = ( outcome == 0 )
+                           ? MessageCode.LiveRockPaperScissorsDraw
+                           : ( ( outcome > 0 ) ? MessageCode.LiveRockPaperScissorsWon : MessageCode.LiveRockPaperScissorsLost );
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put( "user", new LeaderboardUserResponse( leaderboardService.getUserRank( user ), user ) );
+        data.put( "opponent", new LeaderboardUserResponse( leaderboardService.getUserRank( opponentUser ), opponentUser ) );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                describeRockPaperScissorsRound( code, user.getRockPaperScissorsCurrentRound(), yourChoice, opponentUser.getUsername(), opponentChoice, outcome, pointsToStake )
+                    .with( "score", user.getScore() ),
+                data
+                );
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_10",
+        summary = "Leave the live Rock Paper Scissors queue.",
+        description = """
+            Leaves the queue if you are still waiting for another player. Your pending request to join the queue is answered straight away, and no round is played.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Not waiting in the queue",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    public @interface LeaveRockPaperScissorsQueueOperation {}
+
+    protected ResponseEntity<?> processLeavingRockPaperScissorsQueue()
+    {
+        ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
+
+        if (!( authenticatedUserOrError.getBody() instanceof User user ))
+        {
+            return authenticatedUserOrError;
+        }
+
+        if (!rockPaperScissorsQueueService.leave( user.getId() ))
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.NOT_FOUND,
+                "You are not waiting in the queue. If you have just been paired, your round has already been played."
+            );
+        }
+
+        return ServerApiResponse.generateResponseEntity(
+            HttpStatus.OK,
+            "You have left the queue."
+        );
+    }
+
+    @Target( ElementType.METHOD )
+    @Retention( RetentionPolicy.RUNTIME )
+    @SecurityRequirement( name = "bearerAuth" )
+    @Operation(
+        operationId = "3_4",
+        summary = "Practise the Rock Paper Scissors game for fun.",
+        description = """
+            Practise the Rock Paper Scissors game for fun. No points to earn. The number of attempts will not increase with each play.
+            
+            Select your choice — Rock, Paper or Scissors — from the drop-down list in the `yourChoice` field. Rock beats Scissors. Scissors beats Paper. Paper beats Rock.
+            
+            Then, press the **Execute** button and see the result of the game.
+            """
+    )
+    @ApiResponses( value =
+    {
+        @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized — invalid or missing token",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content( mediaType = "" )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden",
+            content = @Content( mediaType = "" )
+        )
+    } )
+    @TrustedSession // No points or attempts are recorded, so the user does not need to be loaded.
+    public @interface PractiseRockPaperScissorsOperation {}
+
+    protected ResponseEntity<?> processPractisingRockPaperScissors( RockPaperScissors yourChoice )
+    {
+        ResponseEntity<?> authenticatedPrincipalOrError = authenticationService.getAuthenticatedPrincipalOrError();
+
+        if (!( authenticatedPrincipalOrError.getBody() instanceof SessionPrincipal ))
+        {
+            return authenticatedPrincipalOrError;
+        }
+
+        RockPaperScissorsEngine.Outcome outcome = gameMoveService.practiseRockPaperScissors( yourChoice );
+
+        return ServerApiResponse.generateResponseEntity(
+                HttpStatus.OK,
+                outcome.describe( 0, false ),
+                null
+                );
+    }
+
+    // Describes one round of Rock Paper Scissors from the point of view of one player.
+    private static GameMessage describeRockPaperScissorsRound(
+        MessageCode code, int round, RockPaperScissors yourChoice, String opponentUsername, RockPaperScissors opponentChoice, int outcome, int pointsToStake
+    )
+    {
+        return GameMessage.of( code )
+                .with( "round", round )
+                .with( "outcome", RockPaperScissorsEngine.describeResult( outcome ) )
+                .with( "pointsDelta", outcome * pointsToStake )
+                .with( "choice", yourChoice )
+                .with( "opponent", opponentUsername )
+                .with( "opponentChoice", opponentChoice )
+                .with( "stake", pointsToStake );
+    }
+
+    // Validates the stake and finds the opponent of a Rock Paper Scissors challenge: the given user, or a random user
+    // who can cover the stake. Returns the opponent as the body of the response, or an error response.
+    private ResponseEntity<?> findOpponentUserOrError( User user, String opponentUsername, int pointsToStake )
+    {
+        if (pointsToStake < 1)
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                "The value of the 'pointsToStake' field must be at least 1."
+            );
+        }
+
+        if (pointsToStake > user.getScore())
+        {
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "You cannot stake more points than you currently have (Max: " + user.getScore() + ")."
+            );
+        }
+
+        Optional<User> optionalOpponentUser;
+
+        if (opponentUsername == null || opponentUsername.isBlank())
+        {
+            optionalOpponentUser = userService.findRandomUserWithMinimumScore( pointsToStake, user );
+
+            if (optionalOpponentUser.isEmpty())
+            {
+                return ServerApiResponse.generateResponseEntity(
+                        HttpStatus.NOT_FOUND,
+                        "Opponent user not found. Try to lower down the value in the 'pointsToStake' field."
+                );
+            }
+        }
+        else
+        {
+            if (user.getUsername().equalsIgnoreCase( opponentUsername ))
+            {
+                return ServerApiResponse.generateResponseEntity(
+                    HttpStatus.CONFLICT,
+                    "You cannot choose yourself as your opponent. Please enter a different username in the 'opponentUsername' field."
+                );
+            }
+
+            optionalOpponentUser = userService.findByUsername( opponentUsername );
+
+            if (optionalOpponentUser.isEmpty())
+            {
+                return ServerApiResponse.generateResponseEntity(
+                        HttpStatus.NOT_FOUND,
+                        "Opponent user not found. Please make sure that you enter the correct username in the 'opponentUsername' field."
+                        );
+            }
+        }
+
+        User opponentUser = optionalOpponentUser.get();
+
+        if (pointsToStake > opponentUser.getScore())
+        {
+            return ServerApiResponse.generateResponseEntity(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "You cannot stake more points than your opponent currently have (Max: " + opponentUser.getScore() + ")."
+                    );
+        }
+
+        return ResponseEntity.ok( opponentUser );
+    }
+
+    // Describes why no points were transferred for a challenge.
+    private static ResponseEntity<?> describeChallengeError( GameMoveService.ContestResult challenge )
+    {
+        if (challenge.status() == PointTransferService.Status.InsufficientPoints)
+        {
+            // The scores checked before the challenge have changed in the meantime (e.g. another challenge has
+            // completed first).
+            return ServerApiResponse.generateResponseEntity(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ( challenge.outcome().getOutcome() > 0 )
+                    ? "Your opponent no longer has enough points to cover the stake. No points were transferred. Please try again."
+                    : "You no longer have enough points to cover the stake. No points were transferred. Please try again."
+            );
+        }
+
+        return ServerApiResponse.generateResponseEntity(
+            HttpStatus.NOT_FOUND,
+            "Your user or your opponent's user was not found. No points were transferred."
+        );
+    }
+}
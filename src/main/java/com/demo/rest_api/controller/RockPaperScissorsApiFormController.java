@@ -0,0 +1,136 @@
+/*
+ * ****************************************************************************
+ * File: RockPaperScissorsApiFormController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class provides REST API endpoints that use query and form parameters in
+ * API requests for the Rock Paper Scissors API operations. It extends the
+ * RockPaperScissorsApiBaseController class to reuse core logic for API
+ * operations. The endpoints are listed with the other game APIs in Swagger
+ * UI.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+
+@RestController
+@RequestMapping( "/api/game" + Constants.API_PATH_SUFFIX_FOR_FORM_URLENCODED )
+@Tag( name = Constants.GAME_API_FORM)
+@Validated
+public class RockPaperScissorsApiFormController extends RockPaperScissorsApiBaseController
+{
+    @PostMapping(
+        value = "/rockPaperScissors/challenge",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PlayRockPaperScissorsOperation
+    public ResponseEntity<?> playRockPaperScissors(
+        @Parameter(
+            description = "The username of the opponent that you choose to challenge"
+        )
+        @RequestParam( required = false ) String opponentUsername,
+        @Parameter(
+            description = "Select your choice",
+            required = true
+        )
+        @RequestParam( defaultValue = "Rock" ) RockPaperScissors yourChoice,
+        @Parameter(
+            description = "The number of points that you want to stake",
+            required = true
+        )
+        @RequestParam( defaultValue = "1" ) int pointsToStake
+    )
+    {
+        return super.processPlayingRockPaperScissors( opponentUsername, yourChoice, pointsToStake );
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/challenge/batch",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PlayRockPaperScissorsBatchOperation
+    public ResponseEntity<?> playRockPaperScissorsMatch(
+        @Parameter(
+            description = "The username of the opponent that you choose to challenge"
+        )
+        @RequestParam( required = false ) String opponentUsername,
+        @Parameter(
+            description = "Your choices for up to 100 rounds, played one after another",
+            required = true
+        )
+        @RequestParam( defaultValue = "Rock,Paper,Scissors" )
+        @Size( min = 1, max = Constants.MAX_MOVES_PER_BATCH, message = "You must provide from 1 to 100 choices" )
+        List<RockPaperScissors> yourChoices,
+        @Parameter(
+            description = "The number of points that the winner of the match receives from the loser",
+            required = true
+        )
+        @RequestParam( defaultValue = "1" ) int pointsToStake
+    )
+    {
+        return super.processPlayingRockPaperScissorsMatch( opponentUsername, yourChoices, pointsToStake );
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/queue",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @JoinRockPaperScissorsQueueOperation
+    public DeferredResult<ResponseEntity<?>> joinRockPaperScissorsQueue(
+        @Parameter(
+            description = "Select your choice",
+            required = true
+        )
+        @RequestParam( defaultValue = "Rock" ) RockPaperScissors yourChoice,
+        @Parameter(
+            description = "The number of points that you want to stake",
+            required = true
+        )
+        @RequestParam( defaultValue = "1" ) int pointsToStake
+    )
+    {
+        return super.processJoiningRockPaperScissorsQueue( yourChoice, pointsToStake );
+    }
+
+    @DeleteMapping(
+        value = "/rockPaperScissors/queue",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @LeaveRockPaperScissorsQueueOperation
+    public ResponseEntity<?> leaveRockPaperScissorsQueue()
+    {
+        return super.processLeavingRockPaperScissorsQueue();
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/practise",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PractiseRockPaperScissorsOperation
+    public ResponseEntity<?> practiseRockPaperScissors(
+        @Parameter(
+            description = "Select your choice",
+            required = true
+        )
+        @RequestParam( defaultValue = "Rock" ) RockPaperScissors yourChoice
+    )
+    {
+        return super.processPractisingRockPaperScissors( yourChoice );
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ****************************************************************************
+ * File: RockPaperScissorsApiJsonController.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class provides REST API endpoints that use query and JSON parameters in
+ * API requests for the Rock Paper Scissors API operations. It extends the
+ * RockPaperScissorsApiBaseController class to reuse core logic for API
+ * operations. The endpoints are listed with the other game APIs in Swagger
+ * UI.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.controller;
+
+import com.demo.rest_api.dto.JoinRockPaperScissorsQueueRequest;
+import com.demo.rest_api.dto.PlayRockPaperScissorsBatchRequest;
+import com.demo.rest_api.dto.PlayRockPaperScissorsRequest;
+import com.demo.rest_api.dto.PractiseRockPaperScissorsRequest;
+import com.demo.rest_api.utils.Constants;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping( "/api/game" )
+@Tag( name = Constants.GAME_API_JSON)
+@Validated
+public class RockPaperScissorsApiJsonController extends RockPaperScissorsApiBaseController
+{
+    @PostMapping(
+        value = "/rockPaperScissors/challenge",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PlayRockPaperScissorsOperation
+    public ResponseEntity<?> playRockPaperScissors( @RequestBody PlayRockPaperScissorsRequest request )
+    {
+        return super.processPlayingRockPaperScissors( request.getOpponentUsername(), request.getYourChoice(), request.getPointsToStake() );
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/challenge/batch",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PlayRockPaperScissorsBatchOperation
+    public ResponseEntity<?> playRockPaperScissorsMatch( @RequestBody PlayRockPaperScissorsBatchRequest request )
+    {
+        return super.processPlayingRockPaperScissorsMatch( request.getOpponentUsername(), request.getYourChoices(), request.getPointsToStake() );
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/queue",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @JoinRockPaperScissorsQueueOperation
+    public DeferredResult<ResponseEntity<?>> joinRockPaperScissorsQueue( @RequestBody JoinRockPaperScissorsQueueRequest request )
+    {
+        return super.processJoiningRockPaperScissorsQueue( request.getYourChoice(), request.getPointsToStake() );
+    }
+
+    @DeleteMapping(
+        value = "/rockPaperScissors/queue",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @LeaveRockPaperScissorsQueueOperation
+    public ResponseEntity<?> leaveRockPaperScissorsQueue()
+    {
+        return super.processLeavingRockPaperScissorsQueue();
+    }
+
+    @PostMapping(
+        value = "/rockPaperScissors/practise",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PractiseRockPaperScissorsOperation
+    public ResponseEntity<?> practiseRockPaperScissors( @RequestBody PractiseRockPaperScissorsRequest request )
+    {
+        return super.processPractisingRockPaperScissors( request.getYourChoice() );
+    }
+}
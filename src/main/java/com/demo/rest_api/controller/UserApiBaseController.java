@@ -3,7 +3,7 @@
  * File: UserApiBaseController.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class is responsible for handling API operations to manage user account
@@ -15,14 +15,17 @@
 
 package com.demo.rest_api.controller;
 
+import com.demo.rest_api.dto.CannedErrorResponse;
 import com.demo.rest_api.dto.LeaderboardUserResponse;
 import com.demo.rest_api.dto.ServerApiResponse;
 import com.demo.rest_api.dto.UserResponse;
 import com.demo.rest_api.enums.SortDirection;
 import com.demo.rest_api.model.User;
 import com.demo.rest_api.repository.UserRepository;
+import com.demo.rest_api.security.SessionAuthenticator;
 import com.demo.rest_api.service.AuthenticationService;
 import com.demo.rest_api.service.LeaderboardService;
+import com.demo.rest_api.service.ScoreLedgerService;
 import com.demo.rest_api.service.UserService;
 import com.demo.rest_api.utils.Constants;
 import com.demo.rest_api.utils.PaginationHelper;
@@ -32,11 +35,13 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -61,9 +66,15 @@ public class UserApiBaseController
     @Autowired
     private LeaderboardService leaderboardService;
 
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private SessionAuthenticator sessionAuthenticator;
+
     @Target( ElementType.METHOD )
     @Retention( RetentionPolicy.RUNTIME )
     @SecurityRequirement( name = "bearerAuth" )
@@ -126,6 +137,8 @@ public class UserApiBaseController
             return authenticatedUserOrError;
         }
 
+        scoreLedgerService.applyPendingTo( user );
+
         return ServerApiResponse.generateResponseEntity(
                 HttpStatus.OK,
                 Constants.DEFAULT_SUCCESS_MESSAGE,
@@ -146,6 +159,7 @@ public class UserApiBaseController
         }
 
         User user = optionalUser.get();
+        scoreLedgerService.applyPendingTo( user );
 
         return ServerApiResponse.generateResponseEntity(
                 HttpStatus.OK,
@@ -187,13 +201,21 @@ public class UserApiBaseController
             );
         }
 
-        user.setDisplayName( displayName );
-        userService.save( user );
+        // Set only the display name, so that a concurrent change of the rest of the document is not overwritten.
+        Optional<User> updatedUser = userService.updateById(
+            user.getId(),
+            new Update().set( Constants.DATABASE_USER_DISPLAY_NAME_KEY, displayName )
+        );
+
+        if (updatedUser.isEmpty())
+        {
+            return CannedErrorResponse.SESSION_USER_NOT_FOUND.getResponseEntity();
+        }
 
         return ServerApiResponse.generateResponseEntity(
                 HttpStatus.OK,
                 "The display name of your account has been successfully changed.",
-                new UserResponse( user )
+                new UserResponse( updatedUser.get() )
         );
     }
 
@@ -213,7 +235,7 @@ public class UserApiBaseController
     )
     public @interface ChangePasswordOperation {}
 
-    protected ResponseEntity<?> processChangingPassword( String password )
+    protected ResponseEntity<?> processChangingPassword( String password, HttpServletRequest request )
     {
         ResponseEntity<?> authenticatedUserOrError = authenticationService.getAuthenticatedUserOrError();
 
@@ -230,14 +252,25 @@ public class UserApiBaseController
             );
         }
 
-        user.setPassword( password );
-        user.setIsPasswordEncoded( false );
-        userService.save( user );
+        Optional<User> updatedUser = userService.changePassword( user.getId(), password );
+
+        if (updatedUser.isEmpty())
+        {
+            return CannedErrorResponse.SESSION_USER_NOT_FOUND.getResponseEntity();
+        }
+
+        // Revoke the session token that was used to change the password, so that it cannot be used again.
+        String authHeader = request.getHeader( Constants.AUTH_HEADER );
+
+        if (authHeader != null && authHeader.startsWith( Constants.TOKEN_PREFIX ))
+        {
+            sessionAuthenticator.revokeToken( authHeader.substring( Constants.TOKEN_PREFIX.length() ) );
+        }
 
         return ServerApiResponse.generateResponseEntity(
             HttpStatus.OK,
-                "The password of your account has been successfully changed.",
-            new UserResponse( user )
+                "The password of your account has been successfully changed. Please log in again with your new password to continue.",
+            new UserResponse( updatedUser.get() )
         );
     }
 
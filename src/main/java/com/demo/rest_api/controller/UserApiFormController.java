@@ -20,6 +20,7 @@ import com.demo.rest_api.enums.SortDirection;
 import com.demo.rest_api.utils.Constants;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.http.MediaType;
@@ -79,10 +80,11 @@ public class UserApiFormController extends UserApiBaseController
             min = Constants.PASSWORD_LENGTH,
             message = "Password must be at least " + Constants.PASSWORD_LENGTH + " characters long."
         )
-        String password
+        String password,
+        HttpServletRequest request
     )
     {
-        return super.processChangingPassword( password );
+        return super.processChangingPassword( password, request );
     }
 
     @DeleteMapping(
@@ -22,6 +22,7 @@ import com.demo.rest_api.enums.SortDirection;
 import com.demo.rest_api.utils.Constants;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -70,9 +71,9 @@ public class UserApiJsonController extends UserApiBaseController
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     @ChangePasswordOperation
-    public ResponseEntity<?> changePassword( @RequestBody ChangePasswordRequest request )
+    public ResponseEntity<?> changePassword( @RequestBody ChangePasswordRequest request, HttpServletRequest httpRequest )
     {
-        return super.processChangingPassword( request.getPassword() );
+        return super.processChangingPassword( request.getPassword(), httpRequest );
     }
 
     @DeleteMapping(
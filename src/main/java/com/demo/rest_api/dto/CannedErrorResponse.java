@@ -0,0 +1,113 @@
+/*
+ * ****************************************************************************
+ * File: CannedErrorResponse.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum is a registry of fixed error responses that make up most of the
+ * traffic during credential-stuffing and expired-token storms. Each response
+ * body is serialized once, when the class is loaded, using the same
+ * ServerApiResponse structure as every other response. Serving one of them
+ * then only writes the pre-serialized bytes, either from a controller (as a
+ * shared, read-only ResponseEntity) or directly from a servlet filter.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+public enum CannedErrorResponse
+{
+    NOT_LOGGED_IN(
+        HttpStatus.UNAUTHORIZED,
+        "You are not logged in, or your session token is invalid or has expired. Please use the 'api/auth/login' endpoint to log in again."
+    ),
+    SESSION_USER_NOT_FOUND(
+        HttpStatus.NOT_FOUND,
+        "The user associated with the current session token was not found. Please use the 'api/auth/login' endpoint to log in again."
+    ),
+    LOGIN_USERNAME_NOT_FOUND(
+        HttpStatus.NOT_FOUND,
+        "Username not found. Please check and try again."
+    ),
+    LOGIN_INVALID_CREDENTIALS(
+        HttpStatus.UNAUTHORIZED,
+        "Invalid credentials. Please check and try again."
+    ),
+    LOGOUT_NOT_LOGGED_IN(
+        HttpStatus.UNAUTHORIZED,
+        "You are not logged in."
+    ),
+    IDEMPOTENCY_KEY_INVALID(
+        HttpStatus.BAD_REQUEST,
+        "The 'Idempotency-Key' header must be from 1 to 255 characters long."
+    ),
+    IDEMPOTENCY_KEY_IN_PROGRESS(
+        HttpStatus.CONFLICT,
+        "A request with the same 'Idempotency-Key' header is still being processed. Please retry later."
+    ),
+    IDEMPOTENCY_KEY_REUSED(
+        HttpStatus.UNPROCESSABLE_ENTITY,
+        "The 'Idempotency-Key' header has already been used for a different request. Please use a new key."
+    );
+
+    private final HttpStatus status;
+    private final byte[] body;
+    private final ResponseEntity<byte[]> responseEntity;
+
+    CannedErrorResponse( HttpStatus status, String message )
+    {
+        this.status = status;
+        this.body = serialize( new ServerApiResponse<>( status.value(), message, null, null ) );
+
+        // The headers of a ResponseEntity are read-only, so a single instance can be shared by all requests.
+        this.responseEntity = ResponseEntity
+                .status( status )
+                .contentType( MediaType.APPLICATION_JSON )
+                .contentLength( body.length )
+                .body( body );
+    }
+
+    public HttpStatus getStatus()
+    {
+        return status;
+    }
+
+    // Returns the shared response entity. Its body is written as-is by Spring MVC, without Jackson.
+    public ResponseEntity<?> getResponseEntity()
+    {
+        return responseEntity;
+    }
+
+    // Writes the response directly, for use outside of Spring MVC (e.g. in servlet filters).
+    public void writeTo( HttpServletResponse response ) throws IOException
+    {
+        response.setStatus( status.value() );
+        response.setContentType( MediaType.APPLICATION_JSON_VALUE );
+        response.setContentLength( body.length );
+        response.getOutputStream().write( body );
+    }
+
+    private static byte[] serialize( ServerApiResponse<?> response )
+    {
+        try
+        {
+            // Only used while the enum is initialised; ServerApiResponse's own annotations define the JSON layout.
+            return new ObjectMapper().writeValueAsBytes( response );
+        }
+        catch ( JsonProcessingException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+}
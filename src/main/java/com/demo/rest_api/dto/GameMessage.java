@@ -0,0 +1,77 @@
+/*
+ * ****************************************************************************
+ * File: GameMessage.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the message of a game move: a code from the message
+ * catalog (see MessageCode) and the structured fields of the move, such as
+ * the round, the outcome and the change of the score. It is only rendered
+ * into text when it is written to a client that has not asked for lean
+ * responses (see ServerApiResponse); lean clients receive the code and the
+ * fields instead.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.dto;
+
+import com.demo.rest_api.enums.MessageCode;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class GameMessage
+{
+    private final MessageCode code;
+    private final Map<String,Object> fields = new LinkedHashMap<>();
+
+    private GameMessage( MessageCode code )
+    {
+        this.code = code;
+    }
+
+    public static GameMessage of( MessageCode code )
+    {
+        return new GameMessage( code );
+    }
+
+    // Adds a field, which fills in the placeholder with the same name in the template of the code.
+    public GameMessage with( String name, Object value )
+    {
+        fields.put( name, value );
+        return this;
+    }
+
+    public MessageCode getCode()
+    {
+        return code;
+    }
+
+    public Map<String,Object> getFields()
+    {
+        return fields;
+    }
+
+    public String render()
+    {
+        return code.render( fields );
+    }
+
+    // Written as the rendered text, or as the code and the fields to lean clients.
+    @JsonValue
+    public Object toJson()
+    {
+        if (!ServerApiResponse.isLeanRequested())
+        {
+            return render();
+        }
+
+        Map<String,Object> json = new LinkedHashMap<>( 4 );
+        json.put( "code", code );
+        json.put( "fields", fields );
+        return json;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * ****************************************************************************
+ * File: GuessNumberBatchRequest.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the request body for an API request where the user
+ * submits several guesses for the Guess Number game at once.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class GuessNumberBatchRequest
+{
+    @NotNull( message = "List cannot be null" )
+    @Size( min = 1, max = 100, message = "You must provide from 1 to 100 guesses" )
+    @Schema(
+        example = "[ 50, 25, 75 ]",
+        defaultValue = ""
+    )
+    private List<Integer> yourGuessedNumbers;
+
+    public void setYourGuessedNumbers( List<Integer> yourGuessedNumbers )
+    {
+        this.yourGuessedNumbers = yourGuessedNumbers;
+    }
+
+    public List<Integer> getYourGuessedNumbers()
+    {
+        return yourGuessedNumbers;
+    }
+}
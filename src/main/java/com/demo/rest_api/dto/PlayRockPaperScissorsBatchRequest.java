@@ -0,0 +1,67 @@
+/*
+ * ****************************************************************************
+ * File: PlayRockPaperScissorsBatchRequest.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents a request body in an API request for playing a
+ * best-of-N match of the Rock-Paper-Scissors game against one opponent.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.dto;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class PlayRockPaperScissorsBatchRequest
+{
+    private String opponentUsername;
+
+    @NotNull( message = "Your choices are required" )
+    @Size( min = 1, max = 100, message = "You must provide from 1 to 100 choices" )
+    @Schema(
+        example = "[ \"Rock\", \"Paper\", \"Scissors\" ]",
+        defaultValue = ""
+    )
+    private List<RockPaperScissors> yourChoices;
+
+    @Min( value = 1, message = "Points to stake must be at least 1" )
+    private int pointsToStake = 1;
+
+    public void setOpponentUsername( String opponentUsername )
+    {
+        this.opponentUsername = opponentUsername;
+    }
+
+    public String getOpponentUsername()
+    {
+        return opponentUsername;
+    }
+
+    public void setYourChoices( List<RockPaperScissors> yourChoices )
+    {
+        this.yourChoices = yourChoices;
+    }
+
+    public List<RockPaperScissors> getYourChoices()
+    {
+        return yourChoices;
+    }
+
+    public void setPointsToStake( int pointsToStake )
+    {
+        this.pointsToStake = pointsToStake;
+    }
+
+    public int getPointsToStake()
+    {
+        return pointsToStake;
+    }
+}
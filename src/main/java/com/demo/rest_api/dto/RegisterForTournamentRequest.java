@@ -0,0 +1,39 @@
+/*
+ * ****************************************************************************
+ * File: RegisterForTournamentRequest.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents a request body in an API request for registering
+ * for the weekly Rock-Paper-Scissors tournament.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.dto;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class RegisterForTournamentRequest
+{
+    @Size( max = 100, message = "You can provide up to 100 choices" )
+    @Schema(
+        example = "[ \"Rock\", \"Paper\", \"Scissors\" ]",
+        defaultValue = ""
+    )
+    private List<RockPaperScissors> choices;
+
+    public void setChoices( List<RockPaperScissors> choices )
+    {
+        this.choices = choices;
+    }
+
+    public List<RockPaperScissors> getChoices()
+    {
+        return choices;
+    }
+}
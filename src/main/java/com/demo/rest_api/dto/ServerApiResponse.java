@@ -3,22 +3,35 @@
  * File: ServerApiResponse.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 23 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class represents a standardized response structure for API responses.
+ *
+ * The message of a game move is built from a GameMessage and only rendered
+ * into text while the response is written. Clients that send the
+ * "Response-Mode: lean" header receive the message code and the structured
+ * fields of the move instead, which saves building the text on the server and
+ * most of the bytes of each response.
  * ****************************************************************************
  */
 
 package com.demo.rest_api.dto;
 
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.utils.Constants;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
 
 @JsonInclude( JsonInclude.Include.NON_NULL )
-@JsonPropertyOrder({ "status", "success", "message", "data", "metadata" })
+@JsonPropertyOrder({ "status", "success", "message", "code", "fields", "data", "metadata" })
 public class ServerApiResponse<T>
 {
     private int status;
@@ -27,6 +40,9 @@ public class ServerApiResponse<T>
     private T data;
     private Object metadata;
 
+    @JsonIgnore
+    private GameMessage gameMessage;
+
     public ServerApiResponse(int status, String message, T data, Object metadata )
     {
         this.setStatus( status );
@@ -35,6 +51,20 @@ public class ServerApiResponse<T>
         this.setMetadata( metadata );
     }
 
+    public ServerApiResponse( int status, GameMessage gameMessage, T data )
+    {
+        this.setStatus( status );
+        this.setGameMessage( gameMessage );
+        this.setData( data );
+    }
+
+    // Whether the client of the current request has asked for lean responses.
+    public static boolean isLeanRequested()
+    {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+               && Constants.RESPONSE_MODE_LEAN.equalsIgnoreCase( attributes.getRequest().getHeader( Constants.RESPONSE_MODE_HEADER ) );
+    }
+
     public int getStatus()
     {
         return status;
@@ -58,6 +88,11 @@ public class ServerApiResponse<T>
 
     public String getMessage()
     {
+        if (message == null && gameMessage != null && !isLeanRequested())
+        {
+            return gameMessage.render();
+        }
+
         return message;
     }
 
@@ -66,6 +101,27 @@ public class ServerApiResponse<T>
         this.message = message;
     }
 
+    public void setGameMessage( GameMessage gameMessage )
+    {
+        this.gameMessage = gameMessage;
+    }
+
+    public GameMessage getGameMessage()
+    {
+        return gameMessage;
+    }
+
+    // The code and the fields of the game message, which are only sent to lean clients.
+    public MessageCode getCode()
+    {
+        return ( gameMessage != null && isLeanRequested() ) ? gameMessage.getCode() : null;
+    }
+
+    public Map<String,Object> getFields()
+    {
+        return ( gameMessage != null && isLeanRequested() ) ? gameMessage.getFields() : null;
+    }
+
     public T getData()
     {
         return data;
@@ -114,4 +170,17 @@ public class ServerApiResponse<T>
                     )
                 );
     }
+
+    public static <T> ResponseEntity<?> generateResponseEntity( HttpStatus status, GameMessage gameMessage, T data )
+    {
+        return ResponseEntity
+                .status( status )
+                .body(
+                    new ServerApiResponse<>(
+                        status.value(),
+                        gameMessage,
+                        data
+                    )
+                );
+    }
 }
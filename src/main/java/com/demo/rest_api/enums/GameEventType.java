@@ -0,0 +1,24 @@
+/*
+ * ****************************************************************************
+ * File: GameEventType.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum defines the kinds of events recorded in the game event log.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+public enum GameEventType
+{
+    GuessNumberRoundStarted,
+    GuessNumberGuess,
+    GuessNumberTrapHit,
+    ArrangeNumbersRoundStarted,
+    ArrangeNumbersAttempt,
+    RockPaperScissorsResult,
+    BonusClaim
+}
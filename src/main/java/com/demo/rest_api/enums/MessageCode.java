@@ -0,0 +1,141 @@
+/*
+ * ****************************************************************************
+ * File: MessageCode.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum is the catalog of the messages of game moves. Each code has a
+ * template whose placeholders ("{name}") are filled in from the fields of a
+ * GameMessage. The templates are split into their literal text and
+ * placeholders once, when the class is loaded, so rendering a message only
+ * appends the parts. A "{" that does not start a placeholder is literal text.
+ * Collections are rendered as their elements, separated by commas.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public enum MessageCode
+{
+    GuessNumberTooHigh( "[ ROUND {round} ] Your guessed number ({guess}) is too high! Try again." ),
+    GuessNumberTooLow( "[ ROUND {round} ] Your guessed number ({guess}) is too low! Try again." ),
+    GuessNumberBasic( "[ ROUND {round} ] Congratulations! You have successfully guessed the BASIC number ({guess}) and earned 1 point. Your current score is {score}. Use this endpoint to play a new round." ),
+    GuessNumberSecret( "[ ROUND {round} ] Congratulations!!! You have successfully guessed the SECRET number ({guess}) and earned 3 points! Your current score is {score}. Use this endpoint to play a new round." ),
+    GuessNumberTrap( "[ ROUND {round} ] You have unfortunately guessed the TRAP number ({guess}) and lost 1 point... Your current score is {score}. Use this endpoint to continue guessing the BASIC or SECRET number." ),
+
+    GuessNumberMoveTooHigh( "[ ROUND {round} ] Your guessed number ({guess}) is too high." ),
+    GuessNumberMoveTooLow( "[ ROUND {round} ] Your guessed number ({guess}) is too low." ),
+    GuessNumberMoveBasic( "[ ROUND {round} ] You guessed the BASIC number ({guess}) and earned 1 point." ),
+    GuessNumberMoveSecret( "[ ROUND {round} ] You guessed the SECRET number ({guess}) and earned 3 points!" ),
+    GuessNumberMoveTrap( "[ ROUND {round} ] You guessed the TRAP number ({guess}) and lost 1 point." ),
+    GuessNumberBatch( "Played {moveCount} guess(es) for a total of {pointsDelta} point(s). Your current score is {score}." ),
+
+    ArrangeNumbersHint( "[ ROUND {round} ] Here is the hint to help you figure out the sequence of the 5 numbers: {hint}. [X] = Correct position. -X- = Wrong position. Use this endpoint to try again." ),
+    ArrangeNumbersSolved( "[ ROUND {round} ] Congratulations! You have successfully guessed the sequence of the 5 numbers ({sequence}) and earned 2 points. Your current score is {score}. Use this endpoint to play a new round." ),
+
+    RockPaperScissorsDraw( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | It is a draw. Both players keep their points. Your current score is {score}. Use this endpoint to play a new round." ),
+    RockPaperScissorsWon( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | Congratulations! You won and received {stake} point(s) from '{opponent}'. Your current score is {score}. Use this endpoint to play a new round." ),
+    RockPaperScissorsLost( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | You lost and transferred {stake} point(s) to '{opponent}' . Your current score is {score}. Use this endpoint to play a new round." ),
+
+    RockPaperScissorsPracticeDraw( "Your choice: { {choice} } versus Opponent's choice: { {opponentChoice} } | It is a draw. Use this endpoint to play again." ),
+    RockPaperScissorsPracticeWon( "Your choice: { {choice} } versus Opponent's choice: { {opponentChoice} } | You won! Use this endpoint to play again." ),
+    RockPaperScissorsPracticeLost( "Your choice: { {choice} } versus Opponent's choice: { {opponentChoice} } | You lost... Use this endpoint to play again." ),
+
+    RockPaperScissorsMatchRoundDraw( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | Draw." ),
+    RockPaperScissorsMatchRoundWon( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | You won this round." ),
+    RockPaperScissorsMatchRoundLost( "[ ROUND {round} ] Your choice: { {choice} } versus opponent {opponent}'s choice: { {opponentChoice} } | You lost this round." ),
+    RockPaperScissorsMatchDraw( "Best of {bestOf}: you won {wins} and lost {losses} of {roundCount} round(s) against '{opponent}'. The match is a draw. Both players keep their points. Your current score is {score}." ),
+    RockPaperScissorsMatchWon( "Best of {bestOf}: you won {wins} and lost {losses} of {roundCount} round(s) against '{opponent}'. Congratulations! You won the match and received {stake} point(s) from '{opponent}'. Your current score is {score}." ),
+    RockPaperScissorsMatchLost( "Best of {bestOf}: you won {wins} and lost {losses} of {roundCount} round(s) against '{opponent}'. You lost the match and transferred {stake} point(s) to '{opponent}'. Your current score is {score}." ),
+
+    LiveRockPaperScissorsDraw( "[ ROUND {round} ] Your choice: { {choice} } versus player {opponent}'s choice: { {opponentChoice} } | It is a draw. Both players keep their points. Your current score is {score}." ),
+    LiveRockPaperScissorsWon( "[ ROUND {round} ] Your choice: { {choice} } versus player {opponent}'s choice: { {opponentChoice} } | Congratulations! You won and received {stake} point(s) from '{opponent}'. Your current score is {score}." ),
+    LiveRockPaperScissorsLost( "[ ROUND {round} ] Your choice: { {choice} } versus player {opponent}'s choice: { {opponentChoice} } | You lost and transferred {stake} point(s) to '{opponent}'. Your current score is {score}." );
+
+    // The literal text before each placeholder, followed by the text after the last one.
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    MessageCode( String template )
+    {
+        List<String> literalList = new ArrayList<>();
+        List<String> placeholderList = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+
+        while (( index = template.indexOf( '{', index ) ) >= 0)
+        {
+            int end = index + 1;
+
+            while (end < template.length() && Character.isLetterOrDigit( template.charAt( end ) ))
+            {
+                end++;
+            }
+
+            if (end == index + 1 || end == template.length() || template.charAt( end ) != '}')
+            {
+                index++;
+                continue;
+            }
+
+            literalList.add( template.substring( literalStart, index ) );
+            placeholderList.add( template.substring( index + 1, end ) );
+            literalStart = index = end + 1;
+        }
+
+        literalList.add( template.substring( literalStart ) );
+
+        this.literals = literalList.toArray( String[]::new );
+        this.placeholders = placeholderList.toArray( String[]::new );
+        this.literalLength = literalList.stream().mapToInt( String::length ).sum();
+    }
+
+    /**
+     * Renders the message from the values of its placeholders.
+     *
+     * @param fields The values, by placeholder name. Missing values are rendered as "null".
+     * @return The message.
+     */
+    public String render( Map<String,Object> fields )
+    {
+        StringBuilder message = new StringBuilder( literalLength + 16 * placeholders.length );
+
+        for (int i = 0; i < placeholders.length; i++)
+        {
+            message.append( literals[ i ] );
+            appendValue( message, fields.get( placeholders[ i ] ) );
+        }
+
+        return message.append( literals[ placeholders.length ] ).toString();
+    }
+
+    private static void appendValue( StringBuilder message, Object value )
+    {
+        if (!( value instanceof Collection<?> values ))
+        {
+            message.append( value );
+            return;
+        }
+
+        boolean isFirst = true;
+
+        for (Object element : values)
+        {
+            if (!isFirst)
+            {
+                message.append( ',' );
+            }
+
+            message.append( element );
+            isFirst = false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * ****************************************************************************
+ * File: ScoreChangeReason.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum defines why the score of a user has changed, as recorded in the
+ * score ledger.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+public enum ScoreChangeReason
+{
+    OpeningBalance,
+    GuessNumber,
+    ArrangeNumbers,
+    RockPaperScissors,
+    BonusClaim,
+    SeasonReset,
+    InactivityDecay
+}
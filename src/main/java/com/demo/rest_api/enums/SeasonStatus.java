@@ -0,0 +1,20 @@
+/*
+ * ****************************************************************************
+ * File: SeasonStatus.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum defines the stages of a season that has ended: its leaderboard is
+ * being archived and its scores reset, or it has been archived.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+public enum SeasonStatus
+{
+    RollingOver,
+    Archived
+}
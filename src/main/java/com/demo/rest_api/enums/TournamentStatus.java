@@ -0,0 +1,21 @@
+/*
+ * ****************************************************************************
+ * File: TournamentStatus.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum defines the stages of a Rock-Paper-Scissors tournament: open for
+ * registration, being resolved round by round, and finished.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+public enum TournamentStatus
+{
+    Registration,
+    InProgress,
+    Finished
+}
@@ -0,0 +1,44 @@
+/*
+ * ****************************************************************************
+ * File: UserCounter.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This enum defines the counters of a user document that game moves increment
+ * (attempts and the per-game round counters), with the document field of each
+ * one and whether it also counts towards the total number of rounds.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.enums;
+
+import com.demo.rest_api.utils.Constants;
+
+public enum UserCounter
+{
+    Attempts( Constants.DATABASE_USER_ATTEMPTS_KEY, false ),
+    GuessNumberRounds( Constants.DATABASE_USER_GUESS_NUMBER_CURRENT_ROUND_KEY, true ),
+    ArrangeNumbersRounds( Constants.DATABASE_USER_ARRANGE_NUMBERS_CURRENT_ROUND_KEY, true ),
+    RockPaperScissorsRounds( Constants.DATABASE_USER_ROCK_PAPER_SCISSORS_CURRENT_ROUND_KEY, true );
+
+    private final String databaseKey;
+    private final boolean isRoundCounter;
+
+    UserCounter( String databaseKey, boolean isRoundCounter )
+    {
+        this.databaseKey = databaseKey;
+        this.isRoundCounter = isRoundCounter;
+    }
+
+    public String getDatabaseKey()
+    {
+        return databaseKey;
+    }
+
+    public boolean getIsRoundCounter()
+    {
+        return isRoundCounter;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * ****************************************************************************
+ * File: ArrangeNumbersEngine.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the rules of the Arrange Numbers game. Each round
+ * hides an arrangement of the numbers 1 to 5; guessing it completes the round
+ * and earns 2 points, while a wrong guess is told which of its numbers are in
+ * the correct position.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.dto.GameMessage;
+import com.demo.rest_api.enums.GameEventType;
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.NumberHelper;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ArrangeNumbersEngine implements GameEngine<List<Integer>>
+{
+    public static final int NUMBER_COUNT = 5;
+
+    private static final int POINTS = 2;
+
+    public record Outcome( List<Integer> yourArrangedNumbers, boolean[] isCorrect, int correctCount, GameEvent event ) implements MoveOutcome
+    {
+        public boolean isSolved()
+        {
+            return correctCount == NUMBER_COUNT;
+        }
+
+        @Override
+        public int getPoints()
+        {
+            return isSolved() ? POINTS : 0;
+        }
+
+        @Override
+        public GameEvent getEvent()
+        {
+            return event;
+        }
+
+        @Override
+        public GameMessage describe( int round, boolean isInBatch )
+        {
+            if (isSolved())
+            {
+                return GameMessage.of( MessageCode.ArrangeNumbersSolved )
+                        .with( "round", round )
+                        .with( "outcome", "Solved" )
+                        .with( "pointsDelta", POINTS )
+                        .with( "sequence", yourArrangedNumbers );
+            }
+
+            return GameMessage.of( MessageCode.ArrangeNumbersHint )
+                    .with( "round", round )
+                    .with( "outcome", "Wrong" )
+                    .with( "pointsDelta", 0 )
+                    .with( "correctCount", correctCount )
+                    .with( "hint", new Hint( yourArrangedNumbers, isCorrect ) );
+        }
+    }
+
+    // The hint of a wrong arrangement. Rendered as "[X]" for a number in the correct position and "-X-" otherwise; lean
+    // clients receive whether each position is correct.
+    private record Hint( List<Integer> numbers, boolean[] isCorrect )
+    {
+        @JsonValue
+        public boolean[] isCorrect()
+        {
+            return isCorrect;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder hint = new StringBuilder();
+
+            for (int i = 0; i < numbers.size(); i++)
+            {
+                if (i > 0)
+                {
+                    hint.append( " " );
+                }
+
+                if (isCorrect[ i ])
+                {
+                    hint.append( "[" ).append( numbers.get( i ) ).append( "]" );
+                }
+                else
+                {
+                    hint.append( "-" ).append( numbers.get( i ) ).append( "-" );
+                }
+            }
+
+            return hint.toString();
+        }
+    }
+
+    @Override
+    public ScoreChangeReason getScoreChangeReason()
+    {
+        return ScoreChangeReason.ArrangeNumbers;
+    }
+
+    @Override
+    public UserCounter getRoundCounter()
+    {
+        return UserCounter.ArrangeNumbersRounds;
+    }
+
+    @Override
+    public int getCurrentRound( User user )
+    {
+        return user.getArrangeNumbersCurrentRound();
+    }
+
+    @Override
+    public boolean hasRoundStarted( GameSession session )
+    {
+        return session.getHasArrangeNumbersStarted();
+    }
+
+    @Override
+    public GameEvent startRound( GameSession session, ObjectId userId )
+    {
+        session.setHasArrangeNumbersStarted( true );
+        session.setArrangedNumbers( NumberHelper.generateDistinctRandomNumbersInRange( 1, NUMBER_COUNT, NUMBER_COUNT ) );
+
+        return GameEvent.roundStarted( GameEventType.ArrangeNumbersRoundStarted, userId );
+    }
+
+    @Override
+    public MoveOutcome applyMove( GameSession session, ObjectId userId, List<Integer> yourArrangedNumbers )
+    {
+        int[] arrangedNumbers = session.getArrangedNumbers();
+        boolean[] isCorrect = new boolean[ yourArrangedNumbers.size() ];
+        int correctCount = 0;
+
+        for (int i = 0; i < yourArrangedNumbers.size(); i++)
+        {
+            isCorrect[ i ] = ( yourArrangedNumbers.get( i ) == arrangedNumbers[ i ] );
+            correctCount += isCorrect[ i ] ? 1 : 0;
+        }
+
+        if (correctCount == NUMBER_COUNT)
+        {
+            session.setHasArrangeNumbersStarted( false );
+        }
+
+        GameEvent event = GameEvent.arrangeNumbersAttempt( userId, yourArrangedNumbers, correctCount, ( correctCount == NUMBER_COUNT ) ? POINTS : 0 );
+
+        return new Outcome( yourArrangedNumbers, isCorrect, correctCount, event );
+    }
+}
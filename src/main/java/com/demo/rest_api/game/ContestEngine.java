@@ -0,0 +1,37 @@
+/*
+ * ****************************************************************************
+ * File: ContestEngine.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface is implemented by each game that can also be played against
+ * another user for staked points (e.g. a Rock Paper Scissors challenge). The
+ * engine only plays the contest; the transfer of the staked points, the
+ * counters of both players, the event and the timing are handled once, for
+ * every engine, by the GameMoveService.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import java.util.List;
+
+/**
+ * The rules of one game, played against another user.
+ *
+ * @param <M> The type of a move.
+ */
+public interface ContestEngine<M> extends GameEngine<M>
+{
+    /**
+     * Plays the moves of a user against an opponent.
+     *
+     * @param moves The moves of the user, already validated by the caller.
+     * @param opponentMoves The moves of the opponent (e.g. of a player paired in a live queue), or null to let the
+     *                      engine play them for the opponent.
+     * @return The outcome of the contest.
+     */
+    ContestOutcome playContest( List<M> moves, List<M> opponentMoves );
+}
@@ -0,0 +1,37 @@
+/*
+ * ****************************************************************************
+ * File: ContestOutcome.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface represents the outcome of a contest between a user and an
+ * opponent (see ContestEngine): who won, how many rounds were played, and the
+ * event that records it.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.model.GameEvent;
+import org.bson.types.ObjectId;
+
+public interface ContestOutcome
+{
+    // 1 if the user won the contest, -1 if the user lost, or 0 for a draw.
+    int getOutcome();
+
+    // The number of rounds that were played, which are counted as the user's attempts and rounds.
+    int getRoundCount();
+
+    /**
+     * Creates the event that records the contest.
+     *
+     * @param userId The ID of the user.
+     * @param opponentUserId The ID of the opponent.
+     * @param pointsToStake The points staked on the contest.
+     * @return The event.
+     */
+    GameEvent getEvent( ObjectId userId, ObjectId opponentUserId, int pointsToStake );
+}
@@ -0,0 +1,69 @@
+/*
+ * ****************************************************************************
+ * File: GameEngine.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface is implemented by each game: it starts rounds and applies
+ * moves against the game session of a user, and reports the outcome of each
+ * move. Engines only hold the rules of their game. Loading and locking the
+ * session, the attempt and round counters, writing the score and the events,
+ * the rank and the timing of the moves are handled once, for every engine,
+ * by the GameMoveService.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import org.bson.types.ObjectId;
+
+/**
+ * The rules of one game.
+ *
+ * @param <M> The type of a move.
+ */
+public interface GameEngine<M>
+{
+    // The reason recorded in the score ledger for the points won or lost in this game.
+    ScoreChangeReason getScoreChangeReason();
+
+    // The name of the game, under which its metrics are reported.
+    default String getName()
+    {
+        return getScoreChangeReason().name();
+    }
+
+    // The counter of the rounds that the user has started in this game.
+    UserCounter getRoundCounter();
+
+    int getCurrentRound( User user );
+
+    boolean hasRoundStarted( GameSession session );
+
+    /**
+     * Starts a new round, e.g. by drawing the hidden numbers of the round into the session. Called with the session's
+     * lock held.
+     *
+     * @param session The game session of the user.
+     * @param userId The ID of the user.
+     * @return The event of the new round, or null if the game does not record one.
+     */
+    GameEvent startRound( GameSession session, ObjectId userId );
+
+    /**
+     * Applies a move to the round in progress. Called with the session's lock held, after a round has been started.
+     *
+     * @param session The game session of the user.
+     * @param userId The ID of the user.
+     * @param move The move, already validated by the caller.
+     * @return The outcome of the move.
+     */
+    MoveOutcome applyMove( GameSession session, ObjectId userId, M move );
+}
@@ -0,0 +1,160 @@
+/*
+ * ****************************************************************************
+ * File: GuessNumberEngine.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the rules of the Guess Number game. Each round has 3
+ * hidden numbers from 1 to 100: guessing the basic number (+1 point) or the
+ * secret number (+3 points) completes the round, while guessing the trap
+ * number loses 1 point and the round continues without it. A wrong guess is
+ * told whether it is higher or lower than the basic number.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.dto.GameMessage;
+import com.demo.rest_api.enums.GameEventType;
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.NumberHelper;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GuessNumberEngine implements GameEngine<Integer>
+{
+    public enum Result
+    {
+        TooLow( 0 ),
+        TooHigh( 0 ),
+        Trap( -1 ),
+        Basic( 1 ),
+        Secret( 3 );
+
+        private final int points;
+
+        Result( int points )
+        {
+            this.points = points;
+        }
+
+        public int getPoints()
+        {
+            return points;
+        }
+    }
+
+    public record Outcome( Result result, int yourGuessedNumber, GameEvent event ) implements MoveOutcome
+    {
+        @Override
+        public int getPoints()
+        {
+            return result.getPoints();
+        }
+
+        @Override
+        public GameEvent getEvent()
+        {
+            return event;
+        }
+
+        @Override
+        public GameMessage describe( int round, boolean isInBatch )
+        {
+            MessageCode code = switch (result)
+            {
+                case Secret -> isInBatch ? MessageCode.GuessNumberMoveSecret : MessageCode.GuessNumberSecret;
+                case Trap -> isInBatch ? MessageCode.GuessNumberMoveTrap : MessageCode.GuessNumberTrap;
+                case Basic -> isInBatch ? MessageCode.GuessNumberMoveBasic : MessageCode.GuessNumberBasic;
+                case TooHigh -> isInBatch ? MessageCode.GuessNumberMoveTooHigh : MessageCode.GuessNumberTooHigh;
+                case TooLow -> isInBatch ? MessageCode.GuessNumberMoveTooLow : MessageCode.GuessNumberTooLow;
+            };
+
+            return GameMessage.of( code )
+                    .with( "round", round )
+                    .with( "outcome", result )
+                    .with( "pointsDelta", result.getPoints() )
+                    .with( "guess", yourGuessedNumber );
+        }
+    }
+
+    @Override
+    public ScoreChangeReason getScoreChangeReason()
+    {
+        return ScoreChangeReason.GuessNumber;
+    }
+
+    @Override
+    public UserCounter getRoundCounter()
+    {
+        return UserCounter.GuessNumberRounds;
+    }
+
+    @Override
+    public int getCurrentRound( User user )
+    {
+        return user.getGuessNumberCurrentRound();
+    }
+
+    @Override
+    public boolean hasRoundStarted( GameSession session )
+    {
+        return session.getHasGuessNumberStarted();
+    }
+
+    @Override
+    public GameEvent startRound( GameSession session, ObjectId userId )
+    {
+        int[] randomNumbers = NumberHelper.generateDistinctRandomNumbersInRange( 1, 100, 3 );
+
+        session.setHasGuessNumberStarted( true );
+        session.setGuessNumberBasic( randomNumbers[ 0 ] );
+        session.setGuessNumberSecret( randomNumbers[ 1 ] );
+        session.setGuessNumberTrap( randomNumbers[ 2 ] );
+
+        return GameEvent.roundStarted( GameEventType.GuessNumberRoundStarted, userId );
+    }
+
+    @Override
+    public MoveOutcome applyMove( GameSession session, ObjectId userId, Integer yourGuessedNumber )
+    {
+        Result result = judge( session, yourGuessedNumber );
+
+        GameEvent event = ( result == Result.Trap )
+                          ? GameEvent.trapHit( userId, yourGuessedNumber, result.getPoints() )
+                          : GameEvent.guess( userId, yourGuessedNumber, result.name(), result.getPoints() );
+
+        return new Outcome( result, yourGuessedNumber, event );
+    }
+
+    private static Result judge( GameSession session, int yourGuessedNumber )
+    {
+        if (yourGuessedNumber == session.getGuessNumberSecret())
+        {
+            session.setHasGuessNumberStarted( false );
+            return Result.Secret;
+        }
+
+        if (yourGuessedNumber == session.getGuessNumberTrap())
+        {
+            session.setGuessNumberTrap( 0 );
+            return Result.Trap;
+        }
+
+        if (yourGuessedNumber != session.getGuessNumberBasic())
+        {
+            return ( yourGuessedNumber > session.getGuessNumberBasic() ) ? Result.TooHigh : Result.TooLow;
+        }
+
+        session.setHasGuessNumberStarted( false );
+        return Result.Basic;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * ****************************************************************************
+ * File: MoveOutcome.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface represents the outcome of one move of a game: the change of
+ * the score, the event that records the move, and the message that describes
+ * it to the player.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.dto.GameMessage;
+import com.demo.rest_api.model.GameEvent;
+
+public interface MoveOutcome
+{
+    int getPoints();
+
+    // The event that records the move, or null if the move is not recorded.
+    GameEvent getEvent();
+
+    /**
+     * Describes the move to the player.
+     *
+     * @param round The round in which the move was made.
+     * @param isInBatch Whether the move is one of several submitted in one request, which are described more briefly.
+     * @return The message.
+     */
+    GameMessage describe( int round, boolean isInBatch );
+
+    // Whether the move changes the score, which is written through to the database immediately.
+    default boolean isScoring()
+    {
+        return getPoints() != 0;
+    }
+}
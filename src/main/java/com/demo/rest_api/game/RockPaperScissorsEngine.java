@@ -0,0 +1,196 @@
+/*
+ * ****************************************************************************
+ * File: RockPaperScissorsEngine.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements the rules of the Rock Paper Scissors game: Rock beats
+ * Scissors, Scissors beats Paper and Paper beats Rock. Every throw is a round
+ * of its own, so the game keeps no state in the session. A challenge against
+ * another user is played as a contest (see playContest()): a match that ends
+ * once one player has won more than half of the rounds, whose staked points
+ * are transferred between the two players by the GameMoveService. A move of
+ * this engine on its own (e.g. a practice throw against the server) scores
+ * nothing.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.dto.GameMessage;
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.EnumHelper;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class RockPaperScissorsEngine implements ContestEngine<RockPaperScissors>
+{
+    // A throw against a random choice of the server. The result is 1 if the player won, -1 if the player lost and 0
+    // for a draw.
+    public record Outcome( RockPaperScissors yourChoice, RockPaperScissors opponentChoice, int result ) implements MoveOutcome
+    {
+        @Override
+        public int getPoints()
+        {
+            return 0;
+        }
+
+        @Override
+        public GameEvent getEvent()
+        {
+            return null;
+        }
+
+        @Override
+        public GameMessage describe( int round, boolean isInBatch )
+        {
+            MessageCode code = ( result == 0 )
+                               ? MessageCode.RockPaperScissorsPracticeDraw
+                               : ( ( result > 0 ) ? MessageCode.RockPaperScissorsPracticeWon : MessageCode.RockPaperScissorsPracticeLost );
+
+            return GameMessage.of( code )
+                    .with( "outcome", describeResult( result ) )
+                    .with( "choice", yourChoice )
+                    .with( "opponentChoice", opponentChoice );
+        }
+    }
+
+    /**
+     * The rounds of a match against one opponent.
+     *
+     * @param yourChoices The choices of the player in the rounds that were played.
+     * @param opponentChoices The choices of the opponent in the same rounds.
+     * @param wins The number of rounds won by the player.
+     * @param losses The number of rounds lost by the player.
+     */
+    public record Match( List<RockPaperScissors> yourChoices, List<RockPaperScissors> opponentChoices, int wins, int losses ) implements ContestOutcome
+    {
+        @Override
+        public int getRoundCount()
+        {
+            return opponentChoices.size();
+        }
+
+        @Override
+        public int getOutcome()
+        {
+            return Integer.compare( wins, losses );
+        }
+
+        @Override
+        public GameEvent getEvent( ObjectId userId, ObjectId opponentUserId, int pointsToStake )
+        {
+            int outcome = getOutcome();
+            return GameEvent.rockPaperScissorsResult(
+                userId, opponentUserId, yourChoices, opponentChoices, describeResult( outcome ), pointsToStake, outcome * pointsToStake
+            );
+        }
+    }
+
+    @Override
+    public ScoreChangeReason getScoreChangeReason()
+    {
+        return ScoreChangeReason.RockPaperScissors;
+    }
+
+    @Override
+    public UserCounter getRoundCounter()
+    {
+        return UserCounter.RockPaperScissorsRounds;
+    }
+
+    @Override
+    public int getCurrentRound( User user )
+    {
+        return user.getRockPaperScissorsCurrentRound();
+    }
+
+    // A new round is started by every throw.
+    @Override
+    public boolean hasRoundStarted( GameSession session )
+    {
+        return false;
+    }
+
+    @Override
+    public GameEvent startRound( GameSession session, ObjectId userId )
+    {
+        return null;
+    }
+
+    @Override
+    public MoveOutcome applyMove( GameSession session, ObjectId userId, RockPaperScissors yourChoice )
+    {
+        return play( yourChoice );
+    }
+
+    // Throws against a random choice of the server.
+    public Outcome play( RockPaperScissors yourChoice )
+    {
+        RockPaperScissors opponentChoice = drawChoice();
+        return new Outcome( yourChoice, opponentChoice, judge( yourChoice, opponentChoice ) );
+    }
+
+    // Plays the choices against the opponent's choices (or random ones), until one player has won more than half of the
+    // rounds. Draws count as played rounds.
+    @Override
+    public Match playContest( List<RockPaperScissors> yourChoices, List<RockPaperScissors> opponentChoices )
+    {
+        int roundsToWin = yourChoices.size() / 2 + 1;
+        int wins = 0;
+        int losses = 0;
+        List<RockPaperScissors> playedOpponentChoices = new ArrayList<>();
+
+        for (RockPaperScissors yourChoice : yourChoices)
+        {
+            RockPaperScissors opponentChoice = ( opponentChoices != null ) ? opponentChoices.get( playedOpponentChoices.size() ) : drawChoice();
+            playedOpponentChoices.add( opponentChoice );
+
+            int roundOutcome = judge( yourChoice, opponentChoice );
+            wins += ( roundOutcome > 0 ) ? 1 : 0;
+            losses += ( roundOutcome < 0 ) ? 1 : 0;
+
+            if (wins == roundsToWin || losses == roundsToWin)
+            {
+                break;
+            }
+        }
+
+        return new Match( yourChoices.subList( 0, playedOpponentChoices.size() ), playedOpponentChoices, wins, losses );
+    }
+
+    public RockPaperScissors drawChoice()
+    {
+        return EnumHelper.getRandomEnum( RockPaperScissors.class );
+    }
+
+    /**
+     * Judges one throw.
+     *
+     * @param yourChoice The choice of the player.
+     * @param opponentChoice The choice of the opponent.
+     * @return 1 if the player won, -1 if the player lost, or 0 for a draw.
+     */
+    public static int judge( RockPaperScissors yourChoice, RockPaperScissors opponentChoice )
+    {
+        return ( yourChoice == opponentChoice ) ? 0 : ( yourChoice.beats( opponentChoice ) ? 1 : -1 );
+    }
+
+    // Describes a result (1 = won, -1 = lost, 0 = draw), e.g. for the game event log.
+    public static String describeResult( int result )
+    {
+        return ( result == 0 ) ? "Draw" : ( ( result > 0 ) ? "Won" : "Lost" );
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * ****************************************************************************
+ * File: GameEvent.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents one thing that happened in a game (e.g. a guess, a
+ * Rock Paper Scissors result or a bonus claim) and is mapped to an
+ * append-only MongoDB collection called "game_events". Only the fields that
+ * apply to the type of the event are set; null fields are not written.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.GameEventType;
+import com.demo.rest_api.enums.RockPaperScissors;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document( collection = "game_events" )
+public class GameEvent
+{
+    // Assigned when the event is created, so that events can be written in any order and retried without duplicates.
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private GameEventType type;
+    private ObjectId userId;
+    private Instant time;
+
+    private Integer pointsChange;
+    private Integer guessedNumber;
+    private String result;
+    private List<Integer> arrangedNumbers;
+    private Integer correctPositions;
+    private ObjectId opponentUserId;
+    private Integer pointsStaked;
+    private List<RockPaperScissors> choices;
+    private List<RockPaperScissors> opponentChoices;
+
+    public GameEvent() {}
+
+    private GameEvent( GameEventType type, ObjectId userId )
+    {
+        this.type = type;
+        this.userId = userId;
+        this.time = Instant.now();
+    }
+
+    public static GameEvent roundStarted( GameEventType type, ObjectId userId )
+    {
+        return new GameEvent( type, userId );
+    }
+
+    public static GameEvent guess( ObjectId userId, int guessedNumber, String result, int pointsChange )
+    {
+        GameEvent event = new GameEvent( GameEventType.GuessNumberGuess, userId );
+        event.guessedNumber = guessedNumber;
+        event.result = result;
+        event.pointsChange = pointsChange;
+        return event;
+    }
+
+    public static GameEvent trapHit( ObjectId userId, int guessedNumber, int pointsChange )
+    {
+        GameEvent event = new GameEvent( GameEventType.GuessNumberTrapHit, userId );
+        event.guessedNumber = guessedNumber;
+        event.pointsChange = pointsChange;
+        return event;
+    }
+
+    public static GameEvent arrangeNumbersAttempt( ObjectId userId, List<Integer> arrangedNumbers, int correctPositions, int pointsChange )
+    {
+        GameEvent event = new GameEvent( GameEventType.ArrangeNumbersAttempt, userId );
+        event.arrangedNumbers = List.copyOf( arrangedNumbers );
+        event.correctPositions = correctPositions;
+        event.pointsChange = pointsChange;
+        return event;
+    }
+
+    // One event per challenge (a single round, or a whole match), with the choices of every round played.
+    public static GameEvent rockPaperScissorsResult(
+        ObjectId userId,
+        ObjectId opponentUserId,
+        List<RockPaperScissors> choices,
+        List<RockPaperScissors> opponentChoices,
+        String result,
+        int pointsStaked,
+        int pointsChange
+    )
+    {
+        GameEvent event = new GameEvent( GameEventType.RockPaperScissorsResult, userId );
+        event.opponentUserId = opponentUserId;
+        event.choices = List.copyOf( choices );
+        event.opponentChoices = List.copyOf( opponentChoices );
+        event.result = result;
+        event.pointsStaked = pointsStaked;
+        event.pointsChange = pointsChange;
+        return event;
+    }
+
+    public static GameEvent bonusClaim( ObjectId userId, int pointsChange )
+    {
+        GameEvent event = new GameEvent( GameEventType.BonusClaim, userId );
+        event.pointsChange = pointsChange;
+        return event;
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public GameEventType getType()
+    {
+        return type;
+    }
+
+    public ObjectId getUserId()
+    {
+        return userId;
+    }
+
+    public Instant getTime()
+    {
+        return time;
+    }
+
+    public Integer getPointsChange()
+    {
+        return pointsChange;
+    }
+
+    public Integer getGuessedNumber()
+    {
+        return guessedNumber;
+    }
+
+    public String getResult()
+    {
+        return result;
+    }
+
+    public List<Integer> getArrangedNumbers()
+    {
+        return arrangedNumbers;
+    }
+
+    public Integer getCorrectPositions()
+    {
+        return correctPositions;
+    }
+
+    public ObjectId getOpponentUserId()
+    {
+        return opponentUserId;
+    }
+
+    public Integer getPointsStaked()
+    {
+        return pointsStaked;
+    }
+
+    public List<RockPaperScissors> getChoices()
+    {
+        return choices;
+    }
+
+    public List<RockPaperScissors> getOpponentChoices()
+    {
+        return opponentChoices;
+    }
+}
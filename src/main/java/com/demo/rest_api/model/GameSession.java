@@ -0,0 +1,171 @@
+/*
+ * ****************************************************************************
+ * File: GameSession.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the in-progress game state of a user and is mapped to
+ * a MongoDB collection called "game_session", keyed by the user's ID. It holds
+ * the state of the current Guess Number and Arrange Numbers rounds, which
+ * changes on every move and so is kept in memory and written behind to the
+ * collection.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+@Document( collection = "game_session" )
+public class GameSession
+{
+    @Id
+    private String userId;
+
+    private boolean hasGuessNumberStarted = false;
+    private int guessNumberBasic = 0;
+    private int guessNumberSecret = 0;
+    private int guessNumberTrap = 0;
+
+    private boolean hasArrangeNumbersStarted = false;
+    private int[] arrangedNumbers = null;
+
+    // Whether the state above has changed since it was last written to the collection.
+    @Transient
+    private boolean isDirty = false;
+
+    @Transient
+    private long lastAccessTimeMs = 0;
+
+    // Guards the state above while it is changed or copied. A ReentrantLock rather than synchronized blocks, so that
+    // a virtual thread waiting for it does not pin its carrier thread.
+    @Transient
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public GameSession( String userId )
+    {
+        this.userId = userId;
+    }
+
+    // Creates the session of a user who played before game state moved out of the user document.
+    public static GameSession fromLegacyUser( User user )
+    {
+        GameSession session = new GameSession( user.getId().toHexString() );
+        session.hasGuessNumberStarted = user.getHasGuessNumberStarted();
+        session.guessNumberBasic = user.getGuessNumberBasic();
+        session.guessNumberSecret = user.getGuessNumberSecret();
+        session.guessNumberTrap = user.getGuessNumberTrap();
+        session.hasArrangeNumbersStarted = user.getHasArrangeNumbersStarted() && user.getArrangedNumbers() != null;
+        session.arrangedNumbers = user.getArrangedNumbers();
+        return session;
+    }
+
+    // Returns a copy of the stored state, so that it can be written to the collection outside of the session's lock.
+    public GameSession copy()
+    {
+        GameSession session = new GameSession( userId );
+        session.hasGuessNumberStarted = hasGuessNumberStarted;
+        session.guessNumberBasic = guessNumberBasic;
+        session.guessNumberSecret = guessNumberSecret;
+        session.guessNumberTrap = guessNumberTrap;
+        session.hasArrangeNumbersStarted = hasArrangeNumbersStarted;
+        session.arrangedNumbers = ( arrangedNumbers != null ) ? arrangedNumbers.clone() : null;
+        return session;
+    }
+
+    public String getUserId()
+    {
+        return userId;
+    }
+
+    public void setHasGuessNumberStarted( boolean hasGuessNumberStarted )
+    {
+        this.hasGuessNumberStarted = hasGuessNumberStarted;
+    }
+
+    public boolean getHasGuessNumberStarted()
+    {
+        return hasGuessNumberStarted;
+    }
+
+    public void setGuessNumberBasic( int guessNumberBasic )
+    {
+        this.guessNumberBasic = guessNumberBasic;
+    }
+
+    public int getGuessNumberBasic()
+    {
+        return guessNumberBasic;
+    }
+
+    public void setGuessNumberSecret( int guessNumberSecret )
+    {
+        this.guessNumberSecret = guessNumberSecret;
+    }
+
+    public int getGuessNumberSecret()
+    {
+        return guessNumberSecret;
+    }
+
+    public void setGuessNumberTrap( int guessNumberTrap )
+    {
+        this.guessNumberTrap = guessNumberTrap;
+    }
+
+    public int getGuessNumberTrap()
+    {
+        return guessNumberTrap;
+    }
+
+    public void setHasArrangeNumbersStarted( boolean hasArrangeNumbersStarted )
+    {
+        this.hasArrangeNumbersStarted = hasArrangeNumbersStarted;
+    }
+
+    public boolean getHasArrangeNumbersStarted()
+    {
+        return hasArrangeNumbersStarted;
+    }
+
+    public void setArrangedNumbers( int[] arrangedNumbers )
+    {
+        this.arrangedNumbers = arrangedNumbers;
+    }
+
+    public int[] getArrangedNumbers()
+    {
+        return arrangedNumbers;
+    }
+
+    public void setIsDirty( boolean isDirty )
+    {
+        this.isDirty = isDirty;
+    }
+
+    public boolean getIsDirty()
+    {
+        return isDirty;
+    }
+
+    public void setLastAccessTimeMs( long lastAccessTimeMs )
+    {
+        this.lastAccessTimeMs = lastAccessTimeMs;
+    }
+
+    public long getLastAccessTimeMs()
+    {
+        return lastAccessTimeMs;
+    }
+
+    public ReentrantLock getLock()
+    {
+        return lock;
+    }
+}
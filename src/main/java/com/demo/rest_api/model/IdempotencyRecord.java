@@ -0,0 +1,85 @@
+/*
+ * ****************************************************************************
+ * File: IdempotencyRecord.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the response to a request that was sent with an
+ * "Idempotency-Key" header, and is mapped to a MongoDB collection called
+ * "idempotency_record". Each document is keyed by the caller and the key,
+ * and is inserted before the request is processed ("isCompleted" unset), so
+ * that only one instance processes it. Documents are removed automatically
+ * by a TTL index once "expiresAt" has passed.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "idempotency_record" )
+public class IdempotencyRecord
+{
+    @Id
+    private String key;
+
+    // The method, path and a hash of the parameters and body of the request.
+    private String fingerprint;
+
+    private boolean isCompleted;
+    private Instant claimTime;
+    private int status;
+    private String contentType;
+    private byte[] body;
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord( String key, String fingerprint, Instant claimTime, Instant expiresAt )
+    {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.claimTime = claimTime;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    public boolean getIsCompleted()
+    {
+        return isCompleted;
+    }
+
+    public Instant getClaimTime()
+    {
+        return claimTime;
+    }
+
+    public int getStatus()
+    {
+        return status;
+    }
+
+    public String getContentType()
+    {
+        return contentType;
+    }
+
+    public byte[] getBody()
+    {
+        return body;
+    }
+}
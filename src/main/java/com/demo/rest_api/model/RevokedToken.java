@@ -0,0 +1,46 @@
+/*
+ * ****************************************************************************
+ * File: RevokedToken.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents a revoked session token and is mapped to a MongoDB
+ * collection called "revoked_token". Each document is keyed by the token ID
+ * (the JWT "jti" claim) and is removed automatically by a TTL index once the
+ * original token would have expired anyway.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "revoked_token" )
+public class RevokedToken
+{
+    @Id
+    private String tokenId;
+
+    private Instant expiresAt;
+
+    public RevokedToken( String tokenId, Instant expiresAt )
+    {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId()
+    {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt()
+    {
+        return expiresAt;
+    }
+}
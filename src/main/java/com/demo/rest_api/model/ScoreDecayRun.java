@@ -0,0 +1,67 @@
+/*
+ * ****************************************************************************
+ * File: ScoreDecayRun.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents one nightly run of the inactivity score decay and is
+ * mapped to a MongoDB collection called "score_decay_run". The ID is the UTC
+ * date of the run, so that the decay is applied at most once a day even when
+ * several instances are running. It reports how many users were decayed, and
+ * by how many points in total.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "score_decay_run" )
+public class ScoreDecayRun
+{
+    @Id
+    private String id;
+
+    private Instant startTime;
+    private Instant finishTime;
+    private long decayedUserCount;
+    private long decayedPoints;
+
+    public ScoreDecayRun() {}
+
+    public ScoreDecayRun( String id, Instant startTime )
+    {
+        this.id = id;
+        this.startTime = startTime;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public Instant getStartTime()
+    {
+        return startTime;
+    }
+
+    public Instant getFinishTime()
+    {
+        return finishTime;
+    }
+
+    public long getDecayedUserCount()
+    {
+        return decayedUserCount;
+    }
+
+    public long getDecayedPoints()
+    {
+        return decayedPoints;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * ****************************************************************************
+ * File: ScoreLedgerEntry.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents one immutable entry of the score ledger and is mapped
+ * to a MongoDB collection called "score_ledger". Every score change is
+ * recorded as a transaction of entries whose points add up to zero: points
+ * won in a game are balanced by an entry of the house (an entry without a
+ * user ID), and a point transfer by the opposite entry of the other user.
+ *
+ * Most entries are already reflected in "User.score" when they are written.
+ * Pending entries ("isPending" set) are not, and are folded into the score
+ * by the compactor; "compactionId" is the compaction that has claimed them.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "score_ledger" )
+public class ScoreLedgerEntry
+{
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private ObjectId transactionId;
+    private ObjectId userId;
+    private int points;
+    private ScoreChangeReason reason;
+    private Instant time;
+
+    // Only set while the entry is pending, so that the indexes over pending entries stay small.
+    private Boolean isPending;
+    private ObjectId compactionId;
+
+    public ScoreLedgerEntry() {}
+
+    public ScoreLedgerEntry( ObjectId transactionId, ObjectId userId, int points, ScoreChangeReason reason, Instant time, boolean isPending )
+    {
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.points = points;
+        this.reason = reason;
+        this.time = time;
+        this.isPending = isPending ? Boolean.TRUE : null;
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public ObjectId getTransactionId()
+    {
+        return transactionId;
+    }
+
+    // Null for the entries of the house.
+    public ObjectId getUserId()
+    {
+        return userId;
+    }
+
+    public int getPoints()
+    {
+        return points;
+    }
+
+    public ScoreChangeReason getReason()
+    {
+        return reason;
+    }
+
+    public Instant getTime()
+    {
+        return time;
+    }
+
+    public boolean getIsPending()
+    {
+        return isPending != null;
+    }
+
+    public ObjectId getCompactionId()
+    {
+        return compactionId;
+    }
+}
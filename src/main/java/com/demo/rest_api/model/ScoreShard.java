@@ -0,0 +1,58 @@
+/*
+ * ****************************************************************************
+ * File: ScoreShard.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents one sub-counter of a sharded score and is mapped to a
+ * MongoDB collection called "score_shard". A shard holds part of the user's
+ * reserved score ("available"), from which debits can be taken without
+ * writing the user document, and the points debited since the shard was last
+ * folded back into "User.score" ("spent").
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document( collection = "score_shard" )
+public class ScoreShard
+{
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private int index;
+    private int available;
+    private int spent;
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public ObjectId getUserId()
+    {
+        return userId;
+    }
+
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public int getAvailable()
+    {
+        return available;
+    }
+
+    public int getSpent()
+    {
+        return spent;
+    }
+}
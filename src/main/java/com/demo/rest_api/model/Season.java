@@ -0,0 +1,108 @@
+/*
+ * ****************************************************************************
+ * File: Season.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents a season that has ended and is mapped to a MongoDB
+ * collection called "season". It is created when the season rolls over, and
+ * records the progress of the rollover: "lastUserId" is the checkpoint of the
+ * users processed so far (in "_id" order), so that an interrupted rollover
+ * can be resumed from the next user; "leaseExpiryTime" keeps other instances
+ * from rolling over the same season at the same time.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.SeasonStatus;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "season" )
+public class Season
+{
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private int number;
+    private SeasonStatus status;
+    private Instant startTime;
+    private Instant rolloverTime;
+    private Instant finishTime;
+    private long totalUserCount;
+    private long processedUserCount;
+    private long archivedUserCount;
+    private ObjectId lastUserId;
+    private Instant leaseExpiryTime;
+
+    public Season() {}
+
+    public Season( int number, Instant startTime, Instant rolloverTime, long totalUserCount, Instant leaseExpiryTime )
+    {
+        this.number = number;
+        this.status = SeasonStatus.RollingOver;
+        this.startTime = startTime;
+        this.rolloverTime = rolloverTime;
+        this.totalUserCount = totalUserCount;
+        this.leaseExpiryTime = leaseExpiryTime;
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public int getNumber()
+    {
+        return number;
+    }
+
+    public SeasonStatus getStatus()
+    {
+        return status;
+    }
+
+    // When the season began (the rollover of the previous season), or null for the first season.
+    public Instant getStartTime()
+    {
+        return startTime;
+    }
+
+    // When the season ended.
+    public Instant getRolloverTime()
+    {
+        return rolloverTime;
+    }
+
+    public Instant getFinishTime()
+    {
+        return finishTime;
+    }
+
+    // An estimate of the number of users to process, taken when the rollover started.
+    public long getTotalUserCount()
+    {
+        return totalUserCount;
+    }
+
+    public long getProcessedUserCount()
+    {
+        return processedUserCount;
+    }
+
+    public long getArchivedUserCount()
+    {
+        return archivedUserCount;
+    }
+
+    public ObjectId getLastUserId()
+    {
+        return lastUserId;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * ****************************************************************************
+ * File: SeasonArchiveEntry.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the final leaderboard position of a user in a season
+ * and is mapped to a MongoDB collection called "season_archive". The score
+ * and counters are the ones that were reset at the rollover; the rank is
+ * assigned once all the users of the season have been archived.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document( collection = "season_archive" )
+public class SeasonArchiveEntry
+{
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private ObjectId seasonId;
+    private ObjectId userId;
+    private String username;
+    private String displayName;
+    private int score;
+    private int attempts;
+    private int rounds;
+    private Long rank;
+
+    public SeasonArchiveEntry() {}
+
+    public SeasonArchiveEntry( ObjectId seasonId, User user )
+    {
+        this.seasonId = seasonId;
+        this.userId = user.getId();
+        this.username = user.getUsername();
+        this.displayName = user.getDisplayName();
+        this.score = user.getScore();
+        this.attempts = user.getAttempts();
+        this.rounds = user.getRounds();
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public ObjectId getSeasonId()
+    {
+        return seasonId;
+    }
+
+    public ObjectId getUserId()
+    {
+        return userId;
+    }
+
+    public String getUsername()
+    {
+        return username;
+    }
+
+    public String getDisplayName()
+    {
+        return displayName;
+    }
+
+    public int getScore()
+    {
+        return score;
+    }
+
+    public int getAttempts()
+    {
+        return attempts;
+    }
+
+    public int getRounds()
+    {
+        return rounds;
+    }
+
+    // Null until the season has been archived. Users with the same score, attempts and rounds share a rank.
+    public Long getRank()
+    {
+        return rank;
+    }
+}
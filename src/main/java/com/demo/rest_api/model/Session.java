@@ -0,0 +1,64 @@
+/*
+ * ****************************************************************************
+ * File: Session.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents an opaque session and is mapped to a MongoDB
+ * collection called "session". Each document is keyed by the SHA-256 hash of
+ * the session token (the token itself is never stored), and is removed
+ * automatically by a TTL index once the session has expired. Sessions are
+ * keyed by the user's ID; sessions created before that change only have the
+ * username in the "subject" field.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "session" )
+public class Session
+{
+    @Id
+    private String tokenHash;
+
+    private String userId;
+
+    private String subject;
+
+    private Instant expiresAt;
+
+    public Session( String tokenHash, String userId, String subject, Instant expiresAt )
+    {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenHash()
+    {
+        return tokenHash;
+    }
+
+    public String getUserId()
+    {
+        return userId;
+    }
+
+    public String getSubject()
+    {
+        return subject;
+    }
+
+    public Instant getExpiresAt()
+    {
+        return expiresAt;
+    }
+}
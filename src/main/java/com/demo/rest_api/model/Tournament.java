@@ -0,0 +1,94 @@
+/*
+ * ****************************************************************************
+ * File: Tournament.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents a Rock-Paper-Scissors tournament and is mapped to a
+ * MongoDB collection called "tournament". At most one tournament is open for
+ * registration at a time. "completedRounds" is the number of bracket rounds
+ * whose matches have been written, so that an interrupted tournament can be
+ * resumed from the next round; "leaseExpiryTime" keeps other instances from
+ * resolving the same tournament at the same time.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.TournamentStatus;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document( collection = "tournament" )
+public class Tournament
+{
+    @Id
+    private ObjectId id;
+
+    private TournamentStatus status;
+    private Instant createdTime;
+    private Instant startTime;
+    private Instant finishTime;
+    private int entrantCount;
+    private int roundCount;
+    private int completedRounds;
+    private ObjectId winnerId;
+    private String winnerUsername;
+    private Instant leaseExpiryTime;
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public TournamentStatus getStatus()
+    {
+        return status;
+    }
+
+    public Instant getCreatedTime()
+    {
+        return createdTime;
+    }
+
+    public Instant getStartTime()
+    {
+        return startTime;
+    }
+
+    public Instant getFinishTime()
+    {
+        return finishTime;
+    }
+
+    // The number of players in the bracket, known once the tournament has started.
+    public int getEntrantCount()
+    {
+        return entrantCount;
+    }
+
+    public int getRoundCount()
+    {
+        return roundCount;
+    }
+
+    public int getCompletedRounds()
+    {
+        return completedRounds;
+    }
+
+    public ObjectId getWinnerId()
+    {
+        return winnerId;
+    }
+
+    public String getWinnerUsername()
+    {
+        return winnerUsername;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ****************************************************************************
+ * File: TournamentEntry.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents the registration of a user for a tournament and is
+ * mapped to a MongoDB collection called "tournament_entry". The choices are
+ * played in order (and repeated) in the user's matches; if there are none,
+ * a random choice is played. The seed is assigned from the leaderboard when
+ * the tournament starts.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document( collection = "tournament_entry" )
+public class TournamentEntry
+{
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private ObjectId tournamentId;
+    private ObjectId userId;
+    private String username;
+    private List<RockPaperScissors> choices;
+    private Instant registrationTime;
+    private Integer seed;
+
+    public TournamentEntry() {}
+
+    public TournamentEntry( ObjectId tournamentId, ObjectId userId, String username, List<RockPaperScissors> choices, Instant registrationTime )
+    {
+        this.tournamentId = tournamentId;
+        this.userId = userId;
+        this.username = username;
+        this.choices = choices;
+        this.registrationTime = registrationTime;
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public ObjectId getTournamentId()
+    {
+        return tournamentId;
+    }
+
+    public ObjectId getUserId()
+    {
+        return userId;
+    }
+
+    public String getUsername()
+    {
+        return username;
+    }
+
+    public List<RockPaperScissors> getChoices()
+    {
+        return ( choices != null ) ? choices : List.of();
+    }
+
+    public Instant getRegistrationTime()
+    {
+        return registrationTime;
+    }
+
+    // Null until the tournament has started, and for users who registered too late to be seeded.
+    public Integer getSeed()
+    {
+        return seed;
+    }
+
+    public void setSeed( Integer seed )
+    {
+        this.seed = seed;
+    }
+}
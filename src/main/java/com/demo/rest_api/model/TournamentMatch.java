@@ -0,0 +1,100 @@
+/*
+ * ****************************************************************************
+ * File: TournamentMatch.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class represents one match of a tournament bracket and is mapped to a
+ * MongoDB collection called "tournament_match". The position is the index of
+ * the match within its round, so the winners of a round, in order of
+ * position, are the players of the next round. A match without a second
+ * player is a bye.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.model;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+@Document( collection = "tournament_match" )
+public class TournamentMatch
+{
+    @Id
+    private ObjectId id = new ObjectId();
+
+    private ObjectId tournamentId;
+    private int round;
+    private int position;
+
+    // The first player, then the second player (if this is not a bye).
+    private List<ObjectId> playerIds;
+    private List<RockPaperScissors> firstChoices;
+    private List<RockPaperScissors> secondChoices;
+    private ObjectId winnerId;
+
+    public TournamentMatch() {}
+
+    public TournamentMatch( ObjectId tournamentId, int round, int position, List<ObjectId> playerIds,
+                            List<RockPaperScissors> firstChoices, List<RockPaperScissors> secondChoices, ObjectId winnerId )
+    {
+        this.tournamentId = tournamentId;
+        this.round = round;
+        this.position = position;
+        this.playerIds = playerIds;
+        this.firstChoices = firstChoices;
+        this.secondChoices = secondChoices;
+        this.winnerId = winnerId;
+    }
+
+    public ObjectId getId()
+    {
+        return id;
+    }
+
+    public ObjectId getTournamentId()
+    {
+        return tournamentId;
+    }
+
+    public int getRound()
+    {
+        return round;
+    }
+
+    public int getPosition()
+    {
+        return position;
+    }
+
+    public List<ObjectId> getPlayerIds()
+    {
+        return playerIds;
+    }
+
+    public List<RockPaperScissors> getFirstChoices()
+    {
+        return firstChoices;
+    }
+
+    public List<RockPaperScissors> getSecondChoices()
+    {
+        return secondChoices;
+    }
+
+    public ObjectId getWinnerId()
+    {
+        return winnerId;
+    }
+
+    public boolean isBye()
+    {
+        return playerIds.size() < 2;
+    }
+}
@@ -3,7 +3,7 @@
  * File: User.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 25 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class represents a User entity and is mapped to a MongoDB collection
@@ -16,9 +16,11 @@ package com.demo.rest_api.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.bson.codecs.pojo.annotations.BsonId;
 import org.bson.types.ObjectId;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Document( collection = "user" )
 public class User
@@ -42,17 +44,61 @@ public class User
     private int claimedBonusPoints = 0;
     private Instant lastBonusClaimTime = null;
 
-    private boolean hasGuessNumberStarted = false;
     private int guessNumberCurrentRound = 0;
+    private int arrangeNumbersCurrentRound = 0;
+    private int rockPaperScissorsCurrentRound = 0;
+
+    // The game state stored here by earlier versions, before it moved to the "game_session" collection. Only read, so
+    // that it can be moved there (see GameSessionService); it is never written back, which keeps it out of new users.
+    @ReadOnlyProperty
+    private boolean hasGuessNumberStarted = false;
+
+    @ReadOnlyProperty
     private int guessNumberBasic = 0;
+
+    @ReadOnlyProperty
     private int guessNumberSecret = 0;
+
+    @ReadOnlyProperty
     private int guessNumberTrap = 0;
 
+    @ReadOnlyProperty
     private boolean hasArrangeNumbersStarted = false;
-    private int arrangeNumbersCurrentRound = 0;
+
+    @ReadOnlyProperty
     private int[] arrangedNumbers = null;
 
-    private int rockPaperScissorsCurrentRound = 0;
+    // The last score ledger compaction applied to this user, as recorded by earlier versions.
+    @JsonIgnore
+    private ObjectId ledgerCompactionId = null;
+
+    // The most recent score ledger compactions applied to this user. Only kept here so that saving a user does not drop
+    // them.
+    @JsonIgnore
+    private List<ObjectId> ledgerCompactionIds = null;
+
+    // Set while the score of this user is sharded; "reservedScore" is the part of the score held by the score shards.
+    @JsonIgnore
+    private boolean isScoreSharded = false;
+
+    @JsonIgnore
+    private int reservedScore = 0;
+
+    @JsonIgnore
+    private Instant lastScoreShardingTime = null;
+
+    // The last season whose rollover has reset this user's score and counters, so that a resumed rollover does not
+    // reset the user twice.
+    @JsonIgnore
+    private ObjectId lastResetSeasonId = null;
+
+    // When the user last made a game move (written with the move's counters), and when the score was last decayed for
+    // inactivity.
+    @JsonIgnore
+    private Instant lastActivityTime = null;
+
+    @JsonIgnore
+    private Instant lastScoreDecayTime = null;
 
     public User( String username, String password, String displayName )
     {
@@ -62,6 +108,13 @@ public class User
         this.isPasswordEncoded = false;
         this.displayName = displayName;
         this.score = 0;
+        this.lastActivityTime = Instant.now();
+    }
+
+    @JsonIgnore
+    public ObjectId getId()
+    {
+        return this._id;
     }
 
     public String getUsername()
@@ -255,4 +308,40 @@ public class User
     {
         return this.rockPaperScissorsCurrentRound;
     }
+
+    @JsonIgnore
+    public boolean getIsScoreSharded()
+    {
+        return this.isScoreSharded;
+    }
+
+    @JsonIgnore
+    public int getReservedScore()
+    {
+        return this.reservedScore;
+    }
+
+    @JsonIgnore
+    public Instant getLastScoreShardingTime()
+    {
+        return this.lastScoreShardingTime;
+    }
+
+    @JsonIgnore
+    public ObjectId getLastResetSeasonId()
+    {
+        return this.lastResetSeasonId;
+    }
+
+    @JsonIgnore
+    public Instant getLastActivityTime()
+    {
+        return this.lastActivityTime;
+    }
+
+    @JsonIgnore
+    public Instant getLastScoreDecayTime()
+    {
+        return this.lastScoreDecayTime;
+    }
 }
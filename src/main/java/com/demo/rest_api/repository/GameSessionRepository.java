@@ -0,0 +1,21 @@
+/*
+ * ****************************************************************************
+ * File: GameSessionRepository.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface provides CRUD operations for the GameSession entity, extending
+ * MongoRepository to work with MongoDB.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.repository;
+
+import com.demo.rest_api.model.GameSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface GameSessionRepository extends MongoRepository<GameSession,String>
+{
+}
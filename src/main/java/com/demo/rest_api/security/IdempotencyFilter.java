@@ -0,0 +1,331 @@
+/*
+ * ****************************************************************************
+ * File: IdempotencyFilter.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class makes the POST endpoints of the game and auth APIs idempotent
+ * for clients that send an "Idempotency-Key" header (e.g. mobile clients that
+ * retry on timeouts). The first request with a key is processed as usual and
+ * its response is stored by the IdempotencyService; a retry with the same key
+ * is answered with the stored response (marked with an "Idempotent-Replayed"
+ * header) without running the handler again, and a retry that arrives while
+ * the first request is still being processed waits for it. Keys are scoped to
+ * the authenticated user; requests without a session are scoped to the
+ * request itself, so that one client can never be answered with another
+ * client's response. Reusing a key for a different request is rejected.
+ * Logging in is excluded, since its response carries a session token.
+ *
+ * Server errors (5xx) are not stored, so that such requests can be retried.
+ * The filter runs after the security filter chain, so that the caller is
+ * known, and again on async dispatches, to store deferred responses.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import com.demo.rest_api.dto.CannedErrorResponse;
+import com.demo.rest_api.service.IdempotencyService;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter
+{
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> PATH_PREFIXES = List.of( "/api/game/", "/api/auth/" );
+
+    // Logging in issues a session token, which must neither be stored nor be handed out again after a logout.
+    private static final Set<String> EXCLUDED_PATHS = Set.of(
+        "/api/auth/login",
+        "/api/auth" + Constants.API_PATH_SUFFIX_FOR_FORM_URLENCODED + "/login"
+    );
+
+    // Carry the claim of a request from its initial dispatch to the async dispatch that writes the deferred response.
+    private static final String KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".key";
+    private static final String FINGERPRINT_ATTRIBUTE = IdempotencyFilter.class.getName() + ".fingerprint";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter( @Nonnull HttpServletRequest request )
+    {
+        return !HttpMethod.POST.matches( request.getMethod() )
+               || request.getHeader( Constants.IDEMPOTENCY_KEY_HEADER ) == null
+               || PATH_PREFIXES.stream().noneMatch( request.getRequestURI()::startsWith )
+               || EXCLUDED_PATHS.contains( request.getRequestURI() );
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch()
+    {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @Nonnull HttpServletRequest request,
+        @Nonnull HttpServletResponse response,
+        @Nonnull FilterChain filterChain
+    ) throws ServletException, IOException
+    {
+        if (isAsyncDispatch( request ))
+        {
+            filterChain.doFilter( request, response );
+
+            String key = ( String )request.getAttribute( KEY_ATTRIBUTE );
+            ContentCachingResponseWrapper responseWrapper = WebUtils.getNativeResponse( response, ContentCachingResponseWrapper.class );
+
+            if (key != null && responseWrapper != null && !request.isAsyncStarted())
+            {
+                complete( key, ( String )request.getAttribute( FINGERPRINT_ATTRIBUTE ), responseWrapper );
+            }
+
+            return;
+        }
+
+        String idempotencyKey = request.getHeader( Constants.IDEMPOTENCY_KEY_HEADER );
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+        {
+            CannedErrorResponse.IDEMPOTENCY_KEY_INVALID.writeTo( response );
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest( request );
+        String fingerprint = getFingerprint( cachedRequest );
+        String key = getScope( fingerprint ) + ":" + idempotencyKey;
+
+        IdempotencyService.Claim claim = idempotencyService.claim( key, fingerprint );
+
+        if (claim.status() == IdempotencyService.ClaimStatus.InProgress)
+        {
+            CannedErrorResponse.IDEMPOTENCY_KEY_IN_PROGRESS.writeTo( response );
+            return;
+        }
+
+        if (claim.status() == IdempotencyService.ClaimStatus.Completed)
+        {
+            if (!fingerprint.equals( claim.response().fingerprint() ))
+            {
+                CannedErrorResponse.IDEMPOTENCY_KEY_REUSED.writeTo( response );
+                return;
+            }
+
+            replay( claim.response(), response );
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper( response );
+
+        try
+        {
+            filterChain.doFilter( cachedRequest, responseWrapper );
+        }
+        catch ( IOException | ServletException | RuntimeException e )
+        {
+            idempotencyService.abandon( key );
+            throw e;
+        }
+
+        if (request.isAsyncStarted())
+        {
+            // The response is written (and stored) by the async dispatch.
+            request.setAttribute( KEY_ATTRIBUTE, key );
+            request.setAttribute( FINGERPRINT_ATTRIBUTE, fingerprint );
+            return;
+        }
+
+        complete( key, fingerprint, responseWrapper );
+    }
+
+    private void complete( String key, String fingerprint, ContentCachingResponseWrapper responseWrapper ) throws IOException
+    {
+        int status = responseWrapper.getStatus();
+
+        if (status >= 500)
+        {
+            idempotencyService.abandon( key );
+        }
+        else
+        {
+            idempotencyService.complete(
+                key,
+                new IdempotencyService.StoredResponse( fingerprint, status, responseWrapper.getContentType(), responseWrapper.getContentAsByteArray() )
+            );
+        }
+
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static void replay( IdempotencyService.StoredResponse storedResponse, HttpServletResponse response ) throws IOException
+    {
+        response.setStatus( storedResponse.status() );
+        response.setHeader( Constants.IDEMPOTENT_REPLAYED_HEADER, "true" );
+
+        if (storedResponse.contentType() != null)
+        {
+            response.setContentType( storedResponse.contentType() );
+        }
+
+        byte[] body = ( storedResponse.body() != null ) ? storedResponse.body() : new byte[ 0 ];
+        response.setContentLength( body.length );
+        response.getOutputStream().write( body );
+    }
+
+    // The authenticated user, or the request itself for requests without a session (e.g. logging in).
+    private static String getScope( String fingerprint )
+    {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof SessionPrincipal principal)
+        {
+            return principal.hasUserId() ? principal.userId() : principal.username();
+        }
+
+        return "anonymous:" + fingerprint;
+    }
+
+    // Identifies a request by its method, path, parameters (including form fields) and body.
+    private static String getFingerprint( CachedBodyRequest request )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+
+            for (Map.Entry<String,String[]> parameter : new TreeMap<>( request.getParameterMap() ).entrySet())
+            {
+                digest.update( parameter.getKey().getBytes( StandardCharsets.UTF_8 ) );
+
+                for (String value : parameter.getValue())
+                {
+                    digest.update( ( byte )'=' );
+                    digest.update( value.getBytes( StandardCharsets.UTF_8 ) );
+                }
+
+                digest.update( ( byte )'&' );
+            }
+
+            digest.update( request.body );
+
+            return request.getMethod() + " " + request.getRequestURI() + " " + HexFormat.of().formatHex( digest.digest() );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    // Reads the body up front, so that it can be part of the fingerprint and still be read by the handler. Form bodies
+    // are left to the servlet container, which reads them as parameters.
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper
+    {
+        private final byte[] body;
+
+        CachedBodyRequest( HttpServletRequest request ) throws IOException
+        {
+            super( request );
+
+            String contentType = request.getContentType();
+            boolean isForm = contentType != null && contentType.startsWith( MediaType.APPLICATION_FORM_URLENCODED_VALUE );
+            body = isForm ? new byte[ 0 ] : request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException
+        {
+            if (body.length == 0)
+            {
+                return super.getInputStream();
+            }
+
+            ByteArrayInputStream inputStream = new ByteArrayInputStream( body );
+
+            return new ServletInputStream()
+            {
+                @Override
+                public boolean isFinished()
+                {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady()
+                {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener( ReadListener readListener )
+                {
+                    // The whole body is already in memory, so it can be read at once.
+                    try
+                    {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    }
+                    catch ( IOException e )
+                    {
+                        readListener.onError( e );
+                    }
+                }
+
+                @Override
+                public int read()
+                {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read( @Nonnull byte[] buffer, int offset, int length )
+                {
+                    return inputStream.read( buffer, offset, length );
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException
+        {
+            if (body.length == 0)
+            {
+                return super.getReader();
+            }
+
+            String encoding = getCharacterEncoding();
+            return new BufferedReader( new InputStreamReader( getInputStream(), ( encoding != null ) ? encoding : StandardCharsets.UTF_8.name() ) );
+        }
+    }
+}
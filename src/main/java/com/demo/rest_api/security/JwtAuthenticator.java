@@ -3,16 +3,22 @@
  * File: JwtUtil.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 24 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This class provides functionality for working with JSON Web Tokens (JWTs).
- * It includes methods for generating and validating JWTs.
+ * It includes methods for generating, validating and revoking JWTs. Every
+ * token carries a unique token ID ("jti" claim) so that it can be revoked
+ * before it expires. The subject of a token is the user's ID; tokens whose
+ * subject is the username are from before that change.
  * ****************************************************************************
  */
 
 package com.demo.rest_api.security;
 
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -21,30 +27,77 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
-public class JwtAuthenticator
+public class JwtAuthenticator implements SessionAuthenticator
 {
     @Autowired
     private SecretKey jwtSecretKey;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     // Token valid for 1 day.
     private static final long EXPIRATION_TIME_MS = 24 * 60 * 60 * 1000;
 
-    // Generates a JWT token for the given subject.
-    public String generateToken( String subject )
+    // Marks tokens whose subject is the user's ID rather than the username.
+    private static final String SUBJECT_TYPE_CLAIM = "sbt";
+    private static final String SUBJECT_TYPE_USER_ID = "uid";
+
+    // Generates a JWT token using the user's ID as the subject.
+    @Override
+    public String generateToken( User user )
     {
         return Jwts.builder()
-                .setSubject( subject )
+                .setId( UUID.randomUUID().toString() )
+                .setSubject( user.getId().toHexString() )
+                .claim( SUBJECT_TYPE_CLAIM, SUBJECT_TYPE_USER_ID )
                 .setIssuedAt( new Date() )
                 .setExpiration( new Date(System.currentTimeMillis() + EXPIRATION_TIME_MS ) )
                 .signWith( jwtSecretKey, SignatureAlgorithm.HS256 )
                 .compact();
     }
 
-    // Validates a JWT token and returns the subject if valid.
+    // Validates a JWT token and returns its principal if valid.
+    // Returns null if the token is invalid, expired or revoked.
+    @Override
+    public SessionPrincipal validateToken( String token )
+    {
+        Claims claims = parseToken( token );
+
+        if (claims == null || claims.getSubject() == null || tokenRevocationService.isRevoked( claims.getId() ))
+        {
+            return null;
+        }
+
+        if (SUBJECT_TYPE_USER_ID.equals( claims.get( SUBJECT_TYPE_CLAIM, String.class ) ))
+        {
+            return SessionPrincipal.ofUserId( claims.getSubject() );
+        }
+
+        return SessionPrincipal.ofLegacyUsername( claims.getSubject() );
+    }
+
+    // Revokes a JWT token until its original expiration time.
+    // Returns false if the token is invalid or has already expired.
+    @Override
+    public boolean revokeToken( String token )
+    {
+        Claims claims = parseToken( token );
+
+        if (claims == null)
+        {
+            return false;
+        }
+
+        tokenRevocationService.revoke( claims.getId(), claims.getExpiration().toInstant() );
+        return true;
+    }
+
+    // Validates a JWT token and returns all of its claims if valid.
     // Returns null if the token is invalid or expired.
-    public String validateToken( String token )
+    public Claims parseToken( String token )
     {
         try
         {
@@ -52,12 +105,11 @@ public class JwtAuthenticator
                     .setSigningKey(jwtSecretKey)
                     .build()
                     .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
+                    .getBody();
         }
-        catch ( JwtException e )
+        catch ( JwtException | IllegalArgumentException e )
         {
-            // Invalid token (expired, malformed, tampered, etc.)
+            // Invalid token (expired, malformed, tampered, empty, etc.)
             return null;
         }
     }
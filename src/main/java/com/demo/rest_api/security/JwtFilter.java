@@ -3,20 +3,25 @@
  * File: JwtFilter.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
- * This class intercepts incoming HTTP requests to perform JWT-based
- * authentication. It extracts the JWT token from the Authorization header,
- * validates it, and if valid, loads the corresponding user details. The
- * authenticated user is then stored in the Spring SecurityContext, enabling
- * access to secured endpoints. If validation fails, the response is returned
- * with a 401 Unauthorized status.
+ * This class intercepts incoming HTTP requests to perform token-based
+ * authentication. It extracts the session token (a JWT or an opaque token,
+ * depending on the session mode) from the Authorization header, validates it
+ * through the SessionAuthenticator, and if valid, loads the corresponding user
+ * by ID. For endpoints marked with TrustedSession, the principal of the
+ * verified token is trusted as-is and no user is loaded. The session principal
+ * is then stored in the Spring SecurityContext, enabling access to secured
+ * endpoints. If validation fails, a pre-serialized error response is written
+ * directly (401 Unauthorized, or 404 Not Found if the user no longer exists).
  * ****************************************************************************
  */
 
 package com.demo.rest_api.security;
 
+import com.demo.rest_api.dto.CannedErrorResponse;
+import com.demo.rest_api.model.User;
 import com.demo.rest_api.utils.Constants;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
@@ -24,24 +29,34 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import com.demo.rest_api.service.UserService;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter
 {
     @Autowired
-    private JwtAuthenticator jwtAuthenticator;
+    private SessionAuthenticator sessionAuthenticator;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TrustedSessionRoutes trustedSessionRoutes;
+
+    // Whether tokens issued before sessions were keyed by user ID are still accepted. Such tokens expire on their
+    // own within a day, after which this can be turned off.
+    @Value( "${LEGACY_USERNAME_TOKENS_ENABLED:true}" )
+    private boolean isLegacyUsernameTokensEnabled;
+
     @Override
     protected void doFilterInternal(
         @Nonnull HttpServletRequest request,
@@ -57,27 +72,47 @@ public class JwtFilter extends OncePerRequestFilter
 
             try
             {
-                // Validate the JWT token and return its subject (username).
-                String username = jwtAuthenticator.validateToken( token );
+                // Validate the session token and return its principal (user ID).
+                // Invalid, expired and revoked tokens all leave the request unauthenticated.
+                SessionPrincipal principal = sessionAuthenticator.validateToken( token );
+
+                if (principal != null && !principal.hasUserId() && !isLegacyUsernameTokensEnabled)
+                {
+                    principal = null;
+                }
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null)
+                if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null)
                 {
-                    UserDetails userDetails = userService.loadUserByUsername( username );
+                    if (!trustedSessionRoutes.matches( request ) || !principal.hasUserId())
+                    {
+                        // Make sure that the user still exists. This also resolves legacy tokens to the user's ID.
+                        User user = userService.findBySessionPrincipal( principal )
+                                .orElseThrow( () -> new UsernameNotFoundException( "User not found." ) );
+
+                        principal = new SessionPrincipal( user.getId().toHexString(), user.getUsername() );
+                    }
+                    // Otherwise, the endpoint only needs to know that the caller is authenticated, so trust the
+                    // verified token principal and skip loading the user from the database.
 
                     UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            Collections.emptyList() // No roles or authorities.
                         );
 
                     // Set the authenticated user in the SecurityContext.
                     SecurityContextHolder.getContext().setAuthentication( authentication );
                 }
             }
+            catch ( UsernameNotFoundException e )
+            {
+                CannedErrorResponse.SESSION_USER_NOT_FOUND.writeTo( response );
+                return;
+            }
             catch ( Exception e )
             {
-                response.setStatus( HttpServletResponse.SC_UNAUTHORIZED );
+                CannedErrorResponse.NOT_LOGGED_IN.writeTo( response );
                 return;
             }
         }
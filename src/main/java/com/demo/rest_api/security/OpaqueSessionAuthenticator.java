@@ -0,0 +1,240 @@
+/*
+ * ****************************************************************************
+ * File: OpaqueSessionAuthenticator.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class issues and validates opaque session tokens as an alternative to
+ * JWTs. A token is a random 128-bit value with no meaning of its own. Active
+ * sessions are kept in a concurrent in-memory table, so that validating a
+ * token on the request path is a single hash lookup. Sessions use sliding
+ * expiry and are persisted to the TTL-indexed "session" collection, so that
+ * they survive restarts and can be validated by other application instances.
+ * Each in-memory session is re-synchronised with the collection at a fixed
+ * interval, which both extends its expiry in the database and detects
+ * sessions that have been revoked on another instance.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import com.demo.rest_api.model.Session;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.repository.SessionRepository;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Only created in opaque session mode, so that its index and its scheduled clean-up do not run in JWT mode.
+@Component
+@Conditional( OpaqueSessionModeCondition.class )
+public class OpaqueSessionAuthenticator implements SessionAuthenticator
+{
+    private static final int TOKEN_SIZE_BYTES = 16; // 128 bits.
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Sessions expire after this long without being used. Defaults to 1 day, the same as JWTs.
+    @Value( "${SESSION_TTL_MS:86400000}" )
+    private long sessionTtlMs;
+
+    // How often an in-memory session is written back to the "session" collection while in use.
+    @Value( "${SESSION_SYNC_INTERVAL_MS:60000}" )
+    private long sessionSyncIntervalMs;
+
+    private final Map<String,ActiveSession> activeSessions = new ConcurrentHashMap<>();
+
+    private static final class ActiveSession
+    {
+        private final String tokenHash;
+        private final SessionPrincipal principal;
+        private volatile long expiresAtMs;
+        private volatile long syncedAtMs;
+
+        private ActiveSession( String tokenHash, SessionPrincipal principal, long expiresAtMs, long syncedAtMs )
+        {
+            this.tokenHash = tokenHash;
+            this.principal = principal;
+            this.expiresAtMs = expiresAtMs;
+            this.syncedAtMs = syncedAtMs;
+        }
+    }
+
+    @PostConstruct
+    public void initialize()
+    {
+        // Documents are removed by MongoDB as soon as their "expiresAt" time has passed.
+        mongoTemplate.indexOps( Session.class ).createIndex(
+            new Index().on( Constants.DATABASE_SESSION_EXPIRES_AT_KEY, Sort.Direction.ASC ).expire( Duration.ZERO )
+        );
+    }
+
+    // Generates a random opaque session token for the given user.
+    @Override
+    public String generateToken( User user )
+    {
+        byte[] randomBytes = new byte[ TOKEN_SIZE_BYTES ];
+        SECURE_RANDOM.nextBytes( randomBytes );
+
+        String token = TOKEN_ENCODER.encodeToString( randomBytes );
+        String tokenHash = hashToken( token );
+        long timeNowMs = System.currentTimeMillis();
+        long expiresAtMs = timeNowMs + sessionTtlMs;
+        String userId = user.getId().toHexString();
+
+        sessionRepository.save( new Session( tokenHash, userId, null, Instant.ofEpochMilli( expiresAtMs ) ) );
+        activeSessions.put( token, new ActiveSession( tokenHash, SessionPrincipal.ofUserId( userId ), expiresAtMs, timeNowMs ) );
+
+        return token;
+    }
+
+    // Validates an opaque session token and returns its principal if valid.
+    // Returns null if the token is unknown, expired or revoked.
+    @Override
+    public SessionPrincipal validateToken( String token )
+    {
+        if (token == null || token.isEmpty())
+        {
+            return null;
+        }
+
+        long timeNowMs = System.currentTimeMillis();
+        ActiveSession session = activeSessions.get( token );
+
+        if (session == null)
+        {
+            // Not known on this instance yet (e.g. after a restart, or issued by another instance).
+            session = loadSession( token, timeNowMs );
+
+            if (session == null)
+            {
+                return null;
+            }
+        }
+
+        if (session.expiresAtMs <= timeNowMs)
+        {
+            activeSessions.remove( token, session );
+            return null;
+        }
+
+        // Sliding expiry: every use extends the session.
+        session.expiresAtMs = timeNowMs + sessionTtlMs;
+
+        if (timeNowMs - session.syncedAtMs >= sessionSyncIntervalMs && !syncSession( session, timeNowMs ))
+        {
+            // The session no longer exists in the database, so it has been revoked on another instance.
+            activeSessions.remove( token, session );
+            return null;
+        }
+
+        return session.principal;
+    }
+
+    // Revokes an opaque session token on all instances.
+    // Returns false if the token is unknown or has already expired.
+    @Override
+    public boolean revokeToken( String token )
+    {
+        if (token == null || token.isEmpty())
+        {
+            return false;
+        }
+
+        ActiveSession session = activeSessions.remove( token );
+        String tokenHash = ( session != null ) ? session.tokenHash : hashToken( token );
+
+        boolean existed = ( session != null ) || sessionRepository.existsById( tokenHash );
+        sessionRepository.deleteById( tokenHash );
+
+        return existed;
+    }
+
+    // Removes expired sessions from memory. Expired documents are removed from the database by the TTL index.
+    @Scheduled( fixedDelayString = "${SESSION_SYNC_INTERVAL_MS:60000}" )
+    public void removeExpiredSessions()
+    {
+        long timeNowMs = System.currentTimeMillis();
+        activeSessions.values().removeIf( session -> session.expiresAtMs <= timeNowMs );
+    }
+
+    private ActiveSession loadSession( String token, long timeNowMs )
+    {
+        Optional<Session> storedSession = sessionRepository.findById( hashToken( token ) );
+
+        if (storedSession.isEmpty() || !storedSession.get().getExpiresAt().isAfter( Instant.ofEpochMilli( timeNowMs ) ))
+        {
+            return null;
+        }
+
+        Session session = storedSession.get();
+        ActiveSession activeSession = new ActiveSession(
+            session.getTokenHash(),
+            ( session.getUserId() != null )
+                ? SessionPrincipal.ofUserId( session.getUserId() )
+                : SessionPrincipal.ofLegacyUsername( session.getSubject() ),
+            session.getExpiresAt().toEpochMilli(),
+            timeNowMs
+        );
+
+        ActiveSession existingSession = activeSessions.putIfAbsent( token, activeSession );
+        return ( existingSession != null ) ? existingSession : activeSession;
+    }
+
+    private boolean syncSession( ActiveSession session, long timeNowMs )
+    {
+        session.syncedAtMs = timeNowMs;
+
+        return mongoTemplate.updateFirst(
+            Query.query( Criteria.where( "_id" ).is( session.tokenHash ) ),
+            Update.update( Constants.DATABASE_SESSION_EXPIRES_AT_KEY, Instant.ofEpochMilli( session.expiresAtMs ) ),
+            Session.class
+        ).getMatchedCount() > 0;
+    }
+
+    // Only the SHA-256 hash of a token is stored, so that a leaked "session" collection cannot be used to log in.
+    private static String hashToken( String token )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+            return HexFormat.of().formatHex( digest.digest( token.getBytes( StandardCharsets.US_ASCII ) ) );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException( e );
+        }
+    }
+}
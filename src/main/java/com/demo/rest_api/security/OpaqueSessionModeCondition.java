@@ -0,0 +1,34 @@
+/*
+ * ****************************************************************************
+ * File: OpaqueSessionModeCondition.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This condition matches when SESSION_MODE selects opaque session tokens. The
+ * value is trimmed and compared ignoring case, the same way the session
+ * authenticator is selected (see SecurityConfig), so that both always agree.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import com.demo.rest_api.utils.Constants;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+public class OpaqueSessionModeCondition implements Condition
+{
+    @Override
+    public boolean matches( ConditionContext context, AnnotatedTypeMetadata metadata )
+    {
+        return isOpaqueSessionMode( context.getEnvironment().getProperty( "SESSION_MODE", Constants.SESSION_MODE_JWT ) );
+    }
+
+    public static boolean isOpaqueSessionMode( String sessionMode )
+    {
+        return Constants.SESSION_MODE_OPAQUE.equalsIgnoreCase( sessionMode.trim() );
+    }
+}
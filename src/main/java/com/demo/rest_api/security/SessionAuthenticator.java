@@ -0,0 +1,31 @@
+/*
+ * ****************************************************************************
+ * File: SessionAuthenticator.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This interface defines how session tokens are issued, validated and
+ * revoked. The implementation in use is selected in the SecurityConfig class,
+ * so that controllers and filters do not depend on the token format.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import com.demo.rest_api.model.User;
+
+public interface SessionAuthenticator
+{
+    // Generates a session token for the given user, keyed by the user's ID.
+    String generateToken( User user );
+
+    // Validates a session token and returns its principal if valid.
+    // Returns null if the token is invalid, expired or revoked.
+    SessionPrincipal validateToken( String token );
+
+    // Revokes a session token so that it can no longer be used.
+    // Returns false if the token is invalid or has already expired.
+    boolean revokeToken( String token );
+}
@@ -0,0 +1,35 @@
+/*
+ * ****************************************************************************
+ * File: SessionPrincipal.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This record represents the identity carried by a verified session token.
+ * Sessions are keyed by the user's immutable ID. Tokens issued before that
+ * change only carry the username, and are still accepted during the
+ * compatibility window (see LEGACY_USERNAME_TOKENS_ENABLED).
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+public record SessionPrincipal( String userId, String username )
+{
+    public static SessionPrincipal ofUserId( String userId )
+    {
+        return new SessionPrincipal( userId, null );
+    }
+
+    // For tokens issued before sessions were keyed by user ID.
+    public static SessionPrincipal ofLegacyUsername( String username )
+    {
+        return new SessionPrincipal( null, username );
+    }
+
+    public boolean hasUserId()
+    {
+        return userId != null;
+    }
+}
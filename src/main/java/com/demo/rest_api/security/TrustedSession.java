@@ -0,0 +1,25 @@
+/*
+ * ****************************************************************************
+ * File: TrustedSession.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This annotation marks API endpoints that only need to know that the caller
+ * is authenticated. For these endpoints, the JwtFilter trusts the subject of
+ * the verified session token and does not load the user from the database.
+ * It can be placed on a handler method or on an operation annotation.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target( { ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface TrustedSession {}
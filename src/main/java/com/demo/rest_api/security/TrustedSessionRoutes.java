@@ -0,0 +1,85 @@
+/*
+ * ****************************************************************************
+ * File: TrustedSessionRoutes.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class finds the request mappings of all handler methods annotated with
+ * TrustedSession (directly or through an operation annotation), and checks
+ * whether an incoming request targets one of them. The mappings are collected
+ * once, on first use.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.util.List;
+
+@Component
+public class TrustedSessionRoutes
+{
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private volatile List<RequestMappingInfo> trustedRoutes;
+
+    public boolean matches( HttpServletRequest request )
+    {
+        List<RequestMappingInfo> routes = getTrustedRoutes();
+
+        if (routes.isEmpty())
+        {
+            return false;
+        }
+
+        // Request mapping conditions match against the parsed request path.
+        if (!ServletRequestPathUtils.hasParsedRequestPath( request ))
+        {
+            ServletRequestPathUtils.parseAndCache( request );
+        }
+
+        for (RequestMappingInfo route : routes)
+        {
+            if (route.getMatchingCondition( request ) != null)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private List<RequestMappingInfo> getTrustedRoutes()
+    {
+        List<RequestMappingInfo> routes = trustedRoutes;
+
+        if (routes == null)
+        {
+            // The handler mapping is looked up on first use, as it is not yet available when filters are created.
+            RequestMappingHandlerMapping handlerMapping = applicationContext.getBean(
+                "requestMappingHandlerMapping",
+                RequestMappingHandlerMapping.class
+            );
+
+            routes = handlerMapping.getHandlerMethods().entrySet().stream()
+                    .filter( entry -> AnnotatedElementUtils.hasAnnotation( entry.getValue().getMethod(), TrustedSession.class ) )
+                    .map( entry -> entry.getKey() )
+                    .toList();
+
+            trustedRoutes = routes;
+        }
+
+        return routes;
+    }
+}
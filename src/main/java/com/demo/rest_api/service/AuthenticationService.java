@@ -3,23 +3,27 @@
  * File: AuthenticationService.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This service class handles user authentication logic in a Spring-based
  * application. It is responsible for retrieving the authenticated user's
  * information from the SecurityContext and checking if the user is valid and
  * logged in. It interacts with the UserService to fetch user details based on
- * the username from the JWT token.
+ * the user ID from the session token. Endpoints that only need to know that
+ * the caller is logged in can check the session without loading the user.
+ * Failures are answered with pre-serialized CannedErrorResponse bodies.
+ * State-changing actions of the caller are run through the
+ * UserMutationExecutor (see runAsUserMutation()).
  * ****************************************************************************
  */
 
 package com.demo.rest_api.service;
 
-import com.demo.rest_api.dto.ServerApiResponse;
+import com.demo.rest_api.dto.CannedErrorResponse;
 import com.demo.rest_api.model.User;
+import com.demo.rest_api.security.SessionPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -27,6 +31,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class AuthenticationService
@@ -34,32 +39,71 @@ public class AuthenticationService
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserMutationExecutor userMutationExecutor;
+
     public ResponseEntity<?> getAuthenticatedUserOrError()
     {
-        // At this point, the JwtFilter class should have already set the authenticated user
-        // in the SecurityContext via the doFilterInternal() method.
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SessionPrincipal principal = getSessionPrincipal();
 
-        // Check if the authentication object is null or an anonymous user (no actual authentication).
-        if (authentication == null || authentication instanceof AnonymousAuthenticationToken)
+        if (principal == null)
         {
-            return ServerApiResponse.generateResponseEntity(
-                    HttpStatus.UNAUTHORIZED,
-                    "You are not logged in, or your session token is invalid or has expired. Please use the 'api/auth/login' endpoint to log in again."
-            );
+            return CannedErrorResponse.NOT_LOGGED_IN.getResponseEntity();
         }
 
-        String username = authentication.getName();  // From JWT token subject.
-        Optional<User> userOpt = userService.findByUsername( username );
+        // From session token subject, which is the user's ID (a primary key lookup).
+        Optional<User> userOpt = userService.findBySessionPrincipal( principal );
 
         if (userOpt.isEmpty())
         {
-            return ServerApiResponse.generateResponseEntity(
-                    HttpStatus.NOT_FOUND,
-                    "The user associated with the current session token was not found. Please use the 'api/auth/login' endpoint to log in again."
-            );
+            return CannedErrorResponse.SESSION_USER_NOT_FOUND.getResponseEntity();
         }
 
         return ResponseEntity.ok( userOpt.get() );
     }
+
+    // Returns the principal of the verified session token without loading the user from the database.
+    // Intended for endpoints marked with TrustedSession, which need to know that the caller is logged in, but not who
+    // the caller currently is in the database.
+    public ResponseEntity<?> getAuthenticatedPrincipalOrError()
+    {
+        SessionPrincipal principal = getSessionPrincipal();
+
+        if (principal == null)
+        {
+            return CannedErrorResponse.NOT_LOGGED_IN.getResponseEntity();
+        }
+
+        return ResponseEntity.ok( principal );
+    }
+
+    // Runs a state-changing action while holding the caller's lock, so that the actions of one user run one at a time
+    // (e.g. two concurrent guesses cannot both start a new round). The user is loaded inside the lock, so that the
+    // action sees the changes of the previous one. Actions of different users run in parallel.
+    public ResponseEntity<?> runAsUserMutation( Supplier<ResponseEntity<?>> action )
+    {
+        SessionPrincipal principal = getSessionPrincipal();
+
+        if (principal == null)
+        {
+            return CannedErrorResponse.NOT_LOGGED_IN.getResponseEntity();
+        }
+
+        return userMutationExecutor.execute( principal.hasUserId() ? principal.userId() : principal.username(), action );
+    }
+
+    private SessionPrincipal getSessionPrincipal()
+    {
+        // At this point, the JwtFilter class should have already set the authenticated user
+        // in the SecurityContext via the doFilterInternal() method.
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Check if the authentication object is null or an anonymous user (no actual authentication).
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken)
+        {
+            return null;
+        }
+
+        return ( authentication.getPrincipal() instanceof SessionPrincipal principal ) ? principal : null;
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * ****************************************************************************
+ * File: GameEventLog.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class is the append-only log of game events. Recording an
+ * event only puts it into a bounded in-memory ring buffer (an array-backed
+ * queue of GAME_EVENT_LOG_CAPACITY events), so the request path never waits
+ * for the database. A background writer thread drains the buffer and inserts
+ * the events into the "game_events" collection in unordered bulk writes of
+ * up to GAME_EVENT_LOG_BATCH_SIZE events. If the buffer is full (e.g. the
+ * database is down for a while), new events are dropped and counted rather
+ * than slowing down gameplay; the writer reports the number of dropped
+ * events in the log.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class GameEventLog
+{
+    private static final Logger logger = LoggerFactory.getLogger( GameEventLog.class );
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value( "${GAME_EVENT_LOG_CAPACITY:65536}" )
+    private int capacity;
+
+    @Value( "${GAME_EVENT_LOG_BATCH_SIZE:1000}" )
+    private int batchSize;
+
+    // How long the writer waits for the first event of a batch before checking whether it should stop.
+    @Value( "${GAME_EVENT_LOG_POLL_INTERVAL_MS:1000}" )
+    private long pollIntervalMs;
+
+    // How long the writer waits before retrying a batch that could not be written.
+    @Value( "${GAME_EVENT_LOG_RETRY_DELAY_MS:1000}" )
+    private long retryDelayMs;
+
+    private BlockingQueue<GameEvent> buffer;
+    private final LongAdder droppedEventCount = new LongAdder();
+
+    private Thread writerThread;
+    private volatile boolean isRunning = false;
+
+    @PostConstruct
+    public void initialize()
+    {
+        buffer = new ArrayBlockingQueue<>( capacity );
+
+        // Supports reading the history of a user, newest first.
+        mongoTemplate.indexOps( GameEvent.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_GAME_EVENT_USER_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_GAME_EVENT_TIME_KEY, Sort.Direction.DESC )
+        );
+
+        isRunning = true;
+        writerThread = Thread.ofPlatform().name( "game-event-writer" ).daemon().start( this::runWriter );
+    }
+
+    /**
+     * Adds an event to the log without waiting. The event is written to the database in the background.
+     *
+     * @param event The event to record.
+     */
+    public void record( GameEvent event )
+    {
+        if (!buffer.offer( event ))
+        {
+            droppedEventCount.increment();
+        }
+    }
+
+    public void recordAll( List<GameEvent> events )
+    {
+        events.forEach( this::record );
+    }
+
+    // The number of events that have been dropped since the application started, because the buffer was full or
+    // because they could not be written.
+    public long getDroppedEventCount()
+    {
+        return droppedEventCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        // The writer drains what is left in the buffer before it stops.
+        isRunning = false;
+
+        try
+        {
+            writerThread.join( SHUTDOWN_TIMEOUT_MS );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!buffer.isEmpty())
+        {
+            logger.warn( "Stopped with {} game event(s) not written.", buffer.size() );
+        }
+    }
+
+    private void runWriter()
+    {
+        List<GameEvent> batch = new ArrayList<>( batchSize );
+        long reportedDroppedEventCount = 0;
+
+        while (isRunning || !buffer.isEmpty())
+        {
+            try
+            {
+                GameEvent firstEvent = buffer.poll( pollIntervalMs, TimeUnit.MILLISECONDS );
+
+                if (firstEvent == null)
+                {
+                    continue;
+                }
+
+                // Take everything that has queued up in the meantime, so that batches grow with the load.
+                batch.add( firstEvent );
+                buffer.drainTo( batch, batchSize - 1 );
+
+                write( batch );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch ( Exception e )
+            {
+                // Keep the writer alive whatever happens; the events of the failed batch are counted as dropped.
+                logger.warn( "Unexpected error in the game event writer.", e );
+                droppedEventCount.add( batch.size() );
+            }
+            finally
+            {
+                batch.clear();
+            }
+
+            long currentDroppedEventCount = droppedEventCount.sum();
+
+            if (currentDroppedEventCount > reportedDroppedEventCount)
+            {
+                logger.warn( "Dropped {} game event(s).", currentDroppedEventCount - reportedDroppedEventCount );
+                reportedDroppedEventCount = currentDroppedEventCount;
+            }
+        }
+    }
+
+    private void write( List<GameEvent> batch ) throws InterruptedException
+    {
+        try
+        {
+            insert( batch );
+            return;
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "Failed to write {} game event(s); will retry once.", batch.size(), e );
+        }
+
+        Thread.sleep( retryDelayMs );
+
+        try
+        {
+            // Events that were inserted by the first attempt fail again with a duplicate key error, which does not
+            // stop the other inserts of an unordered bulk write.
+            insert( batch );
+        }
+        catch ( BulkOperationException e )
+        {
+            long lostEventCount = e.getErrors().stream().filter( error -> error.getCode() != DUPLICATE_KEY_ERROR_CODE ).count();
+            droppedEventCount.add( lostEventCount );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "Failed to write {} game event(s) again.", batch.size(), e );
+            droppedEventCount.add( batch.size() );
+        }
+    }
+
+    private void insert( List<GameEvent> batch )
+    {
+        mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, GameEvent.class )
+                .insert( batch )
+                .execute();
+
+        logger.debug( "Wrote {} game event(s).", batch.size() );
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * ****************************************************************************
+ * File: GameMoveService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class plays the moves of a user against a game engine (see
+ * GameEngine). It is the one pipeline that every game goes through: it loads
+ * and locks the user's game session, starts new rounds, counts the attempts
+ * and rounds, and then either writes the score together with the counters
+ * and the session, when the moves change the score, or leaves the session
+ * and the counters to be written behind. The events of the moves are logged
+ * in one batch, and the rank is only calculated when the score has changed.
+ *
+ * Contests against another user (see ContestEngine), such as Rock Paper
+ * Scissors challenges and live rounds, go through the same pipeline (see
+ * playContest()): the engine only plays the contest, and the staked points
+ * are transferred together with the user's counters, whatever the game.
+ *
+ * The pipeline also records, per engine, the number of plays, moves and
+ * failed plays and how long the plays took, both in total and over the last
+ * interval. They are logged at a fixed interval and can be read with
+ * getMetrics(). Every play is timed from the same point: once the caller
+ * holds the user's lock (see UserMutationExecutor).
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.dto.GameMessage;
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.game.ContestEngine;
+import com.demo.rest_api.game.ContestOutcome;
+import com.demo.rest_api.game.GameEngine;
+import com.demo.rest_api.game.MoveOutcome;
+import com.demo.rest_api.game.RockPaperScissorsEngine;
+import com.demo.rest_api.model.GameEvent;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Service
+public class GameMoveService
+{
+    private static final Logger logger = LoggerFactory.getLogger( GameMoveService.class );
+
+    @Autowired
+    private GameSessionService gameSessionService;
+
+    @Autowired
+    private UserCounterCoalescer userCounterCoalescer;
+
+    @Autowired
+    private GameEventLog gameEventLog;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private PointTransferService pointTransferService;
+
+    @Autowired
+    private RockPaperScissorsEngine rockPaperScissorsEngine;
+
+    private final Map<String,EngineStats> engineStats = new ConcurrentHashMap<>();
+
+    private static final class EngineStats
+    {
+        private final LongAdder playCount = new LongAdder();
+        private final LongAdder moveCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        // Reset whenever the metrics are logged.
+        private final LongAdder intervalPlayCount = new LongAdder();
+        private final LongAdder intervalFailureCount = new LongAdder();
+        private final LongAdder intervalNanos = new LongAdder();
+        private final AtomicLong intervalMaxNanos = new AtomicLong();
+    }
+
+    /**
+     * The result of playing moves.
+     *
+     * @param user The user after the moves.
+     * @param moves The description of each move, in order.
+     * @param points The change of the score.
+     * @param rank The rank of the user if the score has changed, or null otherwise.
+     */
+    public record PlayResult( User user, List<GameMessage> moves, int points, Long rank ) {}
+
+    /**
+     * The result of a contest.
+     *
+     * @param status Completed, or why no points were transferred.
+     * @param outcome The outcome of the contest, as played by the engine.
+     * @param user The user after the contest (null unless completed).
+     * @param opponentUser The opponent after the contest (null unless completed).
+     */
+    public record ContestResult( PointTransferService.Status status, ContestOutcome outcome, User user, User opponentUser ) {}
+
+    public record EngineMetrics( long playCount, long moveCount, long failureCount, long totalNanos, long maxNanos ) {}
+
+    public record Metrics( Map<String,EngineMetrics> engines ) {}
+
+    /**
+     * Plays moves of a user one after another, starting a new round whenever the previous one has been completed.
+     *
+     * @param engine The game.
+     * @param user The user, as loaded for this request.
+     * @param moves The moves, already validated by the caller.
+     * @param isBatch Whether the moves were submitted in one batch, which are described more briefly.
+     * @return The result, or an empty Optional if the user no longer exists.
+     */
+    public <M> Optional<PlayResult> play( GameEngine<M> engine, User user, List<M> moves, boolean isBatch )
+    {
+        return time( engine, moves.size(), () -> applyMoves( engine, user, moves, isBatch ) );
+    }
+
+    private <M> Optional<PlayResult> applyMoves( GameEngine<M> engine, User user, List<M> moves, boolean isBatch )
+    {
+        GameSession session = gameSessionService.getSession( user );
+        List<GameMessage> messages = new ArrayList<>( moves.size() );
+        List<GameEvent> events = new ArrayList<>( moves.size() + 1 );
+        int points = 0;
+        boolean isScoring = false;
+
+        // The moves are applied against the in-memory session, under its lock so that a flush never sees them half done.
+        session.getLock().lock();
+
+        try
+        {
+            userCounterCoalescer.applyPendingTo( user );
+            int round = engine.getCurrentRound( user );
+            UserCounterCoalescer.Deltas counters = new UserCounterCoalescer.Deltas();
+
+            for (M move : moves)
+            {
+                counters.add( UserCounter.Attempts, 1 );
+
+                if (!engine.hasRoundStarted( session ))
+                {
+                    addEvent( events, engine.startRound( session, user.getId() ) );
+                    counters.add( engine.getRoundCounter(), 1 );
+                    round++;
+                }
+
+                MoveOutcome outcome = engine.applyMove( session, user.getId(), move );
+                addEvent( events, outcome.getEvent() );
+                messages.add( outcome.describe( round, isBatch ) );
+
+                points += outcome.getPoints();
+                isScoring |= outcome.isScoring();
+            }
+
+            // The counters are written in the background, or together with the score if the moves change it.
+            userCounterCoalescer.add( user.getId(), counters );
+
+            if (!isScoring)
+            {
+                // Moves that do not change the score do not touch the database; the session is written behind.
+                gameSessionService.markDirty( session );
+                counters.applyTo( user );
+            }
+        }
+        finally
+        {
+            session.getLock().unlock();
+        }
+
+        // Written outside of the session's lock, so that a flush is not held up by the writes. The moves of a user are
+        // already applied one at a time by the caller (see UserMutationExecutor).
+        if (isScoring)
+        {
+            Optional<User> updatedUser = gameSessionService.commitMove( user, session, points, engine.getScoreChangeReason() );
+
+            if (updatedUser.isEmpty())
+            {
+                return Optional.empty();
+            }
+
+            user = updatedUser.get();
+        }
+
+        gameEventLog.recordAll( events );
+
+        Long rank = isScoring ? leaderboardService.getUserRank( user ) : null;
+        return Optional.of( new PlayResult( user, messages, points, rank ) );
+    }
+
+    /**
+     * Plays a contest of a user against an opponent, and transfers the staked points from the loser of the contest to
+     * the winner, together with the user's counters.
+     *
+     * @param engine The game.
+     * @param user The user, as loaded for this request.
+     * @param opponentUser The opponent, who has been checked to cover the stake.
+     * @param moves The moves of the user, already validated by the caller.
+     * @param opponentMoves The moves of a player that the user has been paired with, whose counters are then counted
+     *                      too (written in the background), or null to let the engine play for the opponent.
+     * @param pointsToStake The points staked on the contest.
+     * @return The result.
+     */
+    public <M> ContestResult playContest( ContestEngine<M> engine, User user, User opponentUser, List<M> moves, List<M> opponentMoves, int pointsToStake )
+    {
+        return time( engine, moves.size(), () ->
+        {
+            ContestOutcome outcome = engine.playContest( moves, opponentMoves );
+            ContestResult result = settleContest( engine, user, opponentUser, outcome, pointsToStake );
+
+            if (( opponentMoves == null ) || ( result.status() != PointTransferService.Status.Completed ))
+            {
+                return result;
+            }
+
+            UserCounterCoalescer.Deltas opponentCounters = new UserCounterCoalescer.Deltas()
+                    .add( UserCounter.Attempts, outcome.getRoundCount() )
+                    .add( engine.getRoundCounter(), outcome.getRoundCount() );
+            userCounterCoalescer.add( opponentUser.getId(), opponentCounters );
+
+            if (outcome.getOutcome() == 0)
+            {
+                // The opponent's pending counters are not shown on the opponent yet after a draw.
+                userCounterCoalescer.applyPendingTo( result.opponentUser() );
+            }
+            else
+            {
+                opponentCounters.applyTo( result.opponentUser() );
+            }
+
+            return result;
+        } );
+    }
+
+    /**
+     * Plays a practice throw against the server, which scores nothing.
+     *
+     * @param yourChoice The choice of the caller.
+     * @return The outcome.
+     */
+    public RockPaperScissorsEngine.Outcome practiseRockPaperScissors( RockPaperScissors yourChoice )
+    {
+        return time( rockPaperScissorsEngine, 1, () -> rockPaperScissorsEngine.play( yourChoice ) );
+    }
+
+    // Writes the outcome of a contest together with the user's counters, and logs its event.
+    private ContestResult settleContest( GameEngine<?> engine, User user, User opponentUser, ContestOutcome outcome, int pointsToStake )
+    {
+        UserCounterCoalescer.Deltas counters = new UserCounterCoalescer.Deltas()
+                .add( UserCounter.Attempts, outcome.getRoundCount() )
+                .add( engine.getRoundCounter(), outcome.getRoundCount() );
+
+        if (outcome.getOutcome() == 0)
+        {
+            // No points change hands, so only the counters are updated, in the background.
+            userCounterCoalescer.add( user.getId(), counters );
+            userCounterCoalescer.applyPendingTo( user );
+        }
+        else
+        {
+            boolean hasWon = outcome.getOutcome() > 0;
+
+            // The user's counters, including any still pending, are applied in the same atomic update as their leg of
+            // the point transfer.
+            UserCounterCoalescer.Deltas pendingCounters = userCounterCoalescer.drain( user.getId() );
+            counters.addAll( pendingCounters );
+            Consumer<Update> roundChanges = counters::applyTo;
+
+            PointTransferService.Result transfer = hasWon
+                    ? pointTransferService.transferPoints( opponentUser.getId(), user.getId(), pointsToStake, user.getId(), engine.getScoreChangeReason(), roundChanges )
+                    : pointTransferService.transferPoints( user.getId(), opponentUser.getId(), pointsToStake, user.getId(), engine.getScoreChangeReason(), roundChanges );
+
+            if (transfer.status() != PointTransferService.Status.Completed)
+            {
+                // Nothing has been written, so keep the counters that were pending before this contest.
+                userCounterCoalescer.add( user.getId(), pendingCounters );
+                return new ContestResult( transfer.status(), outcome, null, null );
+            }
+
+            user = hasWon ? transfer.winner() : transfer.loser();
+            opponentUser = hasWon ? transfer.loser() : transfer.winner();
+            userCounterCoalescer.applyPendingTo( opponentUser );
+        }
+
+        gameEventLog.record( outcome.getEvent( user.getId(), opponentUser.getId(), pointsToStake ) );
+
+        return new ContestResult( PointTransferService.Status.Completed, outcome, user, opponentUser );
+    }
+
+    private static void addEvent( List<GameEvent> events, GameEvent event )
+    {
+        if (event != null)
+        {
+            events.add( event );
+        }
+    }
+
+    // Runs an action that plays moves of an engine, and records its timing under the engine's metrics.
+    private <T> T time( GameEngine<?> engine, int moveCount, Supplier<T> action )
+    {
+        EngineStats stats = engineStats.computeIfAbsent( engine.getName(), name -> new EngineStats() );
+        long startNanos = System.nanoTime();
+
+        try
+        {
+            return action.get();
+        }
+        catch ( RuntimeException e )
+        {
+            stats.failureCount.increment();
+            stats.intervalFailureCount.increment();
+            throw e;
+        }
+        finally
+        {
+            long nanos = System.nanoTime() - startNanos;
+
+            stats.playCount.increment();
+            stats.moveCount.add( moveCount );
+            stats.totalNanos.add( nanos );
+            stats.maxNanos.accumulateAndGet( nanos, Math::max );
+
+            stats.intervalPlayCount.increment();
+            stats.intervalNanos.add( nanos );
+            stats.intervalMaxNanos.accumulateAndGet( nanos, Math::max );
+        }
+    }
+
+    public Metrics getMetrics()
+    {
+        Map<String,EngineMetrics> engines = new TreeMap<>();
+
+        engineStats.forEach( ( name, stats ) -> engines.put( name, new EngineMetrics(
+            stats.playCount.sum(),
+            stats.moveCount.sum(),
+            stats.failureCount.sum(),
+            stats.totalNanos.sum(),
+            stats.maxNanos.get()
+        ) ) );
+
+        return new Metrics( engines );
+    }
+
+    @Scheduled(
+        initialDelayString = "${GAME_ENGINE_METRICS_LOG_INTERVAL_MS:60000}",
+        fixedDelayString = "${GAME_ENGINE_METRICS_LOG_INTERVAL_MS:60000}"
+    )
+    public void logMetrics()
+    {
+        new TreeMap<>( engineStats ).forEach( ( name, stats ) ->
+        {
+            // A play that ends while the interval is being reset may be left out of it; the totals are always exact.
+            long plays = stats.intervalPlayCount.sumThenReset();
+            long failures = stats.intervalFailureCount.sumThenReset();
+            long nanos = stats.intervalNanos.sumThenReset();
+            long maxNanos = stats.intervalMaxNanos.getAndSet( 0 );
+
+            if (plays == 0)
+            {
+                return;
+            }
+
+            logger.info(
+                "Game engine {}: {} plays in the last interval ({} failed), {} µs per play on average, {} ms longest play. "
+                        + "Total: {} plays, {} moves, {} failed.",
+                name,
+                plays,
+                failures,
+                TimeUnit.NANOSECONDS.toMicros( nanos / plays ),
+                TimeUnit.NANOSECONDS.toMillis( maxNanos ),
+                stats.playCount.sum(),
+                stats.moveCount.sum(),
+                stats.failureCount.sum()
+            );
+        } );
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * ****************************************************************************
+ * File: GameSessionService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class is the store of in-progress game sessions. Sessions are
+ * kept in a concurrent in-memory map keyed by user ID, so that a move that
+ * does not end a round (e.g. a wrong guess) does not touch the database.
+ * Changed sessions are written behind to MongoDB at a fixed interval and when
+ * the application shuts down. A move that changes the score is written
+ * through immediately (and recorded in the score ledger), so that a finished
+ * round can never be replayed. After
+ * a restart, sessions are recovered from the "game_session" collection on
+ * first use. The attempt and round counters of moves are buffered separately,
+ * by the UserCounterCoalescer.
+ *
+ * Game sessions are held by the instance that serves the user, so a
+ * deployment with several instances should route a user to the same instance.
+ *
+ * Earlier versions stored the game state on the user document, where it was
+ * read (together with the rest of the document) by every leaderboard and auth
+ * query. It is moved to "game_session" in the background,
+ * GAME_STATE_MIGRATION_BATCH_SIZE users at a time, through a partial index
+ * that only covers the users who still have it, so the migration costs
+ * nothing once it is done.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.repository.GameSessionRepository;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class GameSessionService
+{
+    private static final Logger logger = LoggerFactory.getLogger( GameSessionService.class );
+
+    @Autowired
+    private GameSessionRepository gameSessionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCounterCoalescer userCounterCoalescer;
+
+    // Sessions that have not been used for this long (and have nothing left to write) are dropped from memory.
+    @Value( "${GAME_SESSION_IDLE_EVICTION_MS:1800000}" )
+    private long idleEvictionMs;
+
+    @Value( "${GAME_STATE_MIGRATION_BATCH_SIZE:1000}" )
+    private int migrationBatchSize;
+
+    private final Map<String,GameSession> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize()
+    {
+        // Every user document written by earlier versions has this field, and it is removed when the game state is
+        // moved, so the index shrinks to nothing as the migration proceeds.
+        mongoTemplate.indexOps( User.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY, Sort.Direction.ASC )
+                .partial( PartialIndexFilter.of( Criteria.where( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY ).exists( true ) ) )
+        );
+    }
+
+    /**
+     * Returns the game session of a user, loading it from the "game_session" collection or creating it from the
+     * game state stored on the user document (by earlier versions) if it is not in memory.
+     *
+     * Callers must synchronize on the returned session while reading or changing it.
+     *
+     * @param user The user.
+     * @return The game session of the user.
+     */
+    public GameSession getSession( User user )
+    {
+        String userId = user.getId().toHexString();
+
+        while (true)
+        {
+            GameSession session = sessions.get( userId );
+
+            if (session == null)
+            {
+                // Loaded outside of the map, so that the read does not block other users' sessions in the same bin. If
+                // two requests load the same session, the first one to be put in the map wins.
+                GameSession loadedSession = loadSession( user );
+                GameSession existingSession = sessions.putIfAbsent( userId, loadedSession );
+                session = ( existingSession != null ) ? existingSession : loadedSession;
+            }
+
+            // Touched under the session's lock, which eviction also holds, and only returned if it is still in the
+            // map, so that a session evicted in the meantime is never handed out.
+            session.getLock().lock();
+
+            try
+            {
+                session.setLastAccessTimeMs( System.currentTimeMillis() );
+
+                if (sessions.get( userId ) == session)
+                {
+                    return session;
+                }
+            }
+            finally
+            {
+                session.getLock().unlock();
+            }
+        }
+    }
+
+    // Marks a session as changed, so that it is written to the collection on the next flush.
+    public void markDirty( GameSession session )
+    {
+        session.setIsDirty( true );
+    }
+
+    /**
+     * Writes a move that changes the score through to the database immediately, together with the user's pending
+     * counter increments, records the change in the score ledger, then writes the session itself. The caller must not
+     * hold the session's lock: the session is copied under it, and written outside of it.
+     *
+     * @param user The user who made the move.
+     * @param session The game session of the user, already updated for the move.
+     * @param points The change of the score.
+     * @param reason The game in which the points were won or lost.
+     * @return The updated user, or an empty Optional if the user no longer exists.
+     */
+    public Optional<User> commitMove( User user, GameSession session, int points, ScoreChangeReason reason )
+    {
+        GameSession sessionSnapshot;
+
+        session.getLock().lock();
+
+        try
+        {
+            sessionSnapshot = session.copy();
+            session.setIsDirty( false );
+        }
+        finally
+        {
+            session.getLock().unlock();
+        }
+
+        Update update = new Update().inc( Constants.DATABASE_USER_SCORE_KEY, points );
+        userCounterCoalescer.drain( user.getId() ).applyTo( update );
+
+        // The game state now lives in "game_session", so drop the legacy copy from the user document.
+        update.unset( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY )
+              .unset( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY )
+              .unset( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY )
+              .unset( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY )
+              .unset( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY )
+              .unset( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY );
+
+        Optional<User> updatedUser = userService.updateScoreById( user.getId(), update, points, reason );
+
+        if (updatedUser.isEmpty())
+        {
+            sessions.remove( session.getUserId(), session );
+            return updatedUser;
+        }
+
+        try
+        {
+            gameSessionRepository.save( sessionSnapshot );
+        }
+        catch ( RuntimeException e )
+        {
+            // Written by the next flush instead.
+            session.getLock().lock();
+
+            try
+            {
+                session.setIsDirty( true );
+            }
+            finally
+            {
+                session.getLock().unlock();
+            }
+
+            throw e;
+        }
+
+        return updatedUser;
+    }
+
+    // Writes all changed sessions to the database.
+    @Scheduled(
+        initialDelayString = "${GAME_SESSION_FLUSH_INTERVAL_MS:5000}",
+        fixedDelayString = "${GAME_SESSION_FLUSH_INTERVAL_MS:5000}"
+    )
+    public void flush()
+    {
+        List<GameSession> changedSessions = new ArrayList<>();
+        long evictBeforeMs = System.currentTimeMillis() - idleEvictionMs;
+
+        for (GameSession session : sessions.values())
+        {
+            session.getLock().lock();
+
+            try
+            {
+                if (session.getIsDirty())
+                {
+                    changedSessions.add( session.copy() );
+                    session.setIsDirty( false );
+                }
+                else if (session.getLastAccessTimeMs() < evictBeforeMs)
+                {
+                    sessions.computeIfPresent( session.getUserId(), ( userId, currentSession ) ->
+                        ( currentSession == session && currentSession.getLastAccessTimeMs() < evictBeforeMs ) ? null : currentSession
+                    );
+                }
+            }
+            finally
+            {
+                session.getLock().unlock();
+            }
+        }
+
+        if (changedSessions.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, GameSession.class );
+
+            for (GameSession session : changedSessions)
+            {
+                operations.replaceOne(
+                    Query.query( Criteria.where( "_id" ).is( session.getUserId() ) ),
+                    session,
+                    FindAndReplaceOptions.options().upsert()
+                );
+            }
+
+            operations.execute();
+            logger.debug( "Flushed {} game session(s).", changedSessions.size() );
+        }
+        catch ( Exception e )
+        {
+            // Mark the sessions as changed again, so that they are retried on the next flush. Writing a session twice
+            // is harmless, since each write replaces the whole document.
+            logger.warn( "Failed to flush {} game session(s); will retry.", changedSessions.size(), e );
+
+            for (GameSession changedSession : changedSessions)
+            {
+                GameSession session = sessions.get( changedSession.getUserId() );
+
+                if (session != null)
+                {
+                    session.getLock().lock();
+
+                    try
+                    {
+                        session.setIsDirty( true );
+                    }
+                    finally
+                    {
+                        session.getLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    // Moves the game state of a batch of users from the user documents, where earlier versions stored it, to the
+    // "game_session" collection.
+    @Scheduled(
+        initialDelayString = "${GAME_STATE_MIGRATION_INTERVAL_MS:1000}",
+        fixedDelayString = "${GAME_STATE_MIGRATION_INTERVAL_MS:1000}"
+    )
+    public void migrateLegacyGameState()
+    {
+        Query query = Query.query( Criteria.where( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY ).exists( true ) )
+                .limit( migrationBatchSize );
+        query.fields()
+                .include( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY )
+                .include( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY )
+                .include( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY )
+                .include( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY )
+                .include( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY )
+                .include( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY );
+
+        List<User> users = mongoTemplate.find( query, User.class );
+
+        if (users.isEmpty())
+        {
+            return;
+        }
+
+        // The sessions are only inserted, so that a session that has been written since (e.g. by a move) is kept.
+        BulkOperations sessionOperations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, GameSession.class );
+        int sessionCount = 0;
+
+        for (User user : users)
+        {
+            GameSession session = GameSession.fromLegacyUser( user );
+
+            if (!session.getHasGuessNumberStarted() && !session.getHasArrangeNumbersStarted())
+            {
+                continue;
+            }
+
+            Document document = new Document();
+            mongoTemplate.getConverter().write( session, document );
+            document.remove( "_id" );
+
+            Update update = new Update();
+            document.forEach( update::setOnInsert );
+
+            sessionOperations.upsert( Query.query( Criteria.where( "_id" ).is( session.getUserId() ) ), update );
+            sessionCount++;
+        }
+
+        if (sessionCount > 0)
+        {
+            sessionOperations.execute();
+        }
+
+        // Only dropped from the user documents once the sessions are stored.
+        List<ObjectId> userIds = users.stream().map( User::getId ).toList();
+
+        mongoTemplate.updateMulti(
+            Query.query( Criteria.where( "_id" ).in( userIds ) ),
+            new Update()
+                .unset( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY )
+                .unset( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY )
+                .unset( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY )
+                .unset( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY )
+                .unset( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY )
+                .unset( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY ),
+            User.class
+        );
+
+        logger.debug( "Moved the game state of {} user(s) to the game sessions.", users.size() );
+    }
+
+    @PreDestroy
+    public void flushOnShutdown()
+    {
+        flush();
+    }
+
+    private GameSession loadSession( User user )
+    {
+        return gameSessionRepository.findById( user.getId().toHexString() )
+                .orElseGet( () ->
+                {
+                    GameSession session = GameSession.fromLegacyUser( user );
+                    session.setIsDirty( true );
+                    return session;
+                } );
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * ****************************************************************************
+ * File: IdempotencyService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class remembers the responses to requests that were sent with
+ * an "Idempotency-Key" header, so that a retried request is answered with the
+ * stored response instead of being processed again. A request is claimed by
+ * inserting its record into the "idempotency_record" collection before it is
+ * processed, so that only one instance processes it; duplicates that arrive
+ * while it is being processed wait for it (on this instance, for the same
+ * future; on other instances, by polling the record). Completed responses are
+ * also kept in a bounded in-memory LRU cache of IDEMPOTENCY_CACHE_SIZE
+ * entries, so most retries do not touch the database at all. Records expire
+ * after IDEMPOTENCY_KEY_TTL_SECONDS.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.IdempotencyRecord;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class IdempotencyService
+{
+    private static final Logger logger = LoggerFactory.getLogger( IdempotencyService.class );
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value( "${IDEMPOTENCY_CACHE_SIZE:10000}" )
+    private int cacheSize;
+
+    @Value( "${IDEMPOTENCY_KEY_TTL_SECONDS:86400}" )
+    private long ttlSeconds;
+
+    // How long a duplicate waits for the first request to complete before it is told to retry later.
+    @Value( "${IDEMPOTENCY_WAIT_MS:10000}" )
+    private long waitMs;
+
+    // A claim that has not completed for this long is considered abandoned (e.g. its instance has stopped).
+    @Value( "${IDEMPOTENCY_CLAIM_TIMEOUT_MS:60000}" )
+    private long claimTimeoutMs;
+
+    private Map<String,StoredResponse> completedResponses;
+    private final Map<String,CompletableFuture<StoredResponse>> inFlightRequests = new ConcurrentHashMap<>();
+
+    // The fingerprint identifies the request (method, path, parameters and body) that the response belongs to.
+    public record StoredResponse( String fingerprint, int status, String contentType, byte[] body ) {}
+
+    public enum ClaimStatus
+    {
+        // The caller must process the request, then complete or abandon the claim.
+        Claimed,
+        // The request has already been processed; the response is set.
+        Completed,
+        // The request is still being processed elsewhere.
+        InProgress
+    }
+
+    public record Claim( ClaimStatus status, StoredResponse response ) {}
+
+    @PostConstruct
+    public void initialize()
+    {
+        completedResponses = Collections.synchronizedMap( new LinkedHashMap<>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String,StoredResponse> eldest )
+            {
+                return size() > cacheSize;
+            }
+        } );
+
+        // Documents are removed by MongoDB as soon as their "expiresAt" time has passed.
+        mongoTemplate.indexOps( IdempotencyRecord.class ).createIndex(
+            new Index().on( Constants.DATABASE_IDEMPOTENCY_RECORD_EXPIRES_AT_KEY, Sort.Direction.ASC ).expire( Duration.ZERO )
+        );
+
+        // Responses to logins, which carry session tokens, were stored by earlier versions; they are no longer kept.
+        mongoTemplate.remove(
+            Query.query( Criteria.where( Constants.DATABASE_IDEMPOTENCY_RECORD_FINGERPRINT_KEY ).regex( "^POST /api/auth(" + Constants.API_PATH_SUFFIX_FOR_FORM_URLENCODED + ")?/login " ) ),
+            IdempotencyRecord.class
+        );
+    }
+
+    /**
+     * Claims a request for processing, or returns the response of the request that was processed with the same key.
+     * Waits for up to IDEMPOTENCY_WAIT_MS if a request with the same key is being processed.
+     *
+     * @param key The idempotency key, scoped to the caller.
+     * @param fingerprint The fingerprint of the request.
+     * @return The claim.
+     */
+    public Claim claim( String key, String fingerprint )
+    {
+        long deadlineMs = System.currentTimeMillis() + waitMs;
+
+        while (true)
+        {
+            StoredResponse cachedResponse = completedResponses.get( key );
+
+            if (cachedResponse != null)
+            {
+                return new Claim( ClaimStatus.Completed, cachedResponse );
+            }
+
+            CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existingFuture = inFlightRequests.putIfAbsent( key, future );
+
+            if (existingFuture == null)
+            {
+                Claim claim = claimRecord( key, fingerprint, deadlineMs );
+
+                if (claim.status() != ClaimStatus.Claimed)
+                {
+                    inFlightRequests.remove( key, future );
+                    future.complete( claim.response() );
+                }
+
+                return claim;
+            }
+
+            // A duplicate on this instance: wait for the first request. If it is abandoned, try to claim it again.
+            try
+            {
+                StoredResponse response = existingFuture.get( Math.max( 0, deadlineMs - System.currentTimeMillis() ), TimeUnit.MILLISECONDS );
+
+                if (response != null)
+                {
+                    return new Claim( ClaimStatus.Completed, response );
+                }
+            }
+            catch ( TimeoutException | ExecutionException e )
+            {
+                return new Claim( ClaimStatus.InProgress, null );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return new Claim( ClaimStatus.InProgress, null );
+            }
+        }
+    }
+
+    // Stores the response of a claimed request.
+    public void complete( String key, StoredResponse response )
+    {
+        try
+        {
+            mongoTemplate.updateFirst(
+                Query.query( Criteria.where( "_id" ).is( key ) ),
+                new Update()
+                    .set( Constants.DATABASE_IDEMPOTENCY_RECORD_IS_COMPLETED_KEY, true )
+                    .set( Constants.DATABASE_IDEMPOTENCY_RECORD_STATUS_KEY, response.status() )
+                    .set( Constants.DATABASE_IDEMPOTENCY_RECORD_CONTENT_TYPE_KEY, response.contentType() )
+                    .set( Constants.DATABASE_IDEMPOTENCY_RECORD_BODY_KEY, response.body() ),
+                IdempotencyRecord.class
+            );
+        }
+        catch ( Exception e )
+        {
+            // The request has been processed either way; retries on other instances will wait for the claim to time out.
+            logger.warn( "Failed to store the response for an idempotency key.", e );
+        }
+
+        completedResponses.put( key, response );
+        release( key, response );
+    }
+
+    // Gives up a claimed request that could not be processed (e.g. because of a server error), so that it can be retried.
+    public void abandon( String key )
+    {
+        try
+        {
+            mongoTemplate.remove(
+                Query.query( Criteria.where( "_id" ).is( key ).and( Constants.DATABASE_IDEMPOTENCY_RECORD_IS_COMPLETED_KEY ).ne( true ) ),
+                IdempotencyRecord.class
+            );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "Failed to release an idempotency key.", e );
+        }
+
+        release( key, null );
+    }
+
+    private void release( String key, StoredResponse response )
+    {
+        CompletableFuture<StoredResponse> future = inFlightRequests.remove( key );
+
+        if (future != null)
+        {
+            future.complete( response );
+        }
+    }
+
+    private Claim claimRecord( String key, String fingerprint, long deadlineMs )
+    {
+        while (true)
+        {
+            Instant timeNow = Instant.now();
+
+            try
+            {
+                mongoTemplate.insert( new IdempotencyRecord( key, fingerprint, timeNow, timeNow.plusSeconds( ttlSeconds ) ) );
+                return new Claim( ClaimStatus.Claimed, null );
+            }
+            catch ( DuplicateKeyException e )
+            {
+                // Claimed before, possibly by another instance.
+            }
+
+            IdempotencyRecord record = mongoTemplate.findById( key, IdempotencyRecord.class );
+
+            if (record == null)
+            {
+                // Abandoned or expired in the meantime.
+                continue;
+            }
+
+            if (record.getIsCompleted())
+            {
+                StoredResponse response = new StoredResponse( record.getFingerprint(), record.getStatus(), record.getContentType(), record.getBody() );
+                completedResponses.put( key, response );
+                return new Claim( ClaimStatus.Completed, response );
+            }
+
+            if (record.getClaimTime().isBefore( timeNow.minusMillis( claimTimeoutMs ) ))
+            {
+                // Take over an abandoned claim, unless another request does so first.
+                long updatedCount = mongoTemplate.updateFirst(
+                    Query.query(
+                        Criteria.where( "_id" ).is( key )
+                                .and( Constants.DATABASE_IDEMPOTENCY_RECORD_IS_COMPLETED_KEY ).ne( true )
+                                .and( Constants.DATABASE_IDEMPOTENCY_RECORD_CLAIM_TIME_KEY ).is( record.getClaimTime() )
+                    ),
+                    new Update()
+                        .set( Constants.DATABASE_IDEMPOTENCY_RECORD_CLAIM_TIME_KEY, timeNow )
+                        .set( Constants.DATABASE_IDEMPOTENCY_RECORD_FINGERPRINT_KEY, fingerprint ),
+                    IdempotencyRecord.class
+                ).getModifiedCount();
+
+                if (updatedCount == 1)
+                {
+                    return new Claim( ClaimStatus.Claimed, null );
+                }
+
+                continue;
+            }
+
+            if (System.currentTimeMillis() >= deadlineMs)
+            {
+                return new Claim( ClaimStatus.InProgress, null );
+            }
+
+            try
+            {
+                Thread.sleep( POLL_INTERVAL_MS );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return new Claim( ClaimStatus.InProgress, null );
+            }
+        }
+    }
+}
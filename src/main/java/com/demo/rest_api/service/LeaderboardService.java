@@ -3,14 +3,19 @@
  * File: LeaderboardService.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 25 August 2025
- * 
+ * Last Modified Date: 18 October 2026
+ *
  * Description:
  * This service class provides functionality for interacting with the
  * leaderboard data. It calculates a user's rank based on their score, number
  * of attempts, and rounds played. It utilizes MongoTemplate for querying the
  * MongoDB database and determines the rank by comparing the user's performance
  * with other users in the database.
+ *
+ * The score of a user whose score is sharded is "User.score" minus the points
+ * spent from the score shards that are not folded back yet (see
+ * ScoreShardService), so those few users are ranked on that total in memory,
+ * and every other user is ranked by the database on "User.score".
  * ****************************************************************************
  */
 
@@ -18,26 +23,160 @@ package com.demo.rest_api.service;
 
 import com.demo.rest_api.model.User;
 import com.demo.rest_api.utils.Constants;
+import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class LeaderboardService
 {
+    // The order of the leaderboard: highest score first, then fewer attempts first, then fewer rounds first.
+    private static final Comparator<User> RANK_ORDER = Comparator.comparingInt( User::getScore ).reversed()
+            .thenComparingInt( User::getAttempts )
+            .thenComparingInt( User::getRounds );
+
     private final MongoTemplate mongoTemplate;
+    private final ScoreShardService scoreShardService;
 
-    public LeaderboardService( MongoTemplate mongoTemplate )
+    public LeaderboardService( MongoTemplate mongoTemplate, ScoreShardService scoreShardService )
     {
         this.mongoTemplate = mongoTemplate;
+        this.scoreShardService = scoreShardService;
     }
 
     public long getUserRank( User user)
     {
-        Query query = new Query();
+        Map<ObjectId,Integer> unfoldedPointsByUserId = scoreShardService.getUnfoldedPointsByUserId();
+
+        if (unfoldedPointsByUserId.isEmpty())
+        {
+            return mongoTemplate.count( new Query( betterRank( user ) ), User.class ) + 1;
+        }
+
+        // The sharded users are compared on their total in memory instead of on "User.score".
+        long rank = countOtherUsersRankedBefore( user, unfoldedPointsByUserId ) + 1;
+
+        for (User shardedUser : findShardedUsers( unfoldedPointsByUserId ))
+        {
+            if (!shardedUser.getId().equals( user.getId() ) && RANK_ORDER.compare( shardedUser, user ) < 0)
+            {
+                rank++;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Finds the users of one page of the leaderboard, ranking the users whose score is sharded on their total score.
+     *
+     * @param query The query of the leaderboard, sorted in the order of the leaderboard, with the skip and limit of the
+     *              page (a limit of 0 returns every user from the skip onwards).
+     * @return The users of the page, in the order of the leaderboard. The scores of sharded users are their totals,
+     *         for display only (the users must not be saved).
+     */
+    public List<User> findRankedUsers( Query query )
+    {
+        Map<ObjectId,Integer> unfoldedPointsByUserId = scoreShardService.getUnfoldedPointsByUserId();
+
+        if (unfoldedPointsByUserId.isEmpty())
+        {
+            return mongoTemplate.find( query, User.class );
+        }
+
+        long skip = query.getSkip();
+        int limit = query.getLimit();
+
+        // The 0-based position of each sharded user on the leaderboard: the other users ranked before the user, plus
+        // the sharded users ranked before the user (a sharded user comes first among the users it ties with).
+        List<User> shardedUsers = findShardedUsers( unfoldedPointsByUserId );
+        long[] positions = new long[ shardedUsers.size() ];
+        int shardedUsersBeforePage = 0;
+        int shardedUsersInPage = 0;
+
+        for (int index = 0; index < shardedUsers.size(); index++)
+        {
+            positions[ index ] = countOtherUsersRankedBefore( shardedUsers.get( index ), unfoldedPointsByUserId ) + index;
+
+            if (positions[ index ] < skip)
+            {
+                shardedUsersBeforePage++;
+            }
+            else if (limit == 0 || positions[ index ] < skip + limit)
+            {
+                shardedUsersInPage++;
+            }
+        }
+
+        // The other users fill the remaining slots of the page, in the order of the database.
+        Query otherUsersQuery = Query.of( query )
+                .addCriteria( Criteria.where( "_id" ).nin( unfoldedPointsByUserId.keySet() ) )
+                .skip( skip - shardedUsersBeforePage )
+                .limit( ( limit == 0 ) ? 0 : limit - shardedUsersInPage );
+
+        Iterator<User> otherUsers = mongoTemplate.find( otherUsersQuery, User.class ).iterator();
+        List<User> rankedUsers = new ArrayList<>();
+        int shardedIndex = shardedUsersBeforePage;
+
+        for (long position = skip; limit == 0 || rankedUsers.size() < limit; position++)
+        {
+            boolean isShardedUserNext = shardedIndex < shardedUsers.size()
+                    && ( positions[ shardedIndex ] == position || !otherUsers.hasNext() );
 
-        Criteria betterRank = new Criteria().orOperator(
+            if (isShardedUserNext)
+            {
+                rankedUsers.add( shardedUsers.get( shardedIndex++ ) );
+            }
+            else if (otherUsers.hasNext())
+            {
+                rankedUsers.add( otherUsers.next() );
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        return rankedUsers;
+    }
+
+    // Loads the users with unfolded points, with their total scores, in the order of the leaderboard.
+    private List<User> findShardedUsers( Map<ObjectId,Integer> unfoldedPointsByUserId )
+    {
+        List<User> shardedUsers = mongoTemplate.find(
+            Query.query( Criteria.where( "_id" ).in( unfoldedPointsByUserId.keySet() ) ),
+            User.class
+        );
+
+        for (User shardedUser : shardedUsers)
+        {
+            shardedUser.setScore( shardedUser.getScore() - unfoldedPointsByUserId.get( shardedUser.getId() ) );
+        }
+
+        shardedUsers.sort( RANK_ORDER );
+        return shardedUsers;
+    }
+
+    // Counts the users without unfolded points that are ranked before the given user.
+    private long countOtherUsersRankedBefore( User user, Map<ObjectId,Integer> unfoldedPointsByUserId )
+    {
+        Query query = new Query( betterRank( user ) );
+        query.addCriteria( Criteria.where( "_id" ).nin( unfoldedPointsByUserId.keySet() ) );
+
+        return mongoTemplate.count( query, User.class );
+    }
+
+    private static Criteria betterRank( User user )
+    {
+        return new Criteria().orOperator(
                 Criteria.where( Constants.DATABASE_USER_SCORE_KEY ).gt( user.getScore() ),
                 new Criteria().andOperator(
                         Criteria.where( Constants.DATABASE_USER_SCORE_KEY ).is( user.getScore() ),
@@ -49,9 +188,5 @@ public class LeaderboardService
                         Criteria.where( Constants.DATABASE_USER_ROUNDS_KEY ).lt( user.getRounds() )
                 )
         );
-
-        query.addCriteria( betterRank );
-
-        return mongoTemplate.count( query, User.class ) + 1;
     }
 }
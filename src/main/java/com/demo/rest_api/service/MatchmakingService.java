@@ -0,0 +1,199 @@
+/*
+ * ****************************************************************************
+ * File: MatchmakingService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class keeps the in-memory matchmaking index up to date. The
+ * index is loaded from the "user" collection in the background and rebuilt
+ * periodically, which picks up users and scores changed by other application
+ * instances. Score changes made on this instance are applied to the index as
+ * they happen. Until the first load has finished, the service reports that it
+ * is not ready, so that callers can fall back to querying the database.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import com.demo.rest_api.utils.MatchmakingIndex;
+import com.demo.rest_api.utils.RandomSource;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Service
+public class MatchmakingService
+{
+    private static final Logger logger = LoggerFactory.getLogger( MatchmakingService.class );
+
+    // Marks a user removed while a rebuild is in progress.
+    private static final int REMOVED = Integer.MIN_VALUE;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile MatchmakingIndex index = null;
+
+    // Score changes made on this instance while a rebuild is in progress, so that the new index does not miss them. A
+    // change is applied to the current index and recorded here under the lock, and a rebuild replays the recorded
+    // changes and swaps the index under the same lock, so no change is lost in between.
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Map<ObjectId,Integer> changedDuringRebuild = new HashMap<>();
+    private boolean isRebuilding = false;
+
+    public boolean isReady()
+    {
+        return index != null;
+    }
+
+    // Picks a random user with at least the given score, other than the excluded user.
+    // Returns null if the index is not ready, or if there is no such user.
+    public ObjectId pickRandomUserWithMinimumScore( int minimumScore, ObjectId excludedUserId )
+    {
+        MatchmakingIndex currentIndex = index;
+
+        if (currentIndex == null)
+        {
+            return null;
+        }
+
+        return currentIndex.pickRandomUserWithMinimumScore( minimumScore, excludedUserId, RandomSource.getDefault().generator() );
+    }
+
+    public void onScoreChanged( User user )
+    {
+        onScoreChanged( user.getId(), user.getScore() );
+    }
+
+    public void onScoreChanged( ObjectId userId, int score )
+    {
+        applyChange( userId, score );
+    }
+
+    public void onUserRemoved( ObjectId userId )
+    {
+        applyChange( userId, REMOVED );
+    }
+
+    private void applyChange( ObjectId userId, int score )
+    {
+        indexLock.lock();
+
+        try
+        {
+            if (index != null)
+            {
+                applyChange( index, userId, score );
+            }
+
+            if (isRebuilding)
+            {
+                changedDuringRebuild.put( userId, score );
+            }
+        }
+        finally
+        {
+            indexLock.unlock();
+        }
+    }
+
+    private static void applyChange( MatchmakingIndex targetIndex, ObjectId userId, int score )
+    {
+        if (score == REMOVED)
+        {
+            targetIndex.remove( userId );
+        }
+        else
+        {
+            targetIndex.put( userId, score );
+        }
+    }
+
+    // Runs as soon as the service is created (on the scheduler thread, so that it does not delay the request that
+    // created it), then at a fixed interval.
+    @Scheduled( fixedDelayString = "${MATCHMAKING_INDEX_REBUILD_INTERVAL_MS:600000}" )
+    public void rebuildIndex()
+    {
+        // Changes from now on are recorded for the new index. The ones made before are already in the collection.
+        indexLock.lock();
+
+        try
+        {
+            isRebuilding = true;
+            changedDuringRebuild.clear();
+        }
+        finally
+        {
+            indexLock.unlock();
+        }
+
+        try
+        {
+            long startTimeMs = System.currentTimeMillis();
+            MatchmakingIndex newIndex = new MatchmakingIndex();
+
+            Query query = new Query();
+            query.fields().include( "_id" ).include( Constants.DATABASE_USER_SCORE_KEY );
+
+            try (Stream<User> users = mongoTemplate.stream( query, User.class ))
+            {
+                users.forEach( user -> newIndex.put( user.getId(), user.getScore() ) );
+            }
+
+            // The recorded changes override the scores read while they were made; later changes go to the new index.
+            indexLock.lock();
+
+            try
+            {
+                changedDuringRebuild.forEach( ( userId, score ) -> applyChange( newIndex, userId, score ) );
+                index = newIndex;
+                isRebuilding = false;
+                changedDuringRebuild.clear();
+            }
+            finally
+            {
+                indexLock.unlock();
+            }
+
+            logger.debug(
+                "Rebuilt the matchmaking index with {} user(s) in {} ms.",
+                newIndex.size(),
+                System.currentTimeMillis() - startTimeMs
+            );
+        }
+        catch ( Exception e )
+        {
+            // Keep using the current index (if any); picks are re-validated against the database anyway.
+            logger.warn( "Failed to rebuild the matchmaking index.", e );
+        }
+        finally
+        {
+            indexLock.lock();
+
+            try
+            {
+                // After a failed rebuild, the recorded changes are already in the current index.
+                isRebuilding = false;
+                changedDuringRebuild.clear();
+            }
+            finally
+            {
+                indexLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * ****************************************************************************
+ * File: MongoTransactionService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class runs writes to several documents in one MongoDB
+ * transaction, for the services that must change them together (e.g. both
+ * legs of a transfer of points, or a score shard and its user).
+ *
+ * Multi-document transactions need MongoDB to run as a replica set (a
+ * single-node replica set is enough) or a sharded cluster. Whether the
+ * server supports them is checked once at startup, and a warning is logged
+ * if it does not, so that the services can skip what depends on them.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+public class MongoTransactionService
+{
+    private static final Logger logger = LoggerFactory.getLogger( MongoTransactionService.class );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private boolean isSupported = true;
+
+    @PostConstruct
+    public void initialize()
+    {
+        // Only the members of a replica set report the name of their set, and only the router of a sharded cluster
+        // reports "isdbgrid".
+        try
+        {
+            Document hello = mongoTemplate.executeCommand( new Document( "hello", 1 ) );
+            isSupported = hello.containsKey( "setName" ) || "isdbgrid".equals( hello.getString( "msg" ) );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "Failed to check whether MongoDB supports transactions.", e );
+        }
+
+        if (!isSupported)
+        {
+            logger.warn( "MongoDB is not running as a replica set, so it does not support transactions. "
+                    + "Rock Paper Scissors challenges will fail and scores will not be sharded until it does; every other score change still works." );
+        }
+    }
+
+    // Whether MongoDB supports transactions (assumed if it could not be checked).
+    public boolean isSupported()
+    {
+        return isSupported;
+    }
+
+    /**
+     * Runs writes in one transaction, which the driver retries on transient errors (e.g. a write conflict with a
+     * concurrent move of the same user). The writes must only have side effects in the database, since they may run
+     * more than once.
+     *
+     * @param writes The writes, made through the given template, which is bound to the transaction.
+     * @return The result of the writes.
+     */
+    public <T> T runInTransaction( Function<MongoTemplate,T> writes )
+    {
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession( ClientSessionOptions.builder().build() ))
+        {
+            return session.withTransaction( () -> writes.apply( mongoTemplate.withSession( session ) ) );
+        }
+    }
+
+    // Runs writes without a result in one transaction (see above).
+    public void runInTransactionWithoutResult( Consumer<MongoTemplate> writes )
+    {
+        runInTransaction( template ->
+        {
+            writes.accept( template );
+            return null;
+        } );
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * ****************************************************************************
+ * File: PointTransferService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class moves points from one user to another without reading
+ * both users, checking their scores in memory and saving both documents.
+ * The debit is a conditional atomic update that only applies if the loser
+ * still has enough points ("score >= points"), so scores can never go
+ * negative and concurrent transfers cannot overwrite each other.
+ *
+ * If the initiator of the transfer wins, the guarded debit is written first
+ * and the initiator is only credited if it applied, in one transaction, so
+ * that the total number of points is always conserved and no score ever goes
+ * negative. If the initiator loses, only the initiator's document is
+ * written, and the credit is appended to the score ledger as a pending entry
+ * that is folded into the winner's score later. Either way, both legs are
+ * recorded in the score ledger, in the same transaction as the writes, so
+ * MongoDB must run as a replica set (see MongoTransactionService).
+ *
+ * Only the loser's debit cannot be deferred, so when the initiator wins, the
+ * opponent's document is still written for every challenge it loses. That
+ * is the hot path that score sharding relieves: a debit of a user whose score
+ * is sharded is taken from one of the user's score shards, if it can cover
+ * it, instead of the user document.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Service
+public class PointTransferService
+{
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MatchmakingService matchmakingService;
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private MongoTransactionService mongoTransactionService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    public enum Status
+    {
+        Completed,
+        InsufficientPoints,
+        UserNotFound
+    }
+
+    // The loser and winner are the documents as they are after the transfer (null unless the transfer completed), with
+    // the pending points of both added to their scores.
+    public record Result( Status status, User loser, User winner ) {}
+
+    /**
+     * Moves points from the loser to the winner.
+     *
+     * @param loserId The ID of the user who gives the points.
+     * @param winnerId The ID of the user who receives the points.
+     * @param points The number of points to move (at least 1).
+     * @param initiatorId The ID of the user who initiated the transfer (either the loser or the winner).
+     * @param reason Why the points are transferred (the game in which they were staked).
+     * @param initiatorChanges Additional changes applied to the initiator in the same atomic update (e.g. counters).
+     * @return The result of the transfer, with both updated users if it completed.
+     */
+    public Result transferPoints( ObjectId loserId, ObjectId winnerId, int points, ObjectId initiatorId, ScoreChangeReason reason, Consumer<Update> initiatorChanges )
+    {
+        if (initiatorId.equals( loserId ))
+        {
+            return transferPointsWithPendingCredit( loserId, winnerId, points, reason, initiatorChanges );
+        }
+
+        // The loser is the opponent, whose document may be written by many challengers at once.
+        scoreShardService.recordDebit( loserId );
+
+        if (scoreShardService.isSharded( loserId ))
+        {
+            int shardIndex = scoreShardService.tryDebit( loserId, points );
+
+            if (shardIndex >= 0)
+            {
+                return creditAfterShardDebit( loserId, winnerId, points, shardIndex, reason, initiatorChanges );
+            }
+        }
+
+        Update credit = new Update().inc( Constants.DATABASE_USER_SCORE_KEY, points );
+        initiatorChanges.accept( credit );
+
+        // Both legs and their ledger entries are written in one transaction. The guarded debit runs first, and the
+        // winner (the initiator) is only credited if it applied, so the points that are credited have always been
+        // taken from the loser.
+        Result transfer = mongoTransactionService.runInTransaction( template ->
+        {
+            UpdateResult debitResult = template.updateFirst(
+                Query.query( Criteria.where( "_id" ).is( loserId ).andOperator( ScoreShardService.hasUnreservedScore( points ) ) ),
+                new Update().inc( Constants.DATABASE_USER_SCORE_KEY, -points ),
+                User.class
+            );
+
+            if (debitResult.getMatchedCount() == 0)
+            {
+                // The loser no longer has enough points (common when many challengers stake against the same
+                // opponent), or no longer exists.
+                return new Result( Status.InsufficientPoints, null, null );
+            }
+
+            User updatedWinner = template.findAndModify(
+                Query.query( Criteria.where( "_id" ).is( winnerId ) ),
+                credit,
+                FindAndModifyOptions.options().returnNew( true ),
+                User.class
+            );
+
+            if (updatedWinner == null)
+            {
+                // The winner has been deleted in the meantime; the debit is reverted in the same transaction.
+                template.updateFirst(
+                    Query.query( Criteria.where( "_id" ).is( loserId ) ),
+                    new Update().inc( Constants.DATABASE_USER_SCORE_KEY, points ),
+                    User.class
+                );
+                return new Result( Status.UserNotFound, null, null );
+            }
+
+            scoreLedgerService.recordTransfer( template, loserId, winnerId, points, reason, false );
+            return new Result( Status.Completed, null, updatedWinner );
+        } );
+
+        if (transfer.status() == Status.InsufficientPoints)
+        {
+            boolean isLoserPresent = mongoTemplate.exists( Query.query( Criteria.where( "_id" ).is( loserId ) ), User.class );
+            return new Result( isLoserPresent ? Status.InsufficientPoints : Status.UserNotFound, null, null );
+        }
+
+        if (transfer.status() != Status.Completed)
+        {
+            return transfer;
+        }
+
+        User winner = transfer.winner();
+        User loser = mongoTemplate.findById( loserId, User.class );
+        matchmakingService.onScoreChanged( winner );
+
+        if (loser != null)
+        {
+            matchmakingService.onScoreChanged( loser );
+        }
+
+        scoreLedgerService.applyPendingTo( loser );
+        scoreLedgerService.applyPendingTo( winner );
+
+        return new Result( ( loser != null ) ? Status.Completed : Status.UserNotFound, loser, winner );
+    }
+
+    // Debits the initiator (the loser) only, and leaves the credit to the score ledger, so that the winner's document
+    // (often a popular opponent) is not written.
+    private Result transferPointsWithPendingCredit( ObjectId loserId, ObjectId winnerId, int points, ScoreChangeReason reason, Consumer<Update> initiatorChanges )
+    {
+        if (!mongoTemplate.exists( Query.query( Criteria.where( "_id" ).is( winnerId ) ), User.class ))
+        {
+            return new Result( Status.UserNotFound, null, null );
+        }
+
+        Update debit = new Update().inc( Constants.DATABASE_USER_SCORE_KEY, -points );
+        initiatorChanges.accept( debit );
+
+        User loser = mongoTransactionService.runInTransaction( template ->
+        {
+            User updatedLoser = template.findAndModify(
+                Query.query( Criteria.where( "_id" ).is( loserId ).andOperator( ScoreShardService.hasUnreservedScore( points ) ) ),
+                debit,
+                FindAndModifyOptions.options().returnNew( true ),
+                User.class
+            );
+
+            if (updatedLoser != null)
+            {
+                scoreLedgerService.recordTransfer( template, loserId, winnerId, points, reason, true );
+            }
+
+            return updatedLoser;
+        } );
+
+        if (loser == null)
+        {
+            boolean isLoserPresent = mongoTemplate.exists( Query.query( Criteria.where( "_id" ).is( loserId ) ), User.class );
+            return new Result( isLoserPresent ? Status.InsufficientPoints : Status.UserNotFound, null, null );
+        }
+
+        matchmakingService.onScoreChanged( loser );
+
+        User winner = mongoTemplate.findById( winnerId, User.class );
+        scoreLedgerService.applyPendingTo( loser );
+        scoreLedgerService.applyPendingTo( winner );
+
+        return new Result( Status.Completed, loser, winner );
+    }
+
+    // Credits the initiator (the winner) after the loser's points have been taken from one of the loser's score shards.
+    private Result creditAfterShardDebit( ObjectId loserId, ObjectId winnerId, int points, int shardIndex, ScoreChangeReason reason, Consumer<Update> initiatorChanges )
+    {
+        Update credit = new Update().inc( Constants.DATABASE_USER_SCORE_KEY, points );
+        initiatorChanges.accept( credit );
+
+        User winner;
+
+        try
+        {
+            winner = mongoTransactionService.runInTransaction( template ->
+            {
+                User updatedWinner = template.findAndModify(
+                    Query.query( Criteria.where( "_id" ).is( winnerId ) ),
+                    credit,
+                    FindAndModifyOptions.options().returnNew( true ),
+                    User.class
+                );
+
+                if (updatedWinner != null)
+                {
+                    scoreLedgerService.recordTransfer( template, loserId, winnerId, points, reason, false );
+                }
+
+                return updatedWinner;
+            } );
+        }
+        catch ( RuntimeException e )
+        {
+            // The shard debit is a separate write, so it is refunded if the credit fails, or the points would be lost.
+            scoreShardService.refund( loserId, shardIndex, points );
+            throw e;
+        }
+
+        if (winner == null)
+        {
+            scoreShardService.refund( loserId, shardIndex, points );
+            return new Result( Status.UserNotFound, null, null );
+        }
+
+        matchmakingService.onScoreChanged( winner );
+
+        User loser = mongoTemplate.findById( loserId, User.class );
+        scoreLedgerService.applyPendingTo( loser );
+        scoreLedgerService.applyPendingTo( winner );
+
+        return new Result( ( loser != null ) ? Status.Completed : Status.UserNotFound, loser, winner );
+    }
+}
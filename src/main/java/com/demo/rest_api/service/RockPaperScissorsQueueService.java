@@ -0,0 +1,233 @@
+/*
+ * ****************************************************************************
+ * File: RockPaperScissorsQueueService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class is the matchmaking queue of live (player versus player)
+ * Rock Paper Scissors matches. A player joins the queue with a choice and a
+ * stake, and is paired with the next player who joins with a compatible stake
+ * (see StakeMatchingQueue). The request of a waiting player is answered
+ * through a DeferredResult, so waiting does not hold a request thread; it is
+ * completed by the request of the player who pairs with it. A player waits
+ * for at most RPS_QUEUE_TIMEOUT_MS, can leave the queue at any time, and
+ * leaves it when the client disconnects.
+ *
+ * The queue is held by the instance that serves the players, so only players
+ * served by the same instance are paired with each other.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.dto.ServerApiResponse;
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.utils.StakeMatchingQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class RockPaperScissorsQueueService
+{
+    // How much longer than the queue timeout the request of a waiting player is kept open, so that a match that is
+    // being settled when the player's time runs out can still be answered.
+    private static final long SETTLEMENT_GRACE_MS = 30_000;
+
+    @Value( "${RPS_QUEUE_TIMEOUT_MS:30000}" )
+    private long timeoutMs;
+
+    private final StakeMatchingQueue<Player> queue = new StakeMatchingQueue<>();
+    private final Map<ObjectId,StakeMatchingQueue.Ticket<Player>> waitingTickets = new ConcurrentHashMap<>();
+
+    private ScheduledThreadPoolExecutor timeoutExecutor;
+
+    // A player in the queue. The response to the player's request is set on the result.
+    public static final class Player
+    {
+        private final ObjectId userId;
+        private final String username;
+        private final RockPaperScissors choice;
+        private final int pointsToStake;
+        private final DeferredResult<ResponseEntity<?>> result;
+        private volatile ScheduledFuture<?> timeout;
+
+        public Player( ObjectId userId, String username, RockPaperScissors choice, int pointsToStake, DeferredResult<ResponseEntity<?>> result )
+        {
+            this.userId = userId;
+            this.username = username;
+            this.choice = choice;
+            this.pointsToStake = pointsToStake;
+            this.result = result;
+        }
+
+        public ObjectId getUserId()
+        {
+            return userId;
+        }
+
+        public String getUsername()
+        {
+            return username;
+        }
+
+        public RockPaperScissors getChoice()
+        {
+            return choice;
+        }
+
+        public int getPointsToStake()
+        {
+            return pointsToStake;
+        }
+
+        public DeferredResult<ResponseEntity<?>> getResult()
+        {
+            return result;
+        }
+    }
+
+    public enum JoinStatus
+    {
+        Paired,
+        Waiting,
+        AlreadyWaiting
+    }
+
+    // The opponent is only set if the player has been paired.
+    public record JoinResult( JoinStatus status, Player opponent ) {}
+
+    @PostConstruct
+    public void initialize()
+    {
+        timeoutExecutor = new ScheduledThreadPoolExecutor( 1, runnable -> Thread.ofPlatform().name( "rps-queue-timeout" ).daemon().unstarted( runnable ) );
+        timeoutExecutor.setRemoveOnCancelPolicy( true );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        timeoutExecutor.shutdownNow();
+    }
+
+    // Creates the result on which the response to a player's request is set.
+    public DeferredResult<ResponseEntity<?>> newResult()
+    {
+        return new DeferredResult<>(
+            timeoutMs + SETTLEMENT_GRACE_MS,
+            () -> ServerApiResponse.generateResponseEntity(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Your match could not be completed in time. Please check your score before joining the queue again."
+            )
+        );
+    }
+
+    /**
+     * Pairs a player with a waiting player who has a compatible stake, or adds the player to the queue.
+     *
+     * @param player The player, whose user must not be waiting already.
+     * @return Paired with the opponent (the caller must settle the match and set the results of both players),
+     *         Waiting, or AlreadyWaiting if the user is already in the queue.
+     */
+    public JoinResult join( Player player )
+    {
+        StakeMatchingQueue.Ticket<Player> ticket = new StakeMatchingQueue.Ticket<>( player, player.pointsToStake );
+
+        if (waitingTickets.putIfAbsent( player.userId, ticket ) != null)
+        {
+            return new JoinResult( JoinStatus.AlreadyWaiting, null );
+        }
+
+        Player opponent = queue.offer( ticket );
+
+        if (opponent != null)
+        {
+            waitingTickets.remove( player.userId, ticket );
+            waitingTickets.computeIfPresent( opponent.userId, ( userId, opponentTicket ) -> ( opponentTicket.getValue() == opponent ) ? null : opponentTicket );
+
+            ScheduledFuture<?> opponentTimeout = opponent.timeout;
+
+            if (opponentTimeout != null)
+            {
+                opponentTimeout.cancel( false );
+            }
+
+            return new JoinResult( JoinStatus.Paired, opponent );
+        }
+
+        player.timeout = timeoutExecutor.schedule( () -> expire( ticket ), timeoutMs, TimeUnit.MILLISECONDS );
+
+        // The client may give up before anyone joins.
+        player.result.onError( error -> leave( ticket ) );
+        player.result.onCompletion( () -> leave( ticket ) );
+
+        return new JoinResult( JoinStatus.Waiting, null );
+    }
+
+    /**
+     * Removes a user from the queue.
+     *
+     * @param userId The ID of the user.
+     * @return True if the user was waiting; false if the user was not in the queue or has already been paired.
+     */
+    public boolean leave( ObjectId userId )
+    {
+        StakeMatchingQueue.Ticket<Player> ticket = waitingTickets.get( userId );
+
+        if (ticket == null || !leave( ticket ))
+        {
+            return false;
+        }
+
+        ticket.getValue().result.setResult( ServerApiResponse.generateResponseEntity(
+            HttpStatus.OK,
+            "You have left the queue. No match was played."
+        ) );
+
+        return true;
+    }
+
+    private boolean leave( StakeMatchingQueue.Ticket<Player> ticket )
+    {
+        if (!queue.cancel( ticket ))
+        {
+            return false;
+        }
+
+        Player player = ticket.getValue();
+        waitingTickets.remove( player.userId, ticket );
+
+        ScheduledFuture<?> timeout = player.timeout;
+
+        if (timeout != null)
+        {
+            timeout.cancel( false );
+        }
+
+        return true;
+    }
+
+    private void expire( StakeMatchingQueue.Ticket<Player> ticket )
+    {
+        if (leave( ticket ))
+        {
+            ticket.getValue().result.setResult( ServerApiResponse.generateResponseEntity(
+                HttpStatus.NOT_FOUND,
+                "No opponent with a compatible stake joined the queue in time. No match was played. Please try again."
+            ) );
+        }
+    }
+}
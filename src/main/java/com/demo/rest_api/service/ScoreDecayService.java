@@ -0,0 +1,301 @@
+/*
+ * ****************************************************************************
+ * File: ScoreDecayService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class decays the scores of inactive users, to keep the
+ * leaderboard active. Every night (SCORE_DECAY_CRON), users who have not
+ * made a game move for SCORE_DECAY_INACTIVE_DAYS days lose
+ * SCORE_DECAY_PERCENT percent of their score (at least 1 point). The last
+ * activity time is written together with the counters of each move (see
+ * UserCounterCoalescer), so tracking it costs no extra writes.
+ *
+ * The candidates are read through a partial index over the users who have a
+ * score, ordered by their last activity time, so active users and users
+ * without points are never scanned. They are decayed SCORE_DECAY_BATCH_SIZE
+ * at a time, with one unordered bulk write of conditional $inc updates per
+ * batch. An update only applies if the score has not changed since it was
+ * read, the user is still inactive and has not been decayed today yet, so a
+ * move made during the run wins over the decay. The decays that applied are
+ * recorded in the score ledger with one bulk insert per batch.
+ *
+ * A user whose score is sharded (a popular opponent who has not moved) gets
+ * the shards folded back into "User.score" first (see ScoreShardService), so
+ * that the decay is taken from the total score. If the shards cannot be
+ * released, the user is skipped until the next run.
+ *
+ * A run is claimed by inserting a record for the day into the
+ * "score_decay_run" collection, so that only one instance decays the scores
+ * each day; the record reports how many users and points were decayed.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.model.ScoreDecayRun;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class ScoreDecayService
+{
+    private static final Logger logger = LoggerFactory.getLogger( ScoreDecayService.class );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    @Value( "${SCORE_DECAY_INACTIVE_DAYS:14}" )
+    private int inactiveDays;
+
+    @Value( "${SCORE_DECAY_PERCENT:5}" )
+    private int decayPercent;
+
+    @Value( "${SCORE_DECAY_BATCH_SIZE:10000}" )
+    private int batchSize;
+
+    private final ExecutorService decayExecutor = Executors.newSingleThreadExecutor(
+        runnable -> Thread.ofPlatform().name( "score-decay" ).daemon().unstarted( runnable )
+    );
+
+    @PostConstruct
+    public void initialize()
+    {
+        // Only users who have points to lose are indexed. Users without an activity time yet are indexed under null.
+        mongoTemplate.indexOps( User.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY, Sort.Direction.ASC )
+                .on( "_id", Sort.Direction.ASC )
+                .partial( PartialIndexFilter.of( Criteria.where( Constants.DATABASE_USER_SCORE_KEY ).gt( 0 ) ) )
+        );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        decayExecutor.shutdownNow();
+    }
+
+    // Decays the scores of inactive users, once a day. Runs on its own thread, so that it does not hold up the other
+    // scheduled tasks.
+    @Scheduled( cron = "${SCORE_DECAY_CRON:0 0 3 * * *}" )
+    public void startDecay()
+    {
+        // Truncated to the precision of MongoDB dates, so that the users decayed by this run can be matched exactly.
+        Instant timeNow = Instant.now().truncatedTo( ChronoUnit.MILLIS );
+        ScoreDecayRun run = new ScoreDecayRun( LocalDate.ofInstant( timeNow, ZoneOffset.UTC ).toString(), timeNow );
+
+        try
+        {
+            mongoTemplate.insert( run );
+        }
+        catch ( DuplicateKeyException e )
+        {
+            // Another instance has decayed the scores today.
+            return;
+        }
+
+        decayExecutor.execute( () ->
+        {
+            try
+            {
+                decay( run );
+            }
+            catch ( Exception e )
+            {
+                // The users that were not reached are decayed by the next run.
+                logger.warn( "Failed to decay the scores of inactive users.", e );
+            }
+        } );
+    }
+
+    private void decay( ScoreDecayRun run )
+    {
+        Instant runTime = run.getStartTime();
+        Instant cutoffTime = runTime.minus( Duration.ofDays( inactiveDays ) );
+        Instant dayStartTime = LocalDate.ofInstant( runTime, ZoneOffset.UTC ).atStartOfDay( ZoneOffset.UTC ).toInstant();
+
+        // Users who have not moved since before activity was tracked start their grace period now.
+        mongoTemplate.updateMulti(
+            Query.query(
+                Criteria.where( Constants.DATABASE_USER_SCORE_KEY ).gt( 0 )
+                        .and( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ).is( null )
+            ),
+            new Update().set( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY, runTime ),
+            User.class
+        );
+
+        long decayedUserCount = 0;
+        long decayedPoints = 0;
+        User lastUser = null;
+
+        while (true)
+        {
+            Criteria criteria = Criteria.where( Constants.DATABASE_USER_SCORE_KEY ).gt( 0 )
+                    .and( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ).lt( cutoffTime );
+
+            if (lastUser != null)
+            {
+                // Continues after the last user of the previous batch, in the order of the index.
+                criteria.orOperator(
+                    Criteria.where( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ).gt( lastUser.getLastActivityTime() ),
+                    Criteria.where( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ).is( lastUser.getLastActivityTime() )
+                            .and( "_id" ).gt( lastUser.getId() )
+                );
+            }
+
+            Query batchQuery = Query.query( criteria )
+                    .with( Sort.by( Sort.Order.asc( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ), Sort.Order.asc( "_id" ) ) )
+                    .limit( batchSize );
+            batchQuery.fields().include( Constants.DATABASE_USER_SCORE_KEY ).include( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY );
+
+            List<User> users = mongoTemplate.find( batchQuery, User.class );
+
+            if (users.isEmpty())
+            {
+                break;
+            }
+
+            Map<ObjectId,Integer> pointsByUserId = new HashMap<>();
+            BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, User.class );
+
+            for (User user : users)
+            {
+                int score = scoreShardService.isSharded( user.getId() ) ? releaseShards( user.getId() ) : user.getScore();
+
+                if (score <= 0)
+                {
+                    continue;
+                }
+
+                int points = getDecayPoints( score );
+                pointsByUserId.put( user.getId(), -points );
+
+                operations.updateOne(
+                    Query.query(
+                        Criteria.where( "_id" ).is( user.getId() )
+                                .and( Constants.DATABASE_USER_SCORE_KEY ).is( score )
+                                .and( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY ).lt( cutoffTime )
+                                .and( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY ).ne( true )
+                                .and( Constants.DATABASE_USER_LAST_SCORE_DECAY_TIME_KEY ).not().gte( dayStartTime )
+                    ),
+                    new Update()
+                        .inc( Constants.DATABASE_USER_SCORE_KEY, -points )
+                        .set( Constants.DATABASE_USER_LAST_SCORE_DECAY_TIME_KEY, runTime )
+                );
+            }
+
+            if (!pointsByUserId.isEmpty())
+            {
+                operations.execute();
+            }
+
+            // Only the updates that applied are recorded in the ledger.
+            Set<ObjectId> decayedUserIds = findDecayedUserIds( pointsByUserId.keySet(), runTime );
+            pointsByUserId.keySet().retainAll( decayedUserIds );
+            scoreLedgerService.recordScoreChanges( pointsByUserId, ScoreChangeReason.InactivityDecay );
+
+            decayedUserCount += pointsByUserId.size();
+            decayedPoints -= pointsByUserId.values().stream().mapToLong( Integer::longValue ).sum();
+
+            if (users.size() < batchSize)
+            {
+                break;
+            }
+
+            lastUser = users.getLast();
+        }
+
+        mongoTemplate.updateFirst(
+            Query.query( Criteria.where( "_id" ).is( run.getId() ) ),
+            new Update()
+                .set( Constants.DATABASE_SCORE_DECAY_RUN_FINISH_TIME_KEY, Instant.now() )
+                .set( Constants.DATABASE_SCORE_DECAY_RUN_DECAYED_USER_COUNT_KEY, decayedUserCount )
+                .set( Constants.DATABASE_SCORE_DECAY_RUN_DECAYED_POINTS_KEY, decayedPoints ),
+            ScoreDecayRun.class
+        );
+
+        logger.info(
+            "Decayed the scores of {} inactive user(s) by {} point(s) in {} ms.",
+            decayedUserCount, decayedPoints, Duration.between( runTime, Instant.now() ).toMillis()
+        );
+    }
+
+    // Folds the shards of a sharded user back into "User.score", and returns the score, or 0 if the shards could not be
+    // released (the conditional update then skips the user, who is still sharded).
+    private int releaseShards( ObjectId userId )
+    {
+        try
+        {
+            scoreShardService.releaseShards( userId );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "Failed to release the score shards of user {} before decaying the score.", userId, e );
+            return 0;
+        }
+
+        Query query = Query.query( Criteria.where( "_id" ).is( userId ) );
+        query.fields().include( Constants.DATABASE_USER_SCORE_KEY );
+
+        User user = mongoTemplate.findOne( query, User.class );
+        return ( user != null ) ? user.getScore() : 0;
+    }
+
+    // The points that a score loses in one day of inactivity: the decay percentage, rounded up.
+    private int getDecayPoints( int score )
+    {
+        return ( int )Math.min( score, ( ( long )score * decayPercent + 99 ) / 100 );
+    }
+
+    private Set<ObjectId> findDecayedUserIds( Set<ObjectId> userIds, Instant runTime )
+    {
+        Query query = Query.query(
+            Criteria.where( "_id" ).in( userIds )
+                    .and( Constants.DATABASE_USER_LAST_SCORE_DECAY_TIME_KEY ).is( runTime )
+        );
+        query.fields().include( "_id" );
+
+        return mongoTemplate.find( query, User.class ).stream().map( User::getId ).collect( Collectors.toSet() );
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * ****************************************************************************
+ * File: ScoreLedgerService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class keeps the double-entry score ledger. Every score change
+ * is appended to the "score_ledger" collection as a transaction of immutable
+ * entries, which gives an auditable trail that can be replayed to rebuild the
+ * score of every user.
+ *
+ * Points credited to a user who did not make the move (e.g. the opponent who
+ * wins a Rock Paper Scissors challenge) are not written to that user's
+ * document straight away. They are appended as pending entries instead, and
+ * a compactor folds them into "User.score" every
+ * SCORE_LEDGER_COMPACTION_INTERVAL_MS, as one $inc per user. Popular
+ * opponents therefore no longer take a write for every challenge they win.
+ * Debits are never deferred, since they must be checked against the score
+ * atomically, so a pending credit can only make a score higher than the one
+ * stored; reads that need the exact score add the pending points.
+ *
+ * A compaction first claims a batch of pending entries with a new compaction
+ * ID, then applies them to each user only if the user does not have that
+ * compaction ID yet, and records it in the same update. Each user keeps the
+ * IDs of its last LEDGER_COMPACTION_HISTORY_SIZE compactions, so a compaction
+ * that was interrupted (or that runs on several instances at once) can be
+ * repeated without applying any entry twice, even after later compactions
+ * have touched the same users. Interrupted compactions are finished first by
+ * the next run, long before that many later ones could have passed.
+ *
+ * The entries of a transfer of points are written in the same transaction as
+ * both legs of the transfer (see MongoTransactionService), so the ledger and
+ * the scores cannot disagree after a crash. Transactions need MongoDB to run
+ * as a replica set; on a standalone server, transfers (Rock Paper Scissors
+ * challenges) fail, and a warning is logged at startup. A score change of a single user (e.g. points won in a game or a bonus claim)
+ * does not need a transaction: it is one atomic $inc, and its entries are
+ * written right after it, so only a crash in between can leave one change
+ * out of the ledger.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.model.ScoreLedgerEntry;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class ScoreLedgerService
+{
+    private static final Logger logger = LoggerFactory.getLogger( ScoreLedgerService.class );
+
+    private static final String USER_COLLECTION_NAME = "user";
+    private static final String SCORE_LEDGER_COLLECTION_NAME = "score_ledger";
+
+    // How many of the most recent compactions are remembered on each user.
+    private static final int LEDGER_COMPACTION_HISTORY_SIZE = 32;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MatchmakingService matchmakingService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    // The maximum number of pending entries claimed by one compaction.
+    @Value( "${SCORE_LEDGER_COMPACTION_BATCH_SIZE:10000}" )
+    private int compactionBatchSize;
+
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void initialize()
+    {
+        PartialIndexFilter pendingOnly = PartialIndexFilter.of( Criteria.where( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true ) );
+
+        // Reads the pending points of a user.
+        mongoTemplate.indexOps( ScoreLedgerEntry.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY, Sort.Direction.ASC )
+                .partial( pendingOnly )
+        );
+
+        // Claims the oldest unclaimed entries (compaction ID null), and finds the entries of a compaction.
+        mongoTemplate.indexOps( ScoreLedgerEntry.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY, Sort.Direction.ASC )
+                .on( "_id", Sort.Direction.ASC )
+                .partial( pendingOnly )
+        );
+
+        recordOpeningBalances();
+    }
+
+    /**
+     * Records a score change that has been applied to the user's document (e.g. points won in a game), balanced by an
+     * entry of the house.
+     *
+     * @param template The template to write with (bound to a transaction if the change is, see MongoTransactionService).
+     * @param userId The ID of the user.
+     * @param points The change of the score.
+     * @param reason Why the score has changed.
+     */
+    public void recordScoreChange( MongoTemplate template, ObjectId userId, int points, ScoreChangeReason reason )
+    {
+        if (points == 0)
+        {
+            return;
+        }
+
+        ObjectId transactionId = new ObjectId();
+        Instant timeNow = Instant.now();
+
+        template.insertAll( List.of(
+            new ScoreLedgerEntry( transactionId, userId, points, reason, timeNow, false ),
+            new ScoreLedgerEntry( transactionId, null, -points, reason, timeNow, false )
+        ) );
+    }
+
+    /**
+     * Records score changes of many users that have already been applied to their documents (e.g. the reset of all
+     * scores at a season rollover), each balanced by an entry of the house, with one bulk insert.
+     *
+     * @param pointsByUserId The change of the score of each user.
+     * @param reason Why the scores have changed.
+     */
+    public void recordScoreChanges( Map<ObjectId,Integer> pointsByUserId, ScoreChangeReason reason )
+    {
+        Instant timeNow = Instant.now();
+        List<ScoreLedgerEntry> entries = new ArrayList<>();
+
+        pointsByUserId.forEach( ( userId, points ) ->
+        {
+            if (points != 0)
+            {
+                ObjectId transactionId = new ObjectId();
+                entries.add( new ScoreLedgerEntry( transactionId, userId, points, reason, timeNow, false ) );
+                entries.add( new ScoreLedgerEntry( transactionId, null, -points, reason, timeNow, false ) );
+            }
+        } );
+
+        if (!entries.isEmpty())
+        {
+            mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, ScoreLedgerEntry.class ).insert( entries ).execute();
+        }
+    }
+
+    /**
+     * Records a transfer of points whose debit is applied in the same transaction.
+     *
+     * @param template The template of the transaction (see MongoTransactionService).
+     * @param loserId The ID of the user who gave the points.
+     * @param winnerId The ID of the user who received the points.
+     * @param points The number of points transferred.
+     * @param reason Why the points were transferred.
+     * @param isCreditPending Whether the credit still has to be applied to the winner's document by the compactor.
+     */
+    public void recordTransfer( MongoTemplate template, ObjectId loserId, ObjectId winnerId, int points, ScoreChangeReason reason, boolean isCreditPending )
+    {
+        ObjectId transactionId = new ObjectId();
+        Instant timeNow = Instant.now();
+
+        template.insertAll( List.of(
+            new ScoreLedgerEntry( transactionId, loserId, -points, reason, timeNow, false ),
+            new ScoreLedgerEntry( transactionId, winnerId, points, reason, timeNow, isCreditPending )
+        ) );
+    }
+
+    /**
+     * Returns the points that have been credited to a user but not folded into the user's score yet. Entries that a
+     * compaction is applying at this moment are not included, so the result may briefly be too low, but never too high.
+     *
+     * @param userId The ID of the user.
+     * @return The sum of the pending entries of the user.
+     */
+    public int getPendingPoints( ObjectId userId )
+    {
+        Query query = Query.query(
+            Criteria.where( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY ).is( userId )
+                    .and( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).is( null )
+                    .and( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true )
+        );
+        query.fields().include( Constants.DATABASE_SCORE_LEDGER_POINTS_KEY );
+
+        return mongoTemplate.find( query, ScoreLedgerEntry.class ).stream().mapToInt( ScoreLedgerEntry::getPoints ).sum();
+    }
+
+    // Returns the IDs of the given users who have pending entries, including the entries that a compaction is applying.
+    public Set<ObjectId> findUserIdsWithPendingPoints( Collection<ObjectId> userIds )
+    {
+        Query query = Query.query(
+            Criteria.where( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY ).in( userIds )
+                    .and( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true )
+        );
+
+        return new HashSet<>( mongoTemplate.findDistinct( query, Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY, ScoreLedgerEntry.class, ObjectId.class ) );
+    }
+
+    // Shows the pending points (and the points spent from score shards that are not folded yet) on a user loaded from
+    // the database, for display only (the user must not be saved).
+    public void applyPendingTo( User user )
+    {
+        if (user != null)
+        {
+            user.setScore( user.getScore() + getPendingPoints( user.getId() ) - scoreShardService.getUnfoldedPoints( user.getId() ) );
+        }
+    }
+
+    // Folds all pending entries into the scores of their users.
+    @Scheduled(
+        initialDelayString = "${SCORE_LEDGER_COMPACTION_INTERVAL_MS:1000}",
+        fixedDelayString = "${SCORE_LEDGER_COMPACTION_INTERVAL_MS:1000}"
+    )
+    public void compact()
+    {
+        compactionLock.lock();
+
+        try
+        {
+            // Finish the compactions that were interrupted first (e.g. by a restart).
+            Query interruptedQuery = Query.query(
+                Criteria.where( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true )
+                        .and( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).ne( null )
+            );
+
+            for (ObjectId compactionId : mongoTemplate.findDistinct( interruptedQuery, Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY, ScoreLedgerEntry.class, ObjectId.class ))
+            {
+                applyCompaction( compactionId );
+            }
+
+            while (true)
+            {
+                Query unclaimedQuery = Query.query(
+                    Criteria.where( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).is( null )
+                            .and( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true )
+                );
+                unclaimedQuery.with( Sort.by( Sort.Direction.ASC, "_id" ) ).limit( compactionBatchSize );
+                unclaimedQuery.fields().include( "_id" );
+
+                List<ObjectId> entryIds = mongoTemplate.find( unclaimedQuery, ScoreLedgerEntry.class ).stream().map( ScoreLedgerEntry::getId ).toList();
+
+                if (entryIds.isEmpty())
+                {
+                    return;
+                }
+
+                // Only entries that are still unclaimed are taken, in case another instance is compacting too.
+                ObjectId compactionId = new ObjectId();
+
+                mongoTemplate.updateMulti(
+                    Query.query( Criteria.where( "_id" ).in( entryIds ).and( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).is( null ) ),
+                    new Update().set( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY, compactionId ),
+                    ScoreLedgerEntry.class
+                );
+
+                applyCompaction( compactionId );
+
+                if (entryIds.size() < compactionBatchSize)
+                {
+                    return;
+                }
+            }
+        }
+        catch ( Exception e )
+        {
+            // Claimed entries are picked up again by the next compaction.
+            logger.warn( "Failed to compact the score ledger; will retry.", e );
+        }
+        finally
+        {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the score of every user by replaying the whole ledger, replacing the stored scores. Pending entries
+     * are compacted first. Meant for recovery, while no games are being played.
+     */
+    public void rebuildScores()
+    {
+        compact();
+
+        List<Document> pipeline = List.of(
+            new Document( "$match", new Document( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY, new Document( "$ne", null ) ) ),
+            new Document( "$group", new Document( "_id", "$" + Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY )
+                    .append( Constants.DATABASE_USER_SCORE_KEY, new Document( "$sum", "$" + Constants.DATABASE_SCORE_LEDGER_POINTS_KEY ) ) ),
+            new Document( "$merge", new Document( "into", USER_COLLECTION_NAME )
+                    .append( "on", "_id" )
+                    .append( "whenMatched", List.of( new Document( "$set", new Document( Constants.DATABASE_USER_SCORE_KEY, "$$new." + Constants.DATABASE_USER_SCORE_KEY ) ) ) )
+                    .append( "whenNotMatched", "discard" ) )
+        );
+
+        mongoTemplate.getCollection( SCORE_LEDGER_COLLECTION_NAME ).aggregate( pipeline ).toCollection();
+        logger.info( "Rebuilt the scores of all users from the score ledger." );
+
+        matchmakingService.rebuildIndex();
+    }
+
+    // Applies the entries claimed by a compaction to their users, then marks them as no longer pending.
+    private void applyCompaction( ObjectId compactionId )
+    {
+        Query claimedQuery = Query.query(
+            Criteria.where( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).is( compactionId )
+                    .and( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ).exists( true )
+        );
+        claimedQuery.fields().include( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY ).include( Constants.DATABASE_SCORE_LEDGER_POINTS_KEY );
+
+        Map<ObjectId,Integer> pointsByUserId = new HashMap<>();
+
+        for (ScoreLedgerEntry entry : mongoTemplate.find( claimedQuery, ScoreLedgerEntry.class ))
+        {
+            pointsByUserId.merge( entry.getUserId(), entry.getPoints(), Integer::sum );
+        }
+
+        if (!pointsByUserId.isEmpty())
+        {
+            BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, User.class );
+
+            // The single compaction ID recorded by earlier versions is checked too, and replaced by the history.
+            pointsByUserId.forEach( ( userId, points ) -> operations.updateOne(
+                Query.query(
+                    Criteria.where( "_id" ).is( userId )
+                            .and( Constants.DATABASE_USER_LEDGER_COMPACTION_IDS_KEY ).ne( compactionId )
+                            .and( Constants.DATABASE_USER_LEDGER_COMPACTION_ID_KEY ).ne( compactionId )
+                ),
+                new Update()
+                    .inc( Constants.DATABASE_USER_SCORE_KEY, points )
+                    .push( Constants.DATABASE_USER_LEDGER_COMPACTION_IDS_KEY ).slice( -LEDGER_COMPACTION_HISTORY_SIZE ).each( compactionId )
+                    .unset( Constants.DATABASE_USER_LEDGER_COMPACTION_ID_KEY )
+            ) );
+
+            operations.execute();
+        }
+
+        mongoTemplate.updateMulti(
+            Query.query( Criteria.where( Constants.DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY ).is( compactionId ) ),
+            new Update().unset( Constants.DATABASE_SCORE_LEDGER_IS_PENDING_KEY ),
+            ScoreLedgerEntry.class
+        );
+
+        if (!pointsByUserId.isEmpty())
+        {
+            Query scoreQuery = Query.query( Criteria.where( "_id" ).in( new ArrayList<>( pointsByUserId.keySet() ) ) );
+            scoreQuery.fields().include( "_id" ).include( Constants.DATABASE_USER_SCORE_KEY );
+            mongoTemplate.find( scoreQuery, User.class ).forEach( matchmakingService::onScoreChanged );
+
+            logger.debug( "Compacted the pending points of {} user(s).", pointsByUserId.size() );
+        }
+    }
+
+    // Records the scores that users had before the ledger existed as their opening balances, once. Each opening
+    // balance entry has the ID of its user, so running this more than once (e.g. on several instances) is harmless.
+    private void recordOpeningBalances()
+    {
+        Query markerQuery = Query.query(
+            Criteria.where( Constants.DATABASE_SCORE_LEDGER_REASON_KEY ).is( ScoreChangeReason.OpeningBalance )
+                    .and( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY ).is( null )
+        );
+
+        if (mongoTemplate.exists( markerQuery, ScoreLedgerEntry.class ))
+        {
+            return;
+        }
+
+        List<Document> pipeline = List.of(
+            new Document( "$match", new Document( Constants.DATABASE_USER_SCORE_KEY, new Document( "$ne", 0 ) ) ),
+            new Document( "$project", new Document( "_id", 1 )
+                    .append( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY, "$_id" )
+                    .append( Constants.DATABASE_SCORE_LEDGER_POINTS_KEY, "$" + Constants.DATABASE_USER_SCORE_KEY )
+                    .append( Constants.DATABASE_SCORE_LEDGER_REASON_KEY, ScoreChangeReason.OpeningBalance.name() )
+                    .append( Constants.DATABASE_SCORE_LEDGER_TIME_KEY, "$$NOW" ) ),
+            new Document( "$merge", new Document( "into", SCORE_LEDGER_COLLECTION_NAME )
+                    .append( "on", "_id" )
+                    .append( "whenMatched", "keepExisting" )
+                    .append( "whenNotMatched", "insert" ) )
+        );
+
+        mongoTemplate.getCollection( USER_COLLECTION_NAME ).aggregate( pipeline ).toCollection();
+
+        // The marker (an opening balance of the house) shows that the opening balances have been recorded.
+        mongoTemplate.insert( new ScoreLedgerEntry( null, null, 0, ScoreChangeReason.OpeningBalance, Instant.now(), false ) );
+        logger.info( "Recorded the opening balances of the score ledger." );
+    }
+}
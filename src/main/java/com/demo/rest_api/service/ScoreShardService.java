@@ -0,0 +1,440 @@
+/*
+ * ****************************************************************************
+ * File: ScoreShardService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class shards the score of users who lose points to challengers
+ * faster than SCORE_SHARD_WRITE_RATE_THRESHOLD times per second, so that
+ * those debits no longer queue up on the write lock of one user document.
+ * (Points won by an opponent are already appended to the score ledger
+ * instead of being written to the opponent's document.)
+ *
+ * A sharded user reserves half of the score in SCORE_SHARD_COUNT documents of
+ * the "score_shard" collection. A debit picks a shard at random and takes the
+ * points from it with a conditional $inc ("available >= points"), so that a
+ * score can never be overdrawn; only if no shard can cover the debit does it
+ * fall back to the user document, where it is checked against the part of
+ * the score that is not reserved. The total score of a user is "User.score"
+ * minus the points spent from the shards since they were last folded back.
+ *
+ * Every SCORE_SHARD_REBALANCE_INTERVAL_MS, the points spent from each shard
+ * are folded back into "User.score" and the shard is topped up, in one
+ * multi-document transaction per shard. The leaderboard and the rank queries
+ * read "User.score" and then subtract the points that are not folded yet
+ * (see getUnfoldedPointsByUserId()), so that sharded users are ranked on
+ * their true total. Sharding is turned off again once the user has not been
+ * hot for SCORE_SHARD_IDLE_MS. Transactions need MongoDB to run as a replica
+ * set; without one (see MongoTransactionService), no score is sharded, and
+ * every debit is written to the user document.
+ *
+ * A debit taken from a shard is a write of its own, before the credit of the
+ * winner; if the credit fails, the debit is refunded (see refund()).
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.ScoreShard;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ScoreShardService
+{
+    private static final Logger logger = LoggerFactory.getLogger( ScoreShardService.class );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoTransactionService mongoTransactionService;
+
+    @Value( "${SCORE_SHARD_COUNT:8}" )
+    private int shardCount;
+
+    // Debits per second, seen by this instance, above which the score of a user is sharded.
+    @Value( "${SCORE_SHARD_WRITE_RATE_THRESHOLD:20}" )
+    private double writeRateThreshold;
+
+    // How long a sharded user must stay below the threshold (on every instance) before the shards are removed.
+    @Value( "${SCORE_SHARD_IDLE_MS:60000}" )
+    private long idleMs;
+
+    private final Map<ObjectId,LongAdder> debitCounts = new ConcurrentHashMap<>();
+    private volatile Set<ObjectId> shardedUserIds = Set.of();
+    private long lastRebalanceTimeMs = System.currentTimeMillis();
+
+    @PostConstruct
+    public void initialize()
+    {
+        mongoTemplate.indexOps( ScoreShard.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_SCORE_SHARD_INDEX_KEY, Sort.Direction.ASC )
+                .unique()
+        );
+
+        shardedUserIds = findShardedUserIds();
+    }
+
+    /**
+     * Returns a criteria that only matches a user who has at least the given number of points that are not reserved
+     * by score shards. Every conditional debit of a user document must use it instead of comparing the score alone.
+     *
+     * @param points The number of points to debit.
+     * @return The criteria, to be combined with the criteria on the user ID.
+     */
+    public static Criteria hasUnreservedScore( int points )
+    {
+        return Criteria.expr(
+            ComparisonOperators.Gte.valueOf(
+                ArithmeticOperators.Subtract.valueOf( Constants.DATABASE_USER_SCORE_KEY )
+                        .subtract( ConditionalOperators.ifNull( Constants.DATABASE_USER_RESERVED_SCORE_KEY ).then( 0 ) )
+            ).greaterThanEqualToValue( points )
+        );
+    }
+
+    // Counts a debit that targets a user, to find the users whose score is worth sharding.
+    public void recordDebit( ObjectId userId )
+    {
+        debitCounts.computeIfAbsent( userId, id -> new LongAdder() ).increment();
+    }
+
+    public boolean isSharded( ObjectId userId )
+    {
+        return shardedUserIds.contains( userId );
+    }
+
+    /**
+     * Takes points from a random shard of a user, trying the other shards if it cannot cover them.
+     *
+     * @param userId The ID of the user.
+     * @param points The number of points to debit.
+     * @return The index of the shard that was debited, or -1 if no shard could cover the points.
+     */
+    public int tryDebit( ObjectId userId, int points )
+    {
+        int firstIndex = ThreadLocalRandom.current().nextInt( shardCount );
+
+        for (int i = 0; i < shardCount; i++)
+        {
+            int index = ( firstIndex + i ) % shardCount;
+
+            long modifiedCount = mongoTemplate.updateFirst(
+                Query.query(
+                    Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId )
+                            .and( Constants.DATABASE_SCORE_SHARD_INDEX_KEY ).is( index )
+                            .and( Constants.DATABASE_SCORE_SHARD_AVAILABLE_KEY ).gte( points )
+                ),
+                new Update()
+                    .inc( Constants.DATABASE_SCORE_SHARD_AVAILABLE_KEY, -points )
+                    .inc( Constants.DATABASE_SCORE_SHARD_SPENT_KEY, points ),
+                ScoreShard.class
+            ).getModifiedCount();
+
+            if (modifiedCount == 1)
+            {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    // Reverts a debit taken by tryDebit(). If the shard has been folded and removed in the meantime, the debit is
+    // already part of "User.score", so it is reverted there.
+    public void refund( ObjectId userId, int index, int points )
+    {
+        long modifiedCount = mongoTemplate.updateFirst(
+            Query.query(
+                Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId )
+                        .and( Constants.DATABASE_SCORE_SHARD_INDEX_KEY ).is( index )
+            ),
+            new Update()
+                .inc( Constants.DATABASE_SCORE_SHARD_AVAILABLE_KEY, points )
+                .inc( Constants.DATABASE_SCORE_SHARD_SPENT_KEY, -points ),
+            ScoreShard.class
+        ).getModifiedCount();
+
+        if (modifiedCount == 0)
+        {
+            mongoTemplate.updateFirst(
+                Query.query( Criteria.where( "_id" ).is( userId ) ),
+                new Update().inc( Constants.DATABASE_USER_SCORE_KEY, points ),
+                User.class
+            );
+        }
+    }
+
+    // Returns the points spent from the shards of a user that are not folded into "User.score" yet.
+    public int getUnfoldedPoints( ObjectId userId )
+    {
+        if (!isSharded( userId ))
+        {
+            return 0;
+        }
+
+        Query query = Query.query( Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId ) );
+        query.fields().include( Constants.DATABASE_SCORE_SHARD_SPENT_KEY );
+
+        return mongoTemplate.find( query, ScoreShard.class ).stream().mapToInt( ScoreShard::getSpent ).sum();
+    }
+
+    // Returns the points spent from the shards of every sharded user that are not folded into "User.score" yet, by
+    // user ID. There are only a few shards per hot user, so this is cheap enough to run for every ranking.
+    public Map<ObjectId,Integer> getUnfoldedPointsByUserId()
+    {
+        Query query = Query.query( Criteria.where( Constants.DATABASE_SCORE_SHARD_SPENT_KEY ).gt( 0 ) );
+        query.fields().include( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).include( Constants.DATABASE_SCORE_SHARD_SPENT_KEY );
+
+        Map<ObjectId,Integer> unfoldedPointsByUserId = new HashMap<>();
+
+        for (ScoreShard shard : mongoTemplate.find( query, ScoreShard.class ))
+        {
+            unfoldedPointsByUserId.merge( shard.getUserId(), shard.getSpent(), Integer::sum );
+        }
+
+        return unfoldedPointsByUserId;
+    }
+
+    public void onUserRemoved( ObjectId userId )
+    {
+        mongoTemplate.remove( Query.query( Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId ) ), ScoreShard.class );
+    }
+
+    // Folds every shard of a user back into "User.score" and turns sharding off, in one transaction (e.g. before the
+    // score is reset at a season rollover). The user may be sharded again by a later rebalance if still hot.
+    public void releaseShards( ObjectId userId )
+    {
+        mongoTransactionService.runInTransactionWithoutResult( template ->
+        {
+            template.updateFirst(
+                Query.query( Criteria.where( "_id" ).is( userId ) ),
+                new Update().set( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY, false ),
+                User.class
+            );
+
+            for (int index = 0; index < shardCount; index++)
+            {
+                foldShard( template, userId, index, false );
+            }
+
+            unshardScoreIfEmpty( template, userId );
+        } );
+    }
+
+    // Shards the scores of users who have become hot, folds and tops up the shards of sharded users, and removes the
+    // shards of users who are no longer hot.
+    @Scheduled(
+        initialDelayString = "${SCORE_SHARD_REBALANCE_INTERVAL_MS:1000}",
+        fixedDelayString = "${SCORE_SHARD_REBALANCE_INTERVAL_MS:1000}"
+    )
+    public void rebalance()
+    {
+        long timeNowMs = System.currentTimeMillis();
+        double elapsedSeconds = Math.max( 1, timeNowMs - lastRebalanceTimeMs ) / 1000.0;
+        lastRebalanceTimeMs = timeNowMs;
+
+        Set<ObjectId> hotUserIds = new HashSet<>();
+
+        debitCounts.forEach( ( userId, count ) ->
+        {
+            if (count.sumThenReset() / elapsedSeconds >= writeRateThreshold)
+            {
+                hotUserIds.add( userId );
+            }
+            else
+            {
+                debitCounts.remove( userId, count );
+            }
+        } );
+
+        try
+        {
+            // Other instances may have sharded or unsharded users too.
+            Set<ObjectId> currentShardedUserIds = findShardedUserIds();
+
+            for (ObjectId userId : hotUserIds)
+            {
+                if (!currentShardedUserIds.contains( userId ) && mongoTransactionService.isSupported())
+                {
+                    mongoTransactionService.runInTransactionWithoutResult( template -> shardScore( template, userId ) );
+                }
+            }
+
+            for (ObjectId userId : currentShardedUserIds)
+            {
+                boolean isHot = hotUserIds.contains( userId );
+
+                for (int index = 0; index < shardCount; index++)
+                {
+                    int shardIndex = index;
+                    mongoTransactionService.runInTransactionWithoutResult( template -> foldShard( template, userId, shardIndex, isHot ) );
+                }
+
+                mongoTransactionService.runInTransactionWithoutResult( template -> unshardScoreIfEmpty( template, userId ) );
+            }
+
+            shardedUserIds = findShardedUserIds();
+        }
+        catch ( Exception e )
+        {
+            // Debits fall back to the user documents as long as the shards cannot be maintained.
+            logger.warn( "Failed to rebalance the score shards.", e );
+        }
+    }
+
+    // Reserves half of the user's score in new shards.
+    private void shardScore( MongoTemplate template, ObjectId userId )
+    {
+        User user = template.findById( userId, User.class );
+
+        if (user == null || user.getIsScoreSharded())
+        {
+            return;
+        }
+
+        int reservedScore = Math.max( 0, user.getScore() - user.getReservedScore() ) / 2;
+
+        for (int index = 0; index < shardCount; index++)
+        {
+            int available = reservedScore / shardCount + ( ( index == 0 ) ? reservedScore % shardCount : 0 );
+
+            // Upserted, so that a shard left behind by an interrupted unsharding keeps its points.
+            template.upsert(
+                shardQuery( userId, index ),
+                new Update().inc( Constants.DATABASE_SCORE_SHARD_AVAILABLE_KEY, available ).inc( Constants.DATABASE_SCORE_SHARD_SPENT_KEY, 0 ),
+                ScoreShard.class
+            );
+        }
+
+        template.updateFirst(
+            Query.query( Criteria.where( "_id" ).is( userId ) ),
+            new Update()
+                .set( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY, true )
+                .inc( Constants.DATABASE_USER_RESERVED_SCORE_KEY, reservedScore )
+                .set( Constants.DATABASE_USER_LAST_SCORE_SHARDING_TIME_KEY, Instant.now() ),
+            User.class
+        );
+
+        logger.info( "Sharded the score of user {} ({} point(s) reserved in {} shard(s)).", userId, reservedScore, shardCount );
+    }
+
+    // Folds the points spent from one shard into "User.score". The shard is topped up to its share of half of the score
+    // while the user is still sharded, or removed once the user has been idle for long enough.
+    private void foldShard( MongoTemplate template, ObjectId userId, int index, boolean isHot )
+    {
+        User user = template.findById( userId, User.class );
+        ScoreShard shard = template.findOne( shardQuery( userId, index ), ScoreShard.class );
+
+        if (user == null || shard == null)
+        {
+            return;
+        }
+
+        int spent = shard.getSpent();
+        Instant lastShardingTime = user.getLastScoreShardingTime();
+        boolean isIdle = !isHot && ( lastShardingTime == null || lastShardingTime.plusMillis( idleMs ).isBefore( Instant.now() ) );
+
+        Update userUpdate = new Update().inc( Constants.DATABASE_USER_SCORE_KEY, -spent );
+
+        if (isHot)
+        {
+            userUpdate.set( Constants.DATABASE_USER_LAST_SCORE_SHARDING_TIME_KEY, Instant.now() );
+        }
+
+        if (isIdle || !user.getIsScoreSharded())
+        {
+            // Release the shard's points back to the user document.
+            template.remove( shard );
+            userUpdate.inc( Constants.DATABASE_USER_RESERVED_SCORE_KEY, -( spent + shard.getAvailable() ) );
+        }
+        else
+        {
+            int unreservedScore = user.getScore() - user.getReservedScore();
+            int targetAvailable = Math.max( 0, user.getScore() - spent ) / 2 / shardCount;
+            int topUp = Math.max( -shard.getAvailable(), Math.min( unreservedScore, targetAvailable - shard.getAvailable() ) );
+
+            template.updateFirst(
+                shardQuery( userId, index ),
+                new Update()
+                    .inc( Constants.DATABASE_SCORE_SHARD_SPENT_KEY, -spent )
+                    .inc( Constants.DATABASE_SCORE_SHARD_AVAILABLE_KEY, topUp ),
+                ScoreShard.class
+            );
+
+            userUpdate.inc( Constants.DATABASE_USER_RESERVED_SCORE_KEY, topUp - spent );
+        }
+
+        template.updateFirst( Query.query( Criteria.where( "_id" ).is( userId ) ), userUpdate, User.class );
+    }
+
+    // Turns sharding off once all the shards of a user have been removed.
+    private void unshardScoreIfEmpty( MongoTemplate template, ObjectId userId )
+    {
+        if (template.exists( Query.query( Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId ) ), ScoreShard.class ))
+        {
+            return;
+        }
+
+        template.updateFirst(
+            Query.query( Criteria.where( "_id" ).is( userId ) ),
+            new Update()
+                .set( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY, false )
+                .set( Constants.DATABASE_USER_RESERVED_SCORE_KEY, 0 )
+                .unset( Constants.DATABASE_USER_LAST_SCORE_SHARDING_TIME_KEY ),
+            User.class
+        );
+
+        logger.info( "Stopped sharding the score of user {}.", userId );
+    }
+
+    private Set<ObjectId> findShardedUserIds()
+    {
+        Query query = Query.query( Criteria.where( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY ).is( true ) );
+        query.fields().include( "_id" );
+
+        List<User> users = mongoTemplate.find( query, User.class );
+        Set<ObjectId> userIds = new HashSet<>();
+        users.forEach( user -> userIds.add( user.getId() ) );
+        return Set.copyOf( userIds );
+    }
+
+    private static Query shardQuery( ObjectId userId, int index )
+    {
+        return Query.query(
+            Criteria.where( Constants.DATABASE_SCORE_SHARD_USER_ID_KEY ).is( userId )
+                    .and( Constants.DATABASE_SCORE_SHARD_INDEX_KEY ).is( index )
+        );
+    }
+}
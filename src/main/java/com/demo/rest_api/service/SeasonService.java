@@ -0,0 +1,543 @@
+/*
+ * ****************************************************************************
+ * File: SeasonService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class rolls the season over when SEASON_ROLLOVER_CRON fires:
+ * the leaderboard of the season that has ended (score, attempts and rounds of
+ * every user) is archived to the "season_archive" collection, and the score
+ * and counters of every user are reset.
+ *
+ * The rollover is a resumable job that runs on its own thread. It streams the
+ * users in "_id" order, SEASON_ROLLOVER_BATCH_SIZE at a time, and writes each
+ * batch with one unordered bulk insert of archive rows and one unordered bulk
+ * write of resets. A reset subtracts the archived values with $inc instead of
+ * setting them to zero, so that points won while the batch is being written
+ * count towards the new season, and records the season on the user, so that
+ * a batch that is written again never resets a user twice. Before a batch is
+ * archived, the score shards and the pending credits of its users are folded
+ * into their scores, so that the archived score is the whole score. After
+ * each batch, the "_id" of its last user is stored on the season as a
+ * checkpoint, so that a rollover that was interrupted (e.g. by a restart) is
+ * resumed from the next batch by whichever instance claims it once its lease
+ * has expired.
+ * Once every user has been archived, the ranks are assigned on the server
+ * with one aggregation over the archive.
+ *
+ * The job pauses for SEASON_ROLLOVER_PAUSE_MS after a batch whenever this
+ * instance is serving more than SEASON_ROLLOVER_MAX_FOREGROUND_RATE user
+ * actions per second, so that it only takes the capacity that players leave.
+ * Progress is logged and stored on the season.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.enums.SeasonStatus;
+import com.demo.rest_api.model.Season;
+import com.demo.rest_api.model.SeasonArchiveEntry;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class SeasonService
+{
+    private static final Logger logger = LoggerFactory.getLogger( SeasonService.class );
+
+    private static final String SEASON_ARCHIVE_COLLECTION_NAME = "season_archive";
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+    private static final long PROGRESS_LOG_INTERVAL_MS = 10_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    @Autowired
+    private UserMutationExecutor userMutationExecutor;
+
+    @Value( "${SEASON_ROLLOVER_BATCH_SIZE:5000}" )
+    private int batchSize;
+
+    // User actions per second on this instance above which the rollover pauses between batches.
+    @Value( "${SEASON_ROLLOVER_MAX_FOREGROUND_RATE:500}" )
+    private double maxForegroundRate;
+
+    @Value( "${SEASON_ROLLOVER_PAUSE_MS:1000}" )
+    private long pauseMs;
+
+    // How long an instance may go without finishing a batch before another instance may take the rollover over.
+    @Value( "${SEASON_ROLLOVER_LEASE_MS:300000}" )
+    private long leaseMs;
+
+    private final AtomicBoolean isRollingOver = new AtomicBoolean( false );
+    private final ExecutorService rolloverExecutor = Executors.newSingleThreadExecutor(
+        runnable -> Thread.ofPlatform().name( "season-rollover" ).daemon().unstarted( runnable )
+    );
+
+    @PostConstruct
+    public void initialize()
+    {
+        mongoTemplate.indexOps( Season.class ).createIndex(
+            new Index().on( Constants.DATABASE_SEASON_NUMBER_KEY, Sort.Direction.ASC ).unique()
+        );
+
+        // At most one season is rolled over at a time.
+        mongoTemplate.indexOps( Season.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SEASON_STATUS_KEY, Sort.Direction.ASC )
+                .unique()
+                .partial( PartialIndexFilter.of( Criteria.where( Constants.DATABASE_SEASON_STATUS_KEY ).is( SeasonStatus.RollingOver.name() ) ) )
+        );
+
+        // Keeps the archive rows of a resumed batch from being written twice, and finds the row of a user.
+        mongoTemplate.indexOps( SeasonArchiveEntry.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_SEASON_ARCHIVE_USER_ID_KEY, Sort.Direction.ASC )
+                .unique()
+        );
+
+        // Supports ranking a season, and reading its archived leaderboard.
+        mongoTemplate.indexOps( SeasonArchiveEntry.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_SEASON_ARCHIVE_SCORE_KEY, Sort.Direction.DESC )
+                .on( Constants.DATABASE_SEASON_ARCHIVE_ATTEMPTS_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_SEASON_ARCHIVE_ROUNDS_KEY, Sort.Direction.ASC )
+        );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        // An unfinished rollover is resumed from its checkpoint once its lease has expired.
+        rolloverExecutor.shutdownNow();
+    }
+
+    // Returns the season that has ended most recently (being rolled over or archived).
+    public Optional<Season> findLatestSeason()
+    {
+        Query query = new Query().with( Sort.by( Sort.Order.desc( Constants.DATABASE_SEASON_NUMBER_KEY ) ) );
+        return Optional.ofNullable( mongoTemplate.findOne( query, Season.class ) );
+    }
+
+    public Optional<SeasonArchiveEntry> findArchiveEntry( ObjectId seasonId, ObjectId userId )
+    {
+        return Optional.ofNullable( mongoTemplate.findOne(
+            Query.query(
+                Criteria.where( Constants.DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY ).is( seasonId )
+                        .and( Constants.DATABASE_SEASON_ARCHIVE_USER_ID_KEY ).is( userId )
+            ),
+            SeasonArchiveEntry.class
+        ) );
+    }
+
+    // Ends the current season and starts rolling it over.
+    @Scheduled( cron = "${SEASON_ROLLOVER_CRON:0 0 0 1 * *}" )
+    public void startRollover()
+    {
+        Optional<Season> latestSeason = findLatestSeason();
+        Instant timeNow = Instant.now();
+
+        Season season = new Season(
+            latestSeason.map( Season::getNumber ).orElse( 0 ) + 1,
+            latestSeason.map( Season::getRolloverTime ).orElse( null ),
+            timeNow,
+            mongoTemplate.estimatedCount( User.class ),
+            timeNow.plusMillis( leaseMs )
+        );
+
+        try
+        {
+            mongoTemplate.insert( season );
+        }
+        catch ( DuplicateKeyException e )
+        {
+            // Another instance has started it, or the previous rollover has not finished yet.
+            return;
+        }
+
+        logger.info( "Rolling over season {} ({} user(s)).", season.getNumber(), season.getTotalUserCount() );
+        submit( season );
+    }
+
+    // Takes over a rollover that was interrupted, and resumes it from its checkpoint.
+    @Scheduled(
+        initialDelayString = "${SEASON_ROLLOVER_RESUME_INTERVAL_MS:60000}",
+        fixedDelayString = "${SEASON_ROLLOVER_RESUME_INTERVAL_MS:60000}"
+    )
+    public void resumeInterruptedRollover()
+    {
+        if (isRollingOver.get())
+        {
+            return;
+        }
+
+        Instant timeNow = Instant.now();
+
+        Season season = mongoTemplate.findAndModify(
+            Query.query(
+                Criteria.where( Constants.DATABASE_SEASON_STATUS_KEY ).is( SeasonStatus.RollingOver )
+                        .and( Constants.DATABASE_SEASON_LEASE_EXPIRY_TIME_KEY ).lt( timeNow )
+            ),
+            new Update().set( Constants.DATABASE_SEASON_LEASE_EXPIRY_TIME_KEY, timeNow.plusMillis( leaseMs ) ),
+            FindAndModifyOptions.options().returnNew( true ),
+            Season.class
+        );
+
+        if (season != null)
+        {
+            logger.info( "Resuming the rollover of season {} after {} user(s).", season.getNumber(), season.getProcessedUserCount() );
+            submit( season );
+        }
+    }
+
+    // Runs the rollover on its own thread, so that it does not hold up the other scheduled tasks.
+    private void submit( Season season )
+    {
+        if (!isRollingOver.compareAndSet( false, true ))
+        {
+            return;
+        }
+
+        rolloverExecutor.execute( () ->
+        {
+            try
+            {
+                rollOver( season );
+            }
+            catch ( Exception e )
+            {
+                logger.warn( "Failed to roll over season {}; will resume once its lease has expired.", season.getNumber(), e );
+            }
+            finally
+            {
+                isRollingOver.set( false );
+            }
+        } );
+    }
+
+    private void rollOver( Season season )
+    {
+        long startTimeMs = System.currentTimeMillis();
+        long lastLogTimeMs = startTimeMs;
+        ObjectId seasonId = season.getId();
+        ObjectId lastUserId = season.getLastUserId();
+        long processedUserCount = season.getProcessedUserCount();
+        ForegroundLoad foregroundLoad = new ForegroundLoad();
+
+        while (true)
+        {
+            Query batchQuery = ( lastUserId == null ) ? new Query() : Query.query( Criteria.where( "_id" ).gt( lastUserId ) );
+            batchQuery.with( Sort.by( Sort.Direction.ASC, "_id" ) ).limit( batchSize );
+            includeArchivedFields( batchQuery );
+
+            List<User> users = mongoTemplate.find( batchQuery, User.class );
+
+            if (users.isEmpty())
+            {
+                break;
+            }
+
+            int archivedCount = archiveAndReset( seasonId, users );
+            ObjectId batchLastUserId = users.getLast().getId();
+
+            // The checkpoint only moves on from where this instance left it, so a rollover that has been taken over
+            // by another instance is stopped here.
+            long updatedCount = mongoTemplate.updateFirst(
+                Query.query(
+                    Criteria.where( "_id" ).is( seasonId )
+                            .and( Constants.DATABASE_SEASON_STATUS_KEY ).is( SeasonStatus.RollingOver )
+                            .and( Constants.DATABASE_SEASON_LAST_USER_ID_KEY ).is( lastUserId )
+                ),
+                new Update()
+                    .set( Constants.DATABASE_SEASON_LAST_USER_ID_KEY, batchLastUserId )
+                    .inc( Constants.DATABASE_SEASON_PROCESSED_USER_COUNT_KEY, users.size() )
+                    .inc( Constants.DATABASE_SEASON_ARCHIVED_USER_COUNT_KEY, archivedCount )
+                    .set( Constants.DATABASE_SEASON_LEASE_EXPIRY_TIME_KEY, Instant.now().plusMillis( leaseMs ) ),
+                Season.class
+            ).getModifiedCount();
+
+            if (updatedCount == 0)
+            {
+                logger.warn( "The rollover of season {} has been taken over by another instance.", season.getNumber() );
+                return;
+            }
+
+            lastUserId = batchLastUserId;
+            processedUserCount += users.size();
+
+            if (System.currentTimeMillis() - lastLogTimeMs >= PROGRESS_LOG_INTERVAL_MS)
+            {
+                lastLogTimeMs = System.currentTimeMillis();
+                logger.info( "Rolling over season {}: {} of about {} user(s) processed.", season.getNumber(), processedUserCount, season.getTotalUserCount() );
+            }
+
+            if (users.size() < batchSize)
+            {
+                break;
+            }
+
+            if (foregroundLoad.getRate() > maxForegroundRate)
+            {
+                try
+                {
+                    Thread.sleep( pauseMs );
+                }
+                catch ( InterruptedException e )
+                {
+                    // Shutting down; the rollover is resumed from the checkpoint.
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        assignRanks( seasonId );
+
+        mongoTemplate.updateFirst(
+            Query.query( Criteria.where( "_id" ).is( seasonId ).and( Constants.DATABASE_SEASON_STATUS_KEY ).is( SeasonStatus.RollingOver ) ),
+            new Update()
+                .set( Constants.DATABASE_SEASON_STATUS_KEY, SeasonStatus.Archived )
+                .set( Constants.DATABASE_SEASON_FINISH_TIME_KEY, Instant.now() )
+                .unset( Constants.DATABASE_SEASON_LEASE_EXPIRY_TIME_KEY ),
+            Season.class
+        );
+
+        logger.info( "Rolled over season {} ({} user(s)) in {} ms.", season.getNumber(), processedUserCount, System.currentTimeMillis() - startTimeMs );
+    }
+
+    // Archives and resets the users of one batch that have not been reset for this season yet. Returns the number of
+    // users that have been reset.
+    private int archiveAndReset( ObjectId seasonId, List<User> users )
+    {
+        List<User> pendingUsers = new ArrayList<>( users.stream().filter( user -> !seasonId.equals( user.getLastResetSeasonId() ) ).toList() );
+
+        if (pendingUsers.isEmpty())
+        {
+            return 0;
+        }
+
+        // The points held by score shards and the pending credits of the score ledger are folded into "User.score"
+        // first, so that the whole score is archived and reset, and no credit won in the season that has ended is
+        // applied in the new one.
+        Set<ObjectId> refreshedUserIds = new HashSet<>();
+
+        for (User user : pendingUsers)
+        {
+            if (user.getIsScoreSharded())
+            {
+                scoreShardService.releaseShards( user.getId() );
+                refreshedUserIds.add( user.getId() );
+            }
+        }
+
+        Set<ObjectId> userIdsWithPendingPoints = scoreLedgerService.findUserIdsWithPendingPoints( pendingUsers.stream().map( User::getId ).toList() );
+
+        if (!userIdsWithPendingPoints.isEmpty())
+        {
+            scoreLedgerService.compact();
+            refreshedUserIds.addAll( userIdsWithPendingPoints );
+        }
+
+        if (!refreshedUserIds.isEmpty())
+        {
+            Query query = Query.query( Criteria.where( "_id" ).in( refreshedUserIds ) );
+            includeArchivedFields( query );
+
+            pendingUsers.removeIf( user -> refreshedUserIds.contains( user.getId() ) );
+            pendingUsers.addAll( mongoTemplate.find( query, User.class ) );
+        }
+
+        // The first archive row of a user is kept if the batch is written again after an interruption.
+        try
+        {
+            mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, SeasonArchiveEntry.class )
+                    .insert( pendingUsers.stream().map( user -> new SeasonArchiveEntry( seasonId, user ) ).toList() )
+                    .execute();
+        }
+        catch ( BulkOperationException e )
+        {
+            if (e.getErrors().stream().anyMatch( error -> error.getCode() != DUPLICATE_KEY_ERROR_CODE ))
+            {
+                throw e;
+            }
+        }
+
+        List<ObjectId> pendingUserIds = pendingUsers.stream().map( User::getId ).toList();
+
+        List<SeasonArchiveEntry> entries = mongoTemplate.find(
+            Query.query(
+                Criteria.where( Constants.DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY ).is( seasonId )
+                        .and( Constants.DATABASE_SEASON_ARCHIVE_USER_ID_KEY ).in( pendingUserIds )
+            ),
+            SeasonArchiveEntry.class
+        );
+
+        BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, User.class );
+        entries.forEach( entry -> operations.updateOne( resetQuery( seasonId, entry.getUserId() ), resetUpdate( seasonId, entry ) ) );
+        operations.execute();
+
+        // A user who has been sharded again between releasing the shards and the reset is released and reset again.
+        Set<ObjectId> notResetUserIds = findUserIds( seasonId, pendingUserIds, false );
+
+        for (SeasonArchiveEntry entry : entries)
+        {
+            if (notResetUserIds.contains( entry.getUserId() ))
+            {
+                scoreShardService.releaseShards( entry.getUserId() );
+
+                if (mongoTemplate.updateFirst( resetQuery( seasonId, entry.getUserId() ), resetUpdate( seasonId, entry ), User.class ).getModifiedCount() == 0)
+                {
+                    logger.warn( "Failed to reset the score of user {} for the new season.", entry.getUserId() );
+                }
+            }
+        }
+
+        // The users of the batch that were not reset before are the ones reset now. Users who have been deleted in the
+        // meantime are left out of the ledger.
+        Set<ObjectId> resetUserIds = findUserIds( seasonId, pendingUserIds, true );
+        Map<ObjectId,Integer> pointsByUserId = new HashMap<>();
+
+        entries.stream()
+                .filter( entry -> resetUserIds.contains( entry.getUserId() ) )
+                .forEach( entry -> pointsByUserId.put( entry.getUserId(), -entry.getScore() ) );
+
+        scoreLedgerService.recordScoreChanges( pointsByUserId, ScoreChangeReason.SeasonReset );
+
+        return resetUserIds.size();
+    }
+
+    // Returns the given users that have (or have not) been reset for the season. Deleted users are never returned.
+    private Set<ObjectId> findUserIds( ObjectId seasonId, List<ObjectId> userIds, boolean isReset )
+    {
+        Criteria criteria = Criteria.where( "_id" ).in( userIds );
+
+        if (isReset)
+        {
+            criteria.and( Constants.DATABASE_USER_LAST_RESET_SEASON_ID_KEY ).is( seasonId );
+        }
+        else
+        {
+            criteria.and( Constants.DATABASE_USER_LAST_RESET_SEASON_ID_KEY ).ne( seasonId );
+        }
+
+        Query query = Query.query( criteria );
+        query.fields().include( "_id" );
+
+        return mongoTemplate.find( query, User.class ).stream().map( User::getId ).collect( Collectors.toSet() );
+    }
+
+    // Assigns the leaderboard rank of every user in the archive of a season, on the server. Users with the same score,
+    // attempts and rounds share a rank, as on the live leaderboard.
+    private void assignRanks( ObjectId seasonId )
+    {
+        List<Document> pipeline = List.of(
+            new Document( "$match", new Document( Constants.DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY, seasonId ) ),
+            new Document( "$setWindowFields", new Document()
+                    .append( "sortBy", new Document( Constants.DATABASE_SEASON_ARCHIVE_SCORE_KEY, -1 )
+                            .append( Constants.DATABASE_SEASON_ARCHIVE_ATTEMPTS_KEY, 1 )
+                            .append( Constants.DATABASE_SEASON_ARCHIVE_ROUNDS_KEY, 1 ) )
+                    .append( "output", new Document( Constants.DATABASE_SEASON_ARCHIVE_RANK_KEY, new Document( "$rank", new Document() ) ) ) ),
+            new Document( "$project", new Document( Constants.DATABASE_SEASON_ARCHIVE_RANK_KEY, 1 ) ),
+            new Document( "$merge", new Document( "into", SEASON_ARCHIVE_COLLECTION_NAME )
+                    .append( "on", "_id" )
+                    .append( "whenMatched", "merge" )
+                    .append( "whenNotMatched", "discard" ) )
+        );
+
+        mongoTemplate.getCollection( SEASON_ARCHIVE_COLLECTION_NAME ).aggregate( pipeline ).allowDiskUse( true ).toCollection();
+    }
+
+    // Only matches a user who has not been reset for the season, and whose score is not sharded.
+    private static Query resetQuery( ObjectId seasonId, ObjectId userId )
+    {
+        return Query.query(
+            Criteria.where( "_id" ).is( userId )
+                    .and( Constants.DATABASE_USER_LAST_RESET_SEASON_ID_KEY ).ne( seasonId )
+                    .and( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY ).ne( true )
+        );
+    }
+
+    private static Update resetUpdate( ObjectId seasonId, SeasonArchiveEntry entry )
+    {
+        return new Update()
+            .inc( Constants.DATABASE_USER_SCORE_KEY, -entry.getScore() )
+            .inc( Constants.DATABASE_USER_ATTEMPTS_KEY, -entry.getAttempts() )
+            .inc( Constants.DATABASE_USER_ROUNDS_KEY, -entry.getRounds() )
+            .set( Constants.DATABASE_USER_LAST_RESET_SEASON_ID_KEY, seasonId );
+    }
+
+    private static void includeArchivedFields( Query query )
+    {
+        query.fields()
+             .include( Constants.DATABASE_USER_USERNAME_KEY )
+             .include( Constants.DATABASE_USER_DISPLAY_NAME_KEY )
+             .include( Constants.DATABASE_USER_SCORE_KEY )
+             .include( Constants.DATABASE_USER_ATTEMPTS_KEY )
+             .include( Constants.DATABASE_USER_ROUNDS_KEY )
+             .include( Constants.DATABASE_USER_IS_SCORE_SHARDED_KEY )
+             .include( Constants.DATABASE_USER_LAST_RESET_SEASON_ID_KEY );
+    }
+
+    // The rate of user actions served by this instance since it was last read.
+    private final class ForegroundLoad
+    {
+        private long lastExecutionCount = userMutationExecutor.getMetrics().executionCount();
+        private long lastTimeNanos = System.nanoTime();
+
+        double getRate()
+        {
+            long executionCount = userMutationExecutor.getMetrics().executionCount();
+            long timeNanos = System.nanoTime();
+            double rate = ( executionCount - lastExecutionCount ) / Math.max( 1e-3, ( timeNanos - lastTimeNanos ) / 1e9 );
+
+            lastExecutionCount = executionCount;
+            lastTimeNanos = timeNanos;
+            return rate;
+        }
+    }
+}
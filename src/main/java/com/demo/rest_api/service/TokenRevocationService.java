@@ -0,0 +1,191 @@
+/*
+ * ****************************************************************************
+ * File: TokenRevocationService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class keeps track of revoked session tokens. Revoked token IDs
+ * are stored in the "revoked_token" collection, which has a TTL index so that
+ * entries disappear once the token would have expired anyway. An in-memory
+ * Bloom filter sits in front of the collection, so that the database is only
+ * queried when the filter reports a possible match. The filter is rebuilt
+ * periodically from the collection, which drops expired entries and picks up
+ * tokens revoked by other application instances.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.RevokedToken;
+import com.demo.rest_api.repository.RevokedTokenRepository;
+import com.demo.rest_api.utils.BloomFilter;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Service
+public class TokenRevocationService
+{
+    private static final Logger logger = LoggerFactory.getLogger( TokenRevocationService.class );
+
+    // The filter is sized with headroom so that revocations made between two rebuilds keep the false positive rate low.
+    private static final long MINIMUM_EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile BloomFilter revokedTokenFilter = new BloomFilter( MINIMUM_EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY );
+
+    // Token IDs revoked on this instance while a rebuild is in progress, so that the new filter does not miss them. A
+    // revocation adds its token to the current filter and to this list under the lock, and a rebuild swaps the filter
+    // and drains this list under the same lock, so every revocation ends up in the filter that is in use.
+    private final ReentrantLock filterLock = new ReentrantLock();
+    private final List<String> revokedDuringRebuild = new ArrayList<>();
+    private boolean isRebuilding = false;
+
+    @PostConstruct
+    public void initialize()
+    {
+        // Documents are removed by MongoDB as soon as their "expiresAt" time has passed.
+        mongoTemplate.indexOps( RevokedToken.class ).createIndex(
+            new Index().on( Constants.DATABASE_REVOKED_TOKEN_EXPIRES_AT_KEY, Sort.Direction.ASC ).expire( Duration.ZERO )
+        );
+
+        rebuildFilter();
+    }
+
+    public void revoke( String tokenId, Instant expiresAt )
+    {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter( Instant.now() ))
+        {
+            // Nothing to revoke: the token is either not revocable or has already expired.
+            return;
+        }
+
+        revokedTokenRepository.save( new RevokedToken( tokenId, expiresAt ) );
+
+        filterLock.lock();
+
+        try
+        {
+            revokedTokenFilter.put( tokenId );
+
+            if (isRebuilding)
+            {
+                revokedDuringRebuild.add( tokenId );
+            }
+        }
+        finally
+        {
+            filterLock.unlock();
+        }
+    }
+
+    public boolean isRevoked( String tokenId )
+    {
+        if (tokenId == null || !revokedTokenFilter.mightContain( tokenId ))
+        {
+            // Definitely not revoked, no database lookup needed.
+            return false;
+        }
+
+        // Possible match (true positive or false positive), so ask the authoritative collection.
+        return revokedTokenRepository.existsById( tokenId );
+    }
+
+    @Scheduled(
+        initialDelayString = "${TOKEN_REVOCATION_FILTER_REBUILD_INTERVAL_MS:300000}",
+        fixedDelayString = "${TOKEN_REVOCATION_FILTER_REBUILD_INTERVAL_MS:300000}"
+    )
+    public void rebuildFilter()
+    {
+        // Tokens revoked from now on are queued for the new filter. The ones revoked before are already in the
+        // collection, so the new filter picks them up from there.
+        filterLock.lock();
+
+        try
+        {
+            isRebuilding = true;
+            revokedDuringRebuild.clear();
+        }
+        finally
+        {
+            filterLock.unlock();
+        }
+
+        try
+        {
+            Query query = new Query( Criteria.where( Constants.DATABASE_REVOKED_TOKEN_EXPIRES_AT_KEY ).gt( Instant.now() ) );
+            query.fields().include( "_id" );
+
+            long revokedTokenCount = mongoTemplate.count( query, RevokedToken.class );
+            BloomFilter filter = new BloomFilter(
+                Math.max( MINIMUM_EXPECTED_INSERTIONS, revokedTokenCount * 2 ),
+                FALSE_POSITIVE_PROBABILITY
+            );
+
+            try (Stream<RevokedToken> revokedTokens = mongoTemplate.stream( query, RevokedToken.class ))
+            {
+                revokedTokens.forEach( revokedToken -> filter.put( revokedToken.getTokenId() ) );
+            }
+
+            filterLock.lock();
+
+            try
+            {
+                revokedDuringRebuild.forEach( filter::put );
+                revokedTokenFilter = filter;
+                isRebuilding = false;
+                revokedDuringRebuild.clear();
+            }
+            finally
+            {
+                filterLock.unlock();
+            }
+
+            logger.debug( "Rebuilt the revoked token filter with {} token(s).", revokedTokenCount );
+        }
+        catch ( Exception e )
+        {
+            // Keep using the current filter; it never loses entries, so revoked tokens are still rejected.
+            logger.warn( "Failed to rebuild the revoked token filter.", e );
+        }
+        finally
+        {
+            filterLock.lock();
+
+            try
+            {
+                // After a failed rebuild, the queued tokens are already in the current filter.
+                isRebuilding = false;
+                revokedDuringRebuild.clear();
+            }
+            finally
+            {
+                filterLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * ****************************************************************************
+ * File: TournamentService.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class runs the weekly Rock-Paper-Scissors tournaments. Users
+ * register for the tournament that is open; when TOURNAMENT_START_CRON fires,
+ * registration closes and the entrants are seeded by the leaderboard order
+ * (score, then attempts, then rounds) and resolved in a single-elimination
+ * bracket (see TournamentBracket), entirely on the server.
+ *
+ * The bracket is resolved round by round. The matches of a round are played
+ * in parallel on the common fork/join pool, and written with one bulk insert
+ * before the next round starts, so a bracket of 64k players takes 16 bulk
+ * writes. The number of completed rounds is stored on the tournament, so a
+ * tournament that was interrupted (e.g. by a restart) is resumed from the
+ * next round by whichever instance claims it once its lease has expired.
+ * The bracket is resolved on a thread of its own, so that a large tournament
+ * does not hold up the other scheduled tasks.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.enums.TournamentStatus;
+import com.demo.rest_api.model.Tournament;
+import com.demo.rest_api.model.TournamentEntry;
+import com.demo.rest_api.model.TournamentMatch;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import com.demo.rest_api.utils.RandomSource;
+import com.demo.rest_api.utils.TournamentBracket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+@Service
+public class TournamentService
+{
+    private static final Logger logger = LoggerFactory.getLogger( TournamentService.class );
+
+    // The number of users whose leaderboard keys are read with one query when the entrants are seeded.
+    private static final int USER_LOOKUP_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    // How long an instance may take to resolve a round before another instance may take the tournament over.
+    @Value( "${TOURNAMENT_LEASE_MS:300000}" )
+    private long leaseMs;
+
+    private final AtomicBoolean isResolving = new AtomicBoolean( false );
+    private final ExecutorService resolutionExecutor = Executors.newSingleThreadExecutor(
+        runnable -> Thread.ofPlatform().name( "tournament-resolution" ).daemon().unstarted( runnable )
+    );
+
+    public enum RegistrationStatus
+    {
+        Registered,
+        AlreadyRegistered
+    }
+
+    public record Registration( RegistrationStatus status, Tournament tournament ) {}
+
+    // One match of a round, before it is written.
+    private record Pairing( TournamentEntry first, TournamentEntry second ) {}
+
+    @PostConstruct
+    public void initialize()
+    {
+        // At most one tournament is open for registration.
+        mongoTemplate.indexOps( Tournament.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_TOURNAMENT_STATUS_KEY, Sort.Direction.ASC )
+                .unique()
+                .partial( PartialIndexFilter.of( Criteria.where( Constants.DATABASE_TOURNAMENT_STATUS_KEY ).is( TournamentStatus.Registration.name() ) ) )
+        );
+
+        mongoTemplate.indexOps( TournamentEntry.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_TOURNAMENT_ENTRY_USER_ID_KEY, Sort.Direction.ASC )
+                .unique()
+        );
+
+        mongoTemplate.indexOps( TournamentMatch.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_ROUND_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_POSITION_KEY, Sort.Direction.ASC )
+        );
+
+        // Supports finding the last match of a player.
+        mongoTemplate.indexOps( TournamentMatch.class ).createIndex(
+            new Index()
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_PLAYER_IDS_KEY, Sort.Direction.ASC )
+                .on( Constants.DATABASE_TOURNAMENT_MATCH_ROUND_KEY, Sort.Direction.DESC )
+        );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        // An unfinished tournament is resumed from its last completed round once its lease has expired.
+        resolutionExecutor.shutdownNow();
+    }
+
+    // Returns the tournament that is open for registration, creating it if there is none.
+    public Tournament getOpenTournament()
+    {
+        Query query = Query.query( Criteria.where( Constants.DATABASE_TOURNAMENT_STATUS_KEY ).is( TournamentStatus.Registration ) );
+
+        try
+        {
+            return mongoTemplate.findAndModify(
+                query,
+                new Update().setOnInsert( Constants.DATABASE_TOURNAMENT_CREATED_TIME_KEY, Instant.now() ),
+                FindAndModifyOptions.options().upsert( true ).returnNew( true ),
+                Tournament.class
+            );
+        }
+        catch ( DuplicateKeyException e )
+        {
+            // Another request has created it at the same time.
+            return mongoTemplate.findOne( query, Tournament.class );
+        }
+    }
+
+    /**
+     * Registers a user for the tournament that is open.
+     *
+     * @param user The user.
+     * @param choices The choices that the user plays in order in each match, or an empty list to play random choices.
+     * @return Whether the user has been registered (or was registered already), and the tournament.
+     */
+    public Registration register( User user, List<RockPaperScissors> choices )
+    {
+        Tournament tournament = getOpenTournament();
+
+        try
+        {
+            mongoTemplate.insert( new TournamentEntry( tournament.getId(), user.getId(), user.getUsername(), List.copyOf( choices ), Instant.now() ) );
+            return new Registration( RegistrationStatus.Registered, tournament );
+        }
+        catch ( DuplicateKeyException e )
+        {
+            return new Registration( RegistrationStatus.AlreadyRegistered, tournament );
+        }
+    }
+
+    public long countEntries( ObjectId tournamentId )
+    {
+        return mongoTemplate.count(
+            Query.query( Criteria.where( Constants.DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY ).is( tournamentId ) ),
+            TournamentEntry.class
+        );
+    }
+
+    public Optional<TournamentEntry> findEntry( ObjectId tournamentId, ObjectId userId )
+    {
+        return Optional.ofNullable( mongoTemplate.findOne(
+            Query.query(
+                Criteria.where( Constants.DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY ).is( tournamentId )
+                        .and( Constants.DATABASE_TOURNAMENT_ENTRY_USER_ID_KEY ).is( userId )
+            ),
+            TournamentEntry.class
+        ) );
+    }
+
+    // Returns the tournament that has started most recently (in progress or finished).
+    public Optional<Tournament> findLatestStartedTournament()
+    {
+        Query query = Query.query( Criteria.where( Constants.DATABASE_TOURNAMENT_STATUS_KEY ).ne( TournamentStatus.Registration ) )
+                .with( Sort.by( Sort.Order.desc( Constants.DATABASE_TOURNAMENT_START_TIME_KEY ) ) );
+
+        return Optional.ofNullable( mongoTemplate.findOne( query, Tournament.class ) );
+    }
+
+    // Returns the last match that a user has played in a tournament.
+    public Optional<TournamentMatch> findLastMatch( ObjectId tournamentId, ObjectId userId )
+    {
+        Query query = Query.query(
+                    Criteria.where( Constants.DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY ).is( tournamentId )
+                            .and( Constants.DATABASE_TOURNAMENT_MATCH_PLAYER_IDS_KEY ).is( userId )
+                )
+                .with( Sort.by( Sort.Order.desc( Constants.DATABASE_TOURNAMENT_MATCH_ROUND_KEY ) ) );
+
+        return Optional.ofNullable( mongoTemplate.findOne( query, TournamentMatch.class ) );
+    }
+
+    // Closes registration of the open tournament, and resolves it.
+    @Scheduled( cron = "${TOURNAMENT_START_CRON:0 0 20 * * SUN}" )
+    public void startTournament()
+    {
+        Instant timeNow = Instant.now();
+
+        Tournament tournament = mongoTemplate.findAndModify(
+            Query.query( Criteria.where( Constants.DATABASE_TOURNAMENT_STATUS_KEY ).is( TournamentStatus.Registration ) ),
+            new Update()
+                .set( Constants.DATABASE_TOURNAMENT_STATUS_KEY, TournamentStatus.InProgress )
+                .set( Constants.DATABASE_TOURNAMENT_START_TIME_KEY, timeNow )
+                .set( Constants.DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY, timeNow.plusMillis( leaseMs ) ),
+            FindAndModifyOptions.options().returnNew( true ),
+            Tournament.class
+        );
+
+        if (tournament != null)
+        {
+            submit( tournament );
+        }
+    }
+
+    // Takes over a tournament whose resolution was interrupted, and resolves the rest of it.
+    @Scheduled(
+        initialDelayString = "${TOURNAMENT_RESUME_INTERVAL_MS:60000}",
+        fixedDelayString = "${TOURNAMENT_RESUME_INTERVAL_MS:60000}"
+    )
+    public void resumeInterruptedTournament()
+    {
+        if (isResolving.get())
+        {
+            // Leave the tournament to another instance rather than claiming it while this one is busy.
+            return;
+        }
+
+        Instant timeNow = Instant.now();
+
+        Tournament tournament = mongoTemplate.findAndModify(
+            Query.query(
+                Criteria.where( Constants.DATABASE_TOURNAMENT_STATUS_KEY ).is( TournamentStatus.InProgress )
+                        .and( Constants.DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY ).lt( timeNow )
+            ),
+            new Update().set( Constants.DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY, timeNow.plusMillis( leaseMs ) ),
+            FindAndModifyOptions.options().returnNew( true ),
+            Tournament.class
+        );
+
+        if (tournament != null)
+        {
+            logger.info( "Resuming tournament {} after round {}.", tournament.getId(), tournament.getCompletedRounds() );
+            submit( tournament );
+        }
+    }
+
+    // Resolves the tournament on its own thread, so that it does not hold up the other scheduled tasks.
+    private void submit( Tournament tournament )
+    {
+        if (!isResolving.compareAndSet( false, true ))
+        {
+            return;
+        }
+
+        resolutionExecutor.execute( () ->
+        {
+            try
+            {
+                resolve( tournament );
+            }
+            catch ( Exception e )
+            {
+                logger.warn( "Failed to resolve tournament {}; will resume once its lease has expired.", tournament.getId(), e );
+            }
+            finally
+            {
+                isResolving.set( false );
+            }
+        } );
+    }
+
+    private void resolve( Tournament tournament )
+    {
+        long startTimeMs = System.currentTimeMillis();
+        ObjectId tournamentId = tournament.getId();
+        List<TournamentEntry> players;
+        int roundCount;
+
+        if (tournament.getCompletedRounds() == 0)
+        {
+            List<TournamentEntry> entrants = seedEntrants( tournamentId );
+            roundCount = TournamentBracket.getRoundCount( entrants.size() );
+
+            mongoTemplate.updateFirst(
+                Query.query( Criteria.where( "_id" ).is( tournamentId ) ),
+                new Update()
+                    .set( Constants.DATABASE_TOURNAMENT_ENTRANT_COUNT_KEY, entrants.size() )
+                    .set( Constants.DATABASE_TOURNAMENT_ROUND_COUNT_KEY, roundCount ),
+                Tournament.class
+            );
+
+            // The first round in bracket order, with null for the byes.
+            players = new ArrayList<>();
+
+            for (int seed : TournamentBracket.getSeedOrder( entrants.size() ))
+            {
+                players.add( ( seed <= entrants.size() ) ? entrants.get( seed - 1 ) : null );
+            }
+        }
+        else
+        {
+            roundCount = tournament.getRoundCount();
+            players = loadWinners( tournamentId, tournament.getCompletedRounds() );
+        }
+
+        for (int round = tournament.getCompletedRounds() + 1; round <= roundCount; round++)
+        {
+            players = resolveRound( tournamentId, round, players );
+
+            if (players == null)
+            {
+                return;
+            }
+        }
+
+        TournamentEntry winner = players.isEmpty() ? null : players.getFirst();
+        Update finish = new Update()
+                .set( Constants.DATABASE_TOURNAMENT_STATUS_KEY, TournamentStatus.Finished )
+                .set( Constants.DATABASE_TOURNAMENT_FINISH_TIME_KEY, Instant.now() )
+                .unset( Constants.DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY );
+
+        if (winner != null)
+        {
+            finish.set( Constants.DATABASE_TOURNAMENT_WINNER_ID_KEY, winner.getUserId() )
+                  .set( Constants.DATABASE_TOURNAMENT_WINNER_USERNAME_KEY, winner.getUsername() );
+        }
+
+        mongoTemplate.updateFirst( Query.query( Criteria.where( "_id" ).is( tournamentId ) ), finish, Tournament.class );
+        logger.info( "Resolved tournament {} in {} ms.", tournamentId, System.currentTimeMillis() - startTimeMs );
+    }
+
+    // Plays the matches of a round in parallel and writes them with one bulk insert. Returns the winners in bracket
+    // order, or null if another instance has taken the tournament over in the meantime.
+    private List<TournamentEntry> resolveRound( ObjectId tournamentId, int round, List<TournamentEntry> players )
+    {
+        List<Pairing> pairings = new ArrayList<>( players.size() / 2 );
+
+        for (int i = 0; i + 1 < players.size(); i += 2)
+        {
+            pairings.add( new Pairing( players.get( i ), players.get( i + 1 ) ) );
+        }
+
+        List<TournamentMatch> matches = IntStream.range( 0, pairings.size() )
+                .parallel()
+                .mapToObj( position -> playMatch( tournamentId, round, position, pairings.get( position ) ) )
+                .toList();
+
+        // Matches written by an earlier, interrupted attempt at this round are replaced.
+        Query roundQuery = Query.query(
+            Criteria.where( Constants.DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY ).is( tournamentId )
+                    .and( Constants.DATABASE_TOURNAMENT_MATCH_ROUND_KEY ).is( round )
+        );
+        mongoTemplate.remove( roundQuery, TournamentMatch.class );
+
+        mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, TournamentMatch.class )
+                .insert( matches )
+                .execute();
+
+        long updatedCount = mongoTemplate.updateFirst(
+            Query.query(
+                Criteria.where( "_id" ).is( tournamentId )
+                        .and( Constants.DATABASE_TOURNAMENT_COMPLETED_ROUNDS_KEY ).is( round - 1 )
+            ),
+            new Update()
+                .set( Constants.DATABASE_TOURNAMENT_COMPLETED_ROUNDS_KEY, round )
+                .set( Constants.DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY, Instant.now().plusMillis( leaseMs ) ),
+            Tournament.class
+        ).getModifiedCount();
+
+        if (updatedCount == 0)
+        {
+            logger.warn( "Tournament {} has been taken over by another instance in round {}.", tournamentId, round );
+            return null;
+        }
+
+        List<TournamentEntry> winners = new ArrayList<>( pairings.size() );
+
+        for (int position = 0; position < pairings.size(); position++)
+        {
+            Pairing pairing = pairings.get( position );
+            winners.add( pairing.first().getUserId().equals( matches.get( position ).getWinnerId() ) ? pairing.first() : pairing.second() );
+        }
+
+        return winners;
+    }
+
+    private static TournamentMatch playMatch( ObjectId tournamentId, int round, int position, Pairing pairing )
+    {
+        TournamentEntry first = pairing.first();
+        TournamentEntry second = pairing.second();
+
+        if (second == null)
+        {
+            return new TournamentMatch( tournamentId, round, position, List.of( first.getUserId() ), List.of(), List.of(), first.getUserId() );
+        }
+
+        TournamentBracket.MatchResult result = TournamentBracket.playMatch( first.getChoices(), second.getChoices(), RandomSource.getDefault().generator() );
+        boolean hasFirstWon = ( result.outcome() != 0 ) ? ( result.outcome() > 0 ) : ( first.getSeed() < second.getSeed() );
+
+        return new TournamentMatch(
+            tournamentId, round, position, List.of( first.getUserId(), second.getUserId() ),
+            result.firstChoices(), result.secondChoices(), hasFirstWon ? first.getUserId() : second.getUserId()
+        );
+    }
+
+    // Seeds the entrants of a tournament by the leaderboard order and returns them by seed. Entrants whose user no longer
+    // exists are left out.
+    private List<TournamentEntry> seedEntrants( ObjectId tournamentId )
+    {
+        List<TournamentEntry> entries = mongoTemplate.find(
+            Query.query( Criteria.where( Constants.DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY ).is( tournamentId ) ),
+            TournamentEntry.class
+        );
+
+        Map<ObjectId,User> users = new HashMap<>();
+
+        // The entrants are seeded on the same score as the leaderboard: the points spent from the score shards of a
+        // sharded user that are not folded yet are subtracted (see LeaderboardService).
+        Map<ObjectId,Integer> unfoldedPointsByUserId = scoreShardService.getUnfoldedPointsByUserId();
+
+        for (int i = 0; i < entries.size(); i += USER_LOOKUP_BATCH_SIZE)
+        {
+            List<ObjectId> userIds = entries.subList( i, Math.min( i + USER_LOOKUP_BATCH_SIZE, entries.size() ) ).stream()
+                    .map( TournamentEntry::getUserId )
+                    .toList();
+
+            Query query = Query.query( Criteria.where( "_id" ).in( userIds ) );
+            query.fields()
+                 .include( Constants.DATABASE_USER_SCORE_KEY )
+                 .include( Constants.DATABASE_USER_ATTEMPTS_KEY )
+                 .include( Constants.DATABASE_USER_ROUNDS_KEY );
+
+            for (User user : mongoTemplate.find( query, User.class ))
+            {
+                user.setScore( user.getScore() - unfoldedPointsByUserId.getOrDefault( user.getId(), 0 ) );
+                users.put( user.getId(), user );
+            }
+        }
+
+        Comparator<TournamentEntry> leaderboardOrder = Comparator
+                .comparingInt( ( TournamentEntry entry ) -> -users.get( entry.getUserId() ).getScore() ) // Highest score first.
+                .thenComparingInt( entry -> users.get( entry.getUserId() ).getAttempts() )             // Then fewer attempts.
+                .thenComparingInt( entry -> users.get( entry.getUserId() ).getRounds() )               // Then lower rounds.
+                .thenComparing( TournamentEntry::getRegistrationTime );                                // Then who registered first.
+
+        List<TournamentEntry> entrants = entries.stream()
+                .filter( entry -> users.containsKey( entry.getUserId() ) )
+                .sorted( leaderboardOrder )
+                .toList();
+
+        if (entrants.isEmpty())
+        {
+            return entrants;
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, TournamentEntry.class );
+
+        for (int i = 0; i < entrants.size(); i++)
+        {
+            entrants.get( i ).setSeed( i + 1 );
+            operations.updateOne(
+                Query.query( Criteria.where( "_id" ).is( entrants.get( i ).getId() ) ),
+                new Update().set( Constants.DATABASE_TOURNAMENT_ENTRY_SEED_KEY, i + 1 )
+            );
+        }
+
+        operations.execute();
+        return entrants;
+    }
+
+    // Loads the winners of a completed round in bracket order.
+    private List<TournamentEntry> loadWinners( ObjectId tournamentId, int round )
+    {
+        Map<ObjectId,TournamentEntry> entrants = new HashMap<>();
+
+        mongoTemplate.find(
+            Query.query(
+                Criteria.where( Constants.DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY ).is( tournamentId )
+                        .and( Constants.DATABASE_TOURNAMENT_ENTRY_SEED_KEY ).ne( null )
+            ),
+            TournamentEntry.class
+        ).forEach( entry -> entrants.put( entry.getUserId(), entry ) );
+
+        Query roundQuery = Query.query(
+                    Criteria.where( Constants.DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY ).is( tournamentId )
+                            .and( Constants.DATABASE_TOURNAMENT_MATCH_ROUND_KEY ).is( round )
+                )
+                .with( Sort.by( Sort.Order.asc( Constants.DATABASE_TOURNAMENT_MATCH_POSITION_KEY ) ) );
+
+        return mongoTemplate.find( roundQuery, TournamentMatch.class ).stream()
+                .map( match -> entrants.get( match.getWinnerId() ) )
+                .toList();
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * ****************************************************************************
+ * File: UserCounterCoalescer.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class coalesces the counter increments of game moves (attempts
+ * and round counters) per user, and writes them to MongoDB in the background
+ * as one unordered bulk write of $inc updates. The buffer is split into
+ * lock-striped partitions by user ID, so that concurrent moves of different
+ * users rarely contend. It is flushed every USER_COUNTER_FLUSH_INTERVAL_MS, as
+ * soon as it holds USER_COUNTER_FLUSH_MAX_ENTRIES users, and on shutdown, so
+ * those two settings bound how many increments a crash can lose.
+ *
+ * Moves that change the score still write synchronously; they drain the
+ * user's pending increments into their own update, so that the score and the
+ * counters of a user are always written together. Both kinds of updates also
+ * record the user's last activity time, so that tracking activity does not
+ * cost a write of its own.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class UserCounterCoalescer
+{
+    private static final Logger logger = LoggerFactory.getLogger( UserCounterCoalescer.class );
+
+    private static final int STRIPE_COUNT = 32; // Must be a power of 2.
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Flush as soon as this many users have pending increments, even if the flush interval has not passed yet.
+    @Value( "${USER_COUNTER_FLUSH_MAX_ENTRIES:1000}" )
+    private int flushMaxEntries;
+
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[ STRIPE_COUNT ];
+    private final List<Map<ObjectId,Deltas>> stripes = new ArrayList<>( STRIPE_COUNT );
+    private final AtomicInteger entryCount = new AtomicInteger();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean isFlushRequested = new AtomicBoolean( false );
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(
+        runnable -> Thread.ofPlatform().name( "user-counter-flush" ).daemon().unstarted( runnable )
+    );
+
+    // The pending increments of one user, indexed by UserCounter.ordinal().
+    public static final class Deltas
+    {
+        private static final UserCounter[] COUNTERS = UserCounter.values();
+
+        private final int[] values = new int[ COUNTERS.length ];
+
+        public Deltas add( UserCounter counter, int delta )
+        {
+            values[ counter.ordinal() ] += delta;
+            return this;
+        }
+
+        public void addAll( Deltas other )
+        {
+            for (int i = 0; i < values.length; i++)
+            {
+                values[ i ] += other.values[ i ];
+            }
+        }
+
+        public boolean isEmpty()
+        {
+            for (int value : values)
+            {
+                if (value != 0)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        // Adds the increments to an update as $inc operations (each field once, since $inc keys cannot repeat). Every
+        // game move counts, so the same update also records the user's last activity.
+        public void applyTo( Update update )
+        {
+            if (!isEmpty())
+            {
+                update.max( Constants.DATABASE_USER_LAST_ACTIVITY_TIME_KEY, Instant.now() );
+            }
+
+            int rounds = 0;
+
+            for (UserCounter counter : COUNTERS)
+            {
+                int value = values[ counter.ordinal() ];
+
+                if (value != 0)
+                {
+                    update.inc( counter.getDatabaseKey(), value );
+                    rounds += counter.getIsRoundCounter() ? value : 0;
+                }
+            }
+
+            if (rounds != 0)
+            {
+                update.inc( Constants.DATABASE_USER_ROUNDS_KEY, rounds );
+            }
+        }
+
+        // Adds the increments to a user loaded from the database, for display.
+        public void applyTo( User user )
+        {
+            user.setAttempts( user.getAttempts() + values[ UserCounter.Attempts.ordinal() ] );
+            user.setGuessNumberCurrentRound( user.getGuessNumberCurrentRound() + values[ UserCounter.GuessNumberRounds.ordinal() ] );
+            user.setArrangeNumbersCurrentRound( user.getArrangeNumbersCurrentRound() + values[ UserCounter.ArrangeNumbersRounds.ordinal() ] );
+            user.setRockPaperScissorsCurrentRound( user.getRockPaperScissorsCurrentRound() + values[ UserCounter.RockPaperScissorsRounds.ordinal() ] );
+        }
+    }
+
+    public UserCounterCoalescer()
+    {
+        for (int i = 0; i < STRIPE_COUNT; i++)
+        {
+            stripeLocks[ i ] = new ReentrantLock();
+            stripes.add( new HashMap<>() );
+        }
+    }
+
+    /**
+     * Buffers increments of a user's counters, to be written on the next flush.
+     *
+     * @param userId The ID of the user.
+     * @param deltas The increments to add.
+     */
+    public void add( ObjectId userId, Deltas deltas )
+    {
+        if (buffer( userId, deltas ) && entryCount.incrementAndGet() >= flushMaxEntries && isFlushRequested.compareAndSet( false, true ))
+        {
+            flushExecutor.execute( this::flush );
+        }
+    }
+
+    /**
+     * Removes and returns the pending increments of a user, so that the caller can write them synchronously.
+     *
+     * @param userId The ID of the user.
+     * @return The pending increments (empty if there are none).
+     */
+    public Deltas drain( ObjectId userId )
+    {
+        int stripe = stripeOf( userId );
+        Deltas pendingDeltas;
+
+        stripeLocks[ stripe ].lock();
+
+        try
+        {
+            pendingDeltas = stripes.get( stripe ).remove( userId );
+        }
+        finally
+        {
+            stripeLocks[ stripe ].unlock();
+        }
+
+        if (pendingDeltas == null)
+        {
+            return new Deltas();
+        }
+
+        entryCount.decrementAndGet();
+        return pendingDeltas;
+    }
+
+    // Shows the increments that have not been written yet on a user loaded from the database.
+    public void applyPendingTo( User user )
+    {
+        int stripe = stripeOf( user.getId() );
+
+        stripeLocks[ stripe ].lock();
+
+        try
+        {
+            Deltas pendingDeltas = stripes.get( stripe ).get( user.getId() );
+
+            if (pendingDeltas != null)
+            {
+                pendingDeltas.applyTo( user );
+            }
+        }
+        finally
+        {
+            stripeLocks[ stripe ].unlock();
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${USER_COUNTER_FLUSH_INTERVAL_MS:1000}",
+        fixedDelayString = "${USER_COUNTER_FLUSH_INTERVAL_MS:1000}"
+    )
+    public void flush()
+    {
+        flushLock.lock();
+
+        try
+        {
+            isFlushRequested.set( false );
+
+            Map<ObjectId,Deltas> pendingDeltas = new HashMap<>();
+
+            for (int stripe = 0; stripe < STRIPE_COUNT; stripe++)
+            {
+                stripeLocks[ stripe ].lock();
+
+                try
+                {
+                    pendingDeltas.putAll( stripes.get( stripe ) );
+                    stripes.get( stripe ).clear();
+                }
+                finally
+                {
+                    stripeLocks[ stripe ].unlock();
+                }
+            }
+
+            if (pendingDeltas.isEmpty())
+            {
+                return;
+            }
+
+            entryCount.addAndGet( -pendingDeltas.size() );
+
+            List<ObjectId> userIds = new ArrayList<>( pendingDeltas.keySet() );
+
+            try
+            {
+                BulkOperations operations = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, User.class );
+
+                for (ObjectId userId : userIds)
+                {
+                    Update update = new Update();
+                    pendingDeltas.get( userId ).applyTo( update );
+                    operations.updateOne( Query.query( Criteria.where( "_id" ).is( userId ) ), update );
+                }
+
+                operations.execute();
+                logger.debug( "Flushed the pending counters of {} user(s).", userIds.size() );
+            }
+            catch ( BulkOperationException e )
+            {
+                // The other updates of an unordered bulk write have been applied; only put back the failed ones.
+                logger.warn( "Failed to flush the pending counters of {} user(s); will retry.", e.getErrors().size(), e );
+                e.getErrors().forEach( error -> restore( userIds.get( error.getIndex() ), pendingDeltas.get( userIds.get( error.getIndex() ) ) ) );
+            }
+            catch ( Exception e )
+            {
+                // Put the increments back, so that they are retried on the next flush.
+                logger.warn( "Failed to flush the pending counters of {} user(s); will retry.", userIds.size(), e );
+                pendingDeltas.forEach( this::restore );
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown()
+    {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    // Puts back increments that could not be written, without triggering another flush straight away.
+    private void restore( ObjectId userId, Deltas deltas )
+    {
+        if (buffer( userId, deltas ))
+        {
+            entryCount.incrementAndGet();
+        }
+    }
+
+    // Adds increments to the buffer. Returns true if the user had no pending increments before.
+    private boolean buffer( ObjectId userId, Deltas deltas )
+    {
+        int stripe = stripeOf( userId );
+
+        stripeLocks[ stripe ].lock();
+
+        try
+        {
+            Deltas pendingDeltas = stripes.get( stripe ).get( userId );
+
+            if (pendingDeltas == null)
+            {
+                pendingDeltas = new Deltas();
+                pendingDeltas.addAll( deltas );
+                stripes.get( stripe ).put( userId, pendingDeltas );
+                return true;
+            }
+
+            pendingDeltas.addAll( deltas );
+            return false;
+        }
+        finally
+        {
+            stripeLocks[ stripe ].unlock();
+        }
+    }
+
+    private static int stripeOf( ObjectId userId )
+    {
+        return userId.hashCode() & ( STRIPE_COUNT - 1 );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * ****************************************************************************
+ * File: UserMutationExecutor.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This service class runs state-changing actions one at a time per user, so
+ * that two concurrent requests of the same user cannot both see the same game
+ * state and overwrite each other's changes, while requests of different users
+ * still run fully in parallel. Each user with an action in progress has its
+ * own lock in a concurrent map; the lock is reference-counted and removed as
+ * soon as no action of that user is running or waiting, so the map only ever
+ * holds the users that are active right now. ReentrantLock is used instead of
+ * synchronized blocks, so that waiting virtual threads do not pin their
+ * carrier threads.
+ *
+ * The executor also records contention metrics (how many actions had to wait
+ * for another action of the same user, and for how long), which are logged
+ * at a fixed interval and can be read with getMetrics().
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Service
+public class UserMutationExecutor
+{
+    private static final Logger logger = LoggerFactory.getLogger( UserMutationExecutor.class );
+
+    private final Map<String,UserLock> userLocks = new ConcurrentHashMap<>();
+
+    private final LongAdder executionCount = new LongAdder();
+    private final LongAdder contendedExecutionCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private long lastLoggedExecutionCount = 0;
+    private long lastLoggedContendedExecutionCount = 0;
+
+    private static final class UserLock
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holdCount = 0; // The number of actions running or waiting; only changed inside the map's compute.
+    }
+
+    public record Metrics(
+        long executionCount,
+        long contendedExecutionCount,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        int activeUserCount
+    ) {}
+
+    /**
+     * Runs an action while holding the given user's lock.
+     *
+     * @param userId The ID of the user whose state the action changes.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public <T> T execute( String userId, Supplier<T> action )
+    {
+        UserLock userLock = userLocks.compute( userId, ( id, existingLock ) ->
+        {
+            UserLock currentLock = ( existingLock != null ) ? existingLock : new UserLock();
+            currentLock.holdCount++;
+            return currentLock;
+        } );
+
+        try
+        {
+            if (!userLock.lock.tryLock())
+            {
+                long waitStartNanos = System.nanoTime();
+                userLock.lock.lock();
+                long waitNanos = System.nanoTime() - waitStartNanos;
+
+                contendedExecutionCount.increment();
+                totalWaitNanos.add( waitNanos );
+                maxWaitNanos.accumulateAndGet( waitNanos, Math::max );
+            }
+
+            try
+            {
+                executionCount.increment();
+                return action.get();
+            }
+            finally
+            {
+                userLock.lock.unlock();
+            }
+        }
+        finally
+        {
+            userLocks.computeIfPresent( userId, ( id, currentLock ) -> ( --currentLock.holdCount == 0 ) ? null : currentLock );
+        }
+    }
+
+    public Metrics getMetrics()
+    {
+        return new Metrics(
+            executionCount.sum(),
+            contendedExecutionCount.sum(),
+            totalWaitNanos.sum(),
+            maxWaitNanos.get(),
+            userLocks.size()
+        );
+    }
+
+    @Scheduled(
+        initialDelayString = "${USER_MUTATION_METRICS_LOG_INTERVAL_MS:60000}",
+        fixedDelayString = "${USER_MUTATION_METRICS_LOG_INTERVAL_MS:60000}"
+    )
+    public void logMetrics()
+    {
+        Metrics metrics = getMetrics();
+        long executions = metrics.executionCount() - lastLoggedExecutionCount;
+        long contendedExecutions = metrics.contendedExecutionCount() - lastLoggedContendedExecutionCount;
+
+        lastLoggedExecutionCount = metrics.executionCount();
+        lastLoggedContendedExecutionCount = metrics.contendedExecutionCount();
+
+        if (executions == 0)
+        {
+            return;
+        }
+
+        // Only worth attention when the same user sends overlapping requests.
+        String message = "User mutations: {} in the last interval, {} of them waited for another request of the same user. "
+                         + "Total: {} executions, {} contended, {} ms waited in total, {} ms longest wait.";
+        Object[] arguments = {
+            executions,
+            contendedExecutions,
+            metrics.executionCount(),
+            metrics.contendedExecutionCount(),
+            TimeUnit.NANOSECONDS.toMillis( metrics.totalWaitNanos() ),
+            TimeUnit.NANOSECONDS.toMillis( metrics.maxWaitNanos() )
+        };
+
+        if (contendedExecutions > 0)
+        {
+            logger.info( message, arguments );
+        }
+        else
+        {
+            logger.debug( message, arguments );
+        }
+    }
+}
@@ -3,7 +3,7 @@
  * File: UserService.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 25 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
  * This service class implements the UserDetailsService interface for handling
@@ -14,22 +14,30 @@
 
 package com.demo.rest_api.service;
 
+import com.demo.rest_api.enums.ScoreChangeReason;
 import com.demo.rest_api.model.User;
 import com.demo.rest_api.repository.UserRepository;
+import com.demo.rest_api.security.SessionPrincipal;
 import com.demo.rest_api.utils.Constants;
 import jakarta.annotation.Nonnull;
+import org.bson.types.ObjectId;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -41,12 +49,24 @@ import static org.springframework.data.mongodb.core.aggregation.Aggregation.samp
 @Service
 public class UserService implements UserDetailsService
 {
+    // How many stale picks from the matchmaking index are tolerated before falling back to the database.
+    private static final int MATCHMAKING_MAX_ATTEMPTS = 3;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private MatchmakingService matchmakingService;
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public void save( User user )
@@ -58,6 +78,103 @@ public class UserService implements UserDetailsService
         }
 
         userRepository.save( user );
+        matchmakingService.onScoreChanged( user );
+    }
+
+    // Applies a targeted update (e.g. $inc and $set on only the changed fields) to a single user document with one
+    // atomic findAndModify, and returns the updated document. Returns an empty Optional if the user no longer exists.
+    public Optional<User> updateById( ObjectId userId, Update update )
+    {
+        Optional<User> updatedUser = Optional.ofNullable(
+            mongoTemplate.findAndModify(
+                Query.query( Criteria.where( "_id" ).is( userId ) ),
+                update,
+                FindAndModifyOptions.options().returnNew( true ),
+                User.class
+            )
+        );
+
+        updatedUser.ifPresent( matchmakingService::onScoreChanged );
+        return updatedUser;
+    }
+
+    // Changes the password of a user with a targeted update, so that a concurrent change of the rest of the document
+    // (e.g. of the score) is not overwritten. Returns an empty Optional if the user no longer exists.
+    public Optional<User> changePassword( ObjectId userId, String password )
+    {
+        return updateById(
+            userId,
+            new Update()
+                .set( Constants.DATABASE_USER_PASSWORD_KEY, passwordEncoder.encode( password ) )
+                .set( Constants.DATABASE_USER_IS_PASSWORD_ENCODED_KEY, true )
+        );
+    }
+
+    /**
+     * Applies a targeted update that changes the score of a user with one atomic findAndModify, then records the change
+     * in the score ledger. No transaction is needed (so this also works on a standalone MongoDB server), since only one
+     * document is changed; the entry is written right after the update.
+     *
+     * @param userId The ID of the user.
+     * @param update The update, which includes the change of the score.
+     * @param points The change of the score.
+     * @param reason Why the score has changed.
+     * @return The updated user, or an empty Optional if the user no longer exists.
+     */
+    public Optional<User> updateScoreById( ObjectId userId, Update update, int points, ScoreChangeReason reason )
+    {
+        Optional<User> updatedUser = updateById( userId, update );
+        updatedUser.ifPresent( user -> scoreLedgerService.recordScoreChange( mongoTemplate, userId, points, reason ) );
+
+        return updatedUser;
+    }
+
+    /**
+     * Claims bonus points with one atomic findAndModify, which only matches if the user has never claimed bonus points
+     * or the last claim is at least one cooldown ago. Concurrent claims can therefore never both succeed.
+     *
+     * @param userId The ID of the user.
+     * @param bonusPoints The number of bonus points to add to the score.
+     * @param timeNow The time of the claim.
+     * @param cooldown The minimum time between two claims.
+     * @return The updated user, or an empty Optional if the user is still in the cooldown or no longer exists.
+     */
+    public Optional<User> claimBonusPoints( ObjectId userId, int bonusPoints, Instant timeNow, Duration cooldown )
+    {
+        Query query = Query.query(
+            Criteria.where( "_id" ).is( userId ).orOperator(
+                Criteria.where( Constants.DATABASE_USER_LAST_BONUS_CLAIM_TIME_KEY ).is( null ), // Also matches a missing field.
+                Criteria.where( Constants.DATABASE_USER_LAST_BONUS_CLAIM_TIME_KEY ).lte( timeNow.minus( cooldown ) )
+            )
+        );
+
+        Update update = new Update()
+                .inc( Constants.DATABASE_USER_SCORE_KEY, bonusPoints )
+                .inc( Constants.DATABASE_USER_CLAIMED_BONUS_POINTS_KEY, bonusPoints )
+                .set( Constants.DATABASE_USER_LAST_BONUS_CLAIM_TIME_KEY, timeNow );
+
+        Optional<User> updatedUser = Optional.ofNullable(
+            mongoTemplate.findAndModify( query, update, FindAndModifyOptions.options().returnNew( true ), User.class )
+        );
+
+        updatedUser.ifPresent( user ->
+        {
+            scoreLedgerService.recordScoreChange( mongoTemplate, userId, bonusPoints, ScoreChangeReason.BonusClaim );
+            matchmakingService.onScoreChanged( user );
+        } );
+
+        return updatedUser;
+    }
+
+    // Reads only the time of the last bonus claim of a user (e.g. to explain why a claim was rejected).
+    // Returns an empty Optional if the user does not exist or has never claimed bonus points.
+    public Optional<Instant> findLastBonusClaimTime( ObjectId userId )
+    {
+        Query query = Query.query( Criteria.where( "_id" ).is( userId ) );
+        query.fields().include( Constants.DATABASE_USER_LAST_BONUS_CLAIM_TIME_KEY );
+
+        User user = mongoTemplate.findOne( query, User.class );
+        return ( user != null ) ? Optional.ofNullable( user.getLastBonusClaimTime() ) : Optional.empty();
     }
 
     public boolean validatePassword( String rawPassword, String encodedPassword )
@@ -71,6 +188,23 @@ public class UserService implements UserDetailsService
         return userRepository.findByUsernameRegex( regex );
     }
 
+    // Looks up a user by the immutable ID, which is a primary key lookup on the default "_id" index.
+    public Optional<User> findById( String userId )
+    {
+        if (!ObjectId.isValid( userId ))
+        {
+            return Optional.empty();
+        }
+
+        return userRepository.findById( userId );
+    }
+
+    // Looks up the user of a session by ID, or by username for sessions created before sessions were keyed by ID.
+    public Optional<User> findBySessionPrincipal( SessionPrincipal principal )
+    {
+        return principal.hasUserId() ? findById( principal.userId() ) : findByUsername( principal.username() );
+    }
+
     @Override
     public @Nonnull UserDetails loadUserByUsername( @Nonnull String username ) throws UsernameNotFoundException
     {
@@ -85,16 +219,64 @@ public class UserService implements UserDetailsService
 
     public boolean deleteUserByUsername( String username )
     {
-        if (userRepository.existsByUsername( username ))
+        Optional<User> user = userRepository.findByUsername( username );
+
+        if (user.isPresent())
         {
             userRepository.deleteByUsername( username );
+            matchmakingService.onUserRemoved( user.get().getId() );
+            scoreShardService.onUserRemoved( user.get().getId() );
             return true;
         }
 
         return false;
     }
 
-    public Optional<User> findRandomUserWithMinimumScore( int minimumScore, List<String> excludedUsernames )
+    /**
+     * Finds a random user with at least the given score, other than the excluded user (e.g. the caller).
+     *
+     * Picks from the in-memory matchmaking index, which is O(log n), instead of sampling every matching document in
+     * the database. A picked user is loaded and its score re-checked, since the index may lag behind changes made by
+     * other application instances. Falls back to the database if the index is not ready or keeps picking stale users.
+     *
+     * @param minimumScore The minimum score (inclusive).
+     * @param excludedUser The user who must not be picked.
+     * @return A random user with at least the minimum score, or an empty Optional if there is none.
+     */
+    public Optional<User> findRandomUserWithMinimumScore( int minimumScore, User excludedUser )
+    {
+        if (matchmakingService.isReady())
+        {
+            for (int attempt = 0; attempt < MATCHMAKING_MAX_ATTEMPTS; attempt++)
+            {
+                ObjectId pickedUserId = matchmakingService.pickRandomUserWithMinimumScore( minimumScore, excludedUser.getId() );
+
+                if (pickedUserId == null)
+                {
+                    return Optional.empty();
+                }
+
+                Optional<User> pickedUser = userRepository.findById( pickedUserId.toHexString() );
+
+                if (pickedUser.isEmpty())
+                {
+                    matchmakingService.onUserRemoved( pickedUserId );
+                }
+                else if (pickedUser.get().getScore() >= minimumScore)
+                {
+                    return pickedUser;
+                }
+                else
+                {
+                    matchmakingService.onScoreChanged( pickedUser.get() );
+                }
+            }
+        }
+
+        return sampleRandomUserWithMinimumScore( minimumScore, List.of( excludedUser.getUsername() ) );
+    }
+
+    private Optional<User> sampleRandomUserWithMinimumScore( int minimumScore, List<String> excludedUsernames )
     {
         Aggregation aggregation = Aggregation.newAggregation(
             match(
@@ -0,0 +1,148 @@
+/*
+ * ****************************************************************************
+ * File: BloomFilter.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class implements a thread-safe, fixed-size Bloom filter for string
+ * keys. It answers "definitely not present" or "might be present" without
+ * false negatives, and is used to keep cheap membership checks in memory in
+ * front of an authoritative database lookup.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter
+{
+    private static final double LN2 = Math.log( 2 );
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a Bloom filter sized for the given number of keys and false positive probability.
+     *
+     * @param expectedInsertions The number of keys that the filter is expected to hold.
+     * @param falsePositiveProbability The desired false positive probability, from 0.0 to 1.0 (exclusive).
+     * @throws IllegalArgumentException If the expected insertions or the probability is out of range.
+     */
+    public BloomFilter( long expectedInsertions, double falsePositiveProbability )
+    {
+        if (expectedInsertions < 1)
+        {
+            throw new IllegalArgumentException( "Expected insertions must be at least 1." );
+        }
+
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+        {
+            throw new IllegalArgumentException( "False positive probability must be between 0 and 1 (exclusive)." );
+        }
+
+        // Optimal number of bits: m = -n * ln(p) / (ln 2)^2, rounded up to a whole number of 64-bit words.
+        long optimalBits = ( long )Math.ceil( -expectedInsertions * Math.log( falsePositiveProbability ) / ( LN2 * LN2 ) );
+        int wordCount = ( int )Math.max( 1, ( optimalBits + 63 ) >>> 6 );
+
+        this.bits = new AtomicLongArray( wordCount );
+        this.bitCount = ( long )wordCount << 6;
+
+        // Optimal number of hash functions: k = (m / n) * ln 2.
+        this.hashCount = Math.max( 1, ( int )Math.round( ( double )bitCount / expectedInsertions * LN2 ) );
+    }
+
+    /**
+     * Adds the given key to the filter.
+     *
+     * @param key The key to add.
+     */
+    public void put( String key )
+    {
+        long hash = hash64( key );
+        int hash1 = ( int )hash;
+        int hash2 = ( int )( hash >>> 32 );
+
+        for (int i = 1; i <= hashCount; i++)
+        {
+            setBit( bitIndex( hash1, hash2, i ) );
+        }
+    }
+
+    /**
+     * Checks whether the given key might have been added to the filter.
+     *
+     * @param key The key to check.
+     * @return {@code false} if the key has definitely not been added, {@code true} if it might have been added.
+     */
+    public boolean mightContain( String key )
+    {
+        long hash = hash64( key );
+        int hash1 = ( int )hash;
+        int hash2 = ( int )( hash >>> 32 );
+
+        for (int i = 1; i <= hashCount; i++)
+        {
+            long index = bitIndex( hash1, hash2, i );
+
+            if (( bits.get( ( int )( index >>> 6 ) ) & ( 1L << index ) ) == 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Derives the i-th bit index from two base hashes (Kirsch-Mitzenmacher double hashing).
+    private long bitIndex( int hash1, int hash2, int i )
+    {
+        int combinedHash = hash1 + ( i * hash2 );
+
+        if (combinedHash < 0)
+        {
+            combinedHash = ~combinedHash;
+        }
+
+        return combinedHash % bitCount;
+    }
+
+    private void setBit( long index )
+    {
+        int wordIndex = ( int )( index >>> 6 );
+        long mask = 1L << index;
+        long word;
+
+        do
+        {
+            word = bits.get( wordIndex );
+
+            if (( word & mask ) != 0)
+            {
+                return;
+            }
+        }
+        while (!bits.compareAndSet( wordIndex, word, word | mask ));
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units of the key, followed by a final avalanche step.
+    private static long hash64( String key )
+    {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < key.length(); i++)
+        {
+            hash ^= key.charAt( i );
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= ( hash >>> 33 );
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= ( hash >>> 33 );
+
+        return hash;
+    }
+}
@@ -3,7 +3,7 @@
  * File: Constants.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 27 August 2025
+ * Last Modified Date: 18 October 2026
  *
  * Description:
  * This class holds constant values used throughout the application.
@@ -26,9 +26,18 @@ public final class Constants
     public static final int PASSWORD_LENGTH = 3;
     public static final int DISPLAY_NAME_LENGTH = 3;
 
+    // The maximum number of guesses or rounds that can be submitted in one batch request.
+    public static final int MAX_MOVES_PER_BATCH = 100;
+
     // Security
     public static final String AUTH_HEADER = "Authorization";
     public static final String TOKEN_PREFIX = "Bearer ";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String RESPONSE_MODE_HEADER = "Response-Mode";
+    public static final String RESPONSE_MODE_LEAN = "lean";
+    public static final String SESSION_MODE_JWT = "jwt";
+    public static final String SESSION_MODE_OPAQUE = "opaque";
 
     // Message
     public static final String DEFAULT_SUCCESS_MESSAGE = "Request processed successfully.";
@@ -47,9 +56,90 @@ public final class Constants
 
     // Key
     public static final String DATABASE_USER_USERNAME_KEY = "username";
+    public static final String DATABASE_USER_DISPLAY_NAME_KEY = "displayName";
+    public static final String DATABASE_USER_PASSWORD_KEY = "password";
+    public static final String DATABASE_USER_IS_PASSWORD_ENCODED_KEY = "isPasswordEncoded";
     public static final String DATABASE_USER_SCORE_KEY = "score";
     public static final String DATABASE_USER_ATTEMPTS_KEY = "attempts";
     public static final String DATABASE_USER_ROUNDS_KEY = "rounds";
+    public static final String DATABASE_USER_CLAIMED_BONUS_POINTS_KEY = "claimedBonusPoints";
+    public static final String DATABASE_USER_LAST_BONUS_CLAIM_TIME_KEY = "lastBonusClaimTime";
+    public static final String DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY = "hasGuessNumberStarted";
+    public static final String DATABASE_USER_GUESS_NUMBER_CURRENT_ROUND_KEY = "guessNumberCurrentRound";
+    public static final String DATABASE_USER_GUESS_NUMBER_BASIC_KEY = "guessNumberBasic";
+    public static final String DATABASE_USER_GUESS_NUMBER_SECRET_KEY = "guessNumberSecret";
+    public static final String DATABASE_USER_GUESS_NUMBER_TRAP_KEY = "guessNumberTrap";
+    public static final String DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY = "hasArrangeNumbersStarted";
+    public static final String DATABASE_USER_ARRANGE_NUMBERS_CURRENT_ROUND_KEY = "arrangeNumbersCurrentRound";
+    public static final String DATABASE_USER_ARRANGED_NUMBERS_KEY = "arrangedNumbers";
+    public static final String DATABASE_USER_ROCK_PAPER_SCISSORS_CURRENT_ROUND_KEY = "rockPaperScissorsCurrentRound";
+    public static final String DATABASE_USER_LEDGER_COMPACTION_ID_KEY = "ledgerCompactionId";
+    public static final String DATABASE_USER_LEDGER_COMPACTION_IDS_KEY = "ledgerCompactionIds";
+    public static final String DATABASE_USER_IS_SCORE_SHARDED_KEY = "isScoreSharded";
+    public static final String DATABASE_USER_RESERVED_SCORE_KEY = "reservedScore";
+    public static final String DATABASE_USER_LAST_SCORE_SHARDING_TIME_KEY = "lastScoreShardingTime";
+    public static final String DATABASE_USER_LAST_RESET_SEASON_ID_KEY = "lastResetSeasonId";
+    public static final String DATABASE_USER_LAST_ACTIVITY_TIME_KEY = "lastActivityTime";
+    public static final String DATABASE_USER_LAST_SCORE_DECAY_TIME_KEY = "lastScoreDecayTime";
+    public static final String DATABASE_REVOKED_TOKEN_EXPIRES_AT_KEY = "expiresAt";
+    public static final String DATABASE_SESSION_EXPIRES_AT_KEY = "expiresAt";
+    public static final String DATABASE_GAME_EVENT_USER_ID_KEY = "userId";
+    public static final String DATABASE_GAME_EVENT_TIME_KEY = "time";
+    public static final String DATABASE_SCORE_LEDGER_USER_ID_KEY = "userId";
+    public static final String DATABASE_SCORE_LEDGER_POINTS_KEY = "points";
+    public static final String DATABASE_SCORE_LEDGER_REASON_KEY = "reason";
+    public static final String DATABASE_SCORE_LEDGER_TIME_KEY = "time";
+    public static final String DATABASE_SCORE_LEDGER_IS_PENDING_KEY = "isPending";
+    public static final String DATABASE_SCORE_LEDGER_COMPACTION_ID_KEY = "compactionId";
+    public static final String DATABASE_SCORE_SHARD_USER_ID_KEY = "userId";
+    public static final String DATABASE_SCORE_SHARD_INDEX_KEY = "index";
+    public static final String DATABASE_SCORE_SHARD_AVAILABLE_KEY = "available";
+    public static final String DATABASE_SCORE_SHARD_SPENT_KEY = "spent";
+    public static final String DATABASE_TOURNAMENT_STATUS_KEY = "status";
+    public static final String DATABASE_TOURNAMENT_CREATED_TIME_KEY = "createdTime";
+    public static final String DATABASE_TOURNAMENT_START_TIME_KEY = "startTime";
+    public static final String DATABASE_TOURNAMENT_FINISH_TIME_KEY = "finishTime";
+    public static final String DATABASE_TOURNAMENT_ENTRANT_COUNT_KEY = "entrantCount";
+    public static final String DATABASE_TOURNAMENT_ROUND_COUNT_KEY = "roundCount";
+    public static final String DATABASE_TOURNAMENT_COMPLETED_ROUNDS_KEY = "completedRounds";
+    public static final String DATABASE_TOURNAMENT_WINNER_ID_KEY = "winnerId";
+    public static final String DATABASE_TOURNAMENT_WINNER_USERNAME_KEY = "winnerUsername";
+    public static final String DATABASE_TOURNAMENT_LEASE_EXPIRY_TIME_KEY = "leaseExpiryTime";
+    public static final String DATABASE_TOURNAMENT_ENTRY_TOURNAMENT_ID_KEY = "tournamentId";
+    public static final String DATABASE_TOURNAMENT_ENTRY_USER_ID_KEY = "userId";
+    public static final String DATABASE_TOURNAMENT_ENTRY_SEED_KEY = "seed";
+    public static final String DATABASE_TOURNAMENT_MATCH_TOURNAMENT_ID_KEY = "tournamentId";
+    public static final String DATABASE_TOURNAMENT_MATCH_ROUND_KEY = "round";
+    public static final String DATABASE_TOURNAMENT_MATCH_POSITION_KEY = "position";
+    public static final String DATABASE_TOURNAMENT_MATCH_PLAYER_IDS_KEY = "playerIds";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_FINGERPRINT_KEY = "fingerprint";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_IS_COMPLETED_KEY = "isCompleted";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_CLAIM_TIME_KEY = "claimTime";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_STATUS_KEY = "status";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_CONTENT_TYPE_KEY = "contentType";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_BODY_KEY = "body";
+    public static final String DATABASE_IDEMPOTENCY_RECORD_EXPIRES_AT_KEY = "expiresAt";
+    public static final String DATABASE_SCORE_DECAY_RUN_FINISH_TIME_KEY = "finishTime";
+    public static final String DATABASE_SCORE_DECAY_RUN_DECAYED_USER_COUNT_KEY = "decayedUserCount";
+    public static final String DATABASE_SCORE_DECAY_RUN_DECAYED_POINTS_KEY = "decayedPoints";
+    public static final String DATABASE_SEASON_NUMBER_KEY = "number";
+    public static final String DATABASE_SEASON_STATUS_KEY = "status";
+    public static final String DATABASE_SEASON_FINISH_TIME_KEY = "finishTime";
+    public static final String DATABASE_SEASON_PROCESSED_USER_COUNT_KEY = "processedUserCount";
+    public static final String DATABASE_SEASON_ARCHIVED_USER_COUNT_KEY = "archivedUserCount";
+    public static final String DATABASE_SEASON_LAST_USER_ID_KEY = "lastUserId";
+    public static final String DATABASE_SEASON_LEASE_EXPIRY_TIME_KEY = "leaseExpiryTime";
+    public static final String DATABASE_SEASON_ARCHIVE_SEASON_ID_KEY = "seasonId";
+    public static final String DATABASE_SEASON_ARCHIVE_USER_ID_KEY = "userId";
+    public static final String DATABASE_SEASON_ARCHIVE_SCORE_KEY = "score";
+    public static final String DATABASE_SEASON_ARCHIVE_ATTEMPTS_KEY = "attempts";
+    public static final String DATABASE_SEASON_ARCHIVE_ROUNDS_KEY = "rounds";
+    public static final String DATABASE_SEASON_ARCHIVE_RANK_KEY = "rank";
+
+    // The compact fields of a game session (see MongoConfig).
+    public static final String DATABASE_GAME_SESSION_FLAGS_KEY = "f";
+    public static final String DATABASE_GAME_SESSION_GUESS_NUMBERS_KEY = "g";
+    public static final String DATABASE_GAME_SESSION_ARRANGEMENT_KEY = "a";
 
     // URL
     public static final String API_PATH_SUFFIX_FOR_FORM_URLENCODED = "/form";
@@ -3,19 +3,35 @@
  * File: EnumHelper.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 19 August 2025
+ * Last Modified Date: 18 October 2026
  * 
  * Description:
- * This class provides a set of helper methods for working with enums.
+ * This class provides a set of helper methods for working with enums. The
+ * constants of each enum type are cached, since getEnumConstants() returns a
+ * new copy of them on every call.
  * ****************************************************************************
  */
 
 package com.demo.rest_api.utils;
 
-import java.util.concurrent.ThreadLocalRandom;
-
 public class EnumHelper
 {
+    private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<>()
+    {
+        @Override
+        protected Object[] computeValue( Class<?> type )
+        {
+            Object[] enumConstants = type.getEnumConstants();
+
+            if (enumConstants == null)
+            {
+                throw new IllegalArgumentException( type.getName() + " is not an enum type." );
+            }
+
+            return enumConstants;
+        }
+    };
+
     /**
      * Returns a random value from the specified enum type.
      *
@@ -27,8 +43,6 @@ public class EnumHelper
      */
     public static <T extends Enum<?>> T getRandomEnum( Class<T> enumClass )
     {
-        T[] enumConstants = enumClass.getEnumConstants();
-        int randomIndex = ThreadLocalRandom.current().nextInt( enumConstants.length );
-        return enumConstants[ randomIndex ];
+        return enumClass.cast( RandomSource.getDefault().pick( ENUM_CONSTANTS.get( enumClass ) ) );
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * ****************************************************************************
+ * File: GameStateCodec.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class holds the compact encodings of the game state that is stored in
+ * the "game_session" collection (see MongoConfig): the "started" flags of the
+ * games as a bitset, the basic, secret and trap numbers of Guess Number (1 to
+ * 100 each) packed into one int, 8 bits each, and the arrangement of Arrange
+ * Numbers (a permutation of 1 to 5) as its rank among the 120 permutations,
+ * in lexicographic order.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+public final class GameStateCodec
+{
+    public static final int FLAG_GUESS_NUMBER_STARTED = 1;
+    public static final int FLAG_ARRANGE_NUMBERS_STARTED = 1 << 1;
+
+    public static final int ARRANGEMENT_SIZE = 5;
+
+    private static final int GUESS_NUMBER_BITS = 8;
+    private static final int GUESS_NUMBER_MASK = ( 1 << GUESS_NUMBER_BITS ) - 1;
+
+    // The number of permutations of the remaining numbers, after each position of the arrangement: 4!, 3!, 2!, 1!, 0!.
+    private static final int[] FACTORIALS = { 24, 6, 2, 1, 1 };
+
+    private GameStateCodec()
+    {
+    }
+
+    /**
+     * Returns the rank of an arrangement among all permutations of 1 to 5, in lexicographic order.
+     *
+     * @param numbers The arrangement.
+     * @return The rank, from 0 (1, 2, 3, 4, 5) to 119 (5, 4, 3, 2, 1).
+     * @throws IllegalArgumentException If the numbers are not a permutation of 1 to 5.
+     */
+    public static int rankArrangement( int[] numbers )
+    {
+        if (!isArrangement( numbers ))
+        {
+            throw new IllegalArgumentException( "The numbers should be a permutation of 1 to " + ARRANGEMENT_SIZE + "." );
+        }
+
+        int rank = 0;
+        int usedNumbers = 0;
+
+        for (int i = 0; i < ARRANGEMENT_SIZE; i++)
+        {
+            // The number of smaller numbers that are still unused (the Lehmer code of this position).
+            int smallerUnusedCount = numbers[ i ] - 1 - Integer.bitCount( usedNumbers & ( ( 1 << numbers[ i ] ) - 1 ) );
+            rank += smallerUnusedCount * FACTORIALS[ i ];
+            usedNumbers |= 1 << numbers[ i ];
+        }
+
+        return rank;
+    }
+
+    /**
+     * Returns the arrangement with the given rank among all permutations of 1 to 5, in lexicographic order.
+     *
+     * @param rank The rank, from 0 to 119.
+     * @return The arrangement.
+     * @throws IllegalArgumentException If the rank is out of range.
+     */
+    public static int[] unrankArrangement( int rank )
+    {
+        if (rank < 0 || rank >= FACTORIALS[ 0 ] * ARRANGEMENT_SIZE)
+        {
+            throw new IllegalArgumentException( "The rank should be from 0 to " + ( FACTORIALS[ 0 ] * ARRANGEMENT_SIZE - 1 ) + "." );
+        }
+
+        int[] numbers = new int[ ARRANGEMENT_SIZE ];
+        int usedNumbers = 0;
+
+        for (int i = 0; i < ARRANGEMENT_SIZE; i++)
+        {
+            int smallerUnusedCount = rank / FACTORIALS[ i ];
+            rank %= FACTORIALS[ i ];
+
+            // Takes the unused number that has smallerUnusedCount unused numbers below it.
+            int number = 1;
+
+            while (( usedNumbers & ( 1 << number ) ) != 0 || smallerUnusedCount-- > 0)
+            {
+                number++;
+            }
+
+            numbers[ i ] = number;
+            usedNumbers |= 1 << number;
+        }
+
+        return numbers;
+    }
+
+    // Whether the numbers are a permutation of 1 to 5.
+    public static boolean isArrangement( int[] numbers )
+    {
+        if (numbers == null || numbers.length != ARRANGEMENT_SIZE)
+        {
+            return false;
+        }
+
+        int usedNumbers = 0;
+
+        for (int number : numbers)
+        {
+            if (number < 1 || number > ARRANGEMENT_SIZE || ( usedNumbers & ( 1 << number ) ) != 0)
+            {
+                return false;
+            }
+
+            usedNumbers |= 1 << number;
+        }
+
+        return true;
+    }
+
+    // Packs the basic, secret and trap numbers of Guess Number into one int, 8 bits each.
+    public static int packGuessNumbers( int basic, int secret, int trap )
+    {
+        if (!canPackGuessNumbers( basic, secret, trap ))
+        {
+            throw new IllegalArgumentException( "The numbers should be from 0 to " + GUESS_NUMBER_MASK + "." );
+        }
+
+        return basic | ( secret << GUESS_NUMBER_BITS ) | ( trap << ( 2 * GUESS_NUMBER_BITS ) );
+    }
+
+    public static boolean canPackGuessNumbers( int basic, int secret, int trap )
+    {
+        return ( ( basic | secret | trap ) & ~GUESS_NUMBER_MASK ) == 0;
+    }
+
+    public static int unpackGuessNumberBasic( int packed )
+    {
+        return packed & GUESS_NUMBER_MASK;
+    }
+
+    public static int unpackGuessNumberSecret( int packed )
+    {
+        return ( packed >>> GUESS_NUMBER_BITS ) & GUESS_NUMBER_MASK;
+    }
+
+    public static int unpackGuessNumberTrap( int packed )
+    {
+        return ( packed >>> ( 2 * GUESS_NUMBER_BITS ) ) & GUESS_NUMBER_MASK;
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * ****************************************************************************
+ * File: MatchmakingIndex.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class is an in-memory index of users by score, used to pick a random
+ * opponent with at least a given score without querying the database. Users
+ * are kept in one bucket per score, stored in primitive arrays, and a Fenwick
+ * tree (binary indexed tree) over the bucket sizes answers "how many users
+ * have a score below X" in O(log n). Together they allow a uniformly random
+ * user at or above a threshold, excluding the caller, to be picked in
+ * O(log n), and a user's score to be changed in O(log n).
+ *
+ * The number of buckets is capped (MAX_BUCKET_COUNT), so that one user with
+ * a huge score cannot make the index allocate huge arrays: all scores from
+ * the last bucket upwards share that bucket, which keeps the exact score of
+ * each user. A pick with a minimum score in that range scans the last bucket,
+ * which only holds the few users with such scores.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+import org.bson.types.ObjectId;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.random.RandomGenerator;
+
+public class MatchmakingIndex
+{
+    private static final int INITIAL_BUCKET_COUNT = 1024;
+    private static final int INITIAL_SLOT_COUNT = 1024;
+    private static final int INITIAL_BUCKET_SIZE = 4;
+
+    // A power of two, so that the buckets always grow to exactly this count. Scores from OVERFLOW_BUCKET upwards share
+    // the last bucket.
+    private static final int MAX_BUCKET_COUNT = 1 << 16;
+    private static final int OVERFLOW_BUCKET = MAX_BUCKET_COUNT - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One bucket per score. Bucket i holds the slots of the users whose score is i (or at least i, for the last bucket).
+    private int bucketCount = INITIAL_BUCKET_COUNT;
+    private int[][] bucketSlots = new int[ bucketCount ][];
+    private int[] bucketSizes = new int[ bucketCount ];
+
+    // 1-based Fenwick tree over the bucket sizes.
+    private int[] fenwickTree = new int[ bucketCount + 1 ];
+
+    // Every user occupies a slot; slots are reused after a user is removed.
+    private ObjectId[] slotUserIds = new ObjectId[ INITIAL_SLOT_COUNT ];
+    private int[] slotScores = new int[ INITIAL_SLOT_COUNT ];
+    private int[] slotBuckets = new int[ INITIAL_SLOT_COUNT ];
+    private int[] slotPositions = new int[ INITIAL_SLOT_COUNT ]; // The position of the slot within its bucket.
+    private int[] freeSlots = new int[ INITIAL_SLOT_COUNT ];
+    private int freeSlotCount = 0;
+    private int usedSlotCount = 0;
+
+    private final Map<ObjectId,Integer> slotsByUserId = new HashMap<>();
+
+    /**
+     * Adds a user to the index, or moves the user to the bucket of the new score.
+     *
+     * @param userId The ID of the user.
+     * @param score The current score of the user. Negative scores are treated as 0.
+     */
+    public void put( ObjectId userId, int score )
+    {
+        int nonNegativeScore = Math.max( 0, score );
+        int bucket = bucketOf( nonNegativeScore );
+
+        lock.writeLock().lock();
+
+        try
+        {
+            Integer existingSlot = slotsByUserId.get( userId );
+
+            if (existingSlot != null)
+            {
+                if (slotBuckets[ existingSlot ] != bucket)
+                {
+                    removeFromBucket( existingSlot );
+                    addToBucket( existingSlot, bucket );
+                }
+
+                slotScores[ existingSlot ] = nonNegativeScore;
+                return;
+            }
+
+            int slot = allocateSlot();
+            slotUserIds[ slot ] = userId;
+            slotScores[ slot ] = nonNegativeScore;
+            slotsByUserId.put( userId, slot );
+            addToBucket( slot, bucket );
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user from the index. Does nothing if the user is not in the index.
+     *
+     * @param userId The ID of the user.
+     */
+    public void remove( ObjectId userId )
+    {
+        lock.writeLock().lock();
+
+        try
+        {
+            Integer slot = slotsByUserId.remove( userId );
+
+            if (slot == null)
+            {
+                return;
+            }
+
+            removeFromBucket( slot );
+            slotUserIds[ slot ] = null;
+            freeSlots[ freeSlotCount++ ] = slot;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return slotsByUserId.size();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the users with at least the given score.
+     *
+     * @param minimumScore The minimum score (inclusive).
+     * @return The number of users with a score greater than or equal to the minimum score.
+     */
+    public int countWithMinimumScore( int minimumScore )
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            if (minimumScore > OVERFLOW_BUCKET)
+            {
+                return countInOverflowBucket( minimumScore, null );
+            }
+
+            return slotsByUserId.size() - countBelow( Math.max( 0, minimumScore ) );
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Picks a uniformly random user with at least the given score, excluding one user.
+     *
+     * @param minimumScore The minimum score (inclusive).
+     * @param excludedUserId The ID of the user who must not be picked (e.g. the caller), or null.
+     * @param random The source of randomness.
+     * @return The ID of the picked user, or null if no other user has at least the minimum score.
+     */
+    public ObjectId pickRandomUserWithMinimumScore( int minimumScore, ObjectId excludedUserId, RandomGenerator random )
+    {
+        int minimumBucket = Math.max( 0, minimumScore );
+
+        lock.readLock().lock();
+
+        try
+        {
+            if (minimumScore > OVERFLOW_BUCKET)
+            {
+                return pickFromOverflowBucket( minimumScore, excludedUserId, random );
+            }
+
+            // Users are ranked by bucket, then by position within the bucket. The candidates are the ranks
+            // from "firstRank" to the end.
+            int firstRank = countBelow( minimumBucket );
+            int candidateCount = slotsByUserId.size() - firstRank;
+            int excludedRank = -1;
+
+            Integer excludedSlot = ( excludedUserId != null ) ? slotsByUserId.get( excludedUserId ) : null;
+
+            if (excludedSlot != null && slotBuckets[ excludedSlot ] >= minimumBucket)
+            {
+                excludedRank = countBelow( slotBuckets[ excludedSlot ] ) + slotPositions[ excludedSlot ];
+                candidateCount--;
+            }
+
+            if (candidateCount <= 0)
+            {
+                return null;
+            }
+
+            int rank = firstRank + random.nextInt( candidateCount );
+
+            if (excludedRank >= 0 && rank >= excludedRank)
+            {
+                // Skip over the excluded user's rank, which keeps the pick uniform among the other candidates.
+                rank++;
+            }
+
+            return slotUserIds[ findSlotByRank( rank ) ];
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int bucketOf( int nonNegativeScore )
+    {
+        return Math.min( nonNegativeScore, OVERFLOW_BUCKET );
+    }
+
+    // Counts the users of the last bucket with at least the given score, other than the excluded user.
+    private int countInOverflowBucket( int minimumScore, ObjectId excludedUserId )
+    {
+        if (bucketCount < MAX_BUCKET_COUNT)
+        {
+            return 0;
+        }
+
+        int count = 0;
+        int[] slots = bucketSlots[ OVERFLOW_BUCKET ];
+
+        for (int i = 0; i < bucketSizes[ OVERFLOW_BUCKET ]; i++)
+        {
+            if (slotScores[ slots[ i ] ] >= minimumScore && !slotUserIds[ slots[ i ] ].equals( excludedUserId ))
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    // Picks a uniformly random user of the last bucket with at least the given score, other than the excluded user.
+    private ObjectId pickFromOverflowBucket( int minimumScore, ObjectId excludedUserId, RandomGenerator random )
+    {
+        int candidateCount = countInOverflowBucket( minimumScore, excludedUserId );
+
+        if (candidateCount == 0)
+        {
+            return null;
+        }
+
+        int remaining = random.nextInt( candidateCount );
+        int[] slots = bucketSlots[ OVERFLOW_BUCKET ];
+
+        for (int i = 0; ; i++)
+        {
+            if (slotScores[ slots[ i ] ] >= minimumScore && !slotUserIds[ slots[ i ] ].equals( excludedUserId ) && remaining-- == 0)
+            {
+                return slotUserIds[ slots[ i ] ];
+            }
+        }
+    }
+
+    // Returns the number of users whose score is lower than the given bucket.
+    private int countBelow( int bucket )
+    {
+        int count = 0;
+
+        for (int i = Math.min( bucket, bucketCount ); i > 0; i -= i & -i)
+        {
+            count += fenwickTree[ i ];
+        }
+
+        return count;
+    }
+
+    // Walks down the Fenwick tree to find the bucket that contains the given rank, then the slot within the bucket.
+    private int findSlotByRank( int rank )
+    {
+        int position = 0;
+        int remaining = rank;
+
+        for (int step = Integer.highestOneBit( bucketCount ); step > 0; step >>= 1)
+        {
+            int next = position + step;
+
+            if (next <= bucketCount && fenwickTree[ next ] <= remaining)
+            {
+                position = next;
+                remaining -= fenwickTree[ next ];
+            }
+        }
+
+        // "position" is the number of buckets before the one that contains the rank, which is its 0-based index.
+        return bucketSlots[ position ][ remaining ];
+    }
+
+    private void addToBucket( int slot, int bucket )
+    {
+        if (bucket >= bucketCount)
+        {
+            growBuckets( bucket + 1 );
+        }
+
+        int[] slots = bucketSlots[ bucket ];
+        int size = bucketSizes[ bucket ];
+
+        if (slots == null)
+        {
+            slots = bucketSlots[ bucket ] = new int[ INITIAL_BUCKET_SIZE ];
+        }
+        else if (size == slots.length)
+        {
+            slots = bucketSlots[ bucket ] = Arrays.copyOf( slots, size * 2 );
+        }
+
+        slots[ size ] = slot;
+        bucketSizes[ bucket ] = size + 1;
+        slotBuckets[ slot ] = bucket;
+        slotPositions[ slot ] = size;
+
+        updateFenwickTree( bucket, 1 );
+    }
+
+    private void removeFromBucket( int slot )
+    {
+        int bucket = slotBuckets[ slot ];
+        int position = slotPositions[ slot ];
+        int lastPosition = --bucketSizes[ bucket ];
+        int[] slots = bucketSlots[ bucket ];
+
+        // Swap the last slot of the bucket into the freed position, so that the bucket stays contiguous.
+        int lastSlot = slots[ lastPosition ];
+        slots[ position ] = lastSlot;
+        slotPositions[ lastSlot ] = position;
+
+        updateFenwickTree( bucket, -1 );
+    }
+
+    private void updateFenwickTree( int bucket, int delta )
+    {
+        for (int i = bucket + 1; i <= bucketCount; i += i & -i)
+        {
+            fenwickTree[ i ] += delta;
+        }
+    }
+
+    // Scores only grow by the points of a game, so the buckets are grown (rarely), up to MAX_BUCKET_COUNT.
+    private void growBuckets( int minimumBucketCount )
+    {
+        int newBucketCount = bucketCount;
+
+        while (newBucketCount < Math.min( minimumBucketCount, MAX_BUCKET_COUNT ))
+        {
+            newBucketCount *= 2;
+        }
+
+        bucketSlots = Arrays.copyOf( bucketSlots, newBucketCount );
+        bucketSizes = Arrays.copyOf( bucketSizes, newBucketCount );
+        bucketCount = newBucketCount;
+
+        // Rebuild the Fenwick tree in O(n) from the bucket sizes.
+        fenwickTree = new int[ newBucketCount + 1 ];
+
+        for (int i = 1; i <= newBucketCount; i++)
+        {
+            fenwickTree[ i ] += bucketSizes[ i - 1 ];
+            int parent = i + ( i & -i );
+
+            if (parent <= newBucketCount)
+            {
+                fenwickTree[ parent ] += fenwickTree[ i ];
+            }
+        }
+    }
+
+    private int allocateSlot()
+    {
+        if (freeSlotCount > 0)
+        {
+            return freeSlots[ --freeSlotCount ];
+        }
+
+        if (usedSlotCount == slotUserIds.length)
+        {
+            int newSlotCount = usedSlotCount * 2;
+            slotUserIds = Arrays.copyOf( slotUserIds, newSlotCount );
+            slotScores = Arrays.copyOf( slotScores, newSlotCount );
+            slotBuckets = Arrays.copyOf( slotBuckets, newSlotCount );
+            slotPositions = Arrays.copyOf( slotPositions, newSlotCount );
+            freeSlots = Arrays.copyOf( freeSlots, newSlotCount );
+        }
+
+        return usedSlotCount++;
+    }
+}
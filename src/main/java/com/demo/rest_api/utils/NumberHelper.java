@@ -3,25 +3,18 @@
  * File: NumberHelper.java
  * Author: Lim Leong Kee
  * Email: leongkee86@gmail.com
- * Last Modified Date: 24 August 2025
+ * Last Modified Date: 18 October 2026
  *
  * Description:
- * This class provides a set of helper methods for working with numbers.
+ * This class provides a set of helper methods for working with numbers. The
+ * random numbers are drawn from the default RandomSource.
  * ****************************************************************************
  */
 
 package com.demo.rest_api.utils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
-
 public class NumberHelper
 {
-    private static final Random RANDOM = new Random();
-
     /**
      * Generates a random number between the specified minimum and maximum values (inclusive).
      *
@@ -32,12 +25,7 @@ public class NumberHelper
      */
     public static int getRandomNumber( int min, int max )
     {
-        if (min > max)
-        {
-            throw new IllegalArgumentException( "min should be less than or equal to max." );
-        }
-
-        return ThreadLocalRandom.current().nextInt( min, max + 1 );
+        return RandomSource.getDefault().nextInt( min, max );
     }
 
     /**
@@ -50,32 +38,7 @@ public class NumberHelper
      */
     public static int[] generateDistinctRandomNumbersInRange( int min, int max, int count )
     {
-        if (min > max)
-        {
-            throw new IllegalArgumentException( "min should be less than or equal to max." );
-        }
-
-        int rangeSize = max - min + 1;
-        if (count > rangeSize)
-        {
-            throw new IllegalArgumentException( "Count cannot be greater than the size of the range." );
-        }
-
-        List<Integer> numbers = new ArrayList<>();
-        for (int i = min; i <= max; i++)
-        {
-            numbers.add( i );
-        }
-
-        Collections.shuffle( numbers );
-
-        int[] result = new int[ count ];
-        for (int i = 0; i < count; i++)
-        {
-            result[ i ] = numbers.get( i );
-        }
-
-        return result;
+        return RandomSource.getDefault().distinctInts( min, max, count );
     }
 
     /**
@@ -85,16 +48,6 @@ public class NumberHelper
      */
     public static boolean isHit( double probability )
     {
-        if (probability <= 0)
-        {
-            return false;
-        }
-
-        if (probability >= 1)
-        {
-            return true;
-        }
-
-        return ( RANDOM.nextDouble() < probability );
+        return RandomSource.getDefault().isHit( probability );
     }
 }
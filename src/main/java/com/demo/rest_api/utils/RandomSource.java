@@ -0,0 +1,217 @@
+/*
+ * ****************************************************************************
+ * File: RandomSource.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class is the source of randomness for all games. By default, every
+ * thread draws from its own ThreadLocalRandom, so concurrent requests never
+ * contend on a shared generator. A seeded source can be installed instead
+ * (e.g. in tests, or to replay games): each thread then draws from its own
+ * SplittableRandom, split from the seed in the order in which the threads
+ * first draw, so a single-threaded sequence of draws is fully reproducible.
+ *
+ * Distinct numbers are drawn with rejection sampling when only a few are
+ * needed from a large range, and with a partial Fisher-Yates shuffle
+ * otherwise, on primitive arrays, so drawing them allocates nothing but the
+ * result.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+public final class RandomSource
+{
+    private static volatile RandomSource defaultSource = threadLocal();
+
+    private final Supplier<RandomGenerator> generators;
+
+    private RandomSource( Supplier<RandomGenerator> generators )
+    {
+        this.generators = generators;
+    }
+
+    // A source that draws from the ThreadLocalRandom of the calling thread.
+    public static RandomSource threadLocal()
+    {
+        return new RandomSource( ThreadLocalRandom::current );
+    }
+
+    /**
+     * Creates a deterministic source: the same seed gives the same draws on each thread, as long as the threads start
+     * drawing in the same order.
+     *
+     * @param seed The seed.
+     * @return The source.
+     */
+    public static RandomSource seeded( long seed )
+    {
+        SplittableRandom root = new SplittableRandom( seed );
+
+        ThreadLocal<SplittableRandom> threadGenerators = ThreadLocal.withInitial( () ->
+        {
+            synchronized (root)
+            {
+                return root.split();
+            }
+        } );
+
+        return new RandomSource( threadGenerators::get );
+    }
+
+    // The source that the game helpers draw from.
+    public static RandomSource getDefault()
+    {
+        return defaultSource;
+    }
+
+    public static void setDefault( RandomSource source )
+    {
+        defaultSource = source;
+    }
+
+    // The generator of the calling thread. It must not be shared with other threads.
+    public RandomGenerator generator()
+    {
+        return generators.get();
+    }
+
+    /**
+     * Draws a random number between the specified minimum and maximum values (inclusive).
+     *
+     * @param min The minimum value (inclusive) of the range.
+     * @param max The maximum value (inclusive) of the range.
+     * @return A random integer between min and max, inclusive.
+     * @throws IllegalArgumentException If the min value is greater than the max value.
+     */
+    public int nextInt( int min, int max )
+    {
+        if (min > max)
+        {
+            throw new IllegalArgumentException( "min should be less than or equal to max." );
+        }
+
+        return ( max == Integer.MAX_VALUE )
+                ? ( int )generator().nextLong( min, ( long )max + 1 )
+                : generator().nextInt( min, max + 1 );
+    }
+
+    /**
+     * Returns true if the random chance hits based on the given probability.
+     *
+     * @param probability The chance to hit, from 0.0 (0%) to 1.0 (100%).
+     * @return True if hit, false otherwise.
+     */
+    public boolean isHit( double probability )
+    {
+        if (probability <= 0)
+        {
+            return false;
+        }
+
+        if (probability >= 1)
+        {
+            return true;
+        }
+
+        return generator().nextDouble() < probability;
+    }
+
+    // Picks a random element of a non-empty array.
+    public <T> T pick( T[] values )
+    {
+        return values[ generator().nextInt( values.length ) ];
+    }
+
+    /**
+     * Draws distinct random numbers within [min, max] inclusive, in random order.
+     *
+     * @param min The minimum value (inclusive).
+     * @param max The maximum value (inclusive).
+     * @param count How many distinct numbers to draw.
+     * @return The numbers.
+     * @throws IllegalArgumentException If min is greater than max, or count is negative or greater than the size of
+     *         the range.
+     */
+    public int[] distinctInts( int min, int max, int count )
+    {
+        if (min > max)
+        {
+            throw new IllegalArgumentException( "min should be less than or equal to max." );
+        }
+
+        long rangeSize = ( long )max - min + 1;
+
+        if (count < 0 || count > rangeSize)
+        {
+            throw new IllegalArgumentException( "Count cannot be greater than the size of the range." );
+        }
+
+        RandomGenerator random = generator();
+        int[] result = new int[ count ];
+
+        if (( long )count * count <= rangeSize)
+        {
+            // Few numbers from a large range: draw until each one is new. Checking the numbers drawn so far costs less
+            // than count * count comparisons, and a draw is rejected with a probability of at most 1 / count.
+            for (int i = 0; i < count; i++)
+            {
+                int number;
+
+                do
+                {
+                    number = ( int )( min + random.nextLong( rangeSize ) );
+                }
+                while (contains( result, i, number ));
+
+                result[ i ] = number;
+            }
+
+            return result;
+        }
+
+        // Otherwise, shuffle the first count places of the whole range. When the whole range is drawn, it is shuffled in
+        // the result itself.
+        int[] numbers = ( count == rangeSize ) ? result : new int[ ( int )rangeSize ];
+
+        for (int i = 0; i < numbers.length; i++)
+        {
+            numbers[ i ] = min + i;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            int j = i + random.nextInt( numbers.length - i );
+            int number = numbers[ j ];
+            numbers[ j ] = numbers[ i ];
+            numbers[ i ] = number;
+        }
+
+        if (numbers != result)
+        {
+            System.arraycopy( numbers, 0, result, 0, count );
+        }
+
+        return result;
+    }
+
+    private static boolean contains( int[] numbers, int length, int number )
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (numbers[ i ] == number)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ****************************************************************************
+ * File: StakeMatchingQueue.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class pairs players who are waiting for a live match with a
+ * compatible stake, without locks. Stakes are grouped into power-of-two
+ * buckets (1, 2-3, 4-7, 8-15, ...), and each bucket has a single exchange
+ * slot that holds at most one waiting ticket: a new ticket either takes the
+ * waiting ticket out of the slot with one compare-and-set (and the two are
+ * paired), or parks itself in the empty slot. Two tickets can therefore never
+ * wait in the same bucket at the same time, and players with stakes in
+ * different buckets never contend with each other.
+ *
+ * A waiting ticket can be cancelled (e.g. when it times out). A ticket is
+ * either paired or cancelled, never both, decided by a compare-and-set on its
+ * state.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class StakeMatchingQueue<T>
+{
+    private static final int BUCKET_COUNT = Integer.SIZE;
+
+    private static final int WAITING = 0;
+    private static final int PAIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private final AtomicReferenceArray<Ticket<T>> slots = new AtomicReferenceArray<>( BUCKET_COUNT );
+
+    public static final class Ticket<T>
+    {
+        private final T value;
+        private final int stake;
+        private final AtomicInteger state = new AtomicInteger( WAITING );
+
+        public Ticket( T value, int stake )
+        {
+            if (stake < 1)
+            {
+                throw new IllegalArgumentException( "The stake must be at least 1." );
+            }
+
+            this.value = value;
+            this.stake = stake;
+        }
+
+        public T getValue()
+        {
+            return value;
+        }
+
+        public int getStake()
+        {
+            return stake;
+        }
+
+        public boolean isWaiting()
+        {
+            return state.get() == WAITING;
+        }
+    }
+
+    /**
+     * Pairs a ticket with the ticket that is waiting in its stake bucket, or parks it until another ticket arrives.
+     *
+     * @param ticket A new ticket.
+     * @return The value of the paired ticket, or null if the ticket is now waiting.
+     */
+    public T offer( Ticket<T> ticket )
+    {
+        int bucket = getBucket( ticket.stake );
+
+        while (true)
+        {
+            Ticket<T> waitingTicket = slots.get( bucket );
+
+            if (waitingTicket == null)
+            {
+                if (slots.compareAndSet( bucket, null, ticket ))
+                {
+                    return null;
+                }
+            }
+            else if (slots.compareAndSet( bucket, waitingTicket, null )
+                     && waitingTicket.state.compareAndSet( WAITING, PAIRED ))
+            {
+                ticket.state.set( PAIRED );
+                return waitingTicket.value;
+            }
+
+            // Another ticket got there first, or the waiting ticket has been cancelled (and is now out of the slot).
+        }
+    }
+
+    /**
+     * Cancels a waiting ticket.
+     *
+     * @param ticket The ticket.
+     * @return True if the ticket was still waiting; false if it has already been paired or cancelled.
+     */
+    public boolean cancel( Ticket<T> ticket )
+    {
+        if (!ticket.state.compareAndSet( WAITING, CANCELLED ))
+        {
+            return false;
+        }
+
+        slots.compareAndSet( getBucket( ticket.stake ), ticket, null );
+        return true;
+    }
+
+    private static int getBucket( int stake )
+    {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros( stake );
+    }
+}
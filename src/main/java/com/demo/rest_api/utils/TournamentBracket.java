@@ -0,0 +1,113 @@
+/*
+ * ****************************************************************************
+ * File: TournamentBracket.java
+ * Author: Lim Leong Kee
+ * Email: leongkee86@gmail.com
+ * Last Modified Date: 18 October 2026
+ *
+ * Description:
+ * This class contains the rules of a single-elimination Rock-Paper-Scissors
+ * tournament. The bracket is padded to a power of two and laid out in the
+ * standard seeding order (1 plays the last seed, 2 plays the second last,
+ * and the top seeds can only meet in the late rounds), so the missing
+ * players are byes for the top seeds. A match is the first to 2 won games,
+ * with draws replayed, up to 9 games; after that, the player with more won
+ * games wins, and a match that is still tied goes to the better seed.
+ * ****************************************************************************
+ */
+
+package com.demo.rest_api.utils;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+public final class TournamentBracket
+{
+    public static final int WINS_PER_MATCH = 2;
+    public static final int MAX_GAMES_PER_MATCH = 9;
+
+    private static final RockPaperScissors[] CHOICES = RockPaperScissors.values();
+
+    // The outcome is 1 if the first player won, -1 if the second player won, and 0 if the match is tied.
+    public record MatchResult( List<RockPaperScissors> firstChoices, List<RockPaperScissors> secondChoices, int outcome ) {}
+
+    private TournamentBracket() {}
+
+    // The number of rounds needed to find a winner among the given number of players.
+    public static int getRoundCount( int entrantCount )
+    {
+        return ( entrantCount <= 1 ) ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros( entrantCount - 1 );
+    }
+
+    /**
+     * Lays out the first round of the bracket.
+     *
+     * @param entrantCount The number of players.
+     * @return The seeds (1-based) in bracket order, paired up two by two. Seeds greater than the number of players are
+     *         byes, and always come second in their pair.
+     */
+    public static int[] getSeedOrder( int entrantCount )
+    {
+        int size = 1 << getRoundCount( entrantCount );
+        int[] order = { 1 };
+
+        while (order.length < size)
+        {
+            int[] nextOrder = new int[ order.length * 2 ];
+            int seedSum = nextOrder.length + 1;
+
+            for (int i = 0; i < order.length; i++)
+            {
+                nextOrder[ i * 2 ] = order[ i ];
+                nextOrder[ i * 2 + 1 ] = seedSum - order[ i ];
+            }
+
+            order = nextOrder;
+        }
+
+        return order;
+    }
+
+    /**
+     * Plays a match between two players.
+     *
+     * @param firstStrategy The choices of the first player, played in order and repeated (random if empty).
+     * @param secondStrategy The choices of the second player, played in order and repeated (random if empty).
+     * @param random The source of the random choices.
+     * @return The choices of both players in each game, and the outcome of the match.
+     */
+    public static MatchResult playMatch( List<RockPaperScissors> firstStrategy, List<RockPaperScissors> secondStrategy, RandomGenerator random )
+    {
+        List<RockPaperScissors> firstChoices = new ArrayList<>();
+        List<RockPaperScissors> secondChoices = new ArrayList<>();
+        int firstWins = 0;
+        int secondWins = 0;
+
+        for (int game = 0; game < MAX_GAMES_PER_MATCH && firstWins < WINS_PER_MATCH && secondWins < WINS_PER_MATCH; game++)
+        {
+            RockPaperScissors firstChoice = getChoice( firstStrategy, game, random );
+            RockPaperScissors secondChoice = getChoice( secondStrategy, game, random );
+            firstChoices.add( firstChoice );
+            secondChoices.add( secondChoice );
+
+            if (firstChoice.beats( secondChoice ))
+            {
+                firstWins++;
+            }
+            else if (secondChoice.beats( firstChoice ))
+            {
+                secondWins++;
+            }
+        }
+
+        return new MatchResult( firstChoices, secondChoices, Integer.compare( firstWins, secondWins ) );
+    }
+
+    private static RockPaperScissors getChoice( List<RockPaperScissors> strategy, int game, RandomGenerator random )
+    {
+        return strategy.isEmpty() ? CHOICES[ random.nextInt( CHOICES.length ) ] : strategy.get( game % strategy.size() );
+    }
+}
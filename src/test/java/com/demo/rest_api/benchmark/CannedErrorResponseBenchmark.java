@@ -0,0 +1,59 @@
+package com.demo.rest_api.benchmark;
+
+import com.demo.rest_api.dto.CannedErrorResponse;
+import com.demo.rest_api.dto.ServerApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the allocation rate of answering "not logged in" the old way (a new ServerApiResponse and ResponseEntity
+ * serialized by Jackson on every request) with the pre-serialized CannedErrorResponse.
+ *
+ * Run the main method after "mvn test-compile" and compare the "gc.alloc.rate.norm" (bytes per operation) rows.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@Threads( 4 )
+public class CannedErrorResponseBenchmark
+{
+    private static final String MESSAGE = "You are not logged in, or your session token is invalid or has expired. Please use the 'api/auth/login' endpoint to log in again.";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public void serializedPerRequest( Blackhole blackhole ) throws Exception
+    {
+        ResponseEntity<?> responseEntity = ServerApiResponse.generateResponseEntity( HttpStatus.UNAUTHORIZED, MESSAGE );
+        blackhole.consume( objectMapper.writeValueAsBytes( responseEntity.getBody() ) );
+    }
+
+    @Benchmark
+    public void canned( Blackhole blackhole )
+    {
+        ResponseEntity<?> responseEntity = CannedErrorResponse.NOT_LOGGED_IN.getResponseEntity();
+        blackhole.consume( responseEntity.getBody() );
+    }
+
+    public static void main( String[] args ) throws RunnerException
+    {
+        new Runner(
+            new OptionsBuilder()
+                .include( CannedErrorResponseBenchmark.class.getSimpleName() )
+                .addProfiler( GCProfiler.class )
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.demo.rest_api.benchmark;
+
+import com.demo.rest_api.config.MongoConfig;
+import com.demo.rest_api.model.GameSession;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the BSON size of the user and game session documents of 1M users, as written by the MongoDB mapping
+ * before and after the compact game state encoding: the game state was kept on every user document with long field
+ * names, and in "game_session" documents with one field per value and the arrangement as an array.
+ *
+ * Run the main method after "mvn test-compile". The documents are encoded in memory, so no database is needed; the
+ * user document total is the data that the leaderboard and auth queries keep in the cache.
+ */
+public class GameStateEncodingBenchmark
+{
+    private static final int USER_COUNT = 1_000_000;
+
+    // The share of users with a round in progress, which have a game session document.
+    private static final double ACTIVE_SESSION_RATIO = 0.2;
+
+    public static void main( String[] args )
+    {
+        MappingMongoConverter defaultConverter = createConverter( new MongoCustomConversions( List.of() ) );
+        MappingMongoConverter compactConverter = createConverter( new MongoConfig().mongoCustomConversions() );
+
+        SplittableRandom random = new SplittableRandom( 48 );
+        DocumentCodec codec = new DocumentCodec();
+
+        long legacyUserBytes = 0;
+        long compactUserBytes = 0;
+        long legacySessionBytes = 0;
+        long compactSessionBytes = 0;
+        int sessionCount = 0;
+
+        for (int i = 0; i < USER_COUNT; i++)
+        {
+            User user = new User( "user" + i, "$2a$10$" + "x".repeat( 53 ), "Player " + i );
+            GameSession session = createSession( user, random );
+
+            Document userDocument = new Document();
+            compactConverter.write( user, userDocument );
+            compactUserBytes += getSize( codec, userDocument );
+
+            // Earlier versions also wrote the game state to every user document.
+            userDocument.append( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY, session.getHasGuessNumberStarted() )
+                        .append( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY, session.getGuessNumberBasic() )
+                        .append( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY, session.getGuessNumberSecret() )
+                        .append( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY, session.getGuessNumberTrap() )
+                        .append( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY, session.getHasArrangeNumbersStarted() );
+
+            if (session.getArrangedNumbers() != null)
+            {
+                userDocument.append( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY, List.of( 1, 2, 3, 4, 5 ) );
+            }
+
+            legacyUserBytes += getSize( codec, userDocument );
+
+            if (random.nextDouble() < ACTIVE_SESSION_RATIO)
+            {
+                Document legacySessionDocument = new Document();
+                defaultConverter.write( session, legacySessionDocument );
+                legacySessionBytes += getSize( codec, legacySessionDocument );
+
+                Document compactSessionDocument = new Document();
+                compactConverter.write( session, compactSessionDocument );
+                compactSessionBytes += getSize( codec, compactSessionDocument );
+
+                sessionCount++;
+            }
+        }
+
+        print( "user", USER_COUNT, legacyUserBytes, compactUserBytes );
+        print( "game_session", sessionCount, legacySessionBytes, compactSessionBytes );
+        print( "total", USER_COUNT, legacyUserBytes + legacySessionBytes, compactUserBytes + compactSessionBytes );
+    }
+
+    private static MappingMongoConverter createConverter( MongoCustomConversions conversions )
+    {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder( conversions.getSimpleTypeHolder() );
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter( NoOpDbRefResolver.INSTANCE, mappingContext );
+        converter.setCustomConversions( conversions );
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static GameSession createSession( User user, SplittableRandom random )
+    {
+        GameSession session = new GameSession( user.getId().toHexString() );
+        session.setHasGuessNumberStarted( random.nextBoolean() );
+        session.setGuessNumberBasic( random.nextInt( 1, 101 ) );
+        session.setGuessNumberSecret( random.nextInt( 1, 101 ) );
+        session.setGuessNumberTrap( random.nextInt( 1, 101 ) );
+        session.setHasArrangeNumbersStarted( random.nextBoolean() );
+
+        if (session.getHasArrangeNumbersStarted())
+        {
+            int[] numbers = { 1, 2, 3, 4, 5 };
+
+            for (int i = numbers.length - 1; i > 0; i--)
+            {
+                int j = random.nextInt( i + 1 );
+                int number = numbers[ i ];
+                numbers[ i ] = numbers[ j ];
+                numbers[ j ] = number;
+            }
+
+            session.setArrangedNumbers( numbers );
+        }
+
+        return session;
+    }
+
+    private static long getSize( DocumentCodec codec, Document document )
+    {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        codec.encode( new BsonBinaryWriter( buffer ), document, EncoderContext.builder().build() );
+        return buffer.getSize();
+    }
+
+    private static void print( String collection, int count, long legacyBytes, long compactBytes )
+    {
+        System.out.printf(
+            "%-12s %,9d docs: %,13d -> %,13d bytes (%.1f -> %.1f bytes/doc, -%.1f%%)%n",
+            collection, count, legacyBytes, compactBytes,
+            ( double )legacyBytes / count, ( double )compactBytes / count, 100.0 * ( legacyBytes - compactBytes ) / legacyBytes
+        );
+    }
+}
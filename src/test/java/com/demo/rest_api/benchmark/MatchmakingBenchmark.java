@@ -0,0 +1,162 @@
+package com.demo.rest_api.benchmark;
+
+import com.demo.rest_api.utils.MatchmakingIndex;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares picking a random opponent from the in-memory MatchmakingIndex with the "$match" + "$nin" + "$sample(1)"
+ * aggregation it replaces, at 100k and 1M users.
+ *
+ * Run the main method after "mvn test-compile". The aggregation benchmark only runs when the MONGODB_URI environment
+ * variable is set; it seeds (once) and uses a separate "matchmaking_benchmark_user" collection.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgs = { "-Xmx4g" } )
+@Threads( 4 )
+public class MatchmakingBenchmark
+{
+    private static final String COLLECTION_NAME = "matchmaking_benchmark_user";
+
+    // Most users have a low score, a few have a high one, as in the real leaderboard.
+    private static int randomScore( SplittableRandom random )
+    {
+        return ( int )( -200 * Math.log( 1 - random.nextDouble() ) );
+    }
+
+    @State( Scope.Benchmark )
+    public static class IndexState
+    {
+        @Param( { "100000", "1000000" } )
+        public int userCount;
+
+        @Param( { "10" } )
+        public int minimumScore;
+
+        public MatchmakingIndex index;
+        public ObjectId callerId;
+
+        @Setup
+        public void setUp()
+        {
+            SplittableRandom random = new SplittableRandom( 42 );
+            index = new MatchmakingIndex();
+
+            for (int i = 0; i < userCount; i++)
+            {
+                ObjectId userId = new ObjectId();
+                index.put( userId, randomScore( random ) );
+
+                if (i == 0)
+                {
+                    callerId = userId;
+                }
+            }
+        }
+    }
+
+    @State( Scope.Benchmark )
+    public static class AggregationState
+    {
+        @Param( { "100000", "1000000" } )
+        public int userCount;
+
+        @Param( { "10" } )
+        public int minimumScore;
+
+        public MongoClient client;
+        public MongoCollection<Document> users;
+        public List<String> excludedUsernames = List.of( "user-0" );
+
+        @Setup
+        public void setUp()
+        {
+            client = MongoClients.create( System.getenv( "MONGODB_URI" ) );
+            users = client.getDatabase( "benchmark" ).getCollection( COLLECTION_NAME );
+
+            if (users.countDocuments() != userCount)
+            {
+                users.drop();
+                users.createIndex( Indexes.ascending( "score" ) );
+
+                SplittableRandom random = new SplittableRandom( 42 );
+                List<Document> batch = new ArrayList<>();
+
+                for (int i = 0; i < userCount; i++)
+                {
+                    batch.add( new Document( "username", "user-" + i ).append( "score", randomScore( random ) ) );
+
+                    if (batch.size() == 10_000)
+                    {
+                        users.insertMany( batch );
+                        batch.clear();
+                    }
+                }
+
+                if (!batch.isEmpty())
+                {
+                    users.insertMany( batch );
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public ObjectId matchmakingIndex( IndexState state )
+    {
+        return state.index.pickRandomUserWithMinimumScore( state.minimumScore, state.callerId, ThreadLocalRandom.current() );
+    }
+
+    @Benchmark
+    public Document sampleAggregation( AggregationState state )
+    {
+        return state.users.aggregate( List.of(
+            Aggregates.match( Filters.and(
+                Filters.gte( "score", state.minimumScore ),
+                Filters.nin( "username", state.excludedUsernames )
+            ) ),
+            Aggregates.sample( 1 )
+        ) ).first();
+    }
+
+    public static void main( String[] args ) throws RunnerException
+    {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include( MatchmakingBenchmark.class.getSimpleName() )
+                .addProfiler( GCProfiler.class );
+
+        if (System.getenv( "MONGODB_URI" ) == null)
+        {
+            options.exclude( "sampleAggregation" );
+        }
+
+        new Runner( options.build() ).run();
+    }
+}
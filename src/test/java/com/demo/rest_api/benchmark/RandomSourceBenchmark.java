@@ -0,0 +1,120 @@
+package com.demo.rest_api.benchmark;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.utils.EnumHelper;
+import com.demo.rest_api.utils.NumberHelper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the random draws of the games before and after the RandomSource: distinct numbers drawn by shuffling a
+ * boxed list of the whole range, hits drawn from one shared java.util.Random, and enum values picked from a fresh
+ * copy of the constants on every call.
+ *
+ * Run the main method after "mvn test-compile" and compare the throughput and the "gc.alloc.rate.norm" (bytes per
+ * operation) rows. The shared Random shows its contention as the thread count grows.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@Threads( 8 )
+public class RandomSourceBenchmark
+{
+    private static final Random SHARED_RANDOM = new Random();
+
+    @State( Scope.Benchmark )
+    public static class DrawState
+    {
+        // The distinct numbers drawn in "Guess the Number" (3 of 1-100) and "Arrange the Numbers" (5 of 1-5).
+        @Param( { "1-100-3", "1-5-5" } )
+        public String draw;
+
+        public int min;
+        public int max;
+        public int count;
+
+        @Setup
+        public void setUp()
+        {
+            String[] parts = draw.split( "-" );
+            min = Integer.parseInt( parts[ 0 ] );
+            max = Integer.parseInt( parts[ 1 ] );
+            count = Integer.parseInt( parts[ 2 ] );
+        }
+    }
+
+    @Benchmark
+    public int[] distinctNumbersOld( DrawState state )
+    {
+        List<Integer> numbers = new ArrayList<>();
+
+        for (int i = state.min; i <= state.max; i++)
+        {
+            numbers.add( i );
+        }
+
+        Collections.shuffle( numbers );
+
+        int[] result = new int[ state.count ];
+
+        for (int i = 0; i < state.count; i++)
+        {
+            result[ i ] = numbers.get( i );
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int[] distinctNumbersNew( DrawState state )
+    {
+        return NumberHelper.generateDistinctRandomNumbersInRange( state.min, state.max, state.count );
+    }
+
+    @Benchmark
+    public boolean isHitOld()
+    {
+        return SHARED_RANDOM.nextDouble() < 0.5;
+    }
+
+    @Benchmark
+    public boolean isHitNew()
+    {
+        return NumberHelper.isHit( 0.5 );
+    }
+
+    @Benchmark
+    public RockPaperScissors randomEnumOld()
+    {
+        RockPaperScissors[] enumConstants = RockPaperScissors.class.getEnumConstants();
+        return enumConstants[ ThreadLocalRandom.current().nextInt( enumConstants.length ) ];
+    }
+
+    @Benchmark
+    public RockPaperScissors randomEnumNew()
+    {
+        return EnumHelper.getRandomEnum( RockPaperScissors.class );
+    }
+
+    public static void main( String[] args ) throws RunnerException
+    {
+        new Runner(
+            new OptionsBuilder()
+                .include( RandomSourceBenchmark.class.getSimpleName() )
+                .addProfiler( GCProfiler.class )
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,43 @@
+package com.demo.rest_api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CannedErrorResponseTests
+{
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bodiesMatchTheRegularResponseLayout() throws Exception
+    {
+        for (CannedErrorResponse cannedResponse : CannedErrorResponse.values())
+        {
+            ResponseEntity<?> responseEntity = cannedResponse.getResponseEntity();
+            JsonNode body = objectMapper.readTree( ( byte[] )responseEntity.getBody() );
+
+            assertEquals( cannedResponse.getStatus(), responseEntity.getStatusCode() );
+            assertEquals( MediaType.APPLICATION_JSON, responseEntity.getHeaders().getContentType() );
+            assertEquals( cannedResponse.getStatus().value(), body.get( "status" ).asInt() );
+            assertFalse( body.get( "success" ).asBoolean() );
+            assertTrue( body.get( "message" ).asText().length() > 0 );
+            assertFalse( body.has( "data" ) );
+        }
+    }
+
+    @Test
+    void writesTheSameBodyToServletResponses() throws Exception
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CannedErrorResponse.NOT_LOGGED_IN.writeTo( response );
+
+        assertEquals( 401, response.getStatus() );
+        assertEquals( MediaType.APPLICATION_JSON_VALUE, response.getContentType() );
+        assertArrayEquals( ( byte[] )CannedErrorResponse.NOT_LOGGED_IN.getResponseEntity().getBody(), response.getContentAsByteArray() );
+    }
+}
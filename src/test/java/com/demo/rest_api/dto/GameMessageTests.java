@@ -0,0 +1,77 @@
+package com.demo.rest_api.dto;
+
+import com.demo.rest_api.enums.MessageCode;
+import com.demo.rest_api.utils.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMessageTests
+{
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void resetRequest()
+    {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void rendersTemplatesWithLiteralBracesAndLists()
+    {
+        GameMessage message = GameMessage.of( MessageCode.RockPaperScissorsLost )
+                .with( "round", 4 )
+                .with( "choice", "Rock" )
+                .with( "opponent", "bob" )
+                .with( "opponentChoice", "Paper" )
+                .with( "stake", 2 )
+                .with( "score", 8 );
+
+        assertEquals(
+            "[ ROUND 4 ] Your choice: { Rock } versus opponent bob's choice: { Paper } | You lost and transferred 2 point(s) to 'bob' . Your current score is 8. Use this endpoint to play a new round.",
+            message.render()
+        );
+
+        assertEquals(
+            "[ ROUND 1 ] Congratulations! You have successfully guessed the sequence of the 5 numbers (3,1,5,2,4) and earned 2 points. Your current score is 2. Use this endpoint to play a new round.",
+            MessageCode.ArrangeNumbersSolved.render( Map.of( "round", 1, "sequence", List.of( 3, 1, 5, 2, 4 ), "score", 2 ) )
+        );
+    }
+
+    @Test
+    void sendsTheCodeAndFieldsInsteadOfTextToLeanClients() throws Exception
+    {
+        GameMessage move = GameMessage.of( MessageCode.GuessNumberMoveTooLow ).with( "round", 2 ).with( "guess", 10 );
+        ServerApiResponse<?> response = new ServerApiResponse<>(
+            HttpStatus.OK.value(),
+            GameMessage.of( MessageCode.GuessNumberBatch ).with( "moveCount", 1 ).with( "pointsDelta", 0 ).with( "score", 5 ),
+            Map.of( "moves", List.of( move ) )
+        );
+
+        JsonNode body = objectMapper.readTree( objectMapper.writeValueAsString( response ) );
+        assertEquals( "Played 1 guess(es) for a total of 0 point(s). Your current score is 5.", body.get( "message" ).asText() );
+        assertEquals( "[ ROUND 2 ] Your guessed number (10) is too low.", body.at( "/data/moves/0" ).asText() );
+        assertFalse( body.has( "code" ) );
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader( Constants.RESPONSE_MODE_HEADER, Constants.RESPONSE_MODE_LEAN );
+        RequestContextHolder.setRequestAttributes( new ServletRequestAttributes( request ) );
+
+        body = objectMapper.readTree( objectMapper.writeValueAsString( response ) );
+        assertFalse( body.has( "message" ) );
+        assertEquals( "GuessNumberBatch", body.get( "code" ).asText() );
+        assertEquals( 5, body.at( "/fields/score" ).asInt() );
+        assertEquals( "GuessNumberMoveTooLow", body.at( "/data/moves/0/code" ).asText() );
+        assertEquals( 10, body.at( "/data/moves/0/fields/guess" ).asInt() );
+    }
+}
@@ -0,0 +1,104 @@
+package com.demo.rest_api.game;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import com.demo.rest_api.model.GameSession;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTests
+{
+    private final ObjectId userId = new ObjectId();
+
+    @Test
+    void guessNumberScoresTheHiddenNumbersAndEndsTheRound()
+    {
+        GuessNumberEngine engine = new GuessNumberEngine();
+        GameSession session = new GameSession( userId.toHexString() );
+
+        assertFalse( engine.hasRoundStarted( session ) );
+        assertNotNull( engine.startRound( session, userId ) );
+        assertTrue( engine.hasRoundStarted( session ) );
+
+        session.setGuessNumberBasic( 50 );
+        session.setGuessNumberSecret( 10 );
+        session.setGuessNumberTrap( 90 );
+
+        assertEquals( GuessNumberEngine.Result.TooHigh, result( engine.applyMove( session, userId, 60 ) ) );
+        assertEquals( GuessNumberEngine.Result.TooLow, result( engine.applyMove( session, userId, 40 ) ) );
+
+        MoveOutcome trap = engine.applyMove( session, userId, 90 );
+        assertEquals( -1, trap.getPoints() );
+        assertTrue( trap.isScoring() );
+        assertTrue( engine.hasRoundStarted( session ) );
+
+        // The trap is only sprung once.
+        assertEquals( GuessNumberEngine.Result.TooHigh, result( engine.applyMove( session, userId, 90 ) ) );
+
+        MoveOutcome secret = engine.applyMove( session, userId, 10 );
+        assertEquals( 3, secret.getPoints() );
+        assertFalse( engine.hasRoundStarted( session ) );
+        assertEquals( "[ ROUND 7 ] You guessed the SECRET number (10) and earned 3 points!", secret.describe( 7, true ).render() );
+    }
+
+    @Test
+    void arrangeNumbersHintsUntilTheSequenceIsSolved()
+    {
+        ArrangeNumbersEngine engine = new ArrangeNumbersEngine();
+        GameSession session = new GameSession( userId.toHexString() );
+
+        engine.startRound( session, userId );
+        session.setArrangedNumbers( new int[] { 1, 2, 3, 4, 5 } );
+
+        MoveOutcome wrong = engine.applyMove( session, userId, List.of( 1, 3, 2, 4, 5 ) );
+        assertEquals( 0, wrong.getPoints() );
+        assertTrue( engine.hasRoundStarted( session ) );
+        assertTrue( wrong.describe( 2, false ).render().contains( "[1] -3- -2- [4] [5]" ) );
+
+        MoveOutcome solved = engine.applyMove( session, userId, List.of( 1, 2, 3, 4, 5 ) );
+        assertEquals( 2, solved.getPoints() );
+        assertFalse( engine.hasRoundStarted( session ) );
+    }
+
+    @Test
+    void rockPaperScissorsJudgesEveryPairOfChoices()
+    {
+        for (RockPaperScissors yourChoice : RockPaperScissors.values())
+        {
+            for (RockPaperScissors opponentChoice : RockPaperScissors.values())
+            {
+                int result = RockPaperScissorsEngine.judge( yourChoice, opponentChoice );
+
+                assertEquals( -result, RockPaperScissorsEngine.judge( opponentChoice, yourChoice ) );
+                assertEquals( yourChoice == opponentChoice, result == 0 );
+            }
+        }
+
+        assertEquals( 1, RockPaperScissorsEngine.judge( RockPaperScissors.Rock, RockPaperScissors.Scissors ) );
+        assertEquals( 0, new RockPaperScissorsEngine().play( RockPaperScissors.Paper ).getPoints() );
+    }
+
+    @Test
+    void rockPaperScissorsMatchStopsOnceDecided()
+    {
+        List<RockPaperScissors> yourChoices = List.of( RockPaperScissors.Rock, RockPaperScissors.Paper, RockPaperScissors.Scissors, RockPaperScissors.Rock, RockPaperScissors.Paper );
+        RockPaperScissorsEngine.Match match = new RockPaperScissorsEngine().playContest( yourChoices, null );
+
+        assertEquals( match.getRoundCount(), match.yourChoices().size() );
+        assertTrue( match.wins() + match.losses() <= match.getRoundCount() );
+        assertTrue( match.getRoundCount() == yourChoices.size() || Math.max( match.wins(), match.losses() ) == 3 );
+        assertEquals( Integer.compare( match.wins(), match.losses() ), match.getOutcome() );
+
+        RockPaperScissorsEngine.Match round = new RockPaperScissorsEngine().playContest( List.of( RockPaperScissors.Scissors ), List.of( RockPaperScissors.Rock ) );
+        assertEquals( -1, round.getOutcome() );
+        assertEquals( 1, round.getRoundCount() );
+    }
+
+    private static GuessNumberEngine.Result result( MoveOutcome outcome )
+    {
+        return ( ( GuessNumberEngine.Outcome )outcome ).result();
+    }
+}
@@ -0,0 +1,97 @@
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.model.IdempotencyRecord;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against a real MongoDB deployment, since claims rely on its unique _id.
+@EnabledIfEnvironmentVariable( named = "MONGODB_URI", matches = ".+" )
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = { "SPRING_USER_NAME=test", "SPRING_USER_PASSWORD=test", "SERVER_PORT=0" }
+)
+class IdempotencyServiceTests
+{
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<String> keys = new ArrayList<>();
+
+    @AfterEach
+    void removeRecords()
+    {
+        mongoTemplate.remove( Query.query( Criteria.where( "_id" ).in( keys ) ), IdempotencyRecord.class );
+    }
+
+    @Test
+    void concurrentDuplicatesAreProcessedOnceAndGetTheSameResponse() throws Exception
+    {
+        String key = "test:" + new ObjectId().toHexString();
+        keys.add( key );
+
+        AtomicInteger processedCount = new AtomicInteger();
+        List<Future<byte[]>> responses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool( 8 ))
+        {
+            for (int i = 0; i < 8; i++)
+            {
+                responses.add( executor.submit( () ->
+                {
+                    IdempotencyService.Claim claim = idempotencyService.claim( key, "POST /api/game/claimBonusPoints" );
+
+                    if (claim.status() == IdempotencyService.ClaimStatus.Claimed)
+                    {
+                        processedCount.incrementAndGet();
+                        Thread.sleep( 200 );
+
+                        byte[] body = "{\"status\":200}".getBytes( StandardCharsets.UTF_8 );
+                        idempotencyService.complete( key, new IdempotencyService.StoredResponse( "POST /api/game/claimBonusPoints", 200, "application/json", body ) );
+                        return body;
+                    }
+
+                    assertEquals( IdempotencyService.ClaimStatus.Completed, claim.status() );
+                    return claim.response().body();
+                } ) );
+            }
+        }
+
+        assertEquals( 1, processedCount.get() );
+
+        for (Future<byte[]> response : responses)
+        {
+            assertEquals( "{\"status\":200}", new String( response.get(), StandardCharsets.UTF_8 ) );
+        }
+    }
+
+    @Test
+    void anAbandonedClaimCanBeClaimedAgain()
+    {
+        String key = "test:" + new ObjectId().toHexString();
+        keys.add( key );
+
+        assertEquals( IdempotencyService.ClaimStatus.Claimed, idempotencyService.claim( key, "POST /api/auth/register" ).status() );
+        idempotencyService.abandon( key );
+        assertEquals( IdempotencyService.ClaimStatus.Claimed, idempotencyService.claim( key, "POST /api/auth/register" ).status() );
+    }
+}
@@ -0,0 +1,166 @@
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.ScoreChangeReason;
+import com.demo.rest_api.model.ScoreLedgerEntry;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against a real MongoDB deployment, since the guarantees under test are those of its atomic updates.
+@EnabledIfEnvironmentVariable( named = "MONGODB_URI", matches = ".+" )
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+        "SPRING_USER_NAME=test", "SPRING_USER_PASSWORD=test", "SERVER_PORT=0",
+        "SCORE_LEDGER_COMPACTION_INTERVAL_MS=3600000", "SCORE_SHARD_REBALANCE_INTERVAL_MS=3600000", "SCORE_SHARD_WRITE_RATE_THRESHOLD=0.001"
+    }
+)
+class PointTransferServiceTests
+{
+    private static final int USER_COUNT = 8;
+    private static final int INITIAL_SCORE = 100;
+    private static final int TRANSFER_COUNT = 2_000;
+
+    @Autowired
+    private PointTransferService pointTransferService;
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private ScoreShardService scoreShardService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<ObjectId> userIds = new ArrayList<>();
+
+    @AfterEach
+    void removeUsers()
+    {
+        userIds.forEach( scoreShardService::onUserRemoved );
+        mongoTemplate.remove( Query.query( Criteria.where( "_id" ).in( userIds ) ), User.class );
+        mongoTemplate.remove( Query.query( Criteria.where( Constants.DATABASE_SCORE_LEDGER_USER_ID_KEY ).in( userIds ) ), ScoreLedgerEntry.class );
+    }
+
+    @Test
+    void concurrentTransfersConservePointsAndNeverGoNegative() throws Exception
+    {
+        for (int i = 0; i < USER_COUNT; i++)
+        {
+            User user = new User( "transfer-test-" + new ObjectId().toHexString(), "password", "Transfer Test" );
+            user.setScore( INITIAL_SCORE );
+            mongoTemplate.insert( user );
+            userIds.add( user.getId() );
+        }
+
+        // The first user is sharded, so that debits of that user are taken from its score shards.
+        ObjectId shardedUserId = userIds.getFirst();
+        scoreShardService.recordDebit( shardedUserId );
+        scoreShardService.rebalance();
+        assertTrue( scoreShardService.isSharded( shardedUserId ) );
+
+        try (ExecutorService executor = Executors.newFixedThreadPool( 16 ))
+        {
+            for (int i = 0; i < TRANSFER_COUNT; i++)
+            {
+                executor.submit( () ->
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    ObjectId loserId = userIds.get( random.nextInt( USER_COUNT ) );
+                    ObjectId winnerId = userIds.get( random.nextInt( USER_COUNT ) );
+
+                    // Either side may initiate, so that both the pending credits and the debits of the opponent
+                    // (from its shards, or its document) are exercised.
+                    ObjectId initiatorId = random.nextBoolean() ? winnerId : loserId;
+
+                    if (!loserId.equals( winnerId ))
+                    {
+                        pointTransferService.transferPoints(
+                            loserId, winnerId, 1 + random.nextInt( 10 ), initiatorId, ScoreChangeReason.RockPaperScissors,
+                            update -> update.inc( Constants.DATABASE_USER_ATTEMPTS_KEY, 1 )
+                        );
+                    }
+                } );
+            }
+        }
+
+        // Fold the pending credits and the shards back into the user documents before the scores are compared.
+        scoreLedgerService.compact();
+        scoreShardService.releaseShards( shardedUserId );
+
+        List<User> users = mongoTemplate.find( Query.query( Criteria.where( "_id" ).in( userIds ) ), User.class );
+        assertEquals( USER_COUNT, users.size() );
+        assertEquals( USER_COUNT * INITIAL_SCORE, users.stream().mapToInt( User::getScore ).sum() );
+        assertTrue( users.stream().allMatch( user -> user.getScore() >= 0 ) );
+    }
+
+    @Test
+    void transferIsRejectedWhenTheLoserCannotCoverTheStake()
+    {
+        User loser = new User( "transfer-test-" + new ObjectId().toHexString(), "password", "Transfer Test" );
+        User winner = new User( "transfer-test-" + new ObjectId().toHexString(), "password", "Transfer Test" );
+        loser.setScore( 5 );
+        mongoTemplate.insert( loser );
+        mongoTemplate.insert( winner );
+        userIds.add( loser.getId() );
+        userIds.add( winner.getId() );
+
+        PointTransferService.Result result = pointTransferService.transferPoints(
+            loser.getId(), winner.getId(), 6, winner.getId(), ScoreChangeReason.RockPaperScissors,
+            update -> update.inc( Constants.DATABASE_USER_ATTEMPTS_KEY, 1 )
+        );
+
+        assertEquals( PointTransferService.Status.InsufficientPoints, result.status() );
+
+        User storedWinner = mongoTemplate.findById( winner.getId(), User.class );
+        assertNotNull( storedWinner );
+        assertEquals( 0, storedWinner.getScore() );
+        assertEquals( 0, storedWinner.getAttempts() );
+    }
+
+    @Test
+    void creditToAnOpponentIsPendingUntilCompacted()
+    {
+        User loser = new User( "transfer-test-" + new ObjectId().toHexString(), "password", "Transfer Test" );
+        User winner = new User( "transfer-test-" + new ObjectId().toHexString(), "password", "Transfer Test" );
+        loser.setScore( 10 );
+        winner.setScore( 10 );
+        mongoTemplate.insert( loser );
+        mongoTemplate.insert( winner );
+        userIds.add( loser.getId() );
+        userIds.add( winner.getId() );
+
+        PointTransferService.Result result = pointTransferService.transferPoints(
+            loser.getId(), winner.getId(), 4, loser.getId(), ScoreChangeReason.RockPaperScissors,
+            update -> update.inc( Constants.DATABASE_USER_ATTEMPTS_KEY, 1 )
+        );
+
+        assertEquals( PointTransferService.Status.Completed, result.status() );
+        assertEquals( 6, result.loser().getScore() );
+        assertEquals( 14, result.winner().getScore() );
+        assertEquals( 10, mongoTemplate.findById( winner.getId(), User.class ).getScore() );
+        assertEquals( 4, scoreLedgerService.getPendingPoints( winner.getId() ) );
+
+        scoreLedgerService.compact();
+
+        assertEquals( 14, mongoTemplate.findById( winner.getId(), User.class ).getScore() );
+        assertEquals( 0, scoreLedgerService.getPendingPoints( winner.getId() ) );
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.rest_api.service;
+
+import com.demo.rest_api.enums.UserCounter;
+import com.demo.rest_api.model.User;
+import com.demo.rest_api.utils.Constants;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCounterCoalescerTests
+{
+    @Test
+    void deltasAreMergedIntoOneIncrementPerField()
+    {
+        UserCounterCoalescer.Deltas deltas = new UserCounterCoalescer.Deltas()
+                .add( UserCounter.Attempts, 1 )
+                .add( UserCounter.GuessNumberRounds, 1 );
+
+        deltas.addAll( new UserCounterCoalescer.Deltas()
+                .add( UserCounter.Attempts, 2 )
+                .add( UserCounter.RockPaperScissorsRounds, 1 ) );
+
+        Update update = new Update();
+        deltas.applyTo( update );
+        Document increments = ( Document )update.getUpdateObject().get( "$inc" );
+
+        assertEquals( 3, increments.get( Constants.DATABASE_USER_ATTEMPTS_KEY ) );
+        assertEquals( 1, increments.get( Constants.DATABASE_USER_GUESS_NUMBER_CURRENT_ROUND_KEY ) );
+        assertEquals( 1, increments.get( Constants.DATABASE_USER_ROCK_PAPER_SCISSORS_CURRENT_ROUND_KEY ) );
+        assertEquals( 2, increments.get( Constants.DATABASE_USER_ROUNDS_KEY ) );
+        assertFalse( increments.containsKey( Constants.DATABASE_USER_ARRANGE_NUMBERS_CURRENT_ROUND_KEY ) );
+    }
+
+    @Test
+    void pendingDeltasAreShownOnTheUser()
+    {
+        User user = new User( "player", "password", "Player" );
+        user.setAttempts( 10 );
+
+        new UserCounterCoalescer.Deltas()
+                .add( UserCounter.Attempts, 2 )
+                .add( UserCounter.ArrangeNumbersRounds, 1 )
+                .applyTo( user );
+
+        assertEquals( 12, user.getAttempts() );
+        assertEquals( 1, user.getArrangeNumbersCurrentRound() );
+        assertEquals( 1, user.getRounds() );
+    }
+
+    @Test
+    void emptyDeltasWriteNothing()
+    {
+        UserCounterCoalescer.Deltas deltas = new UserCounterCoalescer.Deltas();
+        Update update = new Update();
+        deltas.applyTo( update );
+
+        assertTrue( deltas.isEmpty() );
+        assertTrue( update.getUpdateObject().isEmpty() );
+    }
+}
@@ -0,0 +1,78 @@
+package com.demo.rest_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMutationExecutorTests
+{
+    @Test
+    void actionsOfTheSameUserNeverOverlap()
+    {
+        UserMutationExecutor executor = new UserMutationExecutor();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int[] counter = { 0 }; // Deliberately not thread-safe; only correct if the actions are serialized.
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < 2_000; i++)
+            {
+                threads.submit( () -> executor.execute( "user", () ->
+                {
+                    maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                    counter[ 0 ]++;
+                    running.decrementAndGet();
+                    return null;
+                } ) );
+            }
+        }
+
+        assertEquals( 1, maxRunning.get() );
+        assertEquals( 2_000, counter[ 0 ] );
+
+        UserMutationExecutor.Metrics metrics = executor.getMetrics();
+        assertEquals( 2_000, metrics.executionCount() );
+        assertEquals( 0, metrics.activeUserCount() );
+    }
+
+    @Test
+    void actionsOfDifferentUsersRunInParallel() throws Exception
+    {
+        UserMutationExecutor executor = new UserMutationExecutor();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < 8; i++)
+            {
+                String userId = "user-" + i;
+
+                threads.submit( () -> executor.execute( userId, () ->
+                {
+                    maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+
+                    try
+                    {
+                        Thread.sleep( 100 );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+                    return null;
+                } ) );
+            }
+        }
+
+        assertTrue( maxRunning.get() > 1 );
+        assertEquals( 0, executor.getMetrics().contendedExecutionCount() );
+    }
+}
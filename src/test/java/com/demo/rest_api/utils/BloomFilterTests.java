@@ -0,0 +1,58 @@
+package com.demo.rest_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests
+{
+    @Test
+    void addedKeysAreAlwaysReported()
+    {
+        BloomFilter filter = new BloomFilter( 1_000, 0.01 );
+        String[] keys = new String[ 1_000 ];
+
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[ i ] = UUID.randomUUID().toString();
+            filter.put( keys[ i ] );
+        }
+
+        for (String key : keys)
+        {
+            assertTrue( filter.mightContain( key ) );
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredProbability()
+    {
+        BloomFilter filter = new BloomFilter( 10_000, 0.01 );
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            filter.put( UUID.randomUUID().toString() );
+        }
+
+        int falsePositives = 0;
+
+        for (int i = 0; i < 100_000; i++)
+        {
+            if (filter.mightContain( UUID.randomUUID().toString() ))
+            {
+                falsePositives++;
+            }
+        }
+
+        assertTrue( falsePositives < 2_000, "False positives: " + falsePositives );
+    }
+
+    @Test
+    void rejectsInvalidSizing()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new BloomFilter( 0, 0.01 ) );
+        assertThrows( IllegalArgumentException.class, () -> new BloomFilter( 100, 1.0 ) );
+    }
+}
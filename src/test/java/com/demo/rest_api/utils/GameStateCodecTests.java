@@ -0,0 +1,87 @@
+package com.demo.rest_api.utils;
+
+import com.demo.rest_api.config.MongoConfig;
+import com.demo.rest_api.model.GameSession;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateCodecTests
+{
+    @Test
+    void ranksEveryArrangementUniquelyAndInOrder()
+    {
+        Set<Integer> ranks = new HashSet<>();
+
+        for (int rank = 0; rank < 120; rank++)
+        {
+            int[] numbers = GameStateCodec.unrankArrangement( rank );
+
+            assertTrue( GameStateCodec.isArrangement( numbers ) );
+            assertEquals( rank, GameStateCodec.rankArrangement( numbers ) );
+            assertTrue( ranks.add( rank ) );
+        }
+
+        assertArrayEquals( new int[] { 1, 2, 3, 4, 5 }, GameStateCodec.unrankArrangement( 0 ) );
+        assertArrayEquals( new int[] { 5, 4, 3, 2, 1 }, GameStateCodec.unrankArrangement( 119 ) );
+        assertThrows( IllegalArgumentException.class, () -> GameStateCodec.rankArrangement( new int[] { 1, 1, 3, 4, 5 } ) );
+        assertThrows( IllegalArgumentException.class, () -> GameStateCodec.unrankArrangement( 120 ) );
+    }
+
+    @Test
+    void packsTheGuessNumbersIntoOneInt()
+    {
+        int packed = GameStateCodec.packGuessNumbers( 100, 1, 57 );
+
+        assertEquals( 100, GameStateCodec.unpackGuessNumberBasic( packed ) );
+        assertEquals( 1, GameStateCodec.unpackGuessNumberSecret( packed ) );
+        assertEquals( 57, GameStateCodec.unpackGuessNumberTrap( packed ) );
+        assertFalse( GameStateCodec.canPackGuessNumbers( 256, 1, 1 ) );
+    }
+
+    @Test
+    void storesGameSessionsCompactlyAndReadsEarlierDocuments()
+    {
+        String userId = new ObjectId().toHexString();
+        GameSession session = new GameSession( userId );
+        session.setHasGuessNumberStarted( true );
+        session.setGuessNumberBasic( 42 );
+        session.setGuessNumberSecret( 7 );
+        session.setGuessNumberTrap( 99 );
+        session.setHasArrangeNumbersStarted( true );
+        session.setArrangedNumbers( new int[] { 3, 1, 5, 2, 4 } );
+
+        Document document = new MongoConfig.GameSessionWritingConverter().convert( session );
+        assertEquals( Set.of( "_id", "f", "g", "a" ), document.keySet() );
+
+        GameSession decoded = new MongoConfig.GameSessionReadingConverter().convert( document );
+        assertSessionEquals( session, decoded );
+
+        Document legacyDocument = new Document( "_id", new ObjectId( userId ) )
+                .append( Constants.DATABASE_USER_HAS_GUESS_NUMBER_STARTED_KEY, true )
+                .append( Constants.DATABASE_USER_GUESS_NUMBER_BASIC_KEY, 42 )
+                .append( Constants.DATABASE_USER_GUESS_NUMBER_SECRET_KEY, 7 )
+                .append( Constants.DATABASE_USER_GUESS_NUMBER_TRAP_KEY, 99 )
+                .append( Constants.DATABASE_USER_HAS_ARRANGE_NUMBERS_STARTED_KEY, true )
+                .append( Constants.DATABASE_USER_ARRANGED_NUMBERS_KEY, List.of( 3, 1, 5, 2, 4 ) );
+
+        assertSessionEquals( session, new MongoConfig.GameSessionReadingConverter().convert( legacyDocument ) );
+    }
+
+    private static void assertSessionEquals( GameSession expected, GameSession actual )
+    {
+        assertEquals( expected.getUserId(), actual.getUserId() );
+        assertEquals( expected.getHasGuessNumberStarted(), actual.getHasGuessNumberStarted() );
+        assertEquals( expected.getGuessNumberBasic(), actual.getGuessNumberBasic() );
+        assertEquals( expected.getGuessNumberSecret(), actual.getGuessNumberSecret() );
+        assertEquals( expected.getGuessNumberTrap(), actual.getGuessNumberTrap() );
+        assertEquals( expected.getHasArrangeNumbersStarted(), actual.getHasArrangeNumbersStarted() );
+        assertArrayEquals( expected.getArrangedNumbers(), actual.getArrangedNumbers() );
+    }
+}
@@ -0,0 +1,109 @@
+package com.demo.rest_api.utils;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakingIndexTests
+{
+    @Test
+    void picksOnlyUsersAtOrAboveTheMinimumScore()
+    {
+        MatchmakingIndex index = new MatchmakingIndex();
+        Map<ObjectId,Integer> scores = new HashMap<>();
+
+        for (int i = 0; i < 500; i++)
+        {
+            ObjectId userId = new ObjectId();
+            scores.put( userId, i % 50 );
+            index.put( userId, i % 50 );
+        }
+
+        SplittableRandom random = new SplittableRandom( 1 );
+
+        for (int i = 0; i < 1_000; i++)
+        {
+            ObjectId pickedUserId = index.pickRandomUserWithMinimumScore( 40, null, random );
+            assertTrue( scores.get( pickedUserId ) >= 40 );
+        }
+
+        assertEquals( 100, index.countWithMinimumScore( 40 ) );
+        assertNull( index.pickRandomUserWithMinimumScore( 50, null, random ) );
+    }
+
+    @Test
+    void neverPicksTheExcludedUserAndPicksTheOthersUniformly()
+    {
+        MatchmakingIndex index = new MatchmakingIndex();
+        ObjectId[] userIds = new ObjectId[ 5 ];
+
+        for (int i = 0; i < userIds.length; i++)
+        {
+            userIds[ i ] = new ObjectId();
+            index.put( userIds[ i ], 10 + i );
+        }
+
+        SplittableRandom random = new SplittableRandom( 2 );
+        Map<ObjectId,Integer> pickCounts = new HashMap<>();
+
+        for (int i = 0; i < 40_000; i++)
+        {
+            pickCounts.merge( index.pickRandomUserWithMinimumScore( 10, userIds[ 2 ], random ), 1, Integer::sum );
+        }
+
+        assertFalse( pickCounts.containsKey( userIds[ 2 ] ) );
+        assertEquals( 4, pickCounts.size() );
+        pickCounts.values().forEach( count -> assertEquals( 10_000, count, 500 ) );
+    }
+
+    @Test
+    void followsScoreChangesAndRemovals()
+    {
+        MatchmakingIndex index = new MatchmakingIndex();
+        ObjectId caller = new ObjectId();
+        ObjectId opponent = new ObjectId();
+        SplittableRandom random = new SplittableRandom( 3 );
+
+        index.put( caller, 100 );
+        index.put( opponent, 5 );
+        assertNull( index.pickRandomUserWithMinimumScore( 10, caller, random ) );
+
+        // Far beyond the initial bucket range, so the buckets have to grow.
+        index.put( opponent, 1_000_000 );
+        assertEquals( opponent, index.pickRandomUserWithMinimumScore( 10, caller, random ) );
+        assertEquals( 1, index.countWithMinimumScore( 1_000 ) );
+
+        index.remove( opponent );
+        assertNull( index.pickRandomUserWithMinimumScore( 0, caller, random ) );
+        assertEquals( 1, index.size() );
+    }
+
+    @Test
+    void keepsHugeScoresExactWithoutGrowingWithoutBound()
+    {
+        MatchmakingIndex index = new MatchmakingIndex();
+        ObjectId caller = new ObjectId();
+        ObjectId rich = new ObjectId();
+        ObjectId richer = new ObjectId();
+        SplittableRandom random = new SplittableRandom( 4 );
+
+        index.put( caller, Integer.MAX_VALUE );
+        index.put( rich, 200_000 );
+        index.put( richer, 2_000_000_000 );
+
+        assertEquals( 3, index.countWithMinimumScore( 100 ) );
+        assertEquals( 2, index.countWithMinimumScore( 1_000_000 ) );
+        assertEquals( richer, index.pickRandomUserWithMinimumScore( 1_000_000, caller, random ) );
+        assertNull( index.pickRandomUserWithMinimumScore( 2_000_000_001, caller, random ) );
+
+        // Moving within the shared last bucket keeps the exact score.
+        index.put( richer, 150_000 );
+        assertEquals( rich, index.pickRandomUserWithMinimumScore( 160_000, caller, random ) );
+        assertEquals( 3, index.countWithMinimumScore( 150_000 ) );
+    }
+}
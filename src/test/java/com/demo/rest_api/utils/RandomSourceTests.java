@@ -0,0 +1,72 @@
+package com.demo.rest_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomSourceTests
+{
+    @Test
+    void drawsDistinctNumbersWithinTheRange()
+    {
+        RandomSource source = RandomSource.seeded( 7 );
+
+        // Rejection sampling (3 of 100), a partial shuffle (40 of 50), and a full shuffle (5 of 5).
+        int[][] draws = { { 1, 100, 3 }, { 1, 50, 40 }, { 1, 5, 5 } };
+
+        for (int[] draw : draws)
+        {
+            for (int i = 0; i < 1_000; i++)
+            {
+                int[] numbers = source.distinctInts( draw[ 0 ], draw[ 1 ], draw[ 2 ] );
+
+                assertEquals( draw[ 2 ], numbers.length );
+                assertEquals( draw[ 2 ], Arrays.stream( numbers ).distinct().count() );
+                assertTrue( Arrays.stream( numbers ).allMatch( number -> number >= draw[ 0 ] && number <= draw[ 1 ] ) );
+            }
+        }
+
+        assertThrows( IllegalArgumentException.class, () -> source.distinctInts( 1, 5, 6 ) );
+    }
+
+    @Test
+    void drawsEveryNumberOfTheRangeAtEachPosition()
+    {
+        RandomSource source = RandomSource.seeded( 11 );
+        boolean[][] seen = new boolean[ 3 ][ 10 ];
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            int[] numbers = source.distinctInts( 0, 9, 3 );
+
+            for (int position = 0; position < numbers.length; position++)
+            {
+                seen[ position ][ numbers[ position ] ] = true;
+            }
+        }
+
+        for (boolean[] positionSeen : seen)
+        {
+            for (boolean isSeen : positionSeen)
+            {
+                assertTrue( isSeen );
+            }
+        }
+    }
+
+    @Test
+    void aSeededSourceRepeatsItsDraws()
+    {
+        RandomSource first = RandomSource.seeded( 42 );
+        RandomSource second = RandomSource.seeded( 42 );
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertArrayEquals( first.distinctInts( 1, 100, 3 ), second.distinctInts( 1, 100, 3 ) );
+            assertEquals( first.nextInt( 1, 6 ), second.nextInt( 1, 6 ) );
+            assertEquals( first.isHit( 0.5 ), second.isHit( 0.5 ) );
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.rest_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StakeMatchingQueueTests
+{
+    @Test
+    void pairsOnlyTicketsWithStakesInTheSameBucket()
+    {
+        StakeMatchingQueue<String> queue = new StakeMatchingQueue<>();
+
+        assertNull( queue.offer( new StakeMatchingQueue.Ticket<>( "a", 4 ) ) );
+        assertNull( queue.offer( new StakeMatchingQueue.Ticket<>( "b", 8 ) ) );
+        assertNull( queue.offer( new StakeMatchingQueue.Ticket<>( "c", 3 ) ) );
+
+        assertEquals( "a", queue.offer( new StakeMatchingQueue.Ticket<>( "d", 7 ) ) );
+        assertEquals( "b", queue.offer( new StakeMatchingQueue.Ticket<>( "e", 15 ) ) );
+        assertEquals( "c", queue.offer( new StakeMatchingQueue.Ticket<>( "f", 2 ) ) );
+    }
+
+    @Test
+    void neverPairsACancelledTicket()
+    {
+        StakeMatchingQueue<String> queue = new StakeMatchingQueue<>();
+        StakeMatchingQueue.Ticket<String> ticket = new StakeMatchingQueue.Ticket<>( "a", 1 );
+
+        assertNull( queue.offer( ticket ) );
+        assertTrue( queue.cancel( ticket ) );
+        assertFalse( queue.cancel( ticket ) );
+
+        assertNull( queue.offer( new StakeMatchingQueue.Ticket<>( "b", 1 ) ) );
+    }
+
+    @Test
+    void cannotCancelAPairedTicket()
+    {
+        StakeMatchingQueue<String> queue = new StakeMatchingQueue<>();
+        StakeMatchingQueue.Ticket<String> ticket = new StakeMatchingQueue.Ticket<>( "a", 1 );
+
+        queue.offer( ticket );
+        queue.offer( new StakeMatchingQueue.Ticket<>( "b", 1 ) );
+
+        assertFalse( ticket.isWaiting() );
+        assertFalse( queue.cancel( ticket ) );
+    }
+
+    @Test
+    void pairsEveryTicketExactlyOnceUnderContention() throws InterruptedException
+    {
+        StakeMatchingQueue<Integer> queue = new StakeMatchingQueue<>();
+        int threadCount = 8;
+        int ticketsPerThread = 10_000;
+
+        Set<Integer> pairedValues = ConcurrentHashMap.newKeySet();
+        AtomicInteger pairCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch( 1 );
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++)
+        {
+            int firstValue = t * ticketsPerThread;
+
+            threads.add( Thread.ofPlatform().start( () ->
+            {
+                try
+                {
+                    start.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    return;
+                }
+
+                for (int i = 0; i < ticketsPerThread; i++)
+                {
+                    int value = firstValue + i;
+                    Integer pairedValue = queue.offer( new StakeMatchingQueue.Ticket<>( value, 1 + value % 4 ) );
+
+                    if (pairedValue != null)
+                    {
+                        assertTrue( pairedValues.add( value ) );
+                        assertTrue( pairedValues.add( pairedValue ) );
+                        pairCount.incrementAndGet();
+                    }
+                }
+            } ) );
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        // Stakes 1, 2-3 and 4 are three buckets, so at most one ticket of each is left waiting.
+        int totalTicketCount = threadCount * ticketsPerThread;
+        assertTrue( totalTicketCount - 2 * pairCount.get() <= 3 );
+        assertEquals( 2 * pairCount.get(), pairedValues.size() );
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.rest_api.utils;
+
+import com.demo.rest_api.enums.RockPaperScissors;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentBracketTests
+{
+    @Test
+    void laysOutTheStandardSeedingOrder()
+    {
+        assertArrayEquals( new int[] { 1, 8, 4, 5, 2, 7, 3, 6 }, TournamentBracket.getSeedOrder( 8 ) );
+        assertArrayEquals( new int[] { 1 }, TournamentBracket.getSeedOrder( 1 ) );
+        assertEquals( 16, TournamentBracket.getRoundCount( 65_536 ) );
+        assertEquals( 17, TournamentBracket.getRoundCount( 65_537 ) );
+    }
+
+    @Test
+    void givesTheByesToTheTopSeeds()
+    {
+        int entrantCount = 5;
+        int[] order = TournamentBracket.getSeedOrder( entrantCount );
+        assertEquals( 8, order.length );
+
+        for (int i = 0; i < order.length; i += 2)
+        {
+            assertTrue( order[ i ] <= entrantCount );
+
+            if (order[ i + 1 ] > entrantCount)
+            {
+                assertTrue( order[ i ] <= 3 );
+            }
+        }
+
+        assertEquals( 36, Arrays.stream( order ).sum() );
+    }
+
+    @Test
+    void playsUntilOnePlayerHasWonTwoGames()
+    {
+        TournamentBracket.MatchResult result = TournamentBracket.playMatch(
+            List.of( RockPaperScissors.Rock, RockPaperScissors.Paper ),
+            List.of( RockPaperScissors.Rock, RockPaperScissors.Rock, RockPaperScissors.Scissors ),
+            new SplittableRandom( 1 )
+        );
+
+        // Draw, Paper beats Rock, Rock beats Scissors.
+        assertEquals( 1, result.outcome() );
+        assertEquals( 3, result.firstChoices().size() );
+        assertEquals( List.of( RockPaperScissors.Rock, RockPaperScissors.Rock, RockPaperScissors.Scissors ), result.secondChoices() );
+    }
+
+    @Test
+    void stopsATiedMatchAfterTheMaximumNumberOfGames()
+    {
+        List<RockPaperScissors> strategy = List.of( RockPaperScissors.Scissors );
+        TournamentBracket.MatchResult result = TournamentBracket.playMatch( strategy, strategy, new SplittableRandom( 1 ) );
+
+        assertEquals( 0, result.outcome() );
+        assertEquals( TournamentBracket.MAX_GAMES_PER_MATCH, result.firstChoices().size() );
+    }
+}